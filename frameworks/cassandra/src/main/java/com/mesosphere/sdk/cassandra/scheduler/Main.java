@@ -28,8 +28,7 @@ public class Main {
         List<String> localSeeds = CassandraSeedUtils.getLocalSeeds(rawServiceSpec.getName());
         return DefaultScheduler.newBuilder(
                 DefaultServiceSpec.newGenerator(rawServiceSpec, schedulerFlags, pathToYamlSpecification.getParentFile())
-                        .setAllPodsEnv("LOCAL_SEEDS", Joiner.on(',').join(localSeeds))
-                        .build(),
+                        .setAllPodsEnv("LOCAL_SEEDS", Joiner.on(',').join(localSeeds)),
                 schedulerFlags)
                 // Disallow changing the DC/Rack. Earlier versions of the Cassandra service didn't set these envvars so
                 // we need to allow the case where they may have previously been unset:
@@ -28,8 +28,7 @@ public class Main {
             DefaultScheduler.Builder schedulerBuilder = DefaultScheduler.newBuilder(
                     DefaultServiceSpec.newGenerator(
                             rawServiceSpec, schedulerFlags, pathToYamlSpecification.getParentFile())
-                            .setAllPodsEnv("CLUSTER_NAME", SchedulerUtils.withEscapedSlashes(rawServiceSpec.getName()))
-                            .build(),
+                            .setAllPodsEnv("CLUSTER_NAME", SchedulerUtils.withEscapedSlashes(rawServiceSpec.getName())),
                     schedulerFlags)
                     .setPlansFrom(rawServiceSpec);
             new DefaultService(schedulerBuilder).run();
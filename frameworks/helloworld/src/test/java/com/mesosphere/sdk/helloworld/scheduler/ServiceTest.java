@@ -1,7 +1,10 @@
 package com.mesosphere.sdk.helloworld.scheduler;
 
+import org.junit.Assert;
 import org.junit.Test;
 
+import com.mesosphere.sdk.testing.ServiceSimulationBuilder;
+import com.mesosphere.sdk.testing.ServiceSimulationResult;
 import com.mesosphere.sdk.testing.ServiceTestBuilder;
 
 public class ServiceTest {
@@ -79,4 +82,28 @@ public class ServiceTest {
     public void testTLS() throws Exception {
         new ServiceTestBuilder("examples/tls.yml").render();
     }
+
+    @Test
+    public void testSimulatedDeploy() throws Exception {
+        ServiceSimulationResult result = new ServiceSimulationBuilder(new ServiceTestBuilder().render())
+                .setAgentCount(20)
+                .setMaxCycles(100)
+                .run();
+        Assert.assertTrue(result.toString(), result.isDeployComplete());
+        Assert.assertTrue(result.toString(), result.getActiveTasks() > 0);
+    }
+
+    @Test
+    public void testSimulatedDeployWithChurn() throws Exception {
+        ServiceSimulationResult result = new ServiceSimulationBuilder(new ServiceTestBuilder().render())
+                .setAgentCount(50)
+                .setOffersPerCycle(10)
+                .setOfferRescindRate(1)
+                .setStatusUpdateRate(2)
+                .setSteadyStateCycles(20)
+                .setMaxCycles(500)
+                .setRandomSeed(1234)
+                .run();
+        Assert.assertTrue(result.toString(), result.isDeployComplete());
+    }
 }
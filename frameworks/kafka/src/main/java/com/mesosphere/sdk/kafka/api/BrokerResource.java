@@ -35,6 +35,15 @@ public class BrokerResource {
         }
     }
 
+    /**
+     * Returns the size and age of the cached broker and topic topology which backs the broker and topic endpoints.
+     */
+    @GET
+    @Path("/cache")
+    public Response getCacheStats() {
+        return ResponseUtils.jsonOkResponse(kafkaZkClient.getCacheStats());
+    }
+
     @GET
     @Path("/{id}")
     public Response getBroker(@PathParam("id") String id) {
@@ -0,0 +1,273 @@
+package com.mesosphere.sdk.kafka.api;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Watch-backed in-memory mirror of the Kafka broker and topic znodes. A single Curator {@link TreeCache} is placed on
+ * {@code /brokers}, and each znode under {@code /brokers/ids} and {@code /brokers/topics} is parsed into a
+ * {@link JSONObject} once when it changes, rather than once per API request.
+ *
+ * <p>Until the initial tree has been loaded, {@link #isInitialized()} returns {@code false} and callers are expected to
+ * fall back to reading ZooKeeper directly.
+ */
+public class KafkaTopologyCache {
+    private static final Logger log = LoggerFactory.getLogger(KafkaTopologyCache.class);
+
+    static final String BROKERS_PATH = "/brokers";
+    private static final String IDS_NODE = "ids";
+    private static final String TOPICS_NODE = "topics";
+    private static final String PARTITIONS_NODE = "partitions";
+    private static final String STATE_NODE = "state";
+
+    /**
+     * Receives notification of changes to the cached topology. Invoked on the cache's event thread.
+     */
+    public interface Listener {
+        /**
+         * Invoked when a partition's state or assignment was added, updated, or removed. A {@code null} partitionId
+         * indicates that the change affected the whole topic (its assignment changed, or it was deleted).
+         */
+        void partitionChanged(String topicName, String partitionId);
+
+        /**
+         * Invoked when a broker registration was added, updated, or removed.
+         */
+        void brokerChanged(String brokerId);
+    }
+
+    /**
+     * The cached state of a single topic: its replica assignment and the current state of each partition.
+     */
+    public static class TopicState {
+        private final Map<String, JSONObject> partitionStates = new ConcurrentHashMap<>();
+        private volatile JSONObject assignment = new JSONObject();
+
+        /**
+         * Returns the topic's replica assignment as stored in {@code /brokers/topics/<topic>}, e.g.
+         * {@code {"version":1,"partitions":{"0":[1,2,3]}}}.
+         */
+        public JSONObject getAssignment() {
+            return assignment;
+        }
+
+        /**
+         * Returns a read-only view of partition id to partition state, as stored in
+         * {@code /brokers/topics/<topic>/partitions/<id>/state}.
+         */
+        public Map<String, JSONObject> getPartitionStates() {
+            return Collections.unmodifiableMap(partitionStates);
+        }
+    }
+
+    private final TreeCache treeCache;
+    private final Map<String, JSONObject> brokers = new ConcurrentHashMap<>();
+    private final Map<String, TopicState> topics = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new ArrayList<>();
+    private final AtomicLong lastUpdateMs = new AtomicLong(0);
+    private final AtomicLong updateCount = new AtomicLong(0);
+    private volatile boolean initialized = false;
+
+    public KafkaTopologyCache(CuratorFramework zkClient) {
+        this.treeCache = TreeCache.newBuilder(zkClient, BROKERS_PATH).setCacheData(true).build();
+        this.treeCache.getListenable().addListener((client, event) -> handleEvent(event));
+    }
+
+    /**
+     * Adds a listener to be notified of topology changes. Must be invoked before {@link #start()}.
+     */
+    public KafkaTopologyCache addListener(Listener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Starts watching ZooKeeper. The initial load happens in the background.
+     */
+    public void start() throws Exception {
+        treeCache.start();
+    }
+
+    public void close() {
+        treeCache.close();
+    }
+
+    /**
+     * Returns whether the initial load of the tree has completed and the cache may be used to serve requests.
+     */
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public Collection<String> getBrokerIds() {
+        return new ArrayList<>(brokers.keySet());
+    }
+
+    public Optional<JSONObject> getBroker(String id) {
+        return Optional.ofNullable(brokers.get(id));
+    }
+
+    public Collection<JSONObject> getBrokers() {
+        return new ArrayList<>(brokers.values());
+    }
+
+    public Collection<String> getTopicNames() {
+        return new ArrayList<>(topics.keySet());
+    }
+
+    public Optional<TopicState> getTopic(String topicName) {
+        return Optional.ofNullable(topics.get(topicName));
+    }
+
+    /**
+     * Returns a summary of the cache's contents and freshness, suitable for exposing via the API.
+     */
+    public JSONObject getStats() {
+        int partitionCount = 0;
+        for (TopicState topic : topics.values()) {
+            partitionCount += topic.partitionStates.size();
+        }
+        long lastUpdate = lastUpdateMs.get();
+        JSONObject stats = new JSONObject();
+        stats.put("initialized", initialized);
+        stats.put("brokers", brokers.size());
+        stats.put("topics", topics.size());
+        stats.put("partitions", partitionCount);
+        stats.put("updates", updateCount.get());
+        stats.put("last_update_ms", lastUpdate);
+        stats.put("age_ms", lastUpdate == 0 ? -1 : System.currentTimeMillis() - lastUpdate);
+        return stats;
+    }
+
+    private void handleEvent(TreeCacheEvent event) {
+        switch (event.getType()) {
+        case INITIALIZED:
+            log.info("Loaded Kafka topology from ZK: {}", getStats());
+            initialized = true;
+            markUpdated();
+            return;
+        case CONNECTION_SUSPENDED:
+        case CONNECTION_LOST:
+            log.warn("Kafka topology cache lost its ZK connection ({}), serving last known state", event.getType());
+            return;
+        case CONNECTION_RECONNECTED:
+            log.info("Kafka topology cache reconnected to ZK");
+            return;
+        case NODE_ADDED:
+        case NODE_UPDATED:
+            handleNodeChange(event.getData(), false);
+            return;
+        case NODE_REMOVED:
+            handleNodeChange(event.getData(), true);
+            return;
+        default:
+            log.warn("Ignoring unexpected topology cache event: {}", event);
+            return;
+        }
+    }
+
+    private void handleNodeChange(ChildData data, boolean removed) {
+        if (data == null || !data.getPath().startsWith(BROKERS_PATH + "/")) {
+            return;
+        }
+        // e.g. ["ids", "1"] or ["topics", "foo", "partitions", "0", "state"]
+        String[] elements = data.getPath().substring(BROKERS_PATH.length() + 1).split("/");
+        if (elements.length == 2 && elements[0].equals(IDS_NODE)) {
+            String brokerId = elements[1];
+            if (removed) {
+                brokers.remove(brokerId);
+            } else {
+                Optional<JSONObject> broker = parse(data);
+                if (!broker.isPresent()) {
+                    return;
+                }
+                brokers.put(brokerId, broker.get());
+            }
+            markUpdated();
+            for (Listener listener : listeners) {
+                listener.brokerChanged(brokerId);
+            }
+        } else if (elements.length >= 2 && elements[0].equals(TOPICS_NODE)) {
+            handleTopicChange(elements, data, removed);
+        }
+    }
+
+    private void handleTopicChange(String[] elements, ChildData data, boolean removed) {
+        String topicName = elements[1];
+        String partitionId = null;
+        if (elements.length == 2) {
+            // /brokers/topics/<topic>: replica assignment
+            if (removed) {
+                topics.remove(topicName);
+            } else {
+                Optional<JSONObject> assignment = parse(data);
+                if (!assignment.isPresent()) {
+                    return;
+                }
+                topics.computeIfAbsent(topicName, t -> new TopicState()).assignment = assignment.get();
+            }
+        } else if (elements.length == 4 && elements[2].equals(PARTITIONS_NODE) && removed) {
+            // /brokers/topics/<topic>/partitions/<id>: only interesting when removed
+            partitionId = elements[3];
+            TopicState topic = topics.get(topicName);
+            if (topic != null) {
+                topic.partitionStates.remove(partitionId);
+            }
+        } else if (elements.length == 5 && elements[2].equals(PARTITIONS_NODE) && elements[4].equals(STATE_NODE)) {
+            // /brokers/topics/<topic>/partitions/<id>/state: leader and ISR
+            partitionId = elements[3];
+            if (removed) {
+                TopicState topic = topics.get(topicName);
+                if (topic != null) {
+                    topic.partitionStates.remove(partitionId);
+                }
+            } else {
+                Optional<JSONObject> state = parse(data);
+                if (!state.isPresent()) {
+                    return;
+                }
+                topics.computeIfAbsent(topicName, t -> new TopicState()).partitionStates.put(partitionId, state.get());
+            }
+        } else {
+            return;
+        }
+        markUpdated();
+        for (Listener listener : listeners) {
+            listener.partitionChanged(topicName, partitionId);
+        }
+    }
+
+    private void markUpdated() {
+        lastUpdateMs.set(System.currentTimeMillis());
+        updateCount.incrementAndGet();
+    }
+
+    private static Optional<JSONObject> parse(ChildData data) {
+        byte[] bytes = data.getData();
+        if (bytes == null || bytes.length == 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new JSONObject(new String(bytes, StandardCharsets.UTF_8)));
+        } catch (JSONException e) {
+            log.warn(String.format("Failed to parse content of %s, ignoring", data.getPath()), e);
+            return Optional.empty();
+        }
+    }
+}
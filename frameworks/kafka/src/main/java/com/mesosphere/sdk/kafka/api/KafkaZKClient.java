@@ -10,7 +10,10 @@ import org.apache.zookeeper.KeeperException;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
 import java.util.Optional;
 import java.util.List;
 import java.nio.charset.StandardCharsets;
@@ -20,6 +23,9 @@ import java.util.stream.StreamSupport;
 
 /**
  * Read-only interface for retrieving information from ZooKeeper for Kafka brokers and topics.
+ *
+ * <p>Reads are served from a watch-backed {@link KafkaTopologyCache} once it has completed its initial load. Until
+ * then, or if the cache couldn't be started, reads go directly to ZooKeeper.
  */
 public class KafkaZKClient {
     private static final Logger log = LoggerFactory.getLogger(KafkaZKClient.class);
@@ -33,6 +39,8 @@ public class KafkaZKClient {
     private static final String PROTOCOL_NAME_TLS = "SSL";
 
     private final CuratorFramework zkClient;
+    private final KafkaTopologyCache topologyCache;
+    private final PartitionHealthTracker partitionHealthTracker;
 
     /**
      * @param kafkaConnectString the ZK URI being used by kafka, of the form "host:port/path/to/node",
@@ -45,9 +53,59 @@ public class KafkaZKClient {
                 .retryPolicy(new ExponentialBackoffRetry(POLL_DELAY_MS, CURATOR_MAX_RETRIES))
                 .build();
         this.zkClient.start();
+        this.topologyCache = new KafkaTopologyCache(zkClient);
+        this.partitionHealthTracker = new PartitionHealthTracker(topologyCache);
+        this.topologyCache.addListener(partitionHealthTracker);
+        try {
+            this.topologyCache.start();
+        } catch (Exception e) {
+            log.error("Failed to start Kafka topology cache, reads will go directly to ZK", e);
+        }
+    }
+
+    /**
+     * Returns the cache which mirrors the broker and topic znodes, for use by components which need to be notified of
+     * topology changes.
+     */
+    public KafkaTopologyCache getTopologyCache() {
+        return topologyCache;
+    }
+
+    /**
+     * Stops the topology cache and closes the ZK client.
+     */
+    public void close() {
+        topologyCache.close();
+        zkClient.close();
+    }
+
+    /**
+     * Returns the size and age of the topology cache.
+     */
+    public JSONObject getCacheStats() {
+        return topologyCache.getStats();
+    }
+
+    /**
+     * Returns the currently unavailable partitions, computed from the cached partition state, or an empty Optional if
+     * the cache isn't yet loaded.
+     */
+    public Optional<JSONObject> getUnavailablePartitions() {
+        return partitionHealthTracker.getUnavailablePartitions();
+    }
+
+    /**
+     * Returns the currently under-replicated partitions, computed from the cached partition state, or an empty
+     * Optional if the cache isn't yet loaded.
+     */
+    public Optional<JSONObject> getUnderReplicatedPartitions() {
+        return partitionHealthTracker.getUnderReplicatedPartitions();
     }
 
     public JSONArray listBrokers() throws Exception {
+        if (topologyCache.isInitialized()) {
+            return new JSONArray(sortIds(topologyCache.getBrokerIds()));
+        }
         try {
             return new JSONArray(zkClient.getChildren().forPath(IDS_PATH));
         } catch (KeeperException.NoNodeException e) {
@@ -58,6 +116,9 @@ public class KafkaZKClient {
     }
 
     public Optional<JSONObject> getBroker(String id) throws Exception {
+        if (topologyCache.isInitialized()) {
+            return topologyCache.getBroker(id);
+        }
         List<String> ids = zkClient.getChildren().forPath(IDS_PATH);
         if (!ids.contains(id)) {
             return Optional.empty();
@@ -67,6 +128,11 @@ public class KafkaZKClient {
     }
 
     public JSONArray listTopics() throws Exception {
+        if (topologyCache.isInitialized()) {
+            List<String> topicNames = new ArrayList<>(topologyCache.getTopicNames());
+            Collections.sort(topicNames);
+            return new JSONArray(topicNames);
+        }
         try {
             return new JSONArray(zkClient.getChildren().forPath(TOPICS_PATH));
         } catch (KeeperException.NoNodeException e) {
@@ -77,6 +143,22 @@ public class KafkaZKClient {
     }
 
     public JSONObject getTopic(String topicName) throws Exception {
+        if (topologyCache.isInitialized()) {
+            Optional<KafkaTopologyCache.TopicState> topic = topologyCache.getTopic(topicName);
+            if (!topic.isPresent()) {
+                // Same as reading a missing topic directly from ZK:
+                throw new KeeperException.NoNodeException(TOPICS_PATH + "/" + topicName + "/partitions");
+            }
+            Map<String, JSONObject> partitionStates = topic.get().getPartitionStates();
+            List<JSONObject> partitions = new ArrayList<>(partitionStates.size());
+            for (String partitionId : sortIds(partitionStates.keySet())) {
+                JSONObject state = partitionStates.get(partitionId);
+                if (state != null) {
+                    partitions.add((new JSONObject()).put(partitionId, state));
+                }
+            }
+            return (new JSONObject()).put("partitions", partitions);
+        }
         String partitionsNode = TOPICS_PATH + "/" + topicName + "/partitions";
         List<String> partitionIdList = zkClient.getChildren().forPath(partitionsNode);
         List<JSONObject> partitions = new ArrayList<JSONObject>();
@@ -110,10 +192,17 @@ public class KafkaZKClient {
     private List<String> getBrokerEndpoints(final String protocolName) throws Exception {
         final List<String> endpoints = new ArrayList<>();
 
-        final List<String> ids = zkClient.getChildren().forPath(IDS_PATH);
-        for (String id : ids) {
-            byte[] bytes = zkClient.getData().forPath(IDS_PATH + "/" + id);
-            JSONObject broker = new JSONObject(new String(bytes, StandardCharsets.UTF_8));
+        final Collection<JSONObject> brokers;
+        if (topologyCache.isInitialized()) {
+            brokers = topologyCache.getBrokers();
+        } else {
+            brokers = new ArrayList<>();
+            for (String id : zkClient.getChildren().forPath(IDS_PATH)) {
+                byte[] bytes = zkClient.getData().forPath(IDS_PATH + "/" + id);
+                brokers.add(new JSONObject(new String(bytes, StandardCharsets.UTF_8)));
+            }
+        }
+        for (JSONObject broker : brokers) {
             final String mappedProtocolName = broker
                     .getJSONObject("listener_security_protocol_map")
                     .getString(protocolName);
@@ -128,4 +217,13 @@ public class KafkaZKClient {
 
         return endpoints;
     }
+
+    /**
+     * Sorts broker or partition ids numerically where possible, so that cached responses have a stable order.
+     */
+    private static List<String> sortIds(Collection<String> ids) {
+        List<String> sorted = new ArrayList<>(ids);
+        sorted.sort(Comparator.comparing((String id) -> id.length()).thenComparing(Comparator.naturalOrder()));
+        return sorted;
+    }
 }
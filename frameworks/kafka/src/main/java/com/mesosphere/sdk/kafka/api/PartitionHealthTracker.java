@@ -0,0 +1,214 @@
+package com.mesosphere.sdk.kafka.api;
+
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Tracks unavailable and under-replicated partitions from the partition state mirrored by {@link KafkaTopologyCache}.
+ * Health is recomputed incrementally as individual partitions and brokers change, so that queries only need to render
+ * the current result.
+ *
+ * <p>The rules and the output format match {@code kafka-topics.sh --describe} with
+ * {@code --unavailable-partitions} or {@code --under-replicated-partitions}:
+ * <ul>
+ * <li>A partition is unavailable if it has no leader, or its leader isn't a live broker.</li>
+ * <li>A partition is under-replicated if its ISR is smaller than its assigned replica list.</li>
+ * </ul>
+ */
+public class PartitionHealthTracker implements KafkaTopologyCache.Listener {
+
+    /**
+     * Identifies a partition, ordered by topic name and then numerically by partition id, matching the order used by
+     * {@code kafka-topics.sh}.
+     */
+    private static class PartitionKey implements Comparable<PartitionKey> {
+        private final String topic;
+        private final String partition;
+
+        private PartitionKey(String topic, String partition) {
+            this.topic = topic;
+            this.partition = partition;
+        }
+
+        @Override
+        public int compareTo(PartitionKey o) {
+            int cmp = topic.compareTo(o.topic);
+            if (cmp != 0) {
+                return cmp;
+            }
+            cmp = Integer.compare(partition.length(), o.partition.length());
+            return cmp != 0 ? cmp : partition.compareTo(o.partition);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PartitionKey)) {
+                return false;
+            }
+            return compareTo((PartitionKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * topic.hashCode() + partition.hashCode();
+        }
+    }
+
+    private static final String NO_LEADER = "none";
+
+    private final KafkaTopologyCache topologyCache;
+
+    // Rendered describe lines for the partitions which are currently unhealthy
+    private final Map<PartitionKey, String> unavailable = new ConcurrentSkipListMap<>();
+    private final Map<PartitionKey, String> underReplicated = new ConcurrentSkipListMap<>();
+
+    // Leader of each known partition, and the inverse, so that a broker change only revisits the partitions it leads
+    private final Map<PartitionKey, String> leaderByPartition = new HashMap<>();
+    private final Map<String, Set<PartitionKey>> partitionsByLeader = new HashMap<>();
+
+    public PartitionHealthTracker(KafkaTopologyCache topologyCache) {
+        this.topologyCache = topologyCache;
+    }
+
+    /**
+     * Returns the unavailable partitions in the same form as {@code CmdExecutor} produces when running
+     * {@code kafka-topics.sh --describe --unavailable-partitions}, or an empty Optional if the topology isn't loaded.
+     */
+    public Optional<JSONObject> getUnavailablePartitions() {
+        return render(unavailable);
+    }
+
+    /**
+     * Returns the under-replicated partitions in the same form as {@code CmdExecutor} produces when running
+     * {@code kafka-topics.sh --describe --under-replicated-partitions}, or an empty Optional if the topology isn't
+     * loaded.
+     */
+    public Optional<JSONObject> getUnderReplicatedPartitions() {
+        return render(underReplicated);
+    }
+
+    @Override
+    public synchronized void partitionChanged(String topicName, String partitionId) {
+        if (partitionId != null) {
+            update(new PartitionKey(topicName, partitionId));
+            return;
+        }
+
+        // The whole topic changed: revisit every partition we know of plus every partition now in the cache.
+        Set<PartitionKey> keys = new HashSet<>();
+        for (PartitionKey key : leaderByPartition.keySet()) {
+            if (key.topic.equals(topicName)) {
+                keys.add(key);
+            }
+        }
+        Optional<KafkaTopologyCache.TopicState> topic = topologyCache.getTopic(topicName);
+        if (topic.isPresent()) {
+            for (String id : topic.get().getPartitionStates().keySet()) {
+                keys.add(new PartitionKey(topicName, id));
+            }
+        }
+        for (PartitionKey key : keys) {
+            update(key);
+        }
+    }
+
+    @Override
+    public synchronized void brokerChanged(String brokerId) {
+        Set<PartitionKey> led = partitionsByLeader.get(brokerId);
+        if (led == null) {
+            return;
+        }
+        for (PartitionKey key : new ArrayList<>(led)) {
+            update(key);
+        }
+    }
+
+    private void update(PartitionKey key) {
+        Optional<KafkaTopologyCache.TopicState> topic = topologyCache.getTopic(key.topic);
+        JSONObject state = topic.isPresent() ? topic.get().getPartitionStates().get(key.partition) : null;
+        if (state == null) {
+            // Partition (or whole topic) is gone
+            setLeader(key, null);
+            unavailable.remove(key);
+            underReplicated.remove(key);
+            return;
+        }
+
+        JSONArray replicas = null;
+        JSONObject assignments = topic.get().getAssignment().optJSONObject("partitions");
+        if (assignments != null) {
+            replicas = assignments.optJSONArray(key.partition);
+        }
+        if (replicas == null) {
+            replicas = new JSONArray();
+        }
+        JSONArray isr = state.optJSONArray("isr");
+        if (isr == null) {
+            isr = new JSONArray();
+        }
+        String leader = state.has("leader") ? String.valueOf(state.get("leader")) : null;
+        setLeader(key, leader);
+
+        String line = String.format("\tTopic: %s\tPartition: %s\tLeader: %s\tReplicas: %s\tIsr: %s",
+                key.topic, key.partition, leader == null ? NO_LEADER : leader, join(replicas), join(isr));
+        if (leader == null || !topologyCache.getBroker(leader).isPresent()) {
+            unavailable.put(key, line);
+        } else {
+            unavailable.remove(key);
+        }
+        if (isr.length() < replicas.length()) {
+            underReplicated.put(key, line);
+        } else {
+            underReplicated.remove(key);
+        }
+    }
+
+    private void setLeader(PartitionKey key, String leader) {
+        String previous = leader == null ? leaderByPartition.remove(key) : leaderByPartition.put(key, leader);
+        if (previous != null && !previous.equals(leader)) {
+            Set<PartitionKey> led = partitionsByLeader.get(previous);
+            if (led != null) {
+                led.remove(key);
+                if (led.isEmpty()) {
+                    partitionsByLeader.remove(previous);
+                }
+            }
+        }
+        if (leader != null) {
+            partitionsByLeader.computeIfAbsent(leader, l -> new HashSet<>()).add(key);
+        }
+    }
+
+    private Optional<JSONObject> render(Map<PartitionKey, String> lines) {
+        if (!topologyCache.isInitialized()) {
+            return Optional.empty();
+        }
+        // Match the "Output: <stdout>" message produced by CmdExecutor, which is empty when stdout is blank.
+        StringBuilder stdout = new StringBuilder();
+        for (String line : lines.values()) {
+            stdout.append(line);
+            stdout.append(System.getProperty("line.separator"));
+        }
+        JSONObject obj = new JSONObject();
+        obj.put("message", StringUtils.isNotBlank(stdout) ? "Output: " + stdout : "");
+        return Optional.of(obj);
+    }
+
+    private static String join(JSONArray array) {
+        List<String> elements = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); ++i) {
+            elements.add(String.valueOf(array.get(i)));
+        }
+        return StringUtils.join(elements, ",");
+    }
+}
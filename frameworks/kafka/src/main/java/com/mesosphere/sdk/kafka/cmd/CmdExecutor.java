@@ -8,6 +8,7 @@ import org.json.JSONObject;
 
 import java.nio.charset.Charset;
 import java.util.List;
+import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.StopWatch;
@@ -165,6 +166,12 @@ public class CmdExecutor {
     }
 
     public JSONObject unavailablePartitions() throws Exception {
+        // Prefer the result computed from the cached ZK partition state, which avoids launching a JVM per call:
+        Optional<JSONObject> cached = kafkaZkClient.getUnavailablePartitions();
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
         // e.g. ./kafka-topics.sh --zookeeper master.mesos:2181/kafka --describe --unavailable-partitions
 
         List<String> cmd = new ArrayList<String>();
@@ -178,6 +185,12 @@ public class CmdExecutor {
     }
 
     public JSONObject underReplicatedPartitions() throws Exception {
+        // Prefer the result computed from the cached ZK partition state, which avoids launching a JVM per call:
+        Optional<JSONObject> cached = kafkaZkClient.getUnderReplicatedPartitions();
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
         // e.g. ./kafka-topics.sh --zookeeper master.mesos:2181/kafka --describe --under-replicate-partitions
 
         List<String> cmd = new ArrayList<String>();
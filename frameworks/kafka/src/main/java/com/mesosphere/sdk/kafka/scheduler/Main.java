@@ -53,8 +53,7 @@ public class Main {
 
         DefaultScheduler.Builder schedulerBuilder = DefaultScheduler.newBuilder(
                 DefaultServiceSpec.newGenerator(rawServiceSpec, schedulerFlags, pathToYamlSpecification.getParentFile())
-                        .setAllPodsEnv(KAFKA_ZK_URI_ENV, kafkaZookeeperUri)
-                        .build(), schedulerFlags)
+                        .setAllPodsEnv(KAFKA_ZK_URI_ENV, kafkaZookeeperUri), schedulerFlags)
                 .setPlansFrom(rawServiceSpec);
 
         return schedulerBuilder
@@ -0,0 +1,156 @@
+package com.mesosphere.sdk.kafka.api;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.RetryOneTime;
+import org.apache.curator.test.TestingServer;
+import org.apache.zookeeper.KeeperException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link KafkaZKClient} and its backing {@link KafkaTopologyCache}.
+ */
+public class KafkaZKClientTest {
+    private static final String BROKER_1 =
+            "{\"listener_security_protocol_map\":{\"PLAINTEXT\":\"PLAINTEXT\"}," +
+            "\"endpoints\":[\"PLAINTEXT://host-1:1025\"],\"host\":\"host-1\",\"port\":1025}";
+    private static final String BROKER_2 =
+            "{\"listener_security_protocol_map\":{\"PLAINTEXT\":\"PLAINTEXT\"}," +
+            "\"endpoints\":[\"PLAINTEXT://host-2:1026\"],\"host\":\"host-2\",\"port\":1026}";
+
+    private static TestingServer testZk;
+    private CuratorFramework writer;
+    private KafkaZKClient client;
+
+    @BeforeClass
+    public static void beforeAll() throws Exception {
+        testZk = new TestingServer();
+    }
+
+    @AfterClass
+    public static void afterAll() throws Exception {
+        testZk.close();
+    }
+
+    @Before
+    public void beforeEach() throws Exception {
+        writer = CuratorFrameworkFactory.newClient(testZk.getConnectString(), new RetryOneTime(1000));
+        writer.start();
+        if (writer.checkExists().forPath("/brokers") != null) {
+            writer.delete().deletingChildrenIfNeeded().forPath("/brokers");
+        }
+        create("/brokers/ids/1", BROKER_1);
+        create("/brokers/topics/foo", "{\"version\":1,\"partitions\":{\"0\":[1,2],\"1\":[2,1]}}");
+        create("/brokers/topics/foo/partitions/0/state", "{\"leader\":1,\"isr\":[1,2]}");
+        create("/brokers/topics/foo/partitions/1/state", "{\"leader\":2,\"isr\":[2]}");
+
+        client = new KafkaZKClient(testZk.getConnectString());
+        waitFor(() -> client.getCacheStats().getBoolean("initialized"));
+    }
+
+    @After
+    public void afterEach() {
+        client.close();
+        writer.close();
+    }
+
+    @Test
+    public void testReadsFromCache() throws Exception {
+        assertEquals(1, client.getCacheStats().getInt("brokers"));
+        assertEquals(1, client.getCacheStats().getInt("topics"));
+        assertEquals(2, client.getCacheStats().getInt("partitions"));
+
+        assertEquals("[\"1\"]", client.listBrokers().toString());
+        assertEquals("host-1", client.getBroker("1").get().getString("host"));
+        assertFalse(client.getBroker("2").isPresent());
+        assertEquals("[\"foo\"]", client.listTopics().toString());
+        assertEquals(Arrays.asList("host-1:1025"), client.getBrokerEndpoints());
+
+        JSONArray partitions = client.getTopic("foo").getJSONArray("partitions");
+        assertEquals(2, partitions.length());
+        assertEquals(1, partitions.getJSONObject(0).getJSONObject("0").getInt("leader"));
+        assertEquals(2, partitions.getJSONObject(1).getJSONObject("1").getInt("leader"));
+    }
+
+    @Test(expected = KeeperException.NoNodeException.class)
+    public void testMissingTopic() throws Exception {
+        client.getTopic("bar");
+    }
+
+    @Test
+    public void testCacheFollowsChanges() throws Exception {
+        create("/brokers/ids/2", BROKER_2);
+        waitFor(() -> client.getCacheStats().getInt("brokers") == 2);
+        assertEquals("[\"1\",\"2\"]", client.listBrokers().toString());
+
+        writer.setData().forPath(
+                "/brokers/topics/foo/partitions/1/state",
+                "{\"leader\":1,\"isr\":[2,1]}".getBytes(StandardCharsets.UTF_8));
+        waitFor(() -> {
+            JSONObject state = client.getTopologyCache().getTopic("foo").get().getPartitionStates().get("1");
+            return state.getInt("leader") == 1;
+        });
+
+        writer.delete().forPath("/brokers/ids/1");
+        waitFor(() -> client.getCacheStats().getInt("brokers") == 1);
+        assertFalse(client.getBroker("1").isPresent());
+
+        writer.delete().deletingChildrenIfNeeded().forPath("/brokers/topics/foo");
+        waitFor(() -> client.getCacheStats().getInt("topics") == 0);
+        assertEquals(0, client.listTopics().length());
+    }
+
+    @Test
+    public void testPartitionHealth() throws Exception {
+        // Partition 1 is led by broker 2, which isn't registered, and has one of two replicas in sync:
+        String partition1 = "\tTopic: foo\tPartition: 1\tLeader: 2\tReplicas: 2,1\tIsr: 2" + System.lineSeparator();
+        assertEquals("Output: " + partition1, client.getUnavailablePartitions().get().getString("message"));
+        assertEquals("Output: " + partition1, client.getUnderReplicatedPartitions().get().getString("message"));
+
+        // Broker 2 comes up: partition 1 is now available, but still under-replicated
+        create("/brokers/ids/2", BROKER_2);
+        waitFor(() -> client.getUnavailablePartitions().get().getString("message").isEmpty());
+        assertEquals("Output: " + partition1, client.getUnderReplicatedPartitions().get().getString("message"));
+
+        // Partition 1 catches up
+        writer.setData().forPath(
+                "/brokers/topics/foo/partitions/1/state",
+                "{\"leader\":2,\"isr\":[2,1]}".getBytes(StandardCharsets.UTF_8));
+        waitFor(() -> client.getUnderReplicatedPartitions().get().getString("message").isEmpty());
+
+        // Broker 1 goes away: partition 0 becomes unavailable
+        writer.delete().forPath("/brokers/ids/1");
+        String partition0 = "\tTopic: foo\tPartition: 0\tLeader: 1\tReplicas: 1,2\tIsr: 1,2" + System.lineSeparator();
+        waitFor(() -> client.getUnavailablePartitions().get().getString("message").equals("Output: " + partition0));
+
+        // Topic deleted: nothing left to report
+        writer.delete().deletingChildrenIfNeeded().forPath("/brokers/topics/foo");
+        waitFor(() -> client.getUnavailablePartitions().get().getString("message").isEmpty());
+    }
+
+    private void create(String path, String data) throws Exception {
+        writer.create().creatingParentsIfNeeded().forPath(path, data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100; ++i) {
+            if (condition.getAsBoolean()) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Timed out waiting for cache to reflect ZK state");
+    }
+}
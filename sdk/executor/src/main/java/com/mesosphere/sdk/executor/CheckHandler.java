@@ -14,6 +14,7 @@ import java.io.IOException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Each {@link CheckHandler} is responsible for executing a single HealthCheck defined for a TaskInfo.
@@ -41,7 +42,8 @@ public class CheckHandler {
         return new CheckHandler(
                 executorDriver,
                 taskInfo,
-                new ProcessRunner(),
+                new ProcessRunner(ProcessOutputCapture.create(
+                        String.format("%s-%s-check", taskInfo.getName(), checkType.toLowerCase()))),
                 healthCheck,
                 scheduledExecutorService,
                 healthCheckStats,
@@ -137,6 +139,7 @@ public class CheckHandler {
         private final Protos.HealthCheck healthCheck;
         private final CheckStats healthCheckStats;
         private final String checkType;
+        private String lastOutput = "";
 
         private CheckRunner(
                 ExecutorDriver executorDriver,
@@ -177,6 +180,7 @@ public class CheckHandler {
                         t);
                 healthCheckStats.failed();
             }
+            lastOutput = processRunner.getLastOutput();
 
             // Health checks have a positive consecutive failure count, readiness
             // checks do not.
@@ -195,7 +199,7 @@ public class CheckHandler {
                         taskInfo.getTaskId(),
                         taskInfo.getSlaveId(),
                         taskInfo.getExecutor().getExecutorId(),
-                        "Health check failed",
+                        getFailureMessage(),
                         false);
                 throw new CheckRuntimeException(
                         "Health check exceeded its maximum consecutive failures.",
@@ -212,6 +216,13 @@ public class CheckHandler {
             }
         }
 
+        private String getFailureMessage() {
+            if (lastOutput == null || lastOutput.isEmpty()) {
+                return "Health check failed";
+            }
+            return String.format("Health check failed, last output:%n%s", lastOutput);
+        }
+
         private void handleReadinessCheck() {
             if (healthCheckStats.getTotalSuccesses() > 0) {
                 TaskStatusUtils.sendStatus(
@@ -230,18 +241,56 @@ public class CheckHandler {
     }
 
     /**
-     * Runs the provided process and returns an exit value. This is broken out into a separate
-     * function to allow mockery in tests.
+     * Runs the provided process and returns an exit value, capturing its output. This is broken out into a separate
+     * class to allow mockery in tests.
      */
     @VisibleForTesting
     static class ProcessRunner {
+        // How long to wait for output to be copied after the process has exited
+        private static final long OUTPUT_WAIT_MS = 1000;
+
+        private final ProcessOutputCapture outputCapture;
+        private volatile String lastOutput = "";
+
+        ProcessRunner(ProcessOutputCapture outputCapture) {
+            this.outputCapture = outputCapture;
+        }
+
+        /**
+         * Runs the process to completion and returns its exit value. If the process hasn't exited within the timeout,
+         * it's killed and a {@link TimeoutException} is thrown.
+         */
         public int run(ProcessBuilder processBuilder, double timeoutSeconds)
-                throws IOException, InterruptedException {
-            Process process = processBuilder.start();
-            synchronized (process) {
-                process.wait((long) (timeoutSeconds * 1000));
+                throws IOException, InterruptedException, TimeoutException {
+            lastOutput = "";
+            return waitFor(outputCapture.redirect(processBuilder).start(), timeoutSeconds);
+        }
+
+        /**
+         * Waits for the provided process, which was started from a {@link ProcessBuilder} passed through
+         * {@link ProcessOutputCapture#redirect(ProcessBuilder)}, to complete and returns its exit value.
+         */
+        @VisibleForTesting
+        int waitFor(Process process, double timeoutSeconds) throws InterruptedException, TimeoutException {
+            long timeoutMs = (long) (timeoutSeconds * 1000);
+            ProcessOutputCapture.Capture capture = outputCapture.start(process);
+            try {
+                if (!process.waitFor(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                    throw new TimeoutException(String.format("Process did not exit within %dms", timeoutMs));
+                }
+                return process.exitValue();
+            } finally {
+                capture.await(OUTPUT_WAIT_MS);
+                lastOutput = capture.getTail();
             }
-            return process.exitValue();
+        }
+
+        /**
+         * Returns the most recent output of the last process to be run, or an empty string if it had no output.
+         */
+        public String getLastOutput() {
+            return lastOutput;
         }
     }
 
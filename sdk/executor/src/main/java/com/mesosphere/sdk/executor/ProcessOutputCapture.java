@@ -0,0 +1,231 @@
+package com.mesosphere.sdk.executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Captures the stdout and stderr of processes into size-rotated files in the sandbox, named {@code <name>.stdout} and
+ * {@code <name>.stderr}, instead of the processes inheriting the executor's own stdout and stderr. Output is copied
+ * through a fixed-size buffer per stream, and the last few KB of each captured process's output are kept in memory so
+ * that they can be reported, e.g. when a check fails.
+ *
+ * <p>Each process is started from a {@link ProcessBuilder} passed through {@link #redirect(ProcessBuilder)}, and then
+ * passed to {@link #start(Process)}. A single instance may capture any number of processes in sequence (e.g. each
+ * run of a check), which then share the same rotated files.
+ */
+public class ProcessOutputCapture {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessOutputCapture.class);
+
+    private static final String SANDBOX_ENV_KEY = "MESOS_SANDBOX";
+    private static final long DEFAULT_MAX_FILE_BYTES = 10 * 1024 * 1024;
+    private static final int DEFAULT_MAX_ROTATED_FILES = 2;
+    private static final int DEFAULT_TAIL_BYTES = 4 * 1024;
+    private static final int BUFFER_BYTES = 8 * 1024;
+
+    // Copies output from processes. Threads are only held while a process is writing output.
+    private static final ExecutorService COPY_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "process-output");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String name;
+    private final RotatingOutputFile stdoutFile;
+    private final RotatingOutputFile stderrFile;
+    private final int tailBytes;
+
+    /**
+     * Returns a new instance which writes files with the provided name prefix to the sandbox, with default limits.
+     */
+    public static ProcessOutputCapture create(String name) {
+        String sandbox = System.getenv(SANDBOX_ENV_KEY);
+        return new ProcessOutputCapture(
+                sandbox == null ? Paths.get("") : Paths.get(sandbox),
+                name,
+                DEFAULT_MAX_FILE_BYTES,
+                DEFAULT_MAX_ROTATED_FILES,
+                DEFAULT_TAIL_BYTES);
+    }
+
+    /**
+     * Creates a new instance with custom limits.
+     *
+     * @param directory the directory to write files to
+     * @param name the name prefix for the written files
+     * @param maxFileBytes the size which each file may reach before it's rotated
+     * @param maxRotatedFiles the number of rotated files to keep for each stream
+     * @param tailBytes the amount of each process's most recent output to be kept in memory
+     */
+    ProcessOutputCapture(Path directory, String name, long maxFileBytes, int maxRotatedFiles, int tailBytes) {
+        if (tailBytes < 0) {
+            throw new IllegalArgumentException("Tail size must not be negative: " + tailBytes);
+        }
+        this.name = name;
+        this.stdoutFile = new RotatingOutputFile(directory.resolve(name + ".stdout"), maxFileBytes, maxRotatedFiles);
+        this.stderrFile = new RotatingOutputFile(directory.resolve(name + ".stderr"), maxFileBytes, maxRotatedFiles);
+        this.tailBytes = tailBytes;
+    }
+
+    /**
+     * Configures the provided {@link ProcessBuilder} to pipe its output back to the executor for capture, and returns
+     * it.
+     */
+    public ProcessBuilder redirect(ProcessBuilder processBuilder) {
+        return processBuilder
+                .redirectOutput(ProcessBuilder.Redirect.PIPE)
+                .redirectError(ProcessBuilder.Redirect.PIPE);
+    }
+
+    /**
+     * Starts copying the output of the provided process, which must have been started from a {@link ProcessBuilder}
+     * passed through {@link #redirect(ProcessBuilder)}. Copying continues in the background until the process and any
+     * children sharing its output have exited.
+     */
+    public Capture start(Process process) {
+        TailBuffer tail = new TailBuffer(tailBytes);
+        return new Capture(
+                copyAsync(process.getInputStream(), stdoutFile, tail),
+                copyAsync(process.getErrorStream(), stderrFile, tail),
+                tail);
+    }
+
+    private CompletableFuture<Void> copyAsync(InputStream inputStream, RotatingOutputFile file, TailBuffer tail) {
+        return CompletableFuture.runAsync(() -> copy(inputStream, file, tail), COPY_EXECUTOR);
+    }
+
+    private void copy(InputStream inputStream, RotatingOutputFile file, TailBuffer tail) {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        boolean writeFailed = false;
+        try (ReadableByteChannel channel = Channels.newChannel(inputStream)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                tail.append(buffer.duplicate());
+                // Keep draining the pipe even if the file can't be written, so that the process isn't blocked:
+                if (!writeFailed) {
+                    try {
+                        file.write(buffer);
+                    } catch (IOException e) {
+                        LOGGER.error(String.format("Failed to write output of %s, discarding further output", name), e);
+                        writeFailed = true;
+                    }
+                }
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            LOGGER.error(String.format("Failed to read output of %s", name), e);
+        } finally {
+            try {
+                file.close();
+            } catch (IOException e) {
+                LOGGER.error(String.format("Failed to close output file of %s", name), e);
+            }
+        }
+    }
+
+    /**
+     * The output of a single captured process.
+     */
+    public static class Capture {
+        private final CompletableFuture<Void> completion;
+        private final TailBuffer tail;
+
+        private Capture(CompletableFuture<Void> stdoutCopy, CompletableFuture<Void> stderrCopy, TailBuffer tail) {
+            this.completion = CompletableFuture.allOf(stdoutCopy, stderrCopy);
+            this.tail = tail;
+        }
+
+        /**
+         * Waits up to the provided timeout for all output to have been copied, and returns whether it has been. Output
+         * may continue past the exit of the process itself if it has left children running which share its output.
+         */
+        public boolean await(long timeoutMs) throws InterruptedException {
+            try {
+                completion.get(timeoutMs, TimeUnit.MILLISECONDS);
+                return true;
+            } catch (ExecutionException e) {
+                // Errors are logged by the copy itself
+                return true;
+            } catch (TimeoutException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Returns the most recent output of the process from both stdout and stderr, in the order that it was read.
+         */
+        public String getTail() {
+            return tail.toString();
+        }
+    }
+
+    /**
+     * A fixed-size ring buffer which holds the most recently appended bytes. Once older bytes have been dropped, any
+     * partial UTF-8 character left at the start of the buffer is skipped when it's decoded.
+     */
+    private static class TailBuffer {
+        private static final int MAX_UTF8_CONTINUATION_BYTES = 3;
+
+        private final byte[] bytes;
+        private int start = 0;
+        private int size = 0;
+        private boolean truncated = false;
+
+        private TailBuffer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        private synchronized void append(ByteBuffer buffer) {
+            if (bytes.length == 0) {
+                return;
+            }
+            // Only the end of the buffer can survive if it's larger than the tail:
+            if (buffer.remaining() > bytes.length) {
+                buffer.position(buffer.limit() - bytes.length);
+                truncated = true;
+            }
+            while (buffer.hasRemaining()) {
+                int end = (start + size) % bytes.length;
+                int count = Math.min(buffer.remaining(), size < bytes.length ? bytes.length - size : bytes.length);
+                count = Math.min(count, bytes.length - end);
+                buffer.get(bytes, end, count);
+                int overflow = Math.max(0, size + count - bytes.length);
+                size = Math.min(bytes.length, size + count);
+                start = (start + overflow) % bytes.length;
+                truncated |= overflow > 0;
+            }
+        }
+
+        @Override
+        public synchronized String toString() {
+            byte[] ordered = new byte[size];
+            int firstCount = Math.min(size, bytes.length - start);
+            System.arraycopy(bytes, start, ordered, 0, firstCount);
+            System.arraycopy(bytes, 0, ordered, firstCount, size - firstCount);
+            int offset = 0;
+            if (truncated) {
+                // Skip the continuation bytes (10xxxxxx) of any character whose first byte was dropped:
+                while (offset < ordered.length && offset < MAX_UTF8_CONTINUATION_BYTES
+                        && (ordered[offset] & 0xC0) == 0x80) {
+                    ++offset;
+                }
+            }
+            return new String(ordered, offset, ordered.length - offset, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import com.mesosphere.sdk.offer.ProcessBuilderUtils;
 
 import java.time.Duration;
+import java.util.Optional;
 import java.util.concurrent.*;
 
 /**
@@ -15,7 +16,10 @@ import java.util.concurrent.*;
  */
 public class ProcessTask implements ExecutorTask {
     private static final Logger LOGGER = LoggerFactory.getLogger(ProcessTask.class);
+    // How long to wait for output to be copied after the process has exited
+    private static final long OUTPUT_WAIT_MS = 5000;
     private final ProcessBuilder processBuilder;
+    private final Optional<ProcessOutputCapture> outputCapture;
     private final ExecutorDriver driver;
     private final Protos.TaskInfo taskInfo;
     private final CompletableFuture<Boolean> initialized =
@@ -37,8 +41,12 @@ public class ProcessTask implements ExecutorTask {
             ExecutorDriver executorDriver,
             Protos.TaskInfo taskInfo,
             boolean exitOnTermination) {
-        return create(
-                executorDriver, taskInfo, ProcessBuilderUtils.buildProcess(taskInfo.getCommand()), exitOnTermination);
+        return new ProcessTask(
+                executorDriver,
+                taskInfo,
+                ProcessBuilderUtils.buildProcess(taskInfo.getCommand()),
+                Optional.of(ProcessOutputCapture.create(taskInfo.getName())),
+                exitOnTermination);
     }
 
     public static ProcessTask create(
@@ -58,9 +66,24 @@ public class ProcessTask implements ExecutorTask {
             Protos.TaskInfo taskInfo,
             ProcessBuilder processBuilder,
             boolean exitOnTermination) {
+        this(executorDriver, taskInfo, processBuilder, Optional.empty(), exitOnTermination);
+    }
+
+    /**
+     * Creates a new task whose process output is written to rotated sandbox files by the provided
+     * {@link ProcessOutputCapture}, if any. Otherwise the process inherits the executor's stdout and stderr as
+     * configured by the provided {@link ProcessBuilder}.
+     */
+    protected ProcessTask(
+            ExecutorDriver executorDriver,
+            Protos.TaskInfo taskInfo,
+            ProcessBuilder processBuilder,
+            Optional<ProcessOutputCapture> outputCapture,
+            boolean exitOnTermination) {
         this.driver = executorDriver;
         this.taskInfo = taskInfo;
         this.processBuilder = processBuilder;
+        this.outputCapture = outputCapture;
         this.exitOnTermination = exitOnTermination;
         this.taskKillGracePeriod = getTaskKillGracePeriod(taskInfo);
     }
@@ -102,7 +125,13 @@ public class ProcessTask implements ExecutorTask {
                 return;
             }
 
-            this.process = processBuilder.start();
+            Optional<ProcessOutputCapture.Capture> capture = Optional.empty();
+            if (outputCapture.isPresent()) {
+                this.process = outputCapture.get().redirect(processBuilder).start();
+                capture = Optional.of(outputCapture.get().start(process));
+            } else {
+                this.process = processBuilder.start();
+            }
 
             final String startMessage = "Launching Task: " + taskInfo.getName();
             TaskStatusUtils.sendStatus(
@@ -117,6 +146,9 @@ public class ProcessTask implements ExecutorTask {
 
             LOGGER.info(startMessage);
             waitUninterruptably(process);
+            if (capture.isPresent() && !capture.get().await(OUTPUT_WAIT_MS)) {
+                LOGGER.warn("Output of {} is still being written after it exited", taskInfo.getName());
+            }
             final int exitValue = process.exitValue();
             String exitMessage = String.format("Task: %s exited with code: %s", taskInfo.getTaskId(), exitValue);
             exit.complete(exitValue);
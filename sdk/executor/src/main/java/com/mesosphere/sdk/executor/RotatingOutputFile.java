@@ -0,0 +1,104 @@
+package com.mesosphere.sdk.executor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only file which is rotated once it reaches a maximum size. When rotated, {@code name} is renamed to
+ * {@code name.1}, {@code name.1} to {@code name.2}, and so on, with the oldest file beyond the maximum rotated file
+ * count being deleted. The file is only created once data is first written to it, and may be closed and then reopened
+ * by a later write.
+ */
+class RotatingOutputFile {
+
+    private final Path path;
+    private final long maxFileBytes;
+    private final int maxRotatedFiles;
+
+    private FileChannel channel;
+    private long size;
+
+    /**
+     * Creates a new instance for the provided path.
+     *
+     * @param path the path of the current file
+     * @param maxFileBytes the size which the current file may reach before it's rotated
+     * @param maxRotatedFiles the number of rotated files to keep, or zero to truncate the file instead of rotating it
+     */
+    RotatingOutputFile(Path path, long maxFileBytes, int maxRotatedFiles) {
+        if (maxFileBytes < 1) {
+            throw new IllegalArgumentException("Maximum file size must be positive: " + maxFileBytes);
+        }
+        if (maxRotatedFiles < 0) {
+            throw new IllegalArgumentException("Maximum rotated files must not be negative: " + maxRotatedFiles);
+        }
+        this.path = path;
+        this.maxFileBytes = maxFileBytes;
+        this.maxRotatedFiles = maxRotatedFiles;
+    }
+
+    /**
+     * Writes the remaining content of the provided buffer, rotating the file first if the content would otherwise take
+     * it past the maximum size. Content larger than the maximum size is split across files.
+     */
+    synchronized void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel == null) {
+                open();
+            }
+            if (size >= maxFileBytes) {
+                rotate();
+            }
+            int writeBytes = (int) Math.min(buffer.remaining(), maxFileBytes - size);
+            ByteBuffer slice = buffer.duplicate();
+            slice.limit(slice.position() + writeBytes);
+            while (slice.hasRemaining()) {
+                size += channel.write(slice);
+            }
+            buffer.position(slice.position());
+        }
+    }
+
+    /**
+     * Closes the current file, if it's open. A later write will reopen it.
+     */
+    synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+
+    private void rotate() throws IOException {
+        close();
+        if (maxRotatedFiles == 0) {
+            Files.deleteIfExists(path);
+        } else {
+            Files.deleteIfExists(getRotatedPath(maxRotatedFiles));
+            for (int i = maxRotatedFiles - 1; i > 0; --i) {
+                Path rotatedPath = getRotatedPath(i);
+                if (Files.exists(rotatedPath)) {
+                    Files.move(rotatedPath, getRotatedPath(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(path, getRotatedPath(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path getRotatedPath(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+}
@@ -7,12 +7,16 @@ import org.awaitility.Awaitility;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.*;
 
 import static org.awaitility.Awaitility.to;
@@ -30,6 +34,7 @@ public class CheckHandlerTest {
     private static final double SHORT_GRACE_PERIOD_S = 0.003;
     private static final double TIMEOUT_S = 456;
 
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
     private ScheduledExecutorService scheduledExecutorService;
     @Mock private CheckHandler.ProcessRunner mockProcessRunner;
     @Mock private ExecutorDriver executorDriver;
@@ -202,6 +207,55 @@ public class CheckHandlerTest {
         verify(mockProcessRunner, atLeast((int)consecutiveSuccesses)).run(any(), eq(TIMEOUT_S));
     }
 
+    @Test
+    public void testFailureMessageIncludesOutput() throws Exception {
+        CheckHandler healthCheckHandler = new CheckHandler(
+                executorDriver,
+                taskInfo,
+                mockProcessRunner,
+                getHealthCheck(1),
+                scheduledExecutorService,
+                new CheckStats("test"),
+                "test");
+
+        when(mockProcessRunner.run(any(), anyDouble())).thenReturn(1);
+        when(mockProcessRunner.getLastOutput()).thenReturn("connection refused");
+
+        ScheduledFuture<?> future = healthCheckHandler.start();
+        try {
+            future.get();
+        } catch (Throwable t) {
+            Assert.assertTrue(t instanceof ExecutionException);
+        }
+
+        verify(executorDriver, times(1)).sendStatusUpdate(taskStatusCaptor.capture());
+        Assert.assertEquals(Protos.TaskState.TASK_FAILED, taskStatusCaptor.getValue().getState());
+        Assert.assertTrue(taskStatusCaptor.getValue().getMessage().endsWith("connection refused"));
+    }
+
+    @Test
+    public void testTimedOutProcessIsKilled() throws Exception {
+        CheckHandler.ProcessRunner processRunner = new CheckHandler.ProcessRunner(
+                new ProcessOutputCapture(temporaryFolder.getRoot().toPath(), "test-check", 1024, 1, 1024));
+        Process process = mock(Process.class);
+        when(process.getInputStream())
+                .thenReturn(new ByteArrayInputStream("partial".getBytes(StandardCharsets.UTF_8)));
+        when(process.getErrorStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+        when(process.waitFor(anyLong(), any(TimeUnit.class))).thenReturn(false);
+
+        try {
+            processRunner.waitFor(process, 0.01);
+            Assert.fail("Expected a timeout");
+        } catch (TimeoutException e) {
+            // expected
+        }
+        verify(process, times(1)).waitFor(10, TimeUnit.MILLISECONDS);
+        verify(process, times(1)).destroyForcibly();
+        verify(process, never()).exitValue();
+        // Output up to the timeout is still available:
+        Assert.assertEquals("partial", processRunner.getLastOutput());
+    }
+
     @Test(expected=CheckHandler.CheckValidationException.class)
     public void testFailHasHealthCheckValidation() throws CheckHandler.CheckValidationException {
         Protos.TaskInfo taskInfo = getTask().toBuilder()
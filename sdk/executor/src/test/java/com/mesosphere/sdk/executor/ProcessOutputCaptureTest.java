@@ -0,0 +1,83 @@
+package com.mesosphere.sdk.executor;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class ProcessOutputCaptureTest {
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testCaptureToFilesWithTail() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+        ProcessOutputCapture outputCapture = new ProcessOutputCapture(directory, "test-check", 1024, 1, 8);
+        ProcessBuilder processBuilder = outputCapture.redirect(
+                new ProcessBuilder("/bin/bash", "-c", "echo hello; echo goodbye 1>&2"));
+
+        Process process = processBuilder.start();
+        ProcessOutputCapture.Capture capture = outputCapture.start(process);
+        Assert.assertEquals(0, process.waitFor());
+        Assert.assertTrue(capture.await(5000));
+
+        Assert.assertEquals("hello\n", read(directory.resolve("test-check.stdout")));
+        Assert.assertEquals("goodbye\n", read(directory.resolve("test-check.stderr")));
+        // Only the last 8 bytes are kept, in the order they were read:
+        Assert.assertEquals(8, capture.getTail().length());
+        Assert.assertTrue(capture.getTail().endsWith("\n"));
+    }
+
+    @Test
+    public void testTailStartsAtCharacterBoundary() throws Exception {
+        ProcessOutputCapture outputCapture =
+                new ProcessOutputCapture(temporaryFolder.getRoot().toPath(), "test-check", 1024, 1, 4);
+        // "a", then a 2-byte and a 3-byte character: the tail's first byte is the middle of the 2-byte character
+        Process process = outputCapture.redirect(
+                new ProcessBuilder("/bin/bash", "-c", "printf 'a\\303\\251\\342\\202\\254'")).start();
+        ProcessOutputCapture.Capture capture = outputCapture.start(process);
+        Assert.assertEquals(0, process.waitFor());
+        Assert.assertTrue(capture.await(5000));
+
+        Assert.assertEquals("\u20ac", capture.getTail());
+    }
+
+    @Test
+    public void testRotation() throws Exception {
+        Path path = temporaryFolder.getRoot().toPath().resolve("task.stdout");
+        RotatingOutputFile file = new RotatingOutputFile(path, 4, 2);
+
+        Assert.assertFalse(Files.exists(path));
+        file.write(ByteBuffer.wrap("aaaabbbbcc".getBytes(StandardCharsets.UTF_8)));
+        file.close();
+        file.write(ByteBuffer.wrap("ccdddd".getBytes(StandardCharsets.UTF_8)));
+        file.close();
+
+        Assert.assertEquals("dddd", read(path));
+        Assert.assertEquals("cccc", read(path.resolveSibling("task.stdout.1")));
+        Assert.assertEquals("bbbb", read(path.resolveSibling("task.stdout.2")));
+        // The oldest content is discarded beyond the maximum rotated file count:
+        Assert.assertFalse(Files.exists(path.resolveSibling("task.stdout.3")));
+    }
+
+    @Test
+    public void testTruncateWithoutRotatedFiles() throws Exception {
+        Path path = temporaryFolder.getRoot().toPath().resolve("task.stdout");
+        RotatingOutputFile file = new RotatingOutputFile(path, 4, 0);
+
+        file.write(ByteBuffer.wrap("aaaabb".getBytes(StandardCharsets.UTF_8)));
+        file.close();
+
+        Assert.assertEquals("bb", read(path));
+        Assert.assertFalse(Files.exists(path.resolveSibling("task.stdout.1")));
+    }
+
+    private static String read(Path path) throws Exception {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
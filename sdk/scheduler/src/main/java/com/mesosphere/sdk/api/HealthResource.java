@@ -0,0 +1,21 @@
+package com.mesosphere.sdk.api;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+
+/**
+ * A lightweight API for checking that the scheduler is up and serving requests. Requests to this API are served from
+ * a reserved lane, so that it remains responsive while other APIs are overloaded.
+ */
+@Path("/v1/health")
+public class HealthResource {
+
+    /**
+     * Produces a plain {@code OK} response, without accessing any scheduler state.
+     */
+    @GET
+    public Response getHealth() {
+        return ResponseUtils.plainOkResponse("OK");
+    }
+}
@@ -0,0 +1,85 @@
+package com.mesosphere.sdk.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import javax.ws.rs.core.Response;
+
+/**
+ * A page of a listing of names, as selected by the optional {@code limit} and {@code cursor} query parameters.
+ *
+ * Without either parameter, the whole listing is returned in its original order. Otherwise the listing is ordered by
+ * name, and the page holds up to {@code limit} names which follow the {@code cursor} name. If any names remain after
+ * the page, the {@code cursor} for the next page is returned in the {@value #NEXT_CURSOR_HEADER} response header.
+ */
+public class ListingPage {
+
+    /**
+     * Response header which holds the {@code cursor} value for fetching the next page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final List<String> names;
+    private final Optional<String> nextCursor;
+
+    /**
+     * Returns the page of the provided names which is selected by the provided query parameters, either of which may
+     * be {@code null}.
+     *
+     * @throws IllegalArgumentException if the limit is not a positive number
+     */
+    public static ListingPage create(Collection<String> names, String cursor, Integer limit) {
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid limit, must be positive: %d", limit));
+        }
+        if (cursor == null && limit == null) {
+            return new ListingPage(new ArrayList<>(names), Optional.empty());
+        }
+
+        NavigableSet<String> remaining = new TreeSet<>(names);
+        if (cursor != null) {
+            remaining = remaining.tailSet(cursor, false);
+        }
+        List<String> page = new ArrayList<>();
+        for (String name : remaining) {
+            if (limit != null && page.size() == limit) {
+                return new ListingPage(page, Optional.of(page.get(page.size() - 1)));
+            }
+            page.add(name);
+        }
+        return new ListingPage(page, Optional.empty());
+    }
+
+    private ListingPage(List<String> names, Optional<String> nextCursor) {
+        this.names = names;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Returns the names in this page.
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Returns the {@code cursor} for fetching the next page, or an empty {@link Optional} if this is the last page.
+     */
+    public Optional<String> getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Builds the provided response, with a {@value #NEXT_CURSOR_HEADER} header if there's a next page.
+     */
+    public Response build(Response.ResponseBuilder responseBuilder) {
+        if (nextCursor.isPresent()) {
+            responseBuilder.header(NEXT_CURSOR_HEADER, nextCursor.get());
+        }
+        return responseBuilder.build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.mesosphere.sdk.api;
+
+import com.mesosphere.sdk.queue.OfferRetentionPool;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+
+/**
+ * An API for monitoring the scheduler's {@link OfferRetentionPool}, including how often retained offers are reused.
+ */
+@Path("/v1/offers")
+public class OfferRetentionResource {
+
+    private final OfferRetentionPool offerRetentionPool;
+
+    public OfferRetentionResource(OfferRetentionPool offerRetentionPool) {
+        this.offerRetentionPool = offerRetentionPool;
+    }
+
+    /**
+     * Produces the current size, limits, and counters of the offer retention pool.
+     */
+    @Path("/retention")
+    @GET
+    public Response getRetentionStats() {
+        return ResponseUtils.jsonOkResponse(offerRetentionPool.toJSON());
+    }
+}
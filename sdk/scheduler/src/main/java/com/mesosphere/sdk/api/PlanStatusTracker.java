@@ -0,0 +1,240 @@
+package com.mesosphere.sdk.api;
+
+import com.mesosphere.sdk.api.types.PhaseInfo;
+import com.mesosphere.sdk.api.types.PlanInfo;
+import com.mesosphere.sdk.api.types.StepInfo;
+import com.mesosphere.sdk.scheduler.plan.Plan;
+import com.mesosphere.sdk.scheduler.plan.PlanManager;
+import com.mesosphere.sdk.scheduler.plan.Status;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import javax.ws.rs.core.Response;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Caches snapshots of the managed {@link Plan}s and produces a sequence of status change events between snapshots.
+ *
+ * <p>Snapshots are only rebuilt after {@link #invalidate()} has been called, and then only once a caller actually asks
+ * for a snapshot or for events. This bounds the cost of walking the plans to once per change, no matter how many
+ * clients are polling. Each rebuild is diffed against the previous snapshot, and each step, phase, or plan whose
+ * status differs is recorded as an event with an increasing sequence number. Clients may resume from the last sequence
+ * number they saw. If no client asks between two changes, the two changes are reported as a single transition.
+ */
+class PlanStatusTracker {
+
+    /**
+     * A cached rendering of a plan, along with the HTTP status to be returned with it.
+     */
+    static class Snapshot {
+        private final PlanInfo planInfo;
+        private final Response.Status responseStatus;
+
+        private Snapshot(PlanInfo planInfo, Response.Status responseStatus) {
+            this.planInfo = planInfo;
+            this.responseStatus = responseStatus;
+        }
+
+        PlanInfo getPlanInfo() {
+            return planInfo;
+        }
+
+        Response.Status getResponseStatus() {
+            return responseStatus;
+        }
+    }
+
+    /**
+     * The default number of events to retain for clients which are resuming from an earlier sequence number.
+     */
+    static final int DEFAULT_MAX_EVENTS = 1000;
+
+    private final Supplier<Collection<PlanManager>> planManagersSupplier;
+    private final int maxEvents;
+
+    // Set by the scheduler whenever a plan may have changed. Kept separate from the lock so that the scheduler never
+    // waits on a rebuild.
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private final Object changeSignal = new Object();
+
+    // Everything below is guarded by the lock
+    private final Object lock = new Object();
+    private final Deque<JSONObject> events = new ArrayDeque<>();
+    private Map<String, Snapshot> snapshots = new HashMap<>();
+    // Plan name => element id (or plan name for the plan itself) => last seen status
+    private Map<String, Map<String, Status>> statuses = new HashMap<>();
+    private long sequence = 0;
+
+    PlanStatusTracker(Supplier<Collection<PlanManager>> planManagersSupplier) {
+        this(planManagersSupplier, DEFAULT_MAX_EVENTS);
+    }
+
+    PlanStatusTracker(Supplier<Collection<PlanManager>> planManagersSupplier, int maxEvents) {
+        this.planManagersSupplier = planManagersSupplier;
+        this.maxEvents = maxEvents;
+    }
+
+    /**
+     * Notes that one or more plans may have changed, and wakes any callers which are waiting for events.
+     */
+    void invalidate() {
+        dirty.set(true);
+        synchronized (changeSignal) {
+            changeSignal.notifyAll();
+        }
+    }
+
+    /**
+     * Returns the current snapshot of the specified plan, or an empty Optional if no such plan exists.
+     */
+    Optional<Snapshot> getSnapshot(String planName) {
+        refreshIfDirty();
+        synchronized (lock) {
+            return Optional.ofNullable(snapshots.get(planName));
+        }
+    }
+
+    /**
+     * Returns the current sequence number, which is the sequence number of the most recent event.
+     */
+    long getSequence() {
+        refreshIfDirty();
+        synchronized (lock) {
+            return sequence;
+        }
+    }
+
+    /**
+     * Returns any events following the provided sequence number, waiting up to {@code timeoutMs} for an event to occur
+     * if there aren't any yet. The result contains the current {@code sequence}, the {@code events} themselves, and a
+     * {@code reset} flag. The flag is set if the requested events are no longer available, or if the sequence number
+     * doesn't belong to this scheduler instance, in which case the client should refetch the plans before resuming
+     * from the returned sequence.
+     */
+    JSONObject awaitEvents(long since, long timeoutMs) throws InterruptedException {
+        final long deadlineMs = System.currentTimeMillis() + timeoutMs;
+        while (true) {
+            refreshIfDirty();
+            JSONObject result = getEventsSince(since);
+            if (result.getBoolean("reset") || result.getJSONArray("events").length() > 0) {
+                return result;
+            }
+            long remainingMs = deadlineMs - System.currentTimeMillis();
+            if (remainingMs <= 0) {
+                return result;
+            }
+            synchronized (changeSignal) {
+                if (!dirty.get()) {
+                    changeSignal.wait(remainingMs);
+                }
+            }
+        }
+    }
+
+    private JSONObject getEventsSince(long since) {
+        synchronized (lock) {
+            JSONObject result = new JSONObject();
+            result.put("sequence", sequence);
+            JSONArray eventsArray = new JSONArray();
+            long oldestAvailable = events.isEmpty() ? sequence : events.peekFirst().getLong("sequence") - 1;
+            boolean reset = since > sequence || since < oldestAvailable;
+            if (!reset) {
+                for (JSONObject event : events) {
+                    if (event.getLong("sequence") > since) {
+                        eventsArray.put(event);
+                    }
+                }
+            }
+            result.put("reset", reset);
+            result.put("events", eventsArray);
+            return result;
+        }
+    }
+
+    private void refreshIfDirty() {
+        synchronized (lock) {
+            if (!dirty.getAndSet(false)) {
+                return;
+            }
+            Map<String, Snapshot> newSnapshots = new HashMap<>();
+            Map<String, Map<String, Status>> newStatuses = new HashMap<>();
+            for (PlanManager planManager : planManagersSupplier.get()) {
+                Plan plan = planManager.getPlan();
+                PlanInfo planInfo = PlanInfo.forPlan(plan);
+                Response.Status responseStatus = Response.Status.ACCEPTED;
+                if (plan.hasErrors()) {
+                    responseStatus = Response.Status.EXPECTATION_FAILED;
+                } else if (plan.isComplete()) {
+                    responseStatus = Response.Status.OK;
+                }
+                newSnapshots.put(plan.getName(), new Snapshot(planInfo, responseStatus));
+                newStatuses.put(plan.getName(), diff(plan.getName(), planInfo, statuses.get(plan.getName())));
+            }
+            snapshots = newSnapshots;
+            statuses = newStatuses;
+        }
+    }
+
+    /**
+     * Records an event for each element of the plan whose status differs from the previous snapshot, children before
+     * parents, and returns the statuses to compare against next time. Nothing is recorded for a plan which hasn't been
+     * seen before.
+     */
+    private Map<String, Status> diff(String planName, PlanInfo planInfo, Map<String, Status> previousStatuses) {
+        Map<String, Status> currentStatuses = new HashMap<>();
+        for (PhaseInfo phaseInfo : planInfo.getPhases()) {
+            for (StepInfo stepInfo : phaseInfo.getSteps()) {
+                currentStatuses.put(stepInfo.getId(), stepInfo.getStatus());
+                if (previousStatuses != null) {
+                    recordIfChanged(previousStatuses.get(stepInfo.getId()), stepInfo.getStatus(),
+                            planName, phaseInfo.getName(), stepInfo.getName(), stepInfo.getId());
+                }
+            }
+            currentStatuses.put(phaseInfo.getId(), phaseInfo.getStatus());
+            if (previousStatuses != null) {
+                recordIfChanged(previousStatuses.get(phaseInfo.getId()), phaseInfo.getStatus(),
+                        planName, phaseInfo.getName(), null, phaseInfo.getId());
+            }
+        }
+        currentStatuses.put(planName, planInfo.getStatus());
+        if (previousStatuses != null) {
+            recordIfChanged(previousStatuses.get(planName), planInfo.getStatus(), planName, null, null, null);
+        }
+        return currentStatuses;
+    }
+
+    private void recordIfChanged(
+            Status previous, Status current, String planName, String phaseName, String stepName, String id) {
+        if (previous == current) {
+            return;
+        }
+        JSONObject event = new JSONObject();
+        event.put("sequence", ++sequence);
+        event.put("plan", planName);
+        if (phaseName != null) {
+            event.put("phase", phaseName);
+        }
+        if (stepName != null) {
+            event.put("step", stepName);
+        }
+        if (id != null) {
+            event.put("id", id);
+        }
+        event.put("status", String.valueOf(current));
+        if (previous != null) {
+            event.put("previous", previous.toString());
+        }
+        events.addLast(event);
+        while (events.size() > maxEvents) {
+            events.removeFirst();
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.mesosphere.sdk.api;
 
-import com.mesosphere.sdk.api.types.PlanInfo;
 import com.mesosphere.sdk.api.types.PrettyJsonResource;
 import com.mesosphere.sdk.offer.evaluate.placement.RegexMatcher;
 import com.mesosphere.sdk.offer.evaluate.placement.StringMatcher;
@@ -17,13 +16,20 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Singleton;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -44,10 +50,20 @@ public class PlansResource extends PrettyJsonResource {
 
     private static final StringMatcher ENVVAR_MATCHER = RegexMatcher.create("[A-Za-z_][A-Za-z0-9_]*");
 
+    private static final String EVENT_STREAM_MEDIA_TYPE = "text/event-stream";
+    private static final int DEFAULT_EVENTS_TIMEOUT_S = 30;
+    private static final int MAX_EVENTS_TIMEOUT_S = 60;
+    // Streams are closed after this long, so that they don't hold a server thread forever. Clients resume using the
+    // Last-Event-ID header, as SSE clients do automatically.
+    private static final long EVENT_STREAM_DURATION_MS = 5 * 60 * 1000;
+    private static final long EVENT_STREAM_KEEPALIVE_MS = 15 * 1000;
+    private static final long EVENT_STREAM_RETRY_MS = 1000;
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final Collection<PlanManager> planManagers = new ArrayList<>();
     private final Object planManagersLock = new Object();
+    private final PlanStatusTracker planStatusTracker = new PlanStatusTracker(this::getPlanManagers);
 
     /**
      * Assigns the list of plans to be managed via this endpoint.
@@ -59,9 +75,19 @@ public class PlansResource extends PrettyJsonResource {
             this.planManagers.clear();
             this.planManagers.addAll(planManagers);
         }
+        planStatusTracker.invalidate();
         return this;
     }
 
+    /**
+     * Notifies this resource that the state of one or more plans may have changed, e.g. following an offer cycle or a
+     * task status update. Cached plan snapshots are rebuilt on the next request, and any clients waiting for plan
+     * events are woken.
+     */
+    public void plansUpdated() {
+        planStatusTracker.invalidate();
+    }
+
     /**
      * Returns list of all configured plans.
      */
@@ -77,24 +103,83 @@ public class PlansResource extends PrettyJsonResource {
     @GET
     @Path("/plans/{planName}")
     public Response getPlanInfo(@PathParam("planName") String planName) {
-        final Optional<PlanManager> planManagerOptional = getPlanManager(planName);
-        if (planManagerOptional.isPresent()) {
-            Plan plan = planManagerOptional.get().getPlan();
-
-            Response.Status response = Response.Status.ACCEPTED;
-            if (plan.hasErrors()) {
-                response = Response.Status.EXPECTATION_FAILED;
-            } else if (plan.isComplete()) {
-                response = Response.Status.OK;
-            }
+        final Optional<PlanStatusTracker.Snapshot> snapshotOptional = planStatusTracker.getSnapshot(planName);
+        if (snapshotOptional.isPresent()) {
             return jsonResponseBean(
-                    PlanInfo.forPlan(plan),
-                    response);
+                    snapshotOptional.get().getPlanInfo(),
+                    snapshotOptional.get().getResponseStatus());
         } else {
+            // Log if the plan managers haven't been initialized yet:
+            getPlanManager(planName);
             return elementNotFoundResponse();
         }
     }
 
+    /**
+     * Long-polls for plan, phase, and step status changes following the provided sequence number. Returns as soon as
+     * any changes are available, or after {@code timeout} seconds with an empty list of events. If {@code since} is
+     * omitted, waits for the next change. The returned {@code sequence} should be passed as {@code since} in the next
+     * request. If {@code reset} is true, events were missed and the client should refetch the plans before continuing.
+     */
+    @GET
+    @Path("/plans/events")
+    public Response getPlanEvents(
+            @QueryParam("since") Long since,
+            @QueryParam("timeout") Integer timeoutSecs) {
+        int timeout = timeoutSecs == null
+                ? DEFAULT_EVENTS_TIMEOUT_S
+                : Math.max(0, Math.min(MAX_EVENTS_TIMEOUT_S, timeoutSecs));
+        try {
+            return jsonOkResponse(planStatusTracker.awaitEvents(
+                    since == null ? planStatusTracker.getSequence() : since,
+                    timeout * 1000L));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Streams plan, phase, and step status changes as Server-Sent Events. Each {@code status} event carries its
+     * sequence number as the SSE event id, so that a reconnecting client resumes where it left off via the
+     * {@code Last-Event-ID} header. A {@code reset} event is sent if events were missed, after which the client should
+     * refetch the plans.
+     */
+    @GET
+    @Path("/plans/events/stream")
+    @Produces(EVENT_STREAM_MEDIA_TYPE)
+    public Response streamPlanEvents(
+            @QueryParam("since") Long since,
+            @HeaderParam("Last-Event-ID") String lastEventId) {
+        long startSequence;
+        try {
+            startSequence = lastEventId != null
+                    ? Long.parseLong(lastEventId)
+                    : (since == null ? planStatusTracker.getSequence() : since);
+        } catch (NumberFormatException e) {
+            return invalidParameterResponse(String.format("Invalid Last-Event-ID: %s", lastEventId));
+        }
+        StreamingOutput stream = output -> {
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            writer.write(String.format("retry: %d%n%n", EVENT_STREAM_RETRY_MS));
+            writer.flush();
+            long sequence = startSequence;
+            final long deadlineMs = System.currentTimeMillis() + EVENT_STREAM_DURATION_MS;
+            try {
+                while (System.currentTimeMillis() < deadlineMs) {
+                    JSONObject result = planStatusTracker.awaitEvents(sequence, EVENT_STREAM_KEEPALIVE_MS);
+                    sequence = writeEvents(writer, result);
+                    writer.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                logger.info("Plan event stream closed by client: {}", e.getMessage());
+            }
+        };
+        return Response.ok(stream, EVENT_STREAM_MEDIA_TYPE).header("Cache-Control", "no-cache").build();
+    }
+
     /**
      * Idempotently starts a plan.  If a plan is complete, it restarts the plan.  If it is interrupted, in makes the
      * plan proceed.  If a plan is already in progress, it has no effect.
@@ -118,6 +203,7 @@ public class PlansResource extends PrettyJsonResource {
             }
 
             plan.proceed();
+            plansUpdated();
 
             logger.info("Started plan {} with parameters {} by user request", planName, parameters);
 
@@ -144,6 +230,7 @@ public class PlansResource extends PrettyJsonResource {
             Plan plan = planManagerOptional.get().getPlan();
             plan.interrupt();
             plan.restart();
+            plansUpdated();
             return jsonOkResponse(getCommandResult("stop"));
         } else {
             return elementNotFoundResponse();
@@ -185,6 +272,7 @@ public class PlansResource extends PrettyJsonResource {
             }
             plan.proceed();
         }
+        plansUpdated();
 
         return jsonOkResponse(getCommandResult("continue"));
     }
@@ -237,6 +325,7 @@ public class PlansResource extends PrettyJsonResource {
             }
             plan.interrupt();
         }
+        plansUpdated();
 
         return jsonOkResponse(getCommandResult("interrupt"));
     }
@@ -260,6 +349,7 @@ public class PlansResource extends PrettyJsonResource {
         }
 
         stepOptional.get().forceComplete();
+        plansUpdated();
 
         return jsonOkResponse(getCommandResult("forceComplete"));
     }
@@ -279,6 +369,7 @@ public class PlansResource extends PrettyJsonResource {
             Plan plan = planManagerOptional.get().getPlan();
             plan.restart();
             plan.proceed();
+            plansUpdated();
             return jsonOkResponse(getCommandResult("restart"));
         }
 
@@ -290,6 +381,7 @@ public class PlansResource extends PrettyJsonResource {
 
             phases.forEach(phz -> phz.restart());
             phases.forEach(phz -> phz.proceed());
+            plansUpdated();
             return jsonOkResponse(getCommandResult("restart"));
         }
 
@@ -300,6 +392,7 @@ public class PlansResource extends PrettyJsonResource {
             }
             stepOptional.get().restart();
             stepOptional.get().proceed();
+            plansUpdated();
             return jsonOkResponse(getCommandResult("restart"));
         }
 
@@ -382,6 +475,37 @@ public class PlansResource extends PrettyJsonResource {
         }
     }
 
+    /**
+     * Writes the provided events in SSE format, returning the sequence number to resume from.
+     */
+    private static long writeEvents(Writer writer, JSONObject result) throws IOException {
+        long sequence = result.getLong("sequence");
+        if (result.getBoolean("reset")) {
+            JSONObject reset = new JSONObject();
+            reset.put("sequence", sequence);
+            writer.write(String.format("id: %d%nevent: reset%ndata: %s%n%n", sequence, reset.toString()));
+            return sequence;
+        }
+        JSONArray events = result.getJSONArray("events");
+        if (events.length() == 0) {
+            // Comment line: keeps the connection alive and detects clients which have gone away
+            writer.write(String.format(": keepalive%n%n"));
+            return sequence;
+        }
+        for (int i = 0; i < events.length(); ++i) {
+            JSONObject event = events.getJSONObject(i);
+            writer.write(String.format("id: %d%nevent: status%ndata: %s%n%n",
+                    event.getLong("sequence"), event.toString()));
+        }
+        return sequence;
+    }
+
+    private Collection<PlanManager> getPlanManagers() {
+        synchronized (planManagersLock) {
+            return new ArrayList<>(planManagers);
+        }
+    }
+
     private List<String> getPlanNames() {
         synchronized (planManagersLock) {
             return planManagers.stream()
@@ -1,43 +1,43 @@
 package com.mesosphere.sdk.api;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.TreeSet;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import javax.inject.Singleton;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.annotations.VisibleForTesting;
 import com.mesosphere.sdk.api.types.PrettyJsonResource;
 import com.mesosphere.sdk.api.types.TaskInfoAndStatus;
-import com.mesosphere.sdk.offer.taskdata.TaskLabelReader;
 import com.mesosphere.sdk.scheduler.TaskKiller;
 import com.mesosphere.sdk.scheduler.recovery.RecoveryType;
-import com.mesosphere.sdk.specification.PodInstance;
 import com.mesosphere.sdk.state.StateStore;
 
-import org.apache.mesos.Protos.TaskID;
 import org.apache.mesos.Protos.TaskInfo;
 import org.apache.mesos.Protos.TaskStatus;
-import org.json.JSONArray;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static com.mesosphere.sdk.api.ResponseUtils.jsonOkResponse;
 import static com.mesosphere.sdk.api.ResponseUtils.jsonResponseBean;
+import static com.mesosphere.sdk.api.ResponseUtils.jsonStreamingOkResponse;
+import static com.mesosphere.sdk.api.ResponseUtils.jsonStreamingOkResponseBuilder;
+import static com.mesosphere.sdk.api.ResponseUtils.plainResponse;
+import static com.mesosphere.sdk.api.ResponseUtils.renderJson;
 
 /**
  * A read-only API for accessing information about how to connect to the service.
@@ -52,15 +52,36 @@ public class PodResource extends PrettyJsonResource {
      */
     private static final String UNKNOWN_POD_LABEL = "UNKNOWN_POD";
 
+    /**
+     * Fields of each task in status responses, in the order they're written. A subset may be selected using the
+     * {@code fields} query parameter.
+     */
+    private static final List<String> STATUS_FIELDS = Arrays.asList("id", "name", "state");
+
+    /**
+     * The maximum number of tasks for which the full status listing is kept in memory once rendered. Each task takes
+     * around 150 bytes of the rendered listing. Larger listings are streamed from the {@link StateStore} on each
+     * request instead, rather than holding a copy of the whole document.
+     */
+    private static final int DEFAULT_MAX_SNAPSHOT_TASKS = 1000;
+
     private final StateStore stateStore;
+    private final int maxSnapshotTasks;
 
     private TaskKiller taskKiller;
+    private volatile StatusesSnapshot statusesSnapshot;
 
     /**
      * Creates a new instance which retrieves task/pod state from the provided {@link StateStore}.
      */
     public PodResource(StateStore stateStore) {
+        this(stateStore, DEFAULT_MAX_SNAPSHOT_TASKS);
+    }
+
+    @VisibleForTesting
+    PodResource(StateStore stateStore, int maxSnapshotTasks) {
         this.stateStore = stateStore;
+        this.maxSnapshotTasks = maxSnapshotTasks;
     }
 
     /**
@@ -71,29 +92,25 @@ public class PodResource extends PrettyJsonResource {
     }
 
     /**
-     * Produces a listing of all pod instance names.
+     * Produces a listing of all pod instance names. The listing may be paged, see {@link ListingPage}.
      */
     @GET
-    public Response getPods() {
+    public Response getPods(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor) {
         try {
-            Set<String> podNames = new TreeSet<>();
-            List<String> unknownTaskNames = new ArrayList<>();
-            for (TaskInfo taskInfo : stateStore.fetchTasks()) {
-                Optional<String> podNameOptional = getPodInstanceName(taskInfo);
-                if (podNameOptional.isPresent()) {
-                    podNames.add(podNameOptional.get());
-                } else {
-                    unknownTaskNames.add(taskInfo.getName());
-                }
+            List<String> podNames = new ArrayList<>(stateStore.fetchPodNames());
+            for (String unknownName : stateStore.fetchTaskNamesWithoutPod()) {
+                podNames.add(String.format("%s_%s", UNKNOWN_POD_LABEL, unknownName));
             }
-            JSONArray jsonArray = new JSONArray(podNames);
-            if (!unknownTaskNames.isEmpty()) {
-                Collections.sort(unknownTaskNames);
-                for (String unknownName : unknownTaskNames) {
-                    jsonArray.put(String.format("%s_%s", UNKNOWN_POD_LABEL, unknownName));
+            final ListingPage page = ListingPage.create(podNames, cursor, limit);
+            return page.build(jsonStreamingOkResponseBuilder(generator -> {
+                generator.writeStartArray();
+                for (String podName : page.getNames()) {
+                    generator.writeString(podName);
                 }
-            }
-            return jsonOkResponse(jsonArray);
+                generator.writeEndArray();
+            }));
+        } catch (IllegalArgumentException e) {
+            return plainResponse(e.getMessage(), Response.Status.BAD_REQUEST);
         } catch (Exception e) {
             LOGGER.error("Failed to fetch list of pods", e);
             return Response.serverError().build();
@@ -101,27 +118,29 @@ public class PodResource extends PrettyJsonResource {
     }
 
     /**
-     * Produces the summary statuses of all pod instances.
+     * Produces the summary statuses of all pod instances. The listing of pods may be paged, see {@link ListingPage}.
+     * The task fields to include may be selected as a comma-separated {@code fields} list. The full listing, with
+     * neither paging nor selected fields, is rendered only when tasks or statuses have changed since it was last
+     * rendered, as long as it's small enough to be kept.
      */
     @Path("/status")
     @GET
-    public Response getPodStatuses() {
+    public Response getPodStatuses(
+            @QueryParam("limit") Integer limit,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("fields") String fields) {
         try {
-            // Group the tasks by pod:
-            GroupedTasks groupedTasks = GroupedTasks.create(stateStore);
-
-            // Output statuses for all tasks in each pod:
-            JSONObject json = new JSONObject();
-            for (Map.Entry<String, List<TaskInfoAndStatus>> podTasks : groupedTasks.byPod.entrySet()) {
-                json.put(podTasks.getKey(), getStatusesJson(podTasks.getValue()));
-            }
-
-            // Output 'unknown pod' for any tasks which didn't have a resolvable pod:
-            if (!groupedTasks.unknownPod.isEmpty()) {
-                json.put(UNKNOWN_POD_LABEL, getStatusesJson(groupedTasks.unknownPod));
+            final Set<String> selectedFields = getStatusFields(fields);
+            if (limit == null && cursor == null && fields == null) {
+                return getAllPodStatuses();
             }
-
-            return jsonOkResponse(json);
+            final ListingPage page = ListingPage.create(getStatusPodNames(), cursor, limit);
+            // Read all of the state up front, so that any failure is reported before the response starts:
+            final Map<String, List<TaskInfoAndStatus>> podTasks = getPodTasks(page.getNames());
+            return page.build(jsonStreamingOkResponseBuilder(
+                    generator -> writePodStatuses(generator, podTasks, selectedFields)));
+        } catch (IllegalArgumentException e) {
+            return plainResponse(e.getMessage(), Response.Status.BAD_REQUEST);
         } catch (Exception e) {
             LOGGER.error("Failed to fetch collated list of task statuses by pod", e);
             return Response.serverError().build();
@@ -133,13 +152,17 @@ public class PodResource extends PrettyJsonResource {
      */
     @Path("/{name}/status")
     @GET
-    public Response getPodStatus(@PathParam("name") String name) {
+    public Response getPodStatus(@PathParam("name") String name, @QueryParam("fields") String fields) {
         try {
-            List<TaskInfoAndStatus> podTasks = GroupedTasks.create(stateStore).byPod.get(name);
-            if (podTasks == null) {
+            final Set<String> selectedFields = getStatusFields(fields);
+            final List<TaskInfoAndStatus> podTasks = getTasks(stateStore.fetchTaskNamesForPod(name));
+            if (podTasks.isEmpty()) {
                 return Response.status(Response.Status.NOT_FOUND).build();
             }
-            return jsonOkResponse(getStatusesJson(podTasks));
+            return jsonStreamingOkResponseBuilder(generator -> writeStatuses(generator, podTasks, selectedFields))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return plainResponse(e.getMessage(), Response.Status.BAD_REQUEST);
         } catch (Exception e) {
             LOGGER.error(String.format("Failed to fetch status for pod '%s'", name), e);
             return Response.serverError().build();
@@ -153,8 +176,8 @@ public class PodResource extends PrettyJsonResource {
     @GET
     public Response getPodInfo(@PathParam("name") String name) {
         try {
-            List<TaskInfoAndStatus> podTasks = GroupedTasks.create(stateStore).byPod.get(name);
-            if (podTasks == null) {
+            List<TaskInfoAndStatus> podTasks = getTasks(stateStore.fetchTaskNamesForPod(name));
+            if (podTasks.isEmpty()) {
                 return Response.status(Response.Status.NOT_FOUND).build();
             }
             return jsonResponseBean(podTasks, Response.Status.OK);
@@ -194,8 +217,8 @@ public class PodResource extends PrettyJsonResource {
 
     private Response restartPod(String name, RecoveryType recoveryType) {
         // look up all tasks in the provided pod name:
-        List<TaskInfoAndStatus> podTasks = GroupedTasks.create(stateStore).byPod.get(name);
-        if (podTasks == null || podTasks.isEmpty()) { // shouldn't ever be empty, but just in case
+        List<TaskInfoAndStatus> podTasks = getTasks(stateStore.fetchTaskNamesForPod(name));
+        if (podTasks.isEmpty()) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
 
@@ -231,75 +254,144 @@ public class PodResource extends PrettyJsonResource {
     }
 
     /**
-     * Utility class for sorting/grouping {@link TaskInfo}s and/or {@link TaskStatus}es into pods.
+     * Returns the statuses of all pod instances. If there are at most {@link #maxSnapshotTasks} tasks, the rendered
+     * statuses are kept, and are only rendered again if tasks or statuses have changed since. Otherwise, the statuses
+     * are streamed as they're rendered, without keeping a copy.
      */
-    private static class GroupedTasks {
-        /** pod instance => tasks in pod. */
-        private final Map<String, List<TaskInfoAndStatus>> byPod = new TreeMap<>();
-        /** tasks for which the pod instance couldn't be determined. */
-        private final List<TaskInfoAndStatus> unknownPod = new ArrayList<>();
-
-        private static GroupedTasks create(StateStore stateStore) {
-            return new GroupedTasks(stateStore.fetchTasks(), stateStore.fetchStatuses());
+    private Response getAllPodStatuses() throws IOException {
+        // Get the count before reading any tasks, so that changes made while rendering are picked up next time:
+        long modificationCount = stateStore.getModificationCount();
+        StatusesSnapshot snapshot = statusesSnapshot;
+        if (snapshot != null && snapshot.modificationCount == modificationCount) {
+            return jsonStreamingOkResponse(snapshot.json);
         }
 
-        private GroupedTasks(Collection<TaskInfo> taskInfos, Collection<TaskStatus> taskStatuses) {
-            Map<TaskID, TaskStatus> taskStatusesById = taskStatuses.stream()
-                    .collect(Collectors.toMap(status -> status.getTaskId(), Function.identity()));
-
-            // map TaskInfos (and TaskStatuses if available) into pod instances:
-            for (TaskInfo taskInfo : taskInfos) {
-                TaskInfoAndStatus taskInfoAndStatus = TaskInfoAndStatus.create(
-                        taskInfo,
-                        Optional.ofNullable(taskStatusesById.get(taskInfo.getTaskId())));
-                Optional<String> podNameOptional = getPodInstanceName(taskInfo);
-                if (podNameOptional.isPresent()) {
-                    List<TaskInfoAndStatus> tasksAndStatuses = byPod.get(podNameOptional.get());
-                    if (tasksAndStatuses == null) {
-                        tasksAndStatuses = new ArrayList<>();
-                        byPod.put(podNameOptional.get(), tasksAndStatuses);
-                    }
-                    tasksAndStatuses.add(taskInfoAndStatus);
-                } else {
-                    unknownPod.add(taskInfoAndStatus);
-                }
+        // Read all of the state up front, so that any failure is reported before the response starts:
+        Map<String, List<TaskInfoAndStatus>> podTasks = getPodTasks(getStatusPodNames());
+        Set<String> allFields = new LinkedHashSet<>(STATUS_FIELDS);
+        int taskCount = podTasks.values().stream().mapToInt(List::size).sum();
+        if (taskCount > maxSnapshotTasks) {
+            statusesSnapshot = null;
+            return jsonStreamingOkResponse(generator -> writePodStatuses(generator, podTasks, allFields));
+        }
+        snapshot = new StatusesSnapshot(
+                modificationCount,
+                renderJson(generator -> writePodStatuses(generator, podTasks, allFields)));
+        statusesSnapshot = snapshot;
+        return jsonStreamingOkResponse(snapshot.json);
+    }
+
+    /**
+     * Returns the names of all pod instances, along with {@link #UNKNOWN_POD_LABEL} if any tasks didn't have a
+     * resolvable pod.
+     */
+    private List<String> getStatusPodNames() {
+        List<String> podNames = new ArrayList<>(stateStore.fetchPodNames());
+        if (!stateStore.fetchTaskNamesWithoutPod().isEmpty()) {
+            podNames.add(UNKNOWN_POD_LABEL);
+        }
+        return podNames;
+    }
+
+    /**
+     * Returns the tasks of each of the named pod instances, in the same order. Pods without any tasks are omitted.
+     */
+    private Map<String, List<TaskInfoAndStatus>> getPodTasks(List<String> podNames) {
+        Map<String, List<TaskInfoAndStatus>> podTasks = new LinkedHashMap<>();
+        for (String podName : podNames) {
+            List<TaskInfoAndStatus> tasks = getTasks(podName.equals(UNKNOWN_POD_LABEL)
+                    ? stateStore.fetchTaskNamesWithoutPod()
+                    : stateStore.fetchTaskNamesForPod(podName));
+            if (!tasks.isEmpty()) {
+                podTasks.put(podName, tasks);
+            }
+        }
+        return podTasks;
+    }
+
+    /**
+     * Returns the tasks with the provided names along with their statuses, in the same order. Tasks which are no longer
+     * present are omitted. A status is only included if it's for the current launch of the task.
+     */
+    private List<TaskInfoAndStatus> getTasks(List<String> taskNames) {
+        List<TaskInfoAndStatus> tasks = new ArrayList<>(taskNames.size());
+        for (String taskName : taskNames) {
+            Optional<TaskInfo> taskInfo = stateStore.fetchTask(taskName);
+            if (!taskInfo.isPresent()) {
+                continue;
             }
+            Optional<TaskStatus> taskStatus = stateStore.fetchStatus(taskName)
+                    .filter(status -> status.getTaskId().equals(taskInfo.get().getTaskId()));
+            tasks.add(TaskInfoAndStatus.create(taskInfo.get(), taskStatus));
+        }
+        return tasks;
+    }
 
-            // sort the tasks within each pod by the task names (for user convenience):
-            for (List<TaskInfoAndStatus> podTasks : byPod.values()) {
-                podTasks.sort(new Comparator<TaskInfoAndStatus>() {
-                    @Override
-                    public int compare(TaskInfoAndStatus a, TaskInfoAndStatus b) {
-                        return a.getInfo().getName().compareTo(b.getInfo().getName());
-                    }
-                });
+    /**
+     * Returns the status fields selected by the provided comma-separated list, or all fields if it's {@code null}.
+     *
+     * @throws IllegalArgumentException if an unknown field is listed
+     */
+    private static Set<String> getStatusFields(String fields) {
+        if (fields == null) {
+            return new LinkedHashSet<>(STATUS_FIELDS);
+        }
+        Set<String> requestedFields = new LinkedHashSet<>(Arrays.asList(fields.split(",")));
+        for (String field : requestedFields) {
+            if (!STATUS_FIELDS.contains(field)) {
+                throw new IllegalArgumentException(
+                        String.format("Unknown field '%s', expected one or more of: %s", field, STATUS_FIELDS));
             }
         }
+        // Retain the usual field order regardless of the order requested:
+        Set<String> selectedFields = new LinkedHashSet<>(STATUS_FIELDS);
+        selectedFields.retainAll(requestedFields);
+        return selectedFields;
     }
 
-    private static JSONArray getStatusesJson(List<TaskInfoAndStatus> tasks) {
-        JSONArray jsonPod = new JSONArray();
+    private static void writePodStatuses(
+            JsonGenerator generator, Map<String, List<TaskInfoAndStatus>> podTasks, Set<String> fields)
+            throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<String, List<TaskInfoAndStatus>> entry : podTasks.entrySet()) {
+            generator.writeFieldName(entry.getKey());
+            writeStatuses(generator, entry.getValue(), fields);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeStatuses(JsonGenerator generator, List<TaskInfoAndStatus> tasks, Set<String> fields)
+            throws IOException {
+        generator.writeStartArray();
         for (TaskInfoAndStatus task : tasks) {
-            JSONObject jsonTask = new JSONObject();
-            jsonTask.put("id", task.getInfo().getTaskId().getValue());
-            jsonTask.put("name", task.getInfo().getName());
-            if (task.hasStatus()) {
-                jsonTask.put("state", task.getStatus().get().getState().toString());
-            } else {
-                jsonTask.put("state", "No state defined");
+            generator.writeStartObject();
+            if (fields.contains("id")) {
+                generator.writeStringField("id", task.getInfo().getTaskId().getValue());
+            }
+            if (fields.contains("name")) {
+                generator.writeStringField("name", task.getInfo().getName());
+            }
+            if (fields.contains("state")) {
+                generator.writeStringField("state", task.hasStatus()
+                        ? task.getStatus().get().getState().toString()
+                        : "No state defined");
             }
-            jsonPod.put(jsonTask);
+            generator.writeEndObject();
         }
-        return jsonPod;
+        generator.writeEndArray();
     }
 
-    private static Optional<String> getPodInstanceName(TaskInfo taskInfo) {
-        try {
-            TaskLabelReader labels = new TaskLabelReader(taskInfo);
-            return Optional.of(PodInstance.getName(labels.getType(), labels.getIndex()));
-        } catch (Exception e) {
-            LOGGER.warn(String.format("Failed to extract pod information from task %s", taskInfo.getName()), e);
-            return Optional.empty();
+    /**
+     * A rendered response for {@link #getPodStatuses(Integer, String, String)}, along with the {@link StateStore}
+     * modification count at the time that it was rendered.
+     */
+    private static class StatusesSnapshot {
+        private final long modificationCount;
+        private final byte[] json;
+
+        private StatusesSnapshot(long modificationCount, byte[] json) {
+            this.modificationCount = modificationCount;
+            this.json = json;
         }
     }
 }
@@ -1,11 +1,19 @@
 package com.mesosphere.sdk.api;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.protobuf.Message;
 
 /**
@@ -13,6 +21,18 @@ import com.google.protobuf.Message;
  */
 public class ResponseUtils {
 
+    // The response stream is closed by the container, not by the generator:
+    private static final JsonFactory JSON_FACTORY =
+            new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    /**
+     * Writes a JSON document to a {@link JsonGenerator}.
+     */
+    @FunctionalInterface
+    public interface JsonWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
     private ResponseUtils() {
         // do not instantiate
     }
@@ -68,6 +88,49 @@ public class ResponseUtils {
         return Response.status(status).entity(entity).type(MediaType.APPLICATION_JSON_TYPE).build();
     }
 
+    /**
+     * Returns a 200 OK response which streams the JSON document produced by the provided writer. The document is
+     * written directly to the response as it's produced, rather than being built in memory first.
+     */
+    public static Response jsonStreamingOkResponse(JsonWriter jsonWriter) {
+        return jsonStreamingOkResponseBuilder(jsonWriter).build();
+    }
+
+    /**
+     * Returns a 200 OK response builder for streaming the JSON document produced by the provided writer, to which
+     * headers may be added before building the response.
+     */
+    public static Response.ResponseBuilder jsonStreamingOkResponseBuilder(JsonWriter jsonWriter) {
+        StreamingOutput stream = output -> writeJson(output, jsonWriter);
+        return Response.ok(stream, MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    /**
+     * Returns a 200 OK response which streams a JSON document which was previously rendered by
+     * {@link #renderJson(JsonWriter)}.
+     */
+    public static Response jsonStreamingOkResponse(byte[] renderedJson) {
+        StreamingOutput stream = output -> output.write(renderedJson);
+        return Response.ok(stream, MediaType.APPLICATION_JSON_TYPE).build();
+    }
+
+    /**
+     * Returns the JSON document produced by the provided writer as UTF-8 bytes, e.g. so that it may be cached and then
+     * returned using {@link #jsonStreamingOkResponse(byte[])}.
+     */
+    public static byte[] renderJson(JsonWriter jsonWriter) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writeJson(output, jsonWriter);
+        return output.toByteArray();
+    }
+
+    private static void writeJson(OutputStream output, JsonWriter jsonWriter) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            jsonWriter.write(generator);
+        }
+    }
+
     /**
      * Returns a 200 OK response containing the provided plaintext {@link String}.
      */
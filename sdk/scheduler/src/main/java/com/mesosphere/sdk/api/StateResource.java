@@ -94,12 +94,23 @@ public class StateResource {
 
     }
 
+    /**
+     * Produces a listing of all property keys. The listing may be paged, see {@link ListingPage}.
+     */
     @Path("/properties")
     @GET
-    public Response getPropertyKeys() {
+    public Response getPropertyKeys(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor) {
         try {
-            JSONArray keyArray = new JSONArray(stateStore.fetchPropertyKeys());
-            return ResponseUtils.jsonOkResponse(keyArray);
+            final ListingPage page = ListingPage.create(stateStore.fetchPropertyKeys(), cursor, limit);
+            return page.build(ResponseUtils.jsonStreamingOkResponseBuilder(generator -> {
+                generator.writeStartArray();
+                for (String key : page.getNames()) {
+                    generator.writeString(key);
+                }
+                generator.writeEndArray();
+            }));
+        } catch (IllegalArgumentException ex) {
+            return ResponseUtils.plainResponse(ex.getMessage(), Response.Status.BAD_REQUEST);
         } catch (StateStoreException ex) {
             logger.error("Failed to fetch list of property keys", ex);
             return Response.serverError().build();
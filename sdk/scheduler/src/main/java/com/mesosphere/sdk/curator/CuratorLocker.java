@@ -1,5 +1,7 @@
 package com.mesosphere.sdk.curator;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.curator.framework.CuratorFramework;
@@ -17,64 +19,103 @@ import com.mesosphere.sdk.storage.PersisterUtils;
 /**
  * Gets an exclusive lock on service-specific ZK node to ensure two schedulers aren't running simultaneously for the
  * same service.
+ * <p>
+ * While the lock is held by another scheduler, a watch is left on that scheduler's ephemeral lock node, so that the
+ * lock is acquired as soon as the node is removed: immediately when the other scheduler exits cleanly, or once its ZK
+ * session expires otherwise. The ZK client may be shared with a {@link CuratorPersister}, so that a scheduler only
+ * holds a single ZK session.
  */
 public class CuratorLocker {
-    private static final Logger LOGGER = LoggerFactory.getLogger(CuratorUtils.class);
+    private static final Logger LOGGER = LoggerFactory.getLogger(CuratorLocker.class);
 
-    private static final int LOCK_ATTEMPTS = 3;
+    /**
+     * How long to wait for the lock before giving up, in units of {@link #getWaitTimeUnit()}. This is longer than the
+     * default ZK session timeout, so that a restarted scheduler can outwait the session of its predecessor.
+     */
+    private static final int LOCK_WAIT = 90;
     static final String LOCK_PATH_NAME = "lock";
 
     private final String serviceName;
     private final String zookeeperConnection;
+    private final Optional<CuratorFramework> sharedClient;
 
     private CuratorFramework curatorClient;
     private InterProcessMutex curatorMutex;
 
+    /**
+     * Creates a new locker which opens its own ZK session when locking.
+     */
     public CuratorLocker(ServiceSpec serviceSpec) {
+        this(serviceSpec, Optional.empty());
+    }
+
+    /**
+     * Creates a new locker which uses the ZK session of the provided persister. The session is left open when
+     * unlocking.
+     */
+    public CuratorLocker(ServiceSpec serviceSpec, CuratorPersister persister) {
+        this(serviceSpec, Optional.of(persister.getClient()));
+    }
+
+    private CuratorLocker(ServiceSpec serviceSpec, Optional<CuratorFramework> sharedClient) {
         this.serviceName = serviceSpec.getName();
         this.zookeeperConnection = serviceSpec.getZookeeperConnection();
+        this.sharedClient = sharedClient;
     }
 
     /**
      * Gets an exclusive lock on service-specific ZK node to ensure two schedulers aren't running simultaneously for the
-     * same service.
+     * same service. If another scheduler holds the lock, this waits for it to be released, up to a limit which allows
+     * for the ZK session of a previous scheduler process to expire. The process exits if the lock isn't acquired.
      */
     public void lock() {
-        if (curatorClient != null) {
-            throw new IllegalStateException("Already locked");
+        final String lockPath = startLock();
+        try {
+            if (curatorMutex.acquire(LOCK_WAIT, getWaitTimeUnit())) {
+                LOGGER.info("Lock acquired.");
+                return;
+            }
+            LOGGER.error("Failed to acquire ZK lock on {} after waiting {} {}. " +
+                    "Duplicate service named '{}'? Restarting scheduler process to try again.",
+                    lockPath, LOCK_WAIT, getWaitTimeUnit(), serviceName);
+        } catch (Exception ex) {
+            LOGGER.error(String.format("Error acquiring ZK lock on path: %s", lockPath), ex);
         }
-        curatorClient = CuratorFrameworkFactory.newClient(zookeeperConnection, CuratorUtils.getDefaultRetry());
-        curatorClient.start();
-
-        final String lockPath = PersisterUtils.join(CuratorUtils.getServiceRootPath(serviceName), LOCK_PATH_NAME);
-        InterProcessMutex curatorMutex = new InterProcessMutex(curatorClient, lockPath);
+        abortLock();
+        exit();
+    }
 
-        LOGGER.info("Acquiring ZK lock on {}...", lockPath);
-        final String failureLogMsg = String.format("Failed to acquire ZK lock on %s. " +
-                "Duplicate service named '%s', or recently restarted instance of '%s'?",
-                lockPath, serviceName, serviceName);
+    /**
+     * Gets an exclusive lock on service-specific ZK node as a standby for another scheduler, waiting for as long as
+     * the other scheduler holds the lock. The provided preload is run in the background while waiting, e.g. to fill
+     * caches ahead of taking over from the other scheduler. Once the lock has been acquired, this waits for the
+     * preload to finish before returning. The process exits if there's an error while waiting.
+     */
+    public void lockAsStandby(Runnable preload) {
+        final String lockPath = startLock();
+        CompletableFuture<Void> preloadFuture = CompletableFuture.runAsync(preload);
         try {
-            // Start at 1 for pretty display of "1/3" through "3/3":
-            for (int attempt = 1; attempt < LOCK_ATTEMPTS + 1; ++attempt) {
-                if (curatorMutex.acquire(10, getWaitTimeUnit())) {
-                    LOGGER.info("{}/{} Lock acquired.", attempt, LOCK_ATTEMPTS);
-                    this.curatorMutex = curatorMutex;
-                    return;
-                }
-                if (attempt < LOCK_ATTEMPTS) {
-                    LOGGER.error("{}/{} {} Retrying lock...", attempt, LOCK_ATTEMPTS, failureLogMsg);
-                }
+            while (!curatorMutex.acquire(LOCK_WAIT, getWaitTimeUnit())) {
+                LOGGER.info("Standing by for ZK lock on {}, held by another instance of '{}'...",
+                        lockPath, serviceName);
             }
-            LOGGER.error(failureLogMsg + " Restarting scheduler process to try again.");
+            LOGGER.info("Lock acquired.");
         } catch (Exception ex) {
             LOGGER.error(String.format("Error acquiring ZK lock on path: %s", lockPath), ex);
+            abortLock();
+            exit();
+            return;
+        }
+        try {
+            preloadFuture.join();
+        } catch (Exception ex) {
+            // The preload is only an optimization
+            LOGGER.warn("Failed to preload while waiting for ZK lock", ex);
         }
-        curatorClient = null;
-        exit();
     }
 
     /**
-     * Releases the lock previously obtained via {@link #lock()}.
+     * Releases the lock previously obtained via {@link #lock()} or {@link #lockAsStandby(Runnable)}.
      */
     public void unlock() {
         if (curatorClient == null) {
@@ -85,7 +126,7 @@ public class CuratorLocker {
         } catch (Exception ex) {
             LOGGER.error("Error releasing ZK lock.", ex);
         }
-        curatorClient.close();
+        closeClient();
         curatorMutex = null;
         curatorClient = null;
     }
@@ -105,4 +146,37 @@ public class CuratorLocker {
     protected void exit() {
         SchedulerUtils.hardExit(SchedulerErrorCode.LOCK_UNAVAILABLE);
     }
+
+    /**
+     * Sets up the client and mutex for acquiring the lock, and returns the lock path.
+     */
+    private String startLock() {
+        if (curatorClient != null) {
+            throw new IllegalStateException("Already locked");
+        }
+        if (sharedClient.isPresent()) {
+            curatorClient = sharedClient.get();
+        } else {
+            curatorClient = CuratorFrameworkFactory.newClient(zookeeperConnection, CuratorUtils.getDefaultRetry());
+            curatorClient.start();
+        }
+
+        final String lockPath = PersisterUtils.join(CuratorUtils.getServiceRootPath(serviceName), LOCK_PATH_NAME);
+        // The mutex waits on a watch of the node which precedes its own, rather than polling:
+        curatorMutex = new InterProcessMutex(curatorClient, lockPath);
+        LOGGER.info("Acquiring ZK lock on {}...", lockPath);
+        return lockPath;
+    }
+
+    private void abortLock() {
+        closeClient();
+        curatorMutex = null;
+        curatorClient = null;
+    }
+
+    private void closeClient() {
+        if (!sharedClient.isPresent()) {
+            curatorClient.close();
+        }
+    }
 }
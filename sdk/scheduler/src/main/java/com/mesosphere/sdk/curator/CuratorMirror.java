@@ -0,0 +1,302 @@
+package com.mesosphere.sdk.curator;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.curator.framework.api.CuratorWatcher;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mesosphere.sdk.storage.PersisterUtils;
+
+/**
+ * Keeps an in-memory copy of a service's data in ZK, which is kept up to date via watches on every node. This allows a
+ * standby scheduler to hold current state while waiting for the lock, rather than reading all of it from ZK once it
+ * takes over.
+ * <p>
+ * The copy only remains complete for as long as the ZK session which holds the watches. If the session expires, or a
+ * read fails, the mirror is marked stale and its data shouldn't be used.
+ */
+public class CuratorMirror implements CuratorWatcher, BackgroundCallback {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CuratorMirror.class);
+
+    private final CuratorFramework client;
+    private final String serviceRootPath;
+
+    // Access to the following is guarded by 'this'. Paths are relative to the service root, as with CuratorPersister:
+    private final Map<String, byte[]> data = new HashMap<>();
+    private final Map<String, Set<String>> children = new HashMap<>();
+    // The number of reads which have been sent to ZK and whose results haven't been applied yet:
+    private int outstandingReads = 0;
+    private boolean stale = false;
+    private boolean started = false;
+    private boolean closed = false;
+
+    /**
+     * Creates a new mirror of the data stored by the provided persister, using the persister's ZK session.
+     */
+    public CuratorMirror(CuratorPersister persister) {
+        this.client = persister.getClient();
+        this.serviceRootPath = persister.getServiceRootPath();
+    }
+
+    /**
+     * Loads all of the service's data from ZK, leaving watches which keep it up to date. This returns once the initial
+     * load is complete, or once it has failed.
+     */
+    public void start() throws InterruptedException {
+        synchronized (this) {
+            if (started) {
+                throw new IllegalStateException("Already started");
+            }
+            started = true;
+        }
+        LOGGER.info("Loading data under {} and watching for changes...", serviceRootPath);
+        watchChildren(serviceRootPath);
+        awaitReads(Duration.ofMillis(Long.MAX_VALUE));
+        LOGGER.info("Loaded {} entries under {}", getSize(), serviceRootPath);
+    }
+
+    /**
+     * Waits for the mirror to reflect all changes which were made in ZK before this call, and returns whether it's
+     * current and complete. Returns {@code false} if the mirror is stale, or if the wait timed out.
+     */
+    public boolean awaitCurrent(Duration timeout) throws InterruptedException {
+        // Watch notifications and read results are delivered in order. Once the result of this sync has been
+        // delivered, any reads prompted by earlier changes have been sent, and they're all covered by the wait below:
+        beginRead();
+        try {
+            client.sync().inBackground(this).forPath(serviceRootPath);
+        } catch (Exception e) {
+            LOGGER.error(String.format("Failed to sync %s", serviceRootPath), e);
+            markStale();
+            endRead();
+        }
+        return awaitReads(timeout);
+    }
+
+    /**
+     * Returns a copy of the mirrored data, in the form returned by {@link PersisterUtils#getAllData}.
+     *
+     * @throws IllegalStateException if the mirror is stale
+     */
+    public synchronized Map<String, byte[]> getAllData() {
+        if (stale) {
+            throw new IllegalStateException(String.format("Mirror of %s is stale", serviceRootPath));
+        }
+        return new TreeMap<>(data); // consistent ordering, as with PersisterUtils
+    }
+
+    /**
+     * Stops updating the mirror and drops its data. Watches which are still registered in ZK are ignored when they
+     * fire.
+     */
+    public synchronized void close() {
+        closed = true;
+        data.clear();
+        children.clear();
+        notifyAll();
+    }
+
+    @Override
+    public void process(WatchedEvent event) {
+        if (event.getType() == Watcher.Event.EventType.None) {
+            if (event.getState() == Watcher.Event.KeeperState.Expired) {
+                // Our watches were lost along with the session:
+                LOGGER.warn("ZK session expired, mirror of {} is now stale", serviceRootPath);
+                markStale();
+            }
+            return;
+        }
+        if (isClosed()) {
+            return;
+        }
+        String path = event.getPath();
+        switch (event.getType()) {
+        case NodeDataChanged:
+            watchData(path);
+            break;
+        case NodeChildrenChanged:
+            watchChildren(path);
+            break;
+        case NodeDeleted:
+            // The parent's watch is notified after this one, and relists the node if it has been recreated since:
+            remove(path);
+            break;
+        default:
+            break;
+        }
+    }
+
+    @Override
+    public void processResult(CuratorFramework curatorClient, CuratorEvent event) {
+        try {
+            KeeperException.Code code = KeeperException.Code.get(event.getResultCode());
+            if (code == KeeperException.Code.NONODE) {
+                // The node was deleted after the read was sent, and its watch handles the removal:
+                return;
+            }
+            if (code != KeeperException.Code.OK) {
+                LOGGER.error("Failed to read {} ({}), mirror of {} is now stale",
+                        event.getPath(), code, serviceRootPath);
+                markStale();
+                return;
+            }
+            switch (event.getType()) {
+            case GET_DATA:
+                putData(event.getPath(), event.getData());
+                break;
+            case CHILDREN:
+                for (String child : putChildren(event.getPath(), event.getChildren())) {
+                    String childPath = PersisterUtils.join(event.getPath(), child);
+                    watchData(childPath);
+                    watchChildren(childPath);
+                }
+                break;
+            default:
+                break;
+            }
+        } finally {
+            endRead();
+        }
+    }
+
+    private void watchData(String path) {
+        if (path.equals(serviceRootPath)) {
+            // As with PersisterUtils.getAllData(), the root's own data isn't included
+            return;
+        }
+        beginRead();
+        try {
+            client.getData().usingWatcher(this).inBackground(this).forPath(path);
+        } catch (Exception e) {
+            LOGGER.error(String.format("Failed to read data of %s", path), e);
+            markStale();
+            endRead();
+        }
+    }
+
+    private void watchChildren(String path) {
+        beginRead();
+        try {
+            client.getChildren().usingWatcher(this).inBackground(this).forPath(path);
+        } catch (Exception e) {
+            LOGGER.error(String.format("Failed to read children of %s", path), e);
+            markStale();
+            endRead();
+        }
+    }
+
+    private synchronized void putData(String path, byte[] bytes) {
+        if (closed) {
+            return;
+        }
+        // As with PersisterUtils.getAllData(), omit empty parents which lack data of their own:
+        if (bytes == null) {
+            data.remove(getRelativePath(path));
+        } else {
+            data.put(getRelativePath(path), bytes);
+        }
+    }
+
+    /**
+     * Stores the listed children of a node, and returns any children which weren't known before.
+     */
+    private synchronized Set<String> putChildren(String path, Iterable<String> childNames) {
+        Set<String> added = new HashSet<>();
+        if (closed) {
+            return added;
+        }
+        Set<String> known = children.computeIfAbsent(getRelativePath(path), p -> new HashSet<>());
+        for (String child : childNames) {
+            if (known.add(child)) {
+                added.add(child);
+            }
+        }
+        return added;
+    }
+
+    private synchronized void remove(String path) {
+        if (path.equals(serviceRootPath)) {
+            data.clear();
+            children.clear();
+            return;
+        }
+        String relativePath = getRelativePath(path);
+        String prefix = relativePath + PersisterUtils.PATH_DELIM_STR;
+        removeMatching(data.keySet().iterator(), relativePath, prefix);
+        removeMatching(children.keySet().iterator(), relativePath, prefix);
+        Set<String> siblings = children.get(getRelativePath(getParent(path)));
+        if (siblings != null) {
+            siblings.remove(path.substring(path.lastIndexOf(PersisterUtils.PATH_DELIM) + 1));
+        }
+    }
+
+    private static void removeMatching(Iterator<String> paths, String path, String prefix) {
+        while (paths.hasNext()) {
+            String next = paths.next();
+            if (next.equals(path) || next.startsWith(prefix)) {
+                paths.remove();
+            }
+        }
+    }
+
+    private synchronized void beginRead() {
+        ++outstandingReads;
+    }
+
+    private synchronized void endRead() {
+        --outstandingReads;
+        notifyAll();
+    }
+
+    private synchronized void markStale() {
+        stale = true;
+        notifyAll();
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private synchronized int getSize() {
+        return data.size();
+    }
+
+    /**
+     * Waits for all outstanding reads to be applied, and returns whether the mirror is current.
+     */
+    private synchronized boolean awaitReads(Duration timeout) throws InterruptedException {
+        long deadlineMs = System.currentTimeMillis() + Math.min(timeout.toMillis(), Long.MAX_VALUE / 2);
+        while (outstandingReads > 0 && !stale && !closed) {
+            long remainingMs = deadlineMs - System.currentTimeMillis();
+            if (remainingMs <= 0) {
+                return false;
+            }
+            wait(remainingMs);
+        }
+        return !stale && !closed;
+    }
+
+    private String getRelativePath(String path) {
+        return path.equals(serviceRootPath)
+                ? PersisterUtils.PATH_DELIM_STR
+                : path.substring(serviceRootPath.length());
+    }
+
+    private static String getParent(String path) {
+        int lastDelim = path.lastIndexOf(PersisterUtils.PATH_DELIM);
+        return lastDelim <= 0 ? PersisterUtils.PATH_DELIM_STR : path.substring(0, lastDelim);
+    }
+}
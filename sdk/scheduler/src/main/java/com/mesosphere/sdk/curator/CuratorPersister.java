@@ -135,6 +135,16 @@ public class CuratorPersister implements Persister {
         return new Builder(serviceSpec.getName(), serviceSpec.getZookeeperConnection());
     }
 
+    /**
+     * Creates a new {@link Builder} instance which has been initialized with reasonable default values.
+     *
+     * @param serviceName the name of the service for which data will be stored
+     * @param zookeeperConnection the ZK connection string for the service
+     */
+    public static Builder newBuilder(String serviceName, String zookeeperConnection) {
+        return new Builder(serviceName, zookeeperConnection);
+    }
+
     @VisibleForTesting
     CuratorPersister(String serviceName, CuratorFramework client) {
         this.serviceRootPath = CuratorUtils.getServiceRootPath(serviceName);
@@ -142,6 +152,20 @@ public class CuratorPersister implements Persister {
         this.client.start();
     }
 
+    /**
+     * Returns the underlying client, e.g. for sharing its ZK session with a {@link CuratorLocker}.
+     */
+    CuratorFramework getClient() {
+        return client;
+    }
+
+    /**
+     * Returns the ZK path which all paths passed to this instance are relative to.
+     */
+    String getServiceRootPath() {
+        return serviceRootPath;
+    }
+
     @Override
     public byte[] get(String unprefixedPath) throws PersisterException {
         final String path = withFrameworkPrefix(unprefixedPath);
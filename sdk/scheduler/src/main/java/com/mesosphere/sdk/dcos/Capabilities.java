@@ -36,6 +36,18 @@ public class Capabilities {
         this.dcosCluster = dcosCluster;
     }
 
+    /**
+     * Fetches the DC/OS version ahead of the first capability check, so that the check doesn't block on the fetch.
+     * Failures are logged and the fetch is retried on the first check.
+     */
+    public void prefetch() {
+        try {
+            dcosCluster.getDcosVersion();
+        } catch (IOException e) {
+            LOGGER.warn("Unable to prefetch DC/OS version, will retry on first use", e);
+        }
+    }
+
     public boolean supportsDefaultExecutor() {
         // Use of the default executor is supported by DC/OS 1.10 upwards.
         return hasOrExceedsVersion(1, 10);
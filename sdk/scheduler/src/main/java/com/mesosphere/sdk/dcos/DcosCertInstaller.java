@@ -1,25 +1,38 @@
 package com.mesosphere.sdk.dcos;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.mesosphere.sdk.offer.ProcessBuilderUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collections;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.Collection;
 import java.util.Optional;
 
 /**
- * Facilitates installation of DC/OS cert inside framework's JRE.
+ * Facilitates installation of DC/OS cert inside framework's JVM.
+ * <p>
+ * The cert is loaded into an in-memory trust store alongside the certs which the JRE trusts by default, and the
+ * resulting {@link SSLContext} is made the JVM default. The JRE's own {@code cacerts} file is left untouched.
  */
 public class DcosCertInstaller {
     private static final Logger LOGGER = LoggerFactory.getLogger(DcosCertInstaller.class);
 
-    private static final String DEFAULT_JRE_KEYSTORE_PASS = "changeit";
     /**
      * Sandbox location of the ca cert on pre-1.10 DC/OS clusters.
      */
@@ -29,53 +42,94 @@ public class DcosCertInstaller {
      */
     private static final String POST_110_CERT_PATH = ".ssl/ca-bundle.crt";
 
-    public static boolean installCertificate(String pathToJRE) {
-        if (StringUtils.isEmpty(pathToJRE)) {
-            LOGGER.error("No JRE specified, skipping certificate installation.");
+    private static volatile Optional<SSLContext> sslContext = Optional.empty();
+
+    /**
+     * Installs the DC/OS cert from the sandbox, if present.
+     *
+     * @return whether a cert was found and installed
+     */
+    public static boolean installCertificate() {
+        final Optional<Path> sandboxCertPath = determineCertPath();
+        if (!sandboxCertPath.isPresent()) {
+            LOGGER.info("Cert file not found in the sandbox. This is expected if the cluster is not in STRICT" +
+                    "mode. No work to be done.");
             return false;
         }
-        return installCertificate(pathToJRE, new ProcessRunner());
+        return installCertificate(sandboxCertPath.get());
+    }
+
+    /**
+     * Returns the {@link SSLContext} which trusts the DC/OS cert, or an empty {@link Optional} if no cert has been
+     * installed.
+     */
+    public static Optional<SSLContext> getSSLContext() {
+        return sslContext;
     }
 
     @VisibleForTesting
-    protected static boolean installCertificate(String pathToJRE, ProcessRunner processRunner) {
+    static boolean installCertificate(Path certPath) {
         try {
-            final Path jrePath = Paths.get(pathToJRE);
-            if (!Files.exists(jrePath)) {
-                LOGGER.warn("JRE not found at path, nothing to do: {}", jrePath.toAbsolutePath());
-                return false;
-            }
-
-            final Optional<Path> sandboxCertPath = determineCertPath();
-            if (!sandboxCertPath.isPresent()) {
-                LOGGER.info("Cert file not found in the sandbox. This is expected if the cluster is not in STRICT" +
-                        "mode. No work to be done.");
-                return false;
-            }
-
-            final Path jreDefaultKeystorePath = Paths.get(pathToJRE, "/lib/security/cacerts");
-            final String jreDefaultKeystoreAbsolutePath = jreDefaultKeystorePath.toAbsolutePath().toString();
+            SSLContext context = createSSLContext(certPath);
+            SSLContext.setDefault(context);
+            HttpsURLConnection.setDefaultSSLSocketFactory(context.getSocketFactory());
+            sslContext = Optional.of(context);
+            return true;
+        } catch (IOException | GeneralSecurityException e) {
+            LOGGER.error(String.format("Error installing cert from %s", certPath.toAbsolutePath()), e);
+            return false;
+        }
+    }
 
-            final Path keytoolPath = Paths.get(pathToJRE, "/bin/keytool");
-            final String keytoolAbsolutePath = keytoolPath.toAbsolutePath().toString();
+    @VisibleForTesting
+    static void clearSSLContext() {
+        sslContext = Optional.empty();
+    }
 
-            final String certAbsolutePath = sandboxCertPath.get().toAbsolutePath().toString();
+    private static SSLContext createSSLContext(Path certPath) throws IOException, GeneralSecurityException {
+        final KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        keyStore.load(null, null);
 
-            String cmd = String.format("%s -importcert -noprompt -alias dcoscert -keystore %s -file %s -storepass %s",
-                    keytoolAbsolutePath,
-                    jreDefaultKeystoreAbsolutePath,
-                    certAbsolutePath,
-                    DEFAULT_JRE_KEYSTORE_PASS);
+        // Start with the certs which the JRE trusts by default:
+        X509Certificate[] defaultCerts = getDefaultTrustManager().getAcceptedIssuers();
+        for (int i = 0; i < defaultCerts.length; ++i) {
+            keyStore.setCertificateEntry(String.format("default-%d", i), defaultCerts[i]);
+        }
 
-            LOGGER.info("Installing DC/OS cert using command: {}", cmd);
+        // The 1.10+ path holds a bundle of certs, rather than a single cert:
+        final Collection<? extends Certificate> dcosCerts;
+        try (InputStream certStream = Files.newInputStream(certPath)) {
+            dcosCerts = CertificateFactory.getInstance("X.509").generateCertificates(certStream);
+        }
+        if (dcosCerts.isEmpty()) {
+            throw new CertificateException(
+                    String.format("No certs found in cert file: %s", certPath.toAbsolutePath()));
+        }
+        int index = 0;
+        for (Certificate cert : dcosCerts) {
+            keyStore.setCertificateEntry(String.format("dcoscert-%d", index++), cert);
+        }
+        LOGGER.info("Installing {} DC/OS cert(s) from {} alongside {} default cert(s)",
+                dcosCerts.size(), certPath.toAbsolutePath(), defaultCerts.length);
+
+        final TrustManagerFactory trustManagerFactory =
+                TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init(keyStore);
+        final SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, trustManagerFactory.getTrustManagers(), null);
+        return context;
+    }
 
-            final int exitCode = processRunner.run(ProcessBuilderUtils.buildProcess(cmd, Collections.emptyMap()), 10);
-            LOGGER.info("Certificate install process completed with exit code: {}", exitCode);
-            return exitCode == 0;
-        } catch (Throwable t) {
-            LOGGER.error(String.format("Error installing cert inside JRE: %s", pathToJRE), t);
-            return false;
+    private static X509TrustManager getDefaultTrustManager() throws GeneralSecurityException {
+        final TrustManagerFactory trustManagerFactory =
+                TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init((KeyStore) null);
+        for (TrustManager trustManager : trustManagerFactory.getTrustManagers()) {
+            if (trustManager instanceof X509TrustManager) {
+                return (X509TrustManager) trustManager;
+            }
         }
+        throw new KeyStoreException("No default X.509 trust manager found");
     }
 
     private static Optional<Path> determineCertPath() {
@@ -97,20 +151,4 @@ public class DcosCertInstaller {
 
         return Optional.of(sandboxCertPath);
     }
-
-    /**
-     * Runs the provided process and returns an exit value. This is broken out into a separate
-     * function to allow mockery in tests.
-     */
-    @VisibleForTesting
-    static class ProcessRunner {
-        public int run(ProcessBuilder processBuilder, double timeoutSeconds)
-                throws IOException, InterruptedException {
-            Process process = processBuilder.start();
-            synchronized (process) {
-                process.wait((long) (timeoutSeconds * 1000));
-            }
-            return process.exitValue();
-        }
-    }
 }
@@ -1,6 +1,9 @@
 package com.mesosphere.sdk.dcos;
 
+import com.mesosphere.sdk.dcos.http.DcosHttpClientBuilder;
+import org.apache.http.client.fluent.Executor;
 import org.apache.http.client.fluent.Request;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.json.JSONObject;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -32,7 +35,11 @@ public class DcosCluster {
         return dcosUri;
     }
 
-    public DcosVersion getDcosVersion() throws IOException {
+    /**
+     * Returns the cluster's DC/OS version, which is fetched on the first call and then cached. Concurrent callers wait
+     * for a single fetch, e.g. so that a prefetch at startup isn't duplicated by a capability check.
+     */
+    public synchronized DcosVersion getDcosVersion() throws IOException {
         if (!dcosVersion.isPresent()) {
             dcosVersion = Optional.of(new DcosVersion(new JSONObject(fetchUri(dcosUri + DCOS_VERSION_PATH))));
         }
@@ -40,12 +47,15 @@ public class DcosCluster {
     }
 
     /**
-     * Broken out into a separate function to allow stubbing out in tests.
+     * Broken out into a separate function to allow stubbing out in tests. The client trusts the DC/OS cert, if one has
+     * been installed.
      */
     @VisibleForTesting
     protected String fetchUri(String path) throws IOException {
         URI versionUri = getUriUnchecked(path);
-        return Request.Get(versionUri).execute().returnContent().toString();
+        try (CloseableHttpClient httpClient = new DcosHttpClientBuilder().build()) {
+            return Executor.newInstance(httpClient).execute(Request.Get(versionUri)).returnContent().toString();
+        }
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.mesosphere.sdk.dcos.http;
 
+import com.mesosphere.sdk.dcos.DcosCertInstaller;
 import com.mesosphere.sdk.dcos.auth.TokenProvider;
 import org.apache.http.HttpRequestInterceptor;
 import org.apache.http.client.config.RequestConfig;
@@ -22,6 +23,11 @@ public class DcosHttpClientBuilder extends org.apache.http.impl.client.HttpClien
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    public DcosHttpClientBuilder() {
+        // Trust the DC/OS cert, if one has been installed:
+        DcosCertInstaller.getSSLContext().ifPresent(this::setSSLContext);
+    }
+
     /**
      * Disable TLS verification on built HTTP client.
      * @return
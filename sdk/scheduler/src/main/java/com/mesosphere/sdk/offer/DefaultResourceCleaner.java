@@ -7,11 +7,12 @@ import com.mesosphere.sdk.state.StateStoreException;
 
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.Resource;
+import org.apache.mesos.Protos.TaskInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 /**
  * The Resource Cleaner provides recommended operations for cleaning up
@@ -20,22 +21,15 @@ import java.util.stream.Collectors;
 public class DefaultResourceCleaner implements ResourceCleaner {
     private static final Logger logger = LoggerFactory.getLogger(DefaultResourceCleaner.class);
 
-    // Only Persistent Volumes are DESTROYed
-    private final Set<String> expectedPersistentVolumeIds;
-    // Both Persistent Volumes AND Reserved Resources are UNRESERVEd
-    private final Set<String> expectedReservedResourceIds;
+    private final StateStore stateStore;
 
     /**
      * Creates a new {@link DefaultResourceCleaner} which retrieves expected resource
-     * information from the provided {@link StateStore}.
-     *
-     * @throws StateStoreException
-     *             if there's a failure when retrieving resource information
+     * information from the provided {@link StateStore}. Offered resources are looked up in the {@link StateStore}'s
+     * resource index as needed, rather than loading every task up-front.
      */
     public DefaultResourceCleaner(StateStore stateStore) {
-        Collection<Resource> expectedResources = getExpectedResources(stateStore);
-        this.expectedPersistentVolumeIds = getPersistentVolumeIds(expectedResources);
-        this.expectedReservedResourceIds = getReservedResourceIds(expectedResources);
+        this.stateStore = stateStore;
     }
 
     /**
@@ -43,10 +37,11 @@ public class DefaultResourceCleaner implements ResourceCleaner {
      *
      * @param offer The {@link Offer} containing the {@link Resource}s.
      * @return A {@link Collection} of {@link Resource}s that should be unreserved.
+     * @throws StateStoreException if there's a failure when retrieving resource information
      */
     @Override
     public Collection<? extends Resource> getReservedResourcesToBeUnreserved(Offer offer) {
-        return selectUnexpectedResources(expectedReservedResourceIds, getReservedResourcesById(offer));
+        return selectUnexpectedResources(getReservedResourcesById(offer), stateStore::fetchTaskNamesForResourceId);
     }
 
     /**
@@ -54,22 +49,23 @@ public class DefaultResourceCleaner implements ResourceCleaner {
      *
      * @param offer The {@link Offer} containing the persistent volume {@link Resource}s.
      * @return A {@link Collection} of {@link Resource}s that should be destroyed.
+     * @throws StateStoreException if there's a failure when retrieving resource information
      */
     @Override
     public Collection<? extends Resource> getPersistentVolumesToBeDestroyed(Offer offer) {
-        return selectUnexpectedResources(expectedPersistentVolumeIds, getPersistentVolumesById(offer));
+        return selectUnexpectedResources(getPersistentVolumesById(offer), stateStore::fetchTaskNamesForPersistenceId);
     }
 
     /**
-     * Returns a list of resources from {@code resourcesById} whose ids are not present in
-     * {@code expectedIds}.
+     * Returns a list of resources from {@code resourcesById} which aren't held by any task that isn't permanently
+     * failed, according to the provided lookup of the names of the tasks holding a given id.
      */
-    private static Collection<Resource> selectUnexpectedResources(
-            Set<String> expectedIds, Map<String, Resource> resourcesById) {
+    private Collection<Resource> selectUnexpectedResources(
+            Map<String, Resource> resourcesById, Function<String, Collection<String>> getTaskNames) {
         List<Resource> unexpectedResources = new ArrayList<>();
 
         for (Map.Entry<String, Resource> entry : resourcesById.entrySet()) {
-            if (!expectedIds.contains(entry.getKey())) {
+            if (!isExpected(getTaskNames.apply(entry.getKey()))) {
                 logger.info("Unexpected reserved resource found: {}", TextFormat.shortDebugString(entry.getValue()));
                 unexpectedResources.add(entry.getValue());
             }
@@ -78,39 +74,16 @@ public class DefaultResourceCleaner implements ResourceCleaner {
     }
 
     /**
-     * Returns a list of all expected resources, which are extracted from all {@link Protos.TaskInfo}s
-     * produced by the provided {@link StateStore}.
-     */
-    private static Collection<Resource> getExpectedResources(StateStore stateStore) throws StateStoreException {
-        return stateStore.fetchTasks().stream()
-                .filter(taskInfo -> !FailureUtils.isPermanentlyFailed(taskInfo))
-                .map(ResourceUtils::getAllResources)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Returns the resource ids for all {@code resources} which represent persistent volumes, or
-     * an empty list if no persistent volume resources were found.
+     * Returns whether any of the named tasks is present and not permanently failed.
      */
-    private static Set<String> getPersistentVolumeIds(Collection<Resource> resources) {
-        Set<String> persistenceIds = new HashSet<>();
-        for (Resource resource : resources) {
-            if (resource.hasDisk() && resource.getDisk().hasPersistence()) {
-                persistenceIds.add(resource.getDisk().getPersistence().getId());
+    private boolean isExpected(Collection<String> taskNames) throws StateStoreException {
+        for (String taskName : taskNames) {
+            Optional<TaskInfo> taskInfo = stateStore.fetchTask(taskName);
+            if (taskInfo.isPresent() && !FailureUtils.isPermanentlyFailed(taskInfo.get())) {
+                return true;
             }
         }
-        return persistenceIds;
-    }
-
-    /**
-     * Returns the resource ids for all {@code resources} which represent reserved resources, or
-     * an empty list if no reserved resources were found.
-     */
-    private static Set<String> getReservedResourceIds(Collection<Resource> resources) {
-        Set<String> resourceIds = new HashSet<>();
-        resourceIds.addAll(ResourceUtils.getResourceIds(resources));
-        return resourceIds;
+        return false;
     }
 
     /**
@@ -12,7 +12,9 @@ public class LogOperationRecorder implements OperationRecorder {
 
     @Override
     public void record(OfferRecommendation offerRecommendation) throws Exception {
-        logger.info("Offer: {}", offerRecommendation.getOffer());
-        logger.info("Operation: {}", offerRecommendation.getOperation());
+        logger.info("Offer: {}", OfferLogUtils.summarize(offerRecommendation.getOffer()));
+        logger.info("Operation: {}", OfferLogUtils.summarize(offerRecommendation.getOperation()));
+        OfferLogUtils.logProtobuf("Offer", offerRecommendation.getOffer());
+        OfferLogUtils.logProtobuf("Operation", offerRecommendation.getOperation());
     }
 }
@@ -0,0 +1,285 @@
+package com.mesosphere.sdk.offer;
+
+import org.apache.mesos.Protos.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A mutable set of integer values, stored as sorted, disjoint, and non-adjacent closed intervals in a pair of primitive
+ * arrays. Used in place of repeatedly converting lists of {@link Value.Range} protobufs when consuming and freeing
+ * RANGES resources (such as ports) during offer evaluation.
+ *
+ * <p>Intervals are located via binary search. Claiming or freeing at the edge of an existing interval is performed in
+ * place, while splitting or inserting an interval shifts the following entries.
+ */
+public class LongIntervalSet {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] begins;
+    private long[] ends;
+    private int count;
+
+    /**
+     * Creates a new empty set.
+     */
+    public LongIntervalSet() {
+        this.begins = new long[INITIAL_CAPACITY];
+        this.ends = new long[INITIAL_CAPACITY];
+        this.count = 0;
+    }
+
+    /**
+     * Returns a new set containing the values in the provided ranges, which may overlap or be unsorted.
+     */
+    public static LongIntervalSet fromRanges(Collection<Value.Range> ranges) {
+        LongIntervalSet set = new LongIntervalSet();
+        for (Value.Range range : ranges) {
+            set.add(range.getBegin(), range.getEnd());
+        }
+        return set;
+    }
+
+    /**
+     * Returns the number of disjoint intervals in this set.
+     */
+    public int getIntervalCount() {
+        return count;
+    }
+
+    /**
+     * Returns the first value of the interval at the provided index, where intervals are in ascending order.
+     */
+    public long getBegin(int index) {
+        checkIndex(index);
+        return begins[index];
+    }
+
+    /**
+     * Returns the last value of the interval at the provided index, where intervals are in ascending order.
+     */
+    public long getEnd(int index) {
+        checkIndex(index);
+        return ends[index];
+    }
+
+    /**
+     * Returns whether this set contains no values.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the total number of values in this set.
+     */
+    public long getValueCount() {
+        long total = 0;
+        for (int i = 0; i < count; ++i) {
+            total += ends[i] - begins[i] + 1;
+        }
+        return total;
+    }
+
+    /**
+     * Returns whether this set contains the provided value.
+     */
+    public boolean contains(long value) {
+        return containsAll(value, value);
+    }
+
+    /**
+     * Returns whether this set contains every value from {@code begin} to {@code end}, inclusive.
+     */
+    public boolean containsAll(long begin, long end) {
+        int index = lastBeginAtMost(begin);
+        return index >= 0 && ends[index] >= end;
+    }
+
+    /**
+     * Returns whether this set contains every value in the provided set.
+     */
+    public boolean containsAll(LongIntervalSet other) {
+        for (int i = 0; i < other.count; ++i) {
+            if (!containsAll(other.begins[i], other.ends[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds every value from {@code begin} to {@code end}, inclusive, merging any overlapping or adjacent intervals.
+     */
+    public void add(long begin, long end) {
+        if (begin > end) {
+            throw new IllegalArgumentException(String.format("Invalid interval: [%d, %d]", begin, end));
+        }
+        // Intervals which overlap or are adjacent to [begin, end] are in [first, last]:
+        int first = firstEndAtLeast(begin == Long.MIN_VALUE ? begin : begin - 1);
+        int last = lastBeginAtMost(end == Long.MAX_VALUE ? end : end + 1);
+        if (first > last) {
+            splice(first, 0, 1);
+            begins[first] = begin;
+            ends[first] = end;
+            return;
+        }
+        long mergedBegin = Math.min(begin, begins[first]);
+        long mergedEnd = Math.max(end, ends[last]);
+        splice(first, last - first + 1, 1);
+        begins[first] = mergedBegin;
+        ends[first] = mergedEnd;
+    }
+
+    /**
+     * Removes every value from {@code begin} to {@code end}, inclusive. Values which aren't in the set are ignored.
+     */
+    public void remove(long begin, long end) {
+        if (begin > end) {
+            throw new IllegalArgumentException(String.format("Invalid interval: [%d, %d]", begin, end));
+        }
+        // Intervals which overlap [begin, end] are in [first, last]:
+        int first = firstEndAtLeast(begin);
+        int last = lastBeginAtMost(end);
+        if (first > last) {
+            return;
+        }
+        boolean keepLeft = begins[first] < begin;
+        boolean keepRight = ends[last] > end;
+        long leftBegin = begins[first];
+        long rightEnd = ends[last];
+        int remaining = (keepLeft ? 1 : 0) + (keepRight ? 1 : 0);
+        splice(first, last - first + 1, remaining);
+        int index = first;
+        if (keepLeft) {
+            begins[index] = leftBegin;
+            ends[index] = begin - 1;
+            ++index;
+        }
+        if (keepRight) {
+            begins[index] = end + 1;
+            ends[index] = rightEnd;
+        }
+    }
+
+    /**
+     * Returns the content of this set as a list of {@link Value.Range}s in ascending order.
+     */
+    public List<Value.Range> toRangeList() {
+        List<Value.Range> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            ranges.add(Value.Range.newBuilder().setBegin(begins[i]).setEnd(ends[i]).build());
+        }
+        return ranges;
+    }
+
+    /**
+     * Returns the content of this set as a {@link Value.Ranges} protobuf.
+     */
+    public Value.Ranges toRanges() {
+        return Value.Ranges.newBuilder().addAllRange(toRangeList()).build();
+    }
+
+    /**
+     * Returns the index of the first interval whose end is at least {@code value}, or {@code count} if there is none.
+     */
+    private int firstEndAtLeast(long value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the last interval whose begin is at most {@code value}, or -1 if there is none.
+     */
+    private int lastBeginAtMost(long value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (begins[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * Replaces {@code removeCount} intervals starting at {@code index} with {@code insertCount} unset intervals.
+     */
+    private void splice(int index, int removeCount, int insertCount) {
+        int newCount = count - removeCount + insertCount;
+        if (newCount > begins.length) {
+            int capacity = Math.max(newCount, begins.length * 2);
+            begins = Arrays.copyOf(begins, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+        int tail = count - index - removeCount;
+        if (tail > 0 && removeCount != insertCount) {
+            System.arraycopy(begins, index + removeCount, begins, index + insertCount, tail);
+            System.arraycopy(ends, index + removeCount, ends, index + insertCount, tail);
+        }
+        count = newCount;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(String.format("Index %d, size %d", index, count));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LongIntervalSet)) {
+            return false;
+        }
+        LongIntervalSet other = (LongIntervalSet) o;
+        if (count != other.count) {
+            return false;
+        }
+        for (int i = 0; i < count; ++i) {
+            if (begins[i] != other.begins[i] || ends[i] != other.ends[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = count;
+        for (int i = 0; i < count; ++i) {
+            hash = 31 * hash + Long.hashCode(begins[i]);
+            hash = 31 * hash + Long.hashCode(ends[i]);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; ++i) {
+            if (i != 0) {
+                sb.append(", ");
+            }
+            sb.append(begins[i]).append('-').append(ends[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
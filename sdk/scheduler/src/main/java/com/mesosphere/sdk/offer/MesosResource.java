@@ -3,7 +3,6 @@ package com.mesosphere.sdk.offer;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.mesos.Protos.Label;
 import org.apache.mesos.Protos.Resource;
-import org.apache.mesos.Protos.Resource.DiskInfo.Source;
 import org.apache.mesos.Protos.Value;
 
 import java.util.Optional;
@@ -24,9 +23,7 @@ public class MesosResource {
     }
 
     public boolean isAtomic() {
-        return resource.hasDisk()
-            && resource.getDisk().hasSource()
-            && resource.getDisk().getSource().getType().equals(Source.Type.MOUNT);
+        return ResourceUtils.isAtomic(resource);
     }
 
     public String getName() {
@@ -50,15 +47,7 @@ public class MesosResource {
     }
 
     public String getRole() {
-        if (resource.getReservationsCount() > 0) {
-            return getRefinedRole();
-        } else {
-            return Constants.ANY_ROLE;
-        }
-    }
-
-    private String getRefinedRole() {
-        return resource.getReservations(resource.getReservationsCount() - 1).getRole();
+        return ResourceUtils.getRole(resource);
     }
 
     public String getPreviousRole() {
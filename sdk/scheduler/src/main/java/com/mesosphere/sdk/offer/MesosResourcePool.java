@@ -39,6 +39,14 @@ public class MesosResourcePool {
      */
     private Map<String, Map<String, Value>> reservableMergedPoolByRole;
 
+    /**
+     * Maps pre-reserved roles to maps of resource name and available RANGES values, e.g. ports. These are kept apart
+     * from {@link #reservableMergedPoolByRole} so that repeated claims and frees don't need to convert back and forth
+     * between protobuf ranges.
+     *            "*" --> ports: [1025-2180, 2182-3887]
+     */
+    private Map<String, Map<String, LongIntervalSet>> reservableRangesPoolByRole;
+
     /**
      * Creates a new pool of resources based on what's available in the provided {@link Offer}.
      */
@@ -47,7 +55,9 @@ public class MesosResourcePool {
         final Collection<MesosResource> mesosResources = getMesosResources(offer, role);
         this.unreservedAtomicPool = getUnreservedAtomicPool(mesosResources);
         this.dynamicallyReservedPoolByResourceId = getDynamicallyReservedPool(mesosResources);
-        this.reservableMergedPoolByRole = getReservableMergedPool(mesosResources);
+        this.reservableMergedPoolByRole = new HashMap<>();
+        this.reservableRangesPoolByRole = new HashMap<>();
+        initReservableMergedPools(mesosResources);
     }
 
     /**
@@ -77,11 +87,33 @@ public class MesosResourcePool {
      * never reserved.
      */
     public Map<String, Map<String, Value>> getReservableMergedPoolByRole() {
-        return reservableMergedPoolByRole;
+        Map<String, Map<String, Value>> pool = new HashMap<>();
+        for (Map.Entry<String, Map<String, Value>> entry : reservableMergedPoolByRole.entrySet()) {
+            pool.put(entry.getKey(), new HashMap<>(entry.getValue()));
+        }
+        for (Map.Entry<String, Map<String, LongIntervalSet>> roleEntry : reservableRangesPoolByRole.entrySet()) {
+            Map<String, Value> rolePool = pool.computeIfAbsent(roleEntry.getKey(), role -> new HashMap<>());
+            for (Map.Entry<String, LongIntervalSet> entry : roleEntry.getValue().entrySet()) {
+                rolePool.put(entry.getKey(), Value.newBuilder()
+                        .setType(Value.Type.RANGES)
+                        .setRanges(entry.getValue().toRanges())
+                        .build());
+            }
+        }
+        return pool;
     }
 
     public Map<String, Value> getUnreservedMergedPool() {
-        return reservableMergedPoolByRole.get(Constants.ANY_ROLE);
+        return getReservableMergedPoolByRole().get(Constants.ANY_ROLE);
+    }
+
+    /**
+     * Returns the unconsumed values of the named RANGES resource which are available in the provided pre-reserved role,
+     * or an empty Optional if none are available. The returned set must not be modified.
+     */
+    public Optional<LongIntervalSet> getReservableRanges(String name, String preReservedRole) {
+        Map<String, LongIntervalSet> pool = reservableRangesPoolByRole.get(preReservedRole);
+        return pool == null ? Optional.empty() : Optional.ofNullable(pool.get(name));
     }
 
     /**
@@ -165,6 +197,10 @@ public class MesosResourcePool {
     }
 
     public Optional<MesosResource> consumeReservableMerged(String name, Value desiredValue, String preReservedRole) {
+        if (desiredValue.getType() == Value.Type.RANGES) {
+            return consumeReservableRanges(name, desiredValue, preReservedRole);
+        }
+
         Map<String, Value> pool = reservableMergedPoolByRole.get(preReservedRole);
         if (pool == null) {
             logger.info("No unreserved resources available in role: {}", preReservedRole);
@@ -177,16 +213,7 @@ public class MesosResourcePool {
             pool.put(name, ValueUtils.subtract(availableValue, desiredValue));
             reservableMergedPoolByRole.put(preReservedRole, pool);
 
-            Resource.Builder builder = ResourceBuilder.fromUnreservedValue(name, desiredValue).build().toBuilder();
-            if (Capabilities.getInstance().supportsPreReservedResources() &&
-                    !preReservedRole.equals(Constants.ANY_ROLE)) {
-                builder.addReservations(
-                        Resource.ReservationInfo.newBuilder()
-                                .setRole(preReservedRole)
-                                .setType(Resource.ReservationInfo.Type.STATIC));
-            }
-
-            return Optional.of(new MesosResource(builder.build()));
+            return Optional.of(getConsumedResource(name, desiredValue, preReservedRole));
         } else {
             if (availableValue == null) {
                 logger.info("Offer lacks any unreserved resources named {}", name);
@@ -200,6 +227,41 @@ public class MesosResourcePool {
         }
     }
 
+    private Optional<MesosResource> consumeReservableRanges(String name, Value desiredValue, String preReservedRole) {
+        Map<String, LongIntervalSet> pool = reservableRangesPoolByRole.get(preReservedRole);
+        LongIntervalSet available = pool == null ? null : pool.get(name);
+        if (available == null) {
+            logger.info("Offer lacks any unreserved resources named {} in role: {}", name, preReservedRole);
+            return Optional.empty();
+        }
+
+        List<Value.Range> desiredRanges = desiredValue.getRanges().getRangeList();
+        for (Value.Range range : desiredRanges) {
+            if (!available.containsAll(range.getBegin(), range.getEnd())) {
+                logger.info("Offered quantity of {} is insufficient: desired {}, offered {}",
+                        name, TextFormat.shortDebugString(desiredValue), available);
+                return Optional.empty();
+            }
+        }
+        for (Value.Range range : desiredRanges) {
+            available.remove(range.getBegin(), range.getEnd());
+        }
+
+        return Optional.of(getConsumedResource(name, desiredValue, preReservedRole));
+    }
+
+    private static MesosResource getConsumedResource(String name, Value desiredValue, String preReservedRole) {
+        Resource.Builder builder = ResourceBuilder.fromUnreservedValue(name, desiredValue).build().toBuilder();
+        if (Capabilities.getInstance().supportsPreReservedResources() &&
+                !preReservedRole.equals(Constants.ANY_ROLE)) {
+            builder.addReservations(
+                    Resource.ReservationInfo.newBuilder()
+                            .setRole(preReservedRole)
+                            .setType(Resource.ReservationInfo.Type.STATIC));
+        }
+        return new MesosResource(builder.build());
+    }
+
     public void free(MesosResource mesosResource) {
         logger.info("Freeing resource: {}",  mesosResource.toString());
         if (mesosResource.isAtomic()) {
@@ -219,6 +281,16 @@ public class MesosResourcePool {
         }
 
         String previousRole = mesosResource.getPreviousRole();
+        if (mesosResource.getType() == Value.Type.RANGES) {
+            LongIntervalSet available = reservableRangesPoolByRole
+                    .computeIfAbsent(previousRole, role -> new HashMap<>())
+                    .computeIfAbsent(mesosResource.getName(), name -> new LongIntervalSet());
+            for (Value.Range range : mesosResource.getResource().getRanges().getRangeList()) {
+                available.add(range.getBegin(), range.getEnd());
+            }
+            return;
+        }
+
         Map<String, Value> pool = reservableMergedPoolByRole.get(previousRole);
         if (pool == null) {
             pool = new HashMap<>();
@@ -279,7 +351,11 @@ public class MesosResourcePool {
         return mesosResources;
     }
 
-    private static boolean consumableResource(Optional<String> podRole, Resource resource) {
+    /**
+     * Returns whether the provided resource was allocated to the provided role, and may therefore be consumed by a pod
+     * running in that role.
+     */
+    public static boolean consumableResource(Optional<String> podRole, Resource resource) {
         if (!podRole.isPresent()
                 || !resource.hasAllocationInfo()
                 || !resource.getAllocationInfo().hasRole()) {
@@ -322,43 +398,29 @@ public class MesosResourcePool {
         return reservedPool;
     }
 
-    private Map<String, Map<String, Value>> getReservableMergedPool(Collection<MesosResource> mesosResources) {
-        Map<String, List<MesosResource>> rolePool = new HashMap<>();
+    private void initReservableMergedPools(Collection<MesosResource> mesosResources) {
         for (MesosResource mesosResource : getMergedResources(mesosResources)) {
-            if (!mesosResource.hasResourceId()) {
-                String role = mesosResource.getRole();
-                List<MesosResource> resources = rolePool.get(role);
-                if (resources == null) {
-                    resources = new ArrayList<>();
-                }
-
-                resources.add(mesosResource);
-                rolePool.put(role, resources);
+            if (mesosResource.hasResourceId()) {
+                continue;
             }
-        }
-
-        Map<String, Map<String, Value>> roleResourcePool = new HashMap<>();
-        for (Map.Entry<String, List<MesosResource>> entry : rolePool.entrySet()) {
-            roleResourcePool.put(entry.getKey(), getResourcePool(entry.getValue()));
-        }
-
-        return roleResourcePool;
-    }
-
-    private static Map<String, Value> getResourcePool(Collection<MesosResource> mesosResources) {
-        Map<String, Value> pool = new HashMap<>();
-        for (MesosResource mesosResource : mesosResources) {
+            String role = mesosResource.getRole();
             String name = mesosResource.getName();
-            Value currValue = pool.get(name);
-
-            if (currValue == null) {
-                currValue = ValueUtils.getZero(mesosResource.getType());
+            if (mesosResource.getType() == Value.Type.RANGES) {
+                LongIntervalSet available = reservableRangesPoolByRole
+                        .computeIfAbsent(role, r -> new HashMap<>())
+                        .computeIfAbsent(name, n -> new LongIntervalSet());
+                for (Value.Range range : mesosResource.getResource().getRanges().getRangeList()) {
+                    available.add(range.getBegin(), range.getEnd());
+                }
+            } else {
+                Map<String, Value> pool = reservableMergedPoolByRole.computeIfAbsent(role, r -> new HashMap<>());
+                Value currValue = pool.get(name);
+                if (currValue == null) {
+                    currValue = ValueUtils.getZero(mesosResource.getType());
+                }
+                pool.put(name, ValueUtils.add(currValue, mesosResource.getValue()));
             }
-
-            pool.put(name, ValueUtils.add(currValue, mesosResource.getValue()));
         }
-
-        return pool;
     }
 
     private static Collection<MesosResource> getUnreservedAtomicResources(
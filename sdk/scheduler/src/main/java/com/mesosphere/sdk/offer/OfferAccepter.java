@@ -1,7 +1,5 @@
 package com.mesosphere.sdk.offer;
 
-import com.google.protobuf.TextFormat;
-
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.mesos.Protos.Filters;
 import org.apache.mesos.Protos.Offer.Operation;
@@ -11,10 +9,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 /**
  * The OfferAccepter extracts the Mesos Operations encapsulated by the OfferRecommendation and accepts Offers with those
@@ -36,33 +35,63 @@ public class OfferAccepter {
             return new ArrayList<>();
         }
 
-        List<OfferID> offerIds = getOfferIds(recommendations);
-        List<Operation> operations = getOperations(recommendations);
+        if (!record(recommendations)) {
+            return new ArrayList<>();
+        }
 
-        logOperations(operations);
+        return acceptRecorded(driver, recommendations);
+    }
+
+    /**
+     * Records the provided recommendations with the {@link OperationRecorder}s, without accepting any offers. This
+     * allows the recommendations for several steps to be recorded one at a time as they're made, and then to be sent
+     * together via {@link #acceptRecorded(SchedulerDriver, List)}.
+     *
+     * @return whether the recommendations were successfully recorded, in which case they may be accepted
+     */
+    public boolean record(List<OfferRecommendation> recommendations) {
+        if (CollectionUtils.isEmpty(recommendations)) {
+            return true;
+        }
+
+        logOperations(getOperations(recommendations));
 
         try {
-            record(recommendations);
+            for (OperationRecorder recorder : recorders) {
+                recorder.recordAll(recommendations);
+            }
         } catch (Exception ex) {
             LOGGER.error("Failed to record Operations so not launching Task", ex);
-            return new ArrayList<>();
-        }
-
-        if (CollectionUtils.isNotEmpty(operations)) {
-            driver.acceptOffers(offerIds, operations, FILTERS);
-        } else {
-            LOGGER.warn("No Operations to perform.");
+            return false;
         }
-
-        return offerIds;
+        return true;
     }
 
-    private void record(List<OfferRecommendation> recommendations) throws Exception {
+    /**
+     * Accepts the offers referenced by the provided recommendations, which must have already been passed to
+     * {@link #record(List)}. The operations against each offer are combined into a single {@code acceptOffers} call.
+     *
+     * @return the IDs of the offers which were accepted
+     */
+    public List<OfferID> acceptRecorded(SchedulerDriver driver, List<OfferRecommendation> recommendations) {
+        Map<OfferID, List<OfferRecommendation>> recommendationsByOffer = new LinkedHashMap<>();
         for (OfferRecommendation recommendation : recommendations) {
-            for (OperationRecorder recorder : recorders) {
-                recorder.record(recommendation);
+            recommendationsByOffer
+                    .computeIfAbsent(recommendation.getOffer().getId(), id -> new ArrayList<>())
+                    .add(recommendation);
+        }
+
+        for (Map.Entry<OfferID, List<OfferRecommendation>> entry : recommendationsByOffer.entrySet()) {
+            List<Operation> operations = getOperations(entry.getValue());
+            if (CollectionUtils.isNotEmpty(operations)) {
+                LOGGER.info("Accepting offer {} with {} operations", entry.getKey().getValue(), operations.size());
+                driver.acceptOffers(Arrays.asList(entry.getKey()), operations, FILTERS);
+            } else {
+                LOGGER.warn("No Operations to perform for offer {}.", entry.getKey().getValue());
             }
         }
+
+        return new ArrayList<>(recommendationsByOffer.keySet());
     }
 
     private static List<Operation> getOperations(List<OfferRecommendation> recommendations) {
@@ -72,7 +101,7 @@ public class OfferAccepter {
             if (recommendation instanceof LaunchOfferRecommendation &&
                     !((LaunchOfferRecommendation) recommendation).shouldLaunch()) {
                 LOGGER.info("Skipping launch of transient Operation: {}",
-                        TextFormat.shortDebugString(recommendation.getOperation()));
+                        OfferLogUtils.summarize(recommendation.getOperation()));
             } else {
                 operations.add(recommendation.getOperation());
             }
@@ -81,20 +110,11 @@ public class OfferAccepter {
         return operations;
     }
 
-    private static List<OfferID> getOfferIds(List<OfferRecommendation> recommendations) {
-        Set<OfferID> offerIdSet = new HashSet<>();
-
-        for (OfferRecommendation recommendation : recommendations) {
-            offerIdSet.add(recommendation.getOffer().getId());
-        }
-
-        return new ArrayList<>(offerIdSet);
-    }
-
     private static void logOperations(List<Operation> operations) {
         LOGGER.info("Performing {} operations:", operations.size());
         for (Operation op : operations) {
-            LOGGER.info("  {}", TextFormat.shortDebugString(op));
+            LOGGER.info("  {}", OfferLogUtils.summarize(op));
+            OfferLogUtils.logProtobuf("Operation", op);
         }
     }
 }
@@ -0,0 +1,191 @@
+package com.mesosphere.sdk.offer;
+
+import com.google.protobuf.MessageOrBuilder;
+import com.google.protobuf.TextFormat;
+import org.apache.mesos.Protos;
+import org.apache.mesos.Protos.Offer.Operation;
+import org.apache.mesos.Protos.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Utilities for logging offers and operations on the offer path.
+ * <p>
+ * Converting a large offer or operation to text can cost more than evaluating it, so the offer path logs bounded
+ * summaries at info level: the operation type, task names, resource totals, and reservation IDs. Full protobuf dumps
+ * are only produced when debug logging is enabled for {@link #PROTOBUF_LOGGER_NAME}, which the default log
+ * configuration writes through a rate-limited asynchronous appender.
+ */
+public class OfferLogUtils {
+
+    /**
+     * Name of the logger which receives full protobuf dumps at debug level.
+     */
+    public static final String PROTOBUF_LOGGER_NAME = "com.mesosphere.sdk.offer.Protobuf";
+
+    /**
+     * Summaries which are longer than this are truncated.
+     */
+    static final int MAX_SUMMARY_LENGTH = 512;
+
+    private static final Logger PROTOBUF_LOGGER = LoggerFactory.getLogger(PROTOBUF_LOGGER_NAME);
+    private static final String TRUNCATED_SUFFIX = "...";
+
+    private OfferLogUtils() {
+        // do not instantiate
+    }
+
+    /**
+     * Returns a single-line summary of the provided operation, with no more than {@link #MAX_SUMMARY_LENGTH}
+     * characters.
+     */
+    public static String summarize(Operation operation) {
+        StringBuilder builder = new StringBuilder(128);
+        builder.append(operation.getType());
+        switch (operation.getType()) {
+        case LAUNCH:
+            appendTasks(builder, operation.getLaunch().getTaskInfosList(), Optional.empty());
+            break;
+        case LAUNCH_GROUP:
+            appendTasks(
+                    builder,
+                    operation.getLaunchGroup().getTaskGroup().getTasksList(),
+                    Optional.of(operation.getLaunchGroup().getExecutor()));
+            break;
+        case RESERVE:
+            appendResources(builder, operation.getReserve().getResourcesList());
+            break;
+        case UNRESERVE:
+            appendResources(builder, operation.getUnreserve().getResourcesList());
+            break;
+        case CREATE:
+            appendResources(builder, operation.getCreate().getVolumesList());
+            break;
+        case DESTROY:
+            appendResources(builder, operation.getDestroy().getVolumesList());
+            break;
+        default:
+            break;
+        }
+        return truncate(builder);
+    }
+
+    /**
+     * Returns a single-line summary of the provided offer, with no more than {@link #MAX_SUMMARY_LENGTH} characters.
+     */
+    public static String summarize(Protos.Offer offer) {
+        StringBuilder builder = new StringBuilder(128);
+        builder.append(offer.getId().getValue())
+                .append(" host=").append(offer.getHostname());
+        appendResources(builder, offer.getResourcesList());
+        return truncate(builder);
+    }
+
+    /**
+     * Logs the full content of the provided protobuf message, if debug logging is enabled for
+     * {@link #PROTOBUF_LOGGER_NAME}. The message is only converted to text when it will be logged.
+     */
+    public static void logProtobuf(String label, MessageOrBuilder message) {
+        if (PROTOBUF_LOGGER.isDebugEnabled()) {
+            PROTOBUF_LOGGER.debug("{}: {}", label, TextFormat.shortDebugString(message));
+        }
+    }
+
+    private static void appendTasks(
+            StringBuilder builder, Collection<Protos.TaskInfo> taskInfos, Optional<Protos.ExecutorInfo> executorInfo) {
+        builder.append(" tasks=[");
+        boolean first = true;
+        for (Protos.TaskInfo taskInfo : taskInfos) {
+            if (!first) {
+                builder.append(',');
+            }
+            builder.append(taskInfo.getName());
+            first = false;
+        }
+        builder.append(']');
+
+        ResourceSummary summary = new ResourceSummary();
+        for (Protos.TaskInfo taskInfo : taskInfos) {
+            summary.addAll(taskInfo.getResourcesList());
+        }
+        if (executorInfo.isPresent()) {
+            summary.addAll(executorInfo.get().getResourcesList());
+        }
+        summary.appendTo(builder);
+    }
+
+    private static void appendResources(StringBuilder builder, Collection<Resource> resources) {
+        ResourceSummary summary = new ResourceSummary();
+        summary.addAll(resources);
+        summary.appendTo(builder);
+    }
+
+    private static String truncate(StringBuilder builder) {
+        if (builder.length() > MAX_SUMMARY_LENGTH) {
+            builder.setLength(MAX_SUMMARY_LENGTH - TRUNCATED_SUFFIX.length());
+            builder.append(TRUNCATED_SUFFIX);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Totals of resource values by resource name, along with the reservation IDs of any reserved resources.
+     */
+    private static class ResourceSummary {
+        private final Map<String, Double> totals = new TreeMap<>();
+        private final Set<String> resourceIds = new LinkedHashSet<>();
+
+        private void addAll(Collection<Resource> resources) {
+            for (Resource resource : resources) {
+                totals.merge(resource.getName(), getAmount(resource), Double::sum);
+                Optional<String> resourceId = ResourceUtils.getResourceId(resource);
+                if (resourceId.isPresent()) {
+                    resourceIds.add(resourceId.get());
+                }
+            }
+        }
+
+        private void appendTo(StringBuilder builder) {
+            for (Map.Entry<String, Double> entry : totals.entrySet()) {
+                builder.append(' ').append(entry.getKey()).append('=');
+                // Mesos scalars have three decimal places of precision:
+                double amount = Math.round(entry.getValue() * 1000) / 1000.0;
+                if (amount == Math.rint(amount)) {
+                    builder.append((long) amount);
+                } else {
+                    builder.append(amount);
+                }
+            }
+            if (!resourceIds.isEmpty()) {
+                builder.append(" reservations=").append(resourceIds);
+            }
+        }
+
+        /**
+         * Returns the scalar value of the resource, or the number of values in a ranges or set resource.
+         */
+        private static double getAmount(Resource resource) {
+            switch (resource.getType()) {
+            case SCALAR:
+                return resource.getScalar().getValue();
+            case RANGES:
+                long count = 0;
+                for (Protos.Value.Range range : resource.getRanges().getRangeList()) {
+                    count += range.getEnd() - range.getBegin() + 1;
+                }
+                return count;
+            case SET:
+                return resource.getSet().getItemCount();
+            default:
+                return 0;
+            }
+        }
+    }
+}
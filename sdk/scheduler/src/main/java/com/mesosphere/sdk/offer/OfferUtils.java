@@ -5,8 +5,12 @@ import org.apache.mesos.SchedulerDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -15,6 +19,11 @@ import java.util.stream.Collectors;
 public class OfferUtils {
     private static final Logger LOGGER = LoggerFactory.getLogger(OfferUtils.class);
 
+    /**
+     * Scalar remainders below this amount are dropped. Mesos itself only tracks scalars to three decimal places.
+     */
+    private static final double SCALAR_EPSILON = 0.001;
+
     /**
      * Filters out accepted offers and returns back a list of unused offers.
      *
@@ -63,4 +72,147 @@ public class OfferUtils {
             driver.declineOffer(offerId, filters);
         });
     }
+
+    /**
+     * Returns a copy of the provided offer which only contains the resources that are left over after the operations
+     * in the provided recommendations have been applied to it. The copy has the same {@link Protos.OfferID}, so that
+     * any further recommendations against it may be accepted along with the provided recommendations. Recommendations
+     * against other offers are ignored.
+     *
+     * <ul>
+     * <li>Reserved resources whose resource IDs are referenced by any operation are removed in their entirety.</li>
+     * <li>Newly reserved resources are subtracted from the unreserved (or pre-reserved) resources they came from.</li>
+     * </ul>
+     *
+     * @param offer The {@link Protos.Offer} whose remaining resources should be returned
+     * @param recommendations The recommendations which have been made against the offer so far
+     * @return The offer with only its remaining resources, which may be empty
+     */
+    public static Protos.Offer getRemainingOffer(
+            Protos.Offer offer,
+            Collection<? extends OfferRecommendation> recommendations) {
+        Set<String> consumedResourceIds = new HashSet<>();
+        List<Protos.Resource> reservedResources = new ArrayList<>();
+        for (OfferRecommendation recommendation : recommendations) {
+            if (!recommendation.getOffer().getId().equals(offer.getId())) {
+                continue;
+            }
+            Protos.Offer.Operation operation = recommendation.getOperation();
+            for (Protos.Resource resource : getOperationResources(operation)) {
+                Optional<String> resourceId = ResourceUtils.getResourceId(resource);
+                if (resourceId.isPresent()) {
+                    consumedResourceIds.add(resourceId.get());
+                }
+            }
+            if (operation.getType().equals(Protos.Offer.Operation.Type.RESERVE)) {
+                reservedResources.addAll(operation.getReserve().getResourcesList());
+            }
+        }
+
+        List<Protos.Resource> remainingResources = new ArrayList<>();
+        for (Protos.Resource resource : offer.getResourcesList()) {
+            Optional<String> resourceId = ResourceUtils.getResourceId(resource);
+            if (!resourceId.isPresent() || !consumedResourceIds.contains(resourceId.get())) {
+                remainingResources.add(resource);
+            }
+        }
+        for (Protos.Resource reservedResource : reservedResources) {
+            subtractReservedResource(remainingResources, reservedResource);
+        }
+
+        return offer.toBuilder().clearResources().addAllResources(remainingResources).build();
+    }
+
+    private static List<Protos.Resource> getOperationResources(Protos.Offer.Operation operation) {
+        List<Protos.Resource> resources = new ArrayList<>();
+        switch (operation.getType()) {
+            case RESERVE:
+                resources.addAll(operation.getReserve().getResourcesList());
+                break;
+            case UNRESERVE:
+                resources.addAll(operation.getUnreserve().getResourcesList());
+                break;
+            case CREATE:
+                resources.addAll(operation.getCreate().getVolumesList());
+                break;
+            case DESTROY:
+                resources.addAll(operation.getDestroy().getVolumesList());
+                break;
+            case LAUNCH:
+                for (Protos.TaskInfo taskInfo : operation.getLaunch().getTaskInfosList()) {
+                    resources.addAll(ResourceUtils.getAllResources(taskInfo));
+                }
+                break;
+            case LAUNCH_GROUP:
+                resources.addAll(operation.getLaunchGroup().getExecutor().getResourcesList());
+                for (Protos.TaskInfo taskInfo : operation.getLaunchGroup().getTaskGroup().getTasksList()) {
+                    resources.addAll(taskInfo.getResourcesList());
+                }
+                break;
+            default:
+                break;
+        }
+        return resources;
+    }
+
+    /**
+     * Removes the provided newly reserved resource from the matching resources in the list, which are those without a
+     * resource ID that have the same name, the role which the reservation was made from, and the same disk source.
+     */
+    private static void subtractReservedResource(List<Protos.Resource> resources, Protos.Resource reservedResource) {
+        String previousRole = new MesosResource(reservedResource).getPreviousRole();
+        boolean atomic = ResourceUtils.isAtomic(reservedResource);
+        double remainingScalar = reservedResource.getScalar().getValue();
+        LongIntervalSet reservedRanges = LongIntervalSet.fromRanges(reservedResource.getRanges().getRangeList());
+
+        for (int i = 0; i < resources.size(); ++i) {
+            Protos.Resource resource = resources.get(i);
+            if (!resource.getName().equals(reservedResource.getName())
+                    || ResourceUtils.hasResourceId(resource)
+                    || !ResourceUtils.getRole(resource).equals(previousRole)
+                    || ResourceUtils.isAtomic(resource) != atomic
+                    || !resource.getDisk().getSource().equals(reservedResource.getDisk().getSource())) {
+                continue;
+            }
+
+            if (atomic) {
+                // Atomic resources are reserved in their entirety
+                resources.remove(i);
+                return;
+            }
+
+            switch (resource.getType()) {
+                case SCALAR: {
+                    double available = resource.getScalar().getValue();
+                    double taken = Math.min(available, remainingScalar);
+                    remainingScalar -= taken;
+                    if (available - taken < SCALAR_EPSILON) {
+                        resources.remove(i--);
+                    } else {
+                        resources.set(i, resource.toBuilder()
+                                .setScalar(Protos.Value.Scalar.newBuilder().setValue(available - taken))
+                                .build());
+                    }
+                    if (remainingScalar < SCALAR_EPSILON) {
+                        return;
+                    }
+                    break;
+                }
+                case RANGES: {
+                    LongIntervalSet available = LongIntervalSet.fromRanges(resource.getRanges().getRangeList());
+                    for (int j = 0; j < reservedRanges.getIntervalCount(); ++j) {
+                        available.remove(reservedRanges.getBegin(j), reservedRanges.getEnd(j));
+                    }
+                    if (available.isEmpty()) {
+                        resources.remove(i--);
+                    } else {
+                        resources.set(i, resource.toBuilder().setRanges(available.toRanges()).build());
+                    }
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package com.mesosphere.sdk.offer;
 
+import java.util.Collection;
+
 /**
  * The OperationRecorder is an Interface required by the OfferAccepter.
  * This interface is intended to allow Framework authors an opportunity to record
@@ -8,4 +10,14 @@ package com.mesosphere.sdk.offer;
  */
 public interface OperationRecorder {
     void record(OfferRecommendation offerRecommendation) throws Exception;
+
+    /**
+     * Records all of the provided recommendations, which were made together for a single step. Implementations may
+     * override this to write the recommendations in a single batch, rather than one at a time.
+     */
+    default void recordAll(Collection<OfferRecommendation> offerRecommendations) throws Exception {
+        for (OfferRecommendation offerRecommendation : offerRecommendations) {
+            record(offerRecommendation);
+        }
+    }
 }
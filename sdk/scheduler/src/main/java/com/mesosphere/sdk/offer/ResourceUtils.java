@@ -57,7 +57,20 @@ public class ResourceUtils {
     }
 
     public static String getRole(Resource resource) {
-        return new MesosResource(resource).getRole();
+        if (resource.getReservationsCount() > 0) {
+            return resource.getReservations(resource.getReservationsCount() - 1).getRole();
+        } else {
+            return Constants.ANY_ROLE;
+        }
+    }
+
+    /**
+     * Returns whether the provided resource may only be consumed in its entirety, as is the case for MOUNT volumes.
+     */
+    public static boolean isAtomic(Resource resource) {
+        return resource.hasDisk()
+                && resource.getDisk().hasSource()
+                && resource.getDisk().getSource().getType().equals(Resource.DiskInfo.Source.Type.MOUNT);
     }
 
     public static Optional<String> getPrincipal(Resource resource) {
@@ -4,11 +4,17 @@ import com.mesosphere.sdk.offer.MesosResource;
 import com.mesosphere.sdk.offer.OfferRecommendation;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * The outcome of invoking an {@link OfferEvaluationStage}. Describes whether the evaluation passed or failed, and the
  * reason(s) why. Supports a nested tree of outcomes which describe any sub-evaluations which may have been performed
  * within the {@link OfferEvaluationStage}.
+ *
+ * <p>Reasons are kept as a format string and its arguments, and are only formatted when they're first requested, e.g.
+ * for logging. Most outcomes are never logged in full, so this avoids formatting a reason for every stage of every
+ * evaluated offer. Arguments which are costly to describe may be passed as a {@link Supplier}, which is only invoked
+ * when the reason is formatted.
  */
 public class EvaluationOutcome {
 
@@ -21,18 +27,20 @@ public class EvaluationOutcome {
     }
 
     private final Type type;
-    private final String source;
+    private final Class<?> sourceClass;
     private final MesosResource mesosResource;
     private final Collection<OfferRecommendation> offerRecommendations;
     private final Collection<EvaluationOutcome> children;
-    private final String reason;
+    private final String reasonFormat;
+    private final Object[] reasonArgs;
+    private String reason;
 
     /**
      * Returns a new passing outcome object with the provided descriptive reason.
      *
      * @param source the object which produced this outcome, whose class name will be labeled as the origin
      * @param reasonFormat {@link String#format(String, Object...)} compatible format string describing the pass reason
-     * @param reasonArgs format arguments, if any, to apply against {@code reasonFormat}
+     * @param reasonArgs format arguments or {@link Supplier}s of them, if any, to apply against {@code reasonFormat}
      */
     public static EvaluationOutcome.Builder pass(
             Object source,
@@ -47,7 +55,7 @@ public class EvaluationOutcome {
      * @param source the object which produced this outcome, whose class name will be labeled as the origin
      * @param offerRecommendations the offer recommendations generated by the source, if any
      * @param reasonFormat {@link String#format(String, Object...)} compatible format string describing the pass reason
-     * @param reasonArgs format arguments, if any, to apply against {@code reasonFormat}
+     * @param reasonArgs format arguments or {@link Supplier}s of them, if any, to apply against {@code reasonFormat}
      */
     public static EvaluationOutcome.Builder pass(
             Object source,
@@ -67,7 +75,7 @@ public class EvaluationOutcome {
      *
      * @param source the object which produced this outcome, whose class name will be labeled as the origin
      * @param reasonFormat {@link String#format(String, Object...)} compatible format string describing the fail reason
-     * @param reasonArgs format arguments, if any, to apply against {@code reasonFormat}
+     * @param reasonArgs format arguments or {@link Supplier}s of them, if any, to apply against {@code reasonFormat}
      */
     public static EvaluationOutcome.Builder fail(
             Object source,
@@ -87,13 +95,15 @@ public class EvaluationOutcome {
             MesosResource mesosResource,
             Collection<OfferRecommendation> offerRecommendations,
             Collection<EvaluationOutcome> children,
-            String reason) {
+            String reasonFormat,
+            Object[] reasonArgs) {
         this.type = type;
-        this.source = source.getClass().getSimpleName();
+        this.sourceClass = source.getClass();
         this.mesosResource = mesosResource;
         this.offerRecommendations = offerRecommendations;
         this.children = children;
-        this.reason = reason;
+        this.reasonFormat = reasonFormat;
+        this.reasonArgs = reasonArgs;
     }
 
     /**
@@ -107,13 +117,20 @@ public class EvaluationOutcome {
      * Returns the name of the object which produced this response.
      */
     public String getSource() {
-        return source;
+        return sourceClass.getSimpleName();
     }
 
     /**
-     * Returns the reason that this response is passing or failing.
+     * Returns the reason that this response is passing or failing. The reason is formatted on the first call.
      */
     public String getReason() {
+        if (reason == null) {
+            Object[] args = new Object[reasonArgs.length];
+            for (int i = 0; i < reasonArgs.length; ++i) {
+                args[i] = reasonArgs[i] instanceof Supplier ? ((Supplier<?>) reasonArgs[i]).get() : reasonArgs[i];
+            }
+            reason = String.format(reasonFormat, args);
+        }
         return reason;
     }
 
@@ -150,7 +167,8 @@ public class EvaluationOutcome {
         private final Object source;
         private final Collection<OfferRecommendation> offerRecommendations;
         private final Collection<EvaluationOutcome> children;
-        private final String reason;
+        private final String reasonFormat;
+        private final Object[] reasonArgs;
         private MesosResource mesosResource;
 
         public Builder(
@@ -163,7 +181,8 @@ public class EvaluationOutcome {
             this.source = source;
             this.offerRecommendations = offerRecommendations;
             this.children = new ArrayList<>();
-            this.reason = String.format(reasonFormat, reasonArgs);
+            this.reasonFormat = reasonFormat;
+            this.reasonArgs = reasonArgs;
         }
 
         public Builder mesosResource(MesosResource mesosResource) {
@@ -182,7 +201,8 @@ public class EvaluationOutcome {
         }
 
         public EvaluationOutcome build() {
-            return new EvaluationOutcome(type, source, mesosResource, offerRecommendations, children, reason);
+            return new EvaluationOutcome(
+                    type, source, mesosResource, offerRecommendations, children, reasonFormat, reasonArgs);
         }
     }
 }
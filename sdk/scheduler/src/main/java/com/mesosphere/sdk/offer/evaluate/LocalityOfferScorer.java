@@ -0,0 +1,44 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import com.mesosphere.sdk.offer.OfferRecommendation;
+import com.mesosphere.sdk.offer.TaskUtils;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import org.apache.mesos.Protos;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Prefers offers from agents where the service has prior reservations: an agent which previously hosted this pod is a
+ * perfect fit, followed by agents which host any of the service's other tasks, followed by all other agents.
+ */
+public class LocalityOfferScorer implements OfferScorer {
+
+    private static final double SERVICE_AGENT_SCORE = 0.5;
+
+    @Override
+    public double score(
+            Protos.Offer offer,
+            Collection<OfferRecommendation> recommendations,
+            PodInstanceRequirement podInstanceRequirement,
+            Collection<Protos.TaskInfo> allTasks) {
+        Set<String> podTaskNames = new HashSet<>(TaskUtils.getTaskNames(podInstanceRequirement.getPodInstance()));
+        double score = 0;
+        for (Protos.TaskInfo taskInfo : allTasks) {
+            if (!taskInfo.getSlaveId().equals(offer.getSlaveId())) {
+                continue;
+            }
+            if (podTaskNames.contains(taskInfo.getName())) {
+                return PERFECT_SCORE;
+            }
+            score = SERVICE_AGENT_SCORE;
+        }
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "locality";
+    }
+}
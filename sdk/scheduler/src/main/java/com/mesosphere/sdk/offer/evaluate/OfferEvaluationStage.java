@@ -16,4 +16,13 @@ public interface OfferEvaluationStage {
      * @return an {@link EvaluationOutcome} describing whether this evaluation stage succeeded or failed, and why
      */
     EvaluationOutcome evaluate(MesosResourcePool mesosResourcePool, PodInfoBuilder podInfoBuilder);
+
+    /**
+     * Returns whether this stage has effects outside of the provided pool and builder, such as storing generated
+     * secrets. When several offers are scored against each other, these stages are skipped while scoring, and are only
+     * evaluated against the chosen offer.
+     */
+    default boolean hasSideEffects() {
+        return false;
+    }
 }
@@ -33,11 +33,25 @@ import java.util.stream.Collectors;
 public class OfferEvaluator {
     private static final Logger logger = LoggerFactory.getLogger(OfferEvaluator.class);
 
+    /**
+     * How the outcome of evaluating each offer is logged.
+     */
+    public enum OutcomeLogging {
+        /** The outcome of every evaluation stage is logged, along with any nested outcomes. */
+        FULL,
+        /** A single line is logged per offer, with the number of failed stages of each type. */
+        SUMMARY
+    }
+
     private final StateStore stateStore;
     private final String serviceName;
     private final UUID targetConfigId;
     private final SchedulerFlags schedulerFlags;
     private final boolean useDefaultExecutor;
+    private final Optional<OfferScorer> offerScorer;
+    private final int maxCandidates;
+    private final OutcomeLogging outcomeLogging;
+    private final PodInfoBuilder.PrototypeCache prototypeCache = new PodInfoBuilder.PrototypeCache();
 
     @Inject
     public OfferEvaluator(
@@ -46,11 +60,37 @@ public class OfferEvaluator {
             UUID targetConfigId,
             SchedulerFlags schedulerFlags,
             boolean useDefaultExecutor) {
+        this(stateStore,
+                serviceName,
+                targetConfigId,
+                schedulerFlags,
+                useDefaultExecutor,
+                schedulerFlags.getOfferScorer(),
+                schedulerFlags.getOfferSelectionMaxCandidates());
+    }
+
+    /**
+     * Creates an evaluator which chooses between viable offers using the provided scorer.
+     *
+     * @param offerScorer the scorer to rank viable offers with, or an empty Optional to use the first viable offer
+     * @param maxCandidates the number of viable offers to compare before choosing the best of them
+     */
+    public OfferEvaluator(
+            StateStore stateStore,
+            String serviceName,
+            UUID targetConfigId,
+            SchedulerFlags schedulerFlags,
+            boolean useDefaultExecutor,
+            Optional<OfferScorer> offerScorer,
+            int maxCandidates) {
         this.stateStore = stateStore;
         this.serviceName = serviceName;
         this.targetConfigId = targetConfigId;
         this.schedulerFlags = schedulerFlags;
         this.useDefaultExecutor = useDefaultExecutor;
+        this.offerScorer = offerScorer;
+        this.maxCandidates = maxCandidates;
+        this.outcomeLogging = schedulerFlags.getOfferEvaluationLogging();
     }
 
     public List<OfferRecommendation> evaluate(PodInstanceRequirement podInstanceRequirement, List<Protos.Offer> offers)
@@ -64,8 +104,9 @@ public class OfferEvaluator {
                 .map(taskName -> allTasks.get(taskName))
                 .filter(taskInfo -> taskInfo != null)
                 .collect(Collectors.toMap(Protos.TaskInfo::getName, Function.identity()));
-        logger.info("Pod: {}, taskInfos for evaluation.", podInstanceRequirement.getPodInstance().getName());
-        thisPodTasks.values().forEach(info -> logger.info(TextFormat.shortDebugString(info)));
+        logger.info("Pod: {}, taskInfos for evaluation: {}",
+                podInstanceRequirement.getPodInstance().getName(), thisPodTasks.keySet());
+        thisPodTasks.values().forEach(info -> OfferLogUtils.logProtobuf("TaskInfo for evaluation", info));
 
         boolean noTasksRunning = thisPodTasks.values().stream()
                 .map(taskInfo -> taskInfo.getName())
@@ -86,66 +127,153 @@ public class OfferEvaluator {
         }
 
         if (executorInfo.isPresent()) {
-            logger.info("Pod: {}, executorInfo for evaluation: {}",
-                    podInstanceRequirement.getPodInstance().getName(),
-                    TextFormat.shortDebugString(executorInfo.get()));
+            OfferLogUtils.logProtobuf("ExecutorInfo for evaluation", executorInfo.get());
         }
 
+        Optional<OfferResourcePrefilter> prefilter = getPrefilter(podInstanceRequirement, thisPodTasks);
+        List<OfferRecommendation> bestRecommendations = Collections.emptyList();
+        Protos.Offer bestOffer = null;
+        // The full pipeline for the best offer, if any of its stages were deferred while scoring:
+        Optional<List<OfferEvaluationStage>> bestDeferredPipeline = Optional.empty();
+        double bestScore = -1;
+        int candidates = 0;
         for (int i = 0; i < offers.size(); ++i) {
+            Protos.Offer offer = offers.get(i);
+            if (prefilter.isPresent()) {
+                Optional<String> rejectionReason = prefilter.get().getRejectionReason(offer);
+                if (rejectionReason.isPresent()) {
+                    logger.info("Offer {}, {}: rejected before evaluation: {}",
+                            i + 1, offer.getId().getValue(), rejectionReason.get());
+                    continue;
+                }
+            }
+
             List<OfferEvaluationStage> evaluationStages =
                     getEvaluationPipeline(podInstanceRequirement, allTasks.values(), thisPodTasks, executorInfo);
+            // When offers are scored against each other, stages with side effects are deferred until an offer has been
+            // chosen, rather than being run once per viable offer:
+            List<OfferEvaluationStage> stagesToEvaluate = offerScorer.isPresent()
+                    ? getStagesWithoutSideEffects(evaluationStages)
+                    : evaluationStages;
 
-            Protos.Offer offer = offers.get(i);
-            MesosResourcePool resourcePool = new MesosResourcePool(
-                    offer,
-                    OfferEvaluationUtils.getRole(podInstanceRequirement.getPodInstance().getPod()));
-            PodInfoBuilder podInfoBuilder = new PodInfoBuilder(
-                    podInstanceRequirement,
-                    serviceName,
-                    getTargetConfig(podInstanceRequirement, thisPodTasks.values()),
-                    schedulerFlags,
-                    thisPodTasks.values(),
-                    stateStore.fetchFrameworkId().get(),
-                    useDefaultExecutor);
-            List<EvaluationOutcome> outcomes = new ArrayList<>();
-            int failedOutcomeCount = 0;
-
-            for (OfferEvaluationStage evaluationStage : evaluationStages) {
-                EvaluationOutcome outcome = evaluationStage.evaluate(resourcePool, podInfoBuilder);
-                outcomes.add(outcome);
-                if (!outcome.isPassing()) {
-                    failedOutcomeCount++;
+            List<EvaluationOutcome> outcomes =
+                    evaluateStages(podInstanceRequirement, thisPodTasks, offer, stagesToEvaluate);
+            int failedOutcomeCount = getFailedOutcomeCount(outcomes);
+
+            if (failedOutcomeCount != 0) {
+                if (logger.isInfoEnabled()) {
+                    logger.info("Offer {}, {}: failed {} of {} evaluation stages{}",
+                            i + 1,
+                            offer.getId().getValue(),
+                            failedOutcomeCount,
+                            stagesToEvaluate.size(),
+                            getOutcomeDetails(outcomes));
+                }
+            } else {
+                List<OfferRecommendation> recommendations = getRecommendations(outcomes);
+                if (!offerScorer.isPresent()) {
+                    if (logger.isInfoEnabled()) {
+                        logger.info("Offer {}: passed all {} evaluation stages, returning {} recommendations{}",
+                                i + 1, stagesToEvaluate.size(), recommendations.size(), getOutcomeDetails(outcomes));
+                    }
+                    return recommendations;
                 }
-            }
 
-            StringBuilder outcomeDetails = new StringBuilder();
-            for (EvaluationOutcome outcome : outcomes) {
-                logOutcome(outcomeDetails, outcome, "");
-            }
-            if (outcomeDetails.length() != 0) {
-                // trim extra trailing newline:
-                outcomeDetails.deleteCharAt(outcomeDetails.length() - 1);
+                double score = offerScorer.get().score(
+                        offer, recommendations, podInstanceRequirement, allTasks.values());
+                if (logger.isInfoEnabled()) {
+                    logger.info("Offer {}: passed all {} evaluation stages with {} score {}, " +
+                                    "yielding {} recommendations{}",
+                            i + 1, stagesToEvaluate.size(), offerScorer.get(), score, recommendations.size(),
+                            getOutcomeDetails(outcomes));
+                }
+                ++candidates;
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestRecommendations = recommendations;
+                    bestOffer = offer;
+                    bestDeferredPipeline = stagesToEvaluate.size() == evaluationStages.size()
+                            ? Optional.empty()
+                            : Optional.of(evaluationStages);
+                }
+                if (score >= OfferScorer.PERFECT_SCORE || candidates >= maxCandidates) {
+                    // Stop early: either this can't be improved upon, or we've compared enough candidates
+                    break;
+                }
             }
+        }
 
+        if (candidates == 0) {
+            return bestRecommendations;
+        }
+        logger.info("Chose offer {} with best {} score {} of {} viable offers",
+                bestOffer.getId().getValue(), offerScorer.get(), bestScore, candidates);
+        if (bestDeferredPipeline.isPresent()) {
+            // Some stages were deferred while scoring. Evaluate the full pipeline against the chosen offer, so that
+            // their side effects only happen once, and their changes are included in the returned recommendations.
+            List<EvaluationOutcome> outcomes =
+                    evaluateStages(podInstanceRequirement, thisPodTasks, bestOffer, bestDeferredPipeline.get());
+            int failedOutcomeCount = getFailedOutcomeCount(outcomes);
             if (failedOutcomeCount != 0) {
-                logger.info("Offer {}, {}: failed {} of {} evaluation stages:\n{}",
-                        i + 1,
-                        offer.getId().getValue(),
-                        failedOutcomeCount,
-                        evaluationStages.size(),
-                        outcomeDetails.toString());
-            } else {
-                List<OfferRecommendation> recommendations = outcomes.stream()
-                        .map(outcome -> outcome.getOfferRecommendations())
-                        .flatMap(xs -> xs.stream())
-                        .collect(Collectors.toList());
-                logger.info("Offer {}: passed all {} evaluation stages, returning {} recommendations:\n{}",
-                        i + 1, evaluationStages.size(), recommendations.size(), outcomeDetails.toString());
-                return recommendations;
+                if (logger.isInfoEnabled()) {
+                    logger.info("Chosen offer {}: failed {} of {} evaluation stages{}",
+                            bestOffer.getId().getValue(),
+                            failedOutcomeCount,
+                            bestDeferredPipeline.get().size(),
+                            getOutcomeDetails(outcomes));
+                }
+                return Collections.emptyList();
             }
+            bestRecommendations = getRecommendations(outcomes);
         }
+        logger.info("Returning {} recommendations for chosen offer {}",
+                bestRecommendations.size(), bestOffer.getId().getValue());
+        return bestRecommendations;
+    }
 
-        return Collections.emptyList();
+    /**
+     * Evaluates the provided stages against the provided offer, using a new pool and {@link PodInfoBuilder}, and
+     * returns the outcome of each stage.
+     */
+    private List<EvaluationOutcome> evaluateStages(
+            PodInstanceRequirement podInstanceRequirement,
+            Map<String, Protos.TaskInfo> thisPodTasks,
+            Protos.Offer offer,
+            List<OfferEvaluationStage> evaluationStages) throws InvalidRequirementException {
+        MesosResourcePool resourcePool = new MesosResourcePool(
+                offer,
+                OfferEvaluationUtils.getRole(podInstanceRequirement.getPodInstance().getPod()));
+        PodInfoBuilder podInfoBuilder = new PodInfoBuilder(
+                podInstanceRequirement,
+                serviceName,
+                getTargetConfig(podInstanceRequirement, thisPodTasks.values()),
+                schedulerFlags,
+                thisPodTasks.values(),
+                stateStore.fetchFrameworkId().get(),
+                useDefaultExecutor,
+                prototypeCache);
+        List<EvaluationOutcome> outcomes = new ArrayList<>();
+        for (OfferEvaluationStage evaluationStage : evaluationStages) {
+            outcomes.add(evaluationStage.evaluate(resourcePool, podInfoBuilder));
+        }
+        return outcomes;
+    }
+
+    private static List<OfferEvaluationStage> getStagesWithoutSideEffects(List<OfferEvaluationStage> stages) {
+        return stages.stream()
+                .filter(stage -> !stage.hasSideEffects())
+                .collect(Collectors.toList());
+    }
+
+    private static int getFailedOutcomeCount(List<EvaluationOutcome> outcomes) {
+        return (int) outcomes.stream().filter(outcome -> !outcome.isPassing()).count();
+    }
+
+    private static List<OfferRecommendation> getRecommendations(List<EvaluationOutcome> outcomes) {
+        return outcomes.stream()
+                .map(outcome -> outcome.getOfferRecommendations())
+                .flatMap(xs -> xs.stream())
+                .collect(Collectors.toList());
     }
 
     public List<OfferEvaluationStage> getEvaluationPipeline(
@@ -153,13 +281,7 @@ public class OfferEvaluator {
             Collection<Protos.TaskInfo> allTasks,
             Map<String, Protos.TaskInfo> thisPodTasks,
             Optional<Protos.ExecutorInfo> executorInfo) {
-        boolean noLaunchedTasksExist = thisPodTasks.values().stream()
-                .flatMap(taskInfo -> taskInfo.getResourcesList().stream())
-                .map(resource -> ResourceUtils.getResourceId(resource))
-                .filter(resourceId -> resourceId.isPresent())
-                .map(Optional::get)
-                .filter(resourceId -> !resourceId.isEmpty())
-                .count() == 0;
+        boolean noLaunchedTasksExist = !hasReservedResources(thisPodTasks.values());
 
         final String description;
         final boolean shouldGetNewRequirement;
@@ -190,6 +312,49 @@ public class OfferEvaluator {
         return evaluationPipeline;
     }
 
+    /**
+     * Returns a prefilter for quickly rejecting offers which lack the resources needed by the pod, or an empty Optional
+     * if the pod has existing reservations. Existing reservations are matched by resource ID during evaluation, so the
+     * unreserved resources in an offer are not a meaningful bound for them.
+     */
+    private Optional<OfferResourcePrefilter> getPrefilter(
+            PodInstanceRequirement podInstanceRequirement, Map<String, Protos.TaskInfo> thisPodTasks) {
+        if (!isPermanentlyFailed(podInstanceRequirement) && hasReservedResources(thisPodTasks.values())) {
+            return Optional.empty();
+        }
+
+        Collection<ResourceSet> resourceSets = getNewResourceSets(podInstanceRequirement).values();
+        Collection<ResourceSpec> executorResources = Collections.emptyList();
+        if (useDefaultExecutor) {
+            // The executor is reserved in the role of the first resource. Only account for it if that's unambiguous.
+            List<ResourceSpec> resourceSpecs = resourceSets.stream()
+                    .flatMap(resourceSet -> resourceSet.getResources().stream())
+                    .collect(Collectors.toList());
+            boolean singleRole = resourceSpecs.stream()
+                    .map(ResourceSpec::getPreReservedRole)
+                    .distinct()
+                    .count() == 1;
+            if (singleRole) {
+                ResourceSpec firstResource = resourceSpecs.get(0);
+                executorResources = getExecutorResources(
+                        firstResource.getPreReservedRole(), firstResource.getRole(), firstResource.getPrincipal());
+            }
+        }
+
+        PodSpec podSpec = podInstanceRequirement.getPodInstance().getPod();
+        return Optional.of(OfferResourcePrefilter.forNewPod(
+                resourceSets, podSpec.getVolumes(), executorResources, OfferEvaluationUtils.getRole(podSpec)));
+    }
+
+    private static boolean hasReservedResources(Collection<Protos.TaskInfo> taskInfos) {
+        return taskInfos.stream()
+                .flatMap(taskInfo -> taskInfo.getResourcesList().stream())
+                .map(resource -> ResourceUtils.getResourceId(resource))
+                .filter(resourceId -> resourceId.isPresent())
+                .map(Optional::get)
+                .anyMatch(resourceId -> !resourceId.isEmpty());
+    }
+
     /**
      * Returns whether the pod has permanently failed in its previous run, in which case it should be relaunched from
      * scratch.
@@ -218,8 +383,30 @@ public class OfferEvaluator {
         return Optional.empty();
     }
 
+    /**
+     * Returns a description of the provided outcomes for logging, according to the configured {@link OutcomeLogging}.
+     * In summary mode, this is the number of failed stages of each type, on a single line. Otherwise, this is the full
+     * tree of outcomes, with each outcome on its own line.
+     */
+    private String getOutcomeDetails(List<EvaluationOutcome> outcomes) {
+        if (outcomeLogging == OutcomeLogging.SUMMARY) {
+            Map<String, Integer> failureCounts = new TreeMap<>();
+            for (EvaluationOutcome outcome : outcomes) {
+                if (!outcome.isPassing()) {
+                    failureCounts.merge(outcome.getSource(), 1, Integer::sum);
+                }
+            }
+            return failureCounts.isEmpty() ? "" : ": " + failureCounts;
+        }
+        StringBuilder outcomeDetails = new StringBuilder(":");
+        for (EvaluationOutcome outcome : outcomes) {
+            logOutcome(outcomeDetails, outcome, "");
+        }
+        return outcomeDetails.toString();
+    }
+
     private static void logOutcome(StringBuilder stringBuilder, EvaluationOutcome outcome, String indent) {
-        stringBuilder.append(String.format("  %s%s%n", indent, outcome.toString()));
+        stringBuilder.append(String.format("%n  %s%s", indent, outcome.toString()));
         for (EvaluationOutcome child : outcome.getChildren()) {
             logOutcome(stringBuilder, child, indent + "  ");
         }
@@ -0,0 +1,162 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.offer.MesosResourcePool;
+import com.mesosphere.sdk.offer.ResourceUtils;
+import com.mesosphere.sdk.specification.PortSpec;
+import com.mesosphere.sdk.specification.ResourceSet;
+import com.mesosphere.sdk.specification.ResourceSpec;
+import com.mesosphere.sdk.specification.VolumeSpec;
+import org.apache.mesos.Protos;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A cheap check of whether an {@link Protos.Offer} could possibly satisfy the resources required by a new pod, which
+ * allows hopeless offers to be rejected before a {@link MesosResourcePool}, a {@link PodInfoBuilder}, and the
+ * evaluation pipeline are constructed for them.
+ *
+ * <p>The required cpus, mem, disk, gpus, and host port count are totalled per pre-reserved role once per pod. Each
+ * offer is then reduced to the same totals over its unreserved resources, along with a count of its unreserved MOUNT
+ * volumes. An offer is only rejected if one of its totals is smaller than what's required, so the prefilter never
+ * rejects an offer which the full evaluation would have accepted. Offers which pass may still fail the full evaluation,
+ * e.g. due to fragmented port ranges, undersized MOUNT volumes, or placement rules.
+ */
+class OfferResourcePrefilter {
+
+    private static final String[] RESOURCE_NAMES = {
+            Constants.CPUS_RESOURCE_TYPE,
+            Constants.MEMORY_RESOURCE_TYPE,
+            Constants.DISK_RESOURCE_TYPE,
+            Constants.GPUS_RESOURCE_TYPE,
+            Constants.PORTS_RESOURCE_TYPE
+    };
+    private static final int DISK_INDEX = 2;
+    private static final int PORTS_INDEX = 4;
+
+    // Allow for rounding differences between our totals and the per-resource arithmetic of the full evaluation
+    private static final double EPSILON = 0.000001;
+
+    private final Optional<String> podRole;
+    // Pre-reserved role => required quantity, indexed according to RESOURCE_NAMES
+    private final Map<String, double[]> requiredByRole = new HashMap<>();
+    private int requiredAtomicVolumes = 0;
+
+    /**
+     * Returns a prefilter for a pod which has no prior reservations, and which will therefore reserve all of its
+     * resources from the unreserved resources in an offer.
+     *
+     * @param resourceSets the resource sets which will be reserved by the pod's tasks
+     * @param podVolumes the volumes which will be reserved for the pod as a whole
+     * @param executorResources the resources which will be reserved for the executor, or an empty collection if none
+     * @param podRole the role which offered resources must have been allocated to, if any
+     */
+    static OfferResourcePrefilter forNewPod(
+            Collection<ResourceSet> resourceSets,
+            Collection<VolumeSpec> podVolumes,
+            Collection<ResourceSpec> executorResources,
+            Optional<String> podRole) {
+        OfferResourcePrefilter prefilter = new OfferResourcePrefilter(podRole);
+        for (ResourceSet resourceSet : resourceSets) {
+            resourceSet.getResources().forEach(prefilter::addResource);
+            resourceSet.getVolumes().forEach(prefilter::addVolume);
+        }
+        podVolumes.forEach(prefilter::addVolume);
+        executorResources.forEach(prefilter::addResource);
+        return prefilter;
+    }
+
+    private OfferResourcePrefilter(Optional<String> podRole) {
+        this.podRole = podRole;
+    }
+
+    /**
+     * Returns a description of why the provided offer cannot satisfy the pod, or an empty Optional if it might.
+     */
+    Optional<String> getRejectionReason(Protos.Offer offer) {
+        Map<String, double[]> offeredByRole = new HashMap<>();
+        int offeredAtomicVolumes = 0;
+        for (Protos.Resource resource : offer.getResourcesList()) {
+            if (!MesosResourcePool.consumableResource(podRole, resource) || ResourceUtils.hasResourceId(resource)) {
+                continue;
+            }
+            if (ResourceUtils.isAtomic(resource)) {
+                ++offeredAtomicVolumes;
+                continue;
+            }
+            int index = getIndex(resource.getName());
+            if (index < 0) {
+                continue;
+            }
+            double[] offered = offeredByRole.computeIfAbsent(ResourceUtils.getRole(resource), r -> newVector());
+            if (index == PORTS_INDEX) {
+                for (Protos.Value.Range range : resource.getRanges().getRangeList()) {
+                    offered[index] += range.getEnd() - range.getBegin() + 1;
+                }
+            } else {
+                offered[index] += resource.getScalar().getValue();
+            }
+        }
+
+        if (offeredAtomicVolumes < requiredAtomicVolumes) {
+            return Optional.of(String.format("Offer has %d unreserved MOUNT volumes, but %d are required",
+                    offeredAtomicVolumes, requiredAtomicVolumes));
+        }
+        for (Map.Entry<String, double[]> entry : requiredByRole.entrySet()) {
+            double[] required = entry.getValue();
+            double[] offered = offeredByRole.get(entry.getKey());
+            for (int i = 0; i < RESOURCE_NAMES.length; ++i) {
+                double offeredValue = offered == null ? 0 : offered[i];
+                if (required[i] > offeredValue + EPSILON) {
+                    return Optional.of(String.format(
+                            "Offer has insufficient unreserved '%s' in role '%s': required %s, offered %s",
+                            RESOURCE_NAMES[i], entry.getKey(), required[i], offeredValue));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void addResource(ResourceSpec resourceSpec) {
+        if (resourceSpec instanceof PortSpec) {
+            // Ports on overlay networks aren't reserved from the offer
+            if (PortEvaluationStage.requireHostPorts(((PortSpec) resourceSpec).getNetworkNames())) {
+                getRequired(resourceSpec)[PORTS_INDEX] += 1;
+            }
+            return;
+        }
+        int index = getIndex(resourceSpec.getName());
+        if (index >= 0 && resourceSpec.getValue().getType() == Protos.Value.Type.SCALAR) {
+            getRequired(resourceSpec)[index] += resourceSpec.getValue().getScalar().getValue();
+        }
+    }
+
+    private void addVolume(VolumeSpec volumeSpec) {
+        if (volumeSpec.getType() == VolumeSpec.Type.ROOT) {
+            getRequired(volumeSpec)[DISK_INDEX] += volumeSpec.getValue().getScalar().getValue();
+        } else {
+            // Other volume types are each consumed whole from an unreserved MOUNT volume
+            ++requiredAtomicVolumes;
+        }
+    }
+
+    private double[] getRequired(ResourceSpec resourceSpec) {
+        return requiredByRole.computeIfAbsent(resourceSpec.getPreReservedRole(), r -> newVector());
+    }
+
+    private static int getIndex(String resourceName) {
+        for (int i = 0; i < RESOURCE_NAMES.length; ++i) {
+            if (RESOURCE_NAMES[i].equals(resourceName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static double[] newVector() {
+        return new double[RESOURCE_NAMES.length];
+    }
+}
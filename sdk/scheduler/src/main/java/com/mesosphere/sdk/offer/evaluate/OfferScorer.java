@@ -0,0 +1,33 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import com.mesosphere.sdk.offer.OfferRecommendation;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import org.apache.mesos.Protos;
+
+import java.util.Collection;
+
+/**
+ * An OfferScorer ranks the {@link Protos.Offer}s which have passed evaluation for a pod. When one is configured, the
+ * {@link OfferEvaluator} uses the viable offer with the highest score, rather than the first viable offer.
+ */
+public interface OfferScorer {
+
+    /**
+     * The highest possible score. Once an offer with this score is found, no further offers are evaluated.
+     */
+    double PERFECT_SCORE = 1.0;
+
+    /**
+     * Returns a score between 0 and {@link #PERFECT_SCORE} for an offer which has passed evaluation.
+     *
+     * @param offer the offer which passed evaluation
+     * @param recommendations the operations which would be performed against the offer
+     * @param podInstanceRequirement the pod which is being placed
+     * @param allTasks all tasks in the service, which may be used to determine the current placement of other pods
+     */
+    double score(
+            Protos.Offer offer,
+            Collection<OfferRecommendation> recommendations,
+            PodInstanceRequirement podInstanceRequirement,
+            Collection<Protos.TaskInfo> allTasks);
+}
@@ -38,6 +38,7 @@ public class PodInfoBuilder {
     private static final Logger LOGGER = LoggerFactory.getLogger(PodInfoBuilder.class);
     private static final String CONFIG_TEMPLATE_KEY_FORMAT = "CONFIG_TEMPLATE_%s";
     private static final String CONFIG_TEMPLATE_DOWNLOAD_PATH = "config-templates/";
+
     private Set<Long> assignedOverlayPorts = new HashSet<>();
     private final Map<String, Protos.TaskInfo.Builder> taskBuilders = new HashMap<>();
     private Protos.ExecutorInfo.Builder executorBuilder;
@@ -53,19 +54,42 @@ public class PodInfoBuilder {
             Collection<Protos.TaskInfo> currentPodTasks,
             Protos.FrameworkID frameworkID,
             boolean useDefaultExecutor) throws InvalidRequirementException {
+        this(podInstanceRequirement,
+                serviceName,
+                targetConfigId,
+                schedulerFlags,
+                currentPodTasks,
+                frameworkID,
+                useDefaultExecutor,
+                new PrototypeCache());
+    }
+
+    /**
+     * Creates a builder which reuses the spec-derived parts of the pod's TaskInfos and ExecutorInfo from the provided
+     * cache where possible.
+     *
+     * @param prototypeCache a cache which is only ever used with the provided {@link SchedulerFlags}
+     */
+    public PodInfoBuilder(
+            PodInstanceRequirement podInstanceRequirement,
+            String serviceName,
+            UUID targetConfigId,
+            SchedulerFlags schedulerFlags,
+            Collection<Protos.TaskInfo> currentPodTasks,
+            Protos.FrameworkID frameworkID,
+            boolean useDefaultExecutor,
+            PrototypeCache prototypeCache) throws InvalidRequirementException {
         PodInstance podInstance = podInstanceRequirement.getPodInstance();
         this.useDefaultExecutor = useDefaultExecutor;
 
         // Generate new TaskInfos based on the task spec. To keep things consistent, we always generate new TaskInfos
-        // from scratch, with the only carry-over being the prior task environment.
+        // from the spec, with the only carry-over being the prior task environment. The parts which only depend on the
+        // spec are built once per pod instance and config, and then copied for each evaluation.
+        PodPrototype prototype =
+                getPrototype(prototypeCache, podInstance, serviceName, targetConfigId, schedulerFlags);
         for (TaskSpec taskSpec : podInstance.getPod().getTasks()) {
-            Protos.TaskInfo.Builder taskInfoBuilder = createTaskInfo(
-                    podInstance,
-                    taskSpec,
-                    podInstanceRequirement.getEnvironment(),
-                    serviceName,
-                    targetConfigId,
-                    schedulerFlags);
+            Protos.TaskInfo.Builder taskInfoBuilder = prototype.taskPrototypes.get(taskSpec.getName())
+                    .toBuilder(podInstanceRequirement.getEnvironment());
             // Store tasks against the task spec name 'node' instead of 'broker-0-node': the pod segment is redundant
             // as we're only looking at tasks within a given pod
             this.taskBuilders.put(taskSpec.getName(), taskInfoBuilder);
@@ -78,8 +102,10 @@ public class PodInfoBuilder {
 
         }
 
-        this.executorBuilder = getExecutorInfoBuilder(
-                serviceName, podInstance, frameworkID, targetConfigId, schedulerFlags);
+        this.executorBuilder = prototype.executorInfo.toBuilder();
+        if (useDefaultExecutor) {
+            this.executorBuilder.setFrameworkId(frameworkID);
+        }
 
         this.podInstance = podInstance;
         this.portsByTask = new HashMap<>();
@@ -89,10 +115,6 @@ public class PodInfoBuilder {
             // TaskInfo name.
             portsByTask.put(currentTask.getName(), new TaskPortLookup(currentTask));
         }
-
-        for (Protos.TaskInfo.Builder taskBuilder : taskBuilders.values()) {
-            validateTaskInfo(taskBuilder);
-        }
     }
 
     public Collection<Protos.TaskInfo.Builder> getTaskBuilders() {
@@ -197,18 +219,47 @@ public class PodInfoBuilder {
         return builder.build();
     }
 
-    private Protos.TaskInfo.Builder createTaskInfo(
+    /**
+     * Returns the prototypes for the provided pod instance, building them if they aren't already cached. Cached
+     * prototypes are only used if they were built from an equal {@link PodSpec}.
+     */
+    private PodPrototype getPrototype(
+            PrototypeCache prototypeCache,
             PodInstance podInstance,
-            TaskSpec taskSpec,
-            Map<String, String> environment,
             String serviceName,
-            UUID targetConfigurationId,
+            UUID targetConfigId,
             SchedulerFlags schedulerFlags) throws InvalidRequirementException {
+        PrototypeKey key = new PrototypeKey(serviceName, targetConfigId, podInstance, useDefaultExecutor);
+        PodPrototype prototype = prototypeCache.prototypes.get(key);
+        if (prototype != null && prototype.isBuiltFrom(podInstance.getPod())) {
+            return prototype;
+        }
+
+        Map<String, TaskPrototype> taskPrototypes = new HashMap<>();
+        for (TaskSpec taskSpec : podInstance.getPod().getTasks()) {
+            taskPrototypes.put(
+                    taskSpec.getName(),
+                    createTaskPrototype(podInstance, taskSpec, serviceName, targetConfigId));
+        }
+        prototype = new PodPrototype(
+                podInstance.getPod(),
+                taskPrototypes,
+                getExecutorInfoBuilder(serviceName, podInstance, targetConfigId, schedulerFlags).buildPartial());
+        prototypeCache.prototypes.put(key, prototype);
+        return prototype;
+    }
+
+    private TaskPrototype createTaskPrototype(
+            PodInstance podInstance,
+            TaskSpec taskSpec,
+            String serviceName,
+            UUID targetConfigurationId) throws InvalidRequirementException {
         PodSpec podSpec = podInstance.getPod();
         Protos.TaskInfo.Builder taskInfoBuilder = Protos.TaskInfo.newBuilder()
                 .setName(TaskSpec.getInstanceName(podInstance, taskSpec))
                 .setTaskId(CommonIdUtils.emptyTaskId())
                 .setSlaveId(CommonIdUtils.emptyAgentId());
+        int environmentIndex = 0;
 
         // create default labels:
         taskInfoBuilder.setLabels(new TaskLabelWriter(taskInfoBuilder)
@@ -223,7 +274,8 @@ public class PodInfoBuilder {
                     .setValue(taskSpec.getCommand().get().getValue())
                     .setEnvironment(EnvUtils.toProto(getTaskEnvironment(serviceName, podInstance, taskSpec)));
             setBootstrapConfigFileEnv(taskInfoBuilder.getCommandBuilder(), taskSpec);
-            extendEnv(taskInfoBuilder.getCommandBuilder(), environment);
+            // Any requirement-specific environment is added here, ahead of any secrets:
+            environmentIndex = commandBuilder.getEnvironment().getVariablesCount();
 
             if (useDefaultExecutor) {
                 // Any URIs defined in PodSpec itself.
@@ -277,13 +329,13 @@ public class PodInfoBuilder {
         setReadinessCheck(taskInfoBuilder, serviceName, podInstance, taskSpec);
         setTaskKillGracePeriod(taskInfoBuilder, taskSpec);
 
-        return taskInfoBuilder;
+        validateTaskInfo(taskInfoBuilder);
+        return new TaskPrototype(taskInfoBuilder.buildPartial(), environmentIndex);
     }
 
     private Protos.ExecutorInfo.Builder getExecutorInfoBuilder(
             String serviceName,
             PodInstance podInstance,
-            Protos.FrameworkID frameworkID,
             UUID targetConfigurationId,
             SchedulerFlags schedulerFlags) throws IllegalStateException {
         PodSpec podSpec = podInstance.getPod();
@@ -293,8 +345,8 @@ public class PodInfoBuilder {
         AuxLabelAccess.setDcosSpace(executorInfoBuilder, schedulerFlags.getDcosSpaceLabelValue());
 
         if (useDefaultExecutor) {
-            executorInfoBuilder.setType(Protos.ExecutorInfo.Type.DEFAULT)
-                    .setFrameworkId(frameworkID);
+            // The framework ID is set for each evaluation, as it isn't known to the spec
+            executorInfoBuilder.setType(Protos.ExecutorInfo.Type.DEFAULT);
         } else {
             // command and user:
             Protos.CommandInfo.Builder executorCommandBuilder = executorInfoBuilder.getCommandBuilder().setValue(
@@ -709,4 +761,118 @@ public class PodInfoBuilder {
         return ToStringBuilder.reflectionToString(this);
     }
 
+    /**
+     * The spec-derived parts of pods' TaskInfos and ExecutorInfos, for reuse across evaluations of the same pod
+     * instance. Each cache is owned by the {@link OfferEvaluator} of a single service, and the least recently used pod
+     * instances are evicted once the maximum is reached.
+     */
+    public static class PrototypeCache {
+        private static final int MAX_PROTOTYPES = 1024;
+
+        private final Map<PrototypeKey, PodPrototype> prototypes = Collections.synchronizedMap(
+                new LinkedHashMap<PrototypeKey, PodPrototype>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<PrototypeKey, PodPrototype> eldest) {
+                        return size() > MAX_PROTOTYPES;
+                    }
+                });
+    }
+
+    /**
+     * Identifies the prototypes for a pod instance.
+     */
+    private static class PrototypeKey {
+        private final String serviceName;
+        private final UUID targetConfigId;
+        private final String podType;
+        private final int podIndex;
+        private final boolean useDefaultExecutor;
+
+        private PrototypeKey(
+                String serviceName, UUID targetConfigId, PodInstance podInstance, boolean useDefaultExecutor) {
+            this.serviceName = serviceName;
+            this.targetConfigId = targetConfigId;
+            this.podType = podInstance.getPod().getType();
+            this.podIndex = podInstance.getIndex();
+            this.useDefaultExecutor = useDefaultExecutor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PrototypeKey)) {
+                return false;
+            }
+            PrototypeKey other = (PrototypeKey) o;
+            return podIndex == other.podIndex
+                    && useDefaultExecutor == other.useDefaultExecutor
+                    && Objects.equals(serviceName, other.serviceName)
+                    && Objects.equals(targetConfigId, other.targetConfigId)
+                    && Objects.equals(podType, other.podType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(serviceName, targetConfigId, podType, podIndex, useDefaultExecutor);
+        }
+    }
+
+    /**
+     * The immutable TaskInfos and ExecutorInfo built from a pod instance's spec, without any offer-specific content.
+     */
+    private static class PodPrototype {
+        private final PodSpec podSpec;
+        private final Map<String, TaskPrototype> taskPrototypes;
+        private final Protos.ExecutorInfo executorInfo;
+
+        private PodPrototype(
+                PodSpec podSpec,
+                Map<String, TaskPrototype> taskPrototypes,
+                Protos.ExecutorInfo executorInfo) {
+            this.podSpec = podSpec;
+            this.taskPrototypes = taskPrototypes;
+            this.executorInfo = executorInfo;
+        }
+
+        private boolean isBuiltFrom(PodSpec podSpec) {
+            // Specs are usually the same instance across evaluations, in which case the (reflective) equals is skipped
+            return this.podSpec == podSpec || this.podSpec.equals(podSpec);
+        }
+    }
+
+    /**
+     * A TaskInfo built from a task's spec, along with where any requirement-specific environment belongs in it.
+     */
+    private static class TaskPrototype {
+        private final Protos.TaskInfo taskInfo;
+        private final int environmentIndex;
+
+        private TaskPrototype(Protos.TaskInfo taskInfo, int environmentIndex) {
+            this.taskInfo = taskInfo;
+            this.environmentIndex = environmentIndex;
+        }
+
+        /**
+         * Returns a new builder copied from this prototype, with the provided environment added to the task command.
+         */
+        private Protos.TaskInfo.Builder toBuilder(Map<String, String> environment) {
+            Protos.TaskInfo.Builder taskInfoBuilder = taskInfo.toBuilder();
+            if (!taskInfoBuilder.hasCommand() || environment.isEmpty()) {
+                return taskInfoBuilder;
+            }
+            Protos.CommandInfo.Builder commandBuilder = taskInfoBuilder.getCommandBuilder();
+            List<Protos.Environment.Variable> variables =
+                    new ArrayList<>(commandBuilder.getEnvironment().getVariablesList());
+            commandBuilder.getEnvironmentBuilder()
+                    .clearVariables()
+                    .addAllVariables(variables.subList(0, environmentIndex));
+            extendEnv(commandBuilder, environment);
+            commandBuilder.getEnvironmentBuilder()
+                    .addAllVariables(variables.subList(environmentIndex, variables.size()));
+            return taskInfoBuilder;
+        }
+    }
+
 }
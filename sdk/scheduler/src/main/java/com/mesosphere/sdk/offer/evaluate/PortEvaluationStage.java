@@ -1,6 +1,5 @@
 package com.mesosphere.sdk.offer.evaluate;
 
-import com.google.protobuf.TextFormat;
 import com.mesosphere.sdk.dcos.DcosConstants;
 import com.mesosphere.sdk.offer.*;
 import com.mesosphere.sdk.offer.taskdata.*;
@@ -13,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -59,11 +59,13 @@ public class PortEvaluationStage implements OfferEvaluationStage {
                     return EvaluationOutcome.fail(
                             this,
                             "No ports were available for dynamic claim in offer," +
-                                    " and no matching port %s was present in prior %s: %s %s",
+                                    " and no matching port %s was present in prior %s: %s (pod %s, overlay ports %s)",
                             portSpec.getPortName(),
                             getTaskName().isPresent() ? "task " + getTaskName().get() : "executor",
-                            TextFormat.shortDebugString(mesosResourcePool.getOffer()),
-                            podInfoBuilder.toString())
+                            (Supplier<String>) () -> OfferLogUtils.summarize(mesosResourcePool.getOffer()),
+                            // The builder is modified by later stages, so copy what's needed from it now:
+                            podInfoBuilder.getPodInstance().getName(),
+                            new TreeSet<>(podInfoBuilder.getAssignedOverlayPorts()))
                             .build();
                 }
                 assignedPort = dynamicPort.get();
@@ -210,16 +212,21 @@ public class PortEvaluationStage implements OfferEvaluationStage {
             consumedPorts.addAll(getPortsInResource(resourceBuilder.build()));
         }
 
-        Protos.Value availablePorts = mesosResourcePool.getUnreservedMergedPool().get(Constants.PORTS_RESOURCE_TYPE);
-        Optional<Integer> dynamicPort = Optional.empty();
-        if (availablePorts != null) {
-            dynamicPort = availablePorts.getRanges().getRangeList().stream()
-                    .flatMap(r -> IntStream.rangeClosed((int) r.getBegin(), (int) r.getEnd()).boxed())
-                    .filter(p -> !consumedPorts.contains(p))
-                    .findFirst();
+        Optional<LongIntervalSet> availablePorts =
+                mesosResourcePool.getReservableRanges(Constants.PORTS_RESOURCE_TYPE, Constants.ANY_ROLE);
+        if (availablePorts.isPresent()) {
+            LongIntervalSet ports = availablePorts.get();
+            for (int i = 0; i < ports.getIntervalCount(); ++i) {
+                for (long port = ports.getBegin(i); port <= ports.getEnd(i); ++port) {
+                    // Only the (few) ports which are claimed elsewhere in the pod are skipped over:
+                    if (!consumedPorts.contains((int) port)) {
+                        return Optional.of((int) port);
+                    }
+                }
+            }
         }
 
-        return dynamicPort;
+        return Optional.empty();
     }
 
     private static Optional<Integer> selectOverlayPort(PodInfoBuilder podInfoBuilder) {
@@ -246,7 +253,7 @@ public class PortEvaluationStage implements OfferEvaluationStage {
                 .collect(Collectors.toSet());
     }
 
-    private static boolean requireHostPorts(Collection<String> networkNames) {
+    static boolean requireHostPorts(Collection<String> networkNames) {
         if (networkNames.isEmpty()) {  // no network names, must be on host network and use the host IP
             return true;
         } else {
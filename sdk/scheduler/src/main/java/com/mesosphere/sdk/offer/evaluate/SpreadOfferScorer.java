@@ -0,0 +1,36 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import com.mesosphere.sdk.offer.OfferRecommendation;
+import com.mesosphere.sdk.offer.TaskUtils;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import org.apache.mesos.Protos;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Prefers the offer from the agent which currently hosts the fewest of the service's other tasks. An offer from an
+ * agent without any of the service's other tasks is a perfect fit.
+ */
+public class SpreadOfferScorer implements OfferScorer {
+
+    @Override
+    public double score(
+            Protos.Offer offer,
+            Collection<OfferRecommendation> recommendations,
+            PodInstanceRequirement podInstanceRequirement,
+            Collection<Protos.TaskInfo> allTasks) {
+        Set<String> podTaskNames = new HashSet<>(TaskUtils.getTaskNames(podInstanceRequirement.getPodInstance()));
+        long tasksOnAgent = allTasks.stream()
+                .filter(taskInfo -> !podTaskNames.contains(taskInfo.getName()))
+                .filter(taskInfo -> taskInfo.getSlaveId().equals(offer.getSlaveId()))
+                .count();
+        return PERFECT_SCORE / (1 + tasksOnAgent);
+    }
+
+    @Override
+    public String toString() {
+        return "spread";
+    }
+}
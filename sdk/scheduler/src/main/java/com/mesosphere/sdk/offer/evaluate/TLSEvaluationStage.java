@@ -119,6 +119,14 @@ public class TLSEvaluationStage implements OfferEvaluationStage {
 
     }
 
+    /**
+     * Certificates are generated and stored in the secret store when they're missing.
+     */
+    @Override
+    public boolean hasSideEffects() {
+        return true;
+    }
+
     private SecretNameGenerator getSecretNameGenerator(
             PodInfoBuilder podInfoBuilder,
             String transportEncryptionName,
@@ -0,0 +1,65 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.offer.OfferRecommendation;
+import com.mesosphere.sdk.offer.ResourceUtils;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import org.apache.mesos.Protos;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Prefers the offer whose unreserved cpus and mem would be most fully consumed by the pod, leaving larger offers
+ * intact for pods which need them. An offer which the pod would consume entirely is a perfect fit.
+ */
+public class TightestFitOfferScorer implements OfferScorer {
+
+    private static final List<String> RESOURCE_NAMES =
+            Arrays.asList(Constants.CPUS_RESOURCE_TYPE, Constants.MEMORY_RESOURCE_TYPE);
+
+    @Override
+    public double score(
+            Protos.Offer offer,
+            Collection<OfferRecommendation> recommendations,
+            PodInstanceRequirement podInstanceRequirement,
+            Collection<Protos.TaskInfo> allTasks) {
+        double[] offered = new double[RESOURCE_NAMES.size()];
+        for (Protos.Resource resource : offer.getResourcesList()) {
+            int index = RESOURCE_NAMES.indexOf(resource.getName());
+            if (index >= 0 && !ResourceUtils.hasResourceId(resource)) {
+                offered[index] += resource.getScalar().getValue();
+            }
+        }
+
+        double[] reserved = new double[RESOURCE_NAMES.size()];
+        for (OfferRecommendation recommendation : recommendations) {
+            if (recommendation.getOperation().getType() != Protos.Offer.Operation.Type.RESERVE) {
+                continue;
+            }
+            for (Protos.Resource resource : recommendation.getOperation().getReserve().getResourcesList()) {
+                int index = RESOURCE_NAMES.indexOf(resource.getName());
+                if (index >= 0) {
+                    reserved[index] += resource.getScalar().getValue();
+                }
+            }
+        }
+
+        double total = 0;
+        int count = 0;
+        for (int i = 0; i < RESOURCE_NAMES.size(); ++i) {
+            if (offered[i] > 0) {
+                total += Math.min(PERFECT_SCORE, reserved[i] / offered[i]);
+                ++count;
+            }
+        }
+        // Nothing unreserved is being consumed (e.g. relaunching in place): nothing can fit better
+        return count == 0 ? PERFECT_SCORE : total / count;
+    }
+
+    @Override
+    public String toString() {
+        return "tightest-fit";
+    }
+}
@@ -102,7 +102,7 @@ public class AttributeRule implements PlacementRule {
             if (matcher.matches(attributeString)) {
                 return EvaluationOutcome.pass(
                         this,
-                        "Match found for attribute pattern: '%s'", matcher.toString())
+                        "Match found for attribute pattern: '%s'", matcher)
                         .build();
             }
         }
@@ -111,7 +111,7 @@ public class AttributeRule implements PlacementRule {
                 this,
                 "None of %d attributes matched pattern: '%s'",
                 offer.getAttributesCount(),
-                matcher.toString())
+                matcher)
                 .build();
     }
 
@@ -144,9 +144,9 @@ public class HostnameRule implements PlacementRule {
     @Override
     public EvaluationOutcome filter(Offer offer, PodInstance podInstance, Collection<TaskInfo> tasks) {
         if (matcher.matches(offer.getHostname())) {
-            return EvaluationOutcome.pass(this, "Offer hostname matches pattern: '%s'", matcher.toString()).build();
+            return EvaluationOutcome.pass(this, "Offer hostname matches pattern: '%s'", matcher).build();
         } else {
-            return EvaluationOutcome.fail(this, "Offer hostname didn't match pattern: '%s'", matcher.toString())
+            return EvaluationOutcome.fail(this, "Offer hostname didn't match pattern: '%s'", matcher)
                     .build();
         }
     }
@@ -144,8 +144,8 @@ public class MaxPerAttributeRule implements PlacementRule {
                             "Reached %d/%d tasks matching filter '%s' on this agent with attribute: %s",
                             val,
                             maxTasksPerSelectedAttribute,
-                            taskFilter.toString(),
-                            attributeMatcher.toString())
+                            taskFilter,
+                            attributeMatcher)
                             .build();
                 }
                 offerAttrTaskCounts.put(taskAttributeString, val);
@@ -156,7 +156,7 @@ public class MaxPerAttributeRule implements PlacementRule {
         return EvaluationOutcome.pass(
                 this,
                 "Fits within limit of %d tasks matching filter '%s' on this agent with attribute: %s",
-                maxTasksPerSelectedAttribute, taskFilter.toString(), attributeMatcher.toString())
+                maxTasksPerSelectedAttribute, taskFilter, attributeMatcher)
                 .build();
     }
 
@@ -108,7 +108,7 @@ public class MaxPerHostnameRule implements PlacementRule {
                         "%d/%d tasks matching filter '%s' are already present on this host",
                         offerHostnameTaskCounts,
                         maxTasksPerHostname,
-                        taskFilter.toString())
+                        taskFilter)
                         .build();
             }
         }
@@ -117,7 +117,7 @@ public class MaxPerHostnameRule implements PlacementRule {
         return EvaluationOutcome.pass(
                 this,
                 "%d/%d tasks matching filter '%s' are present on this host",
-                offerHostnameTaskCounts, maxTasksPerHostname, taskFilter.toString())
+                offerHostnameTaskCounts, maxTasksPerHostname, taskFilter)
                 .build();
     }
 
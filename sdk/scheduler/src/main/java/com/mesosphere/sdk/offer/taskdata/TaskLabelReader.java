@@ -3,30 +3,29 @@ package com.mesosphere.sdk.offer.taskdata;
 import com.mesosphere.sdk.offer.TaskException;
 import org.apache.mesos.Protos.*;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Provides read access to task labels which are (only) read by the Scheduler.
+ * Provides read access to task labels which are (only) read by the Scheduler. Label values are read from a
+ * {@link TaskMetadata}, which is shared across readers of the same {@link TaskInfo}.
  */
 public class TaskLabelReader {
 
-    private final LabelReader reader;
+    private final TaskMetadata metadata;
 
     /**
-     * @see LabelReader#LabelReader(TaskInfo)
+     * @see TaskMetadata#of(TaskInfo)
      */
     public TaskLabelReader(TaskInfo taskInfo) {
-        reader = new LabelReader(String.format("Task %s", taskInfo.getName()), taskInfo.getLabels());
+        metadata = TaskMetadata.of(taskInfo);
     }
 
     /**
-     * @see LabelReader#LabelReader(org.apache.mesos.Protos.TaskInfo.Builder)
+     * @see TaskMetadata#of(org.apache.mesos.Protos.TaskInfo.Builder)
      */
     public TaskLabelReader(TaskInfo.Builder taskInfoBuilder) {
-        reader = new LabelReader(String.format("Task %s", taskInfoBuilder.getName()), taskInfoBuilder.getLabels());
+        metadata = TaskMetadata.of(taskInfoBuilder);
     }
 
     /**
@@ -35,7 +34,7 @@ public class TaskLabelReader {
      * @throws TaskException if the type could not be found.
      */
     public String getType() throws TaskException {
-        return reader.getOrThrow(LabelConstants.TASK_TYPE_LABEL);
+        return metadata.getType();
     }
 
     /**
@@ -45,25 +44,21 @@ public class TaskLabelReader {
      * @throws NumberFormatException if parsing the index as an integer failed
      */
     public int getIndex() throws TaskException, NumberFormatException {
-        return Integer.parseInt(reader.getOrThrow(LabelConstants.TASK_INDEX_LABEL));
+        return metadata.getIndex();
     }
 
     /**
      * Returns the string representations of any {@link Offer} {@link Attribute}s which were embedded in the task.
      */
     public List<String> getOfferAttributeStrings() {
-        Optional<String> joinedAttributes = reader.getOptional(LabelConstants.OFFER_ATTRIBUTES_LABEL);
-        if (!joinedAttributes.isPresent()) {
-            return new ArrayList<>();
-        }
-        return AttributeStringUtils.toStringList(joinedAttributes.get());
+        return metadata.getOfferAttributeStrings();
     }
 
     /**
      * Returns the hostname of the agent machine running the task.
      */
     public String getHostname() throws TaskException {
-        return reader.getOrThrow(LabelConstants.OFFER_HOSTNAME_LABEL);
+        return metadata.getHostname();
     }
 
     /**
@@ -75,7 +70,7 @@ public class TaskLabelReader {
      *                       an indicated target configuration
      */
     public UUID getTargetConfiguration() throws TaskException {
-        return UUID.fromString(reader.getOrThrow(LabelConstants.TARGET_CONFIGURATION_LABEL));
+        return metadata.getTargetConfiguration();
     }
 
     /**
@@ -89,8 +84,7 @@ public class TaskLabelReader {
      * @return the result of a readiness check for the indicated TaskStatus
      */
     public boolean isReadinessCheckSucceeded(TaskStatus taskStatus) {
-        Optional<String> readinessCheckOptional = reader.getOptional(LabelConstants.READINESS_CHECK_LABEL);
-        if (!readinessCheckOptional.isPresent() && !taskStatus.hasCheckStatus()) {
+        if (!metadata.hasReadinessCheckLabel() && !taskStatus.hasCheckStatus()) {
             // check not applicable: PASS
             return true;
         } else if (taskStatus.hasCheckStatus()) {
@@ -113,8 +107,7 @@ public class TaskLabelReader {
      * instead created to fill reserved resources.
      */
     public boolean isTransient() {
-        // null is false
-        return Boolean.valueOf(reader.getOptional(LabelConstants.TRANSIENT_FLAG_LABEL).orElse(null));
+        return metadata.isTransient();
     }
 
     /**
@@ -122,14 +115,13 @@ public class TaskLabelReader {
      * be automatically overwritten when the TaskInfo is replaced.
      */
     public boolean isPermanentlyFailed() {
-        // null is false
-        return Boolean.valueOf(reader.getOptional(LabelConstants.PERMANENTLY_FAILED_LABEL).orElse(null));
+        return metadata.isPermanentlyFailed();
     }
 
     /**
      * Returns whether the task has a readiness check label.
      */
     public boolean hasReadinessCheckLabel() {
-        return reader.getOptional(LabelConstants.READINESS_CHECK_LABEL).isPresent();
+        return metadata.hasReadinessCheckLabel();
     }
 }
@@ -0,0 +1,216 @@
+package com.mesosphere.sdk.offer.taskdata;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.mesosphere.sdk.offer.TaskException;
+import org.apache.mesos.Protos.Label;
+import org.apache.mesos.Protos.Labels;
+import org.apache.mesos.Protos.TaskInfo;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An immutable view of the scheduler-side metadata stored in a task's labels, decoded in a single pass over the labels.
+ *
+ * <p>Instances for {@link TaskInfo}s are cached against the identity of the {@link TaskInfo} itself, so that any number
+ * of readers of the same stored task (e.g. each placement rule evaluating each offer against each existing task) share
+ * one decoded copy. Entries are weakly held and disappear along with their {@link TaskInfo}. Since {@link TaskInfo}s
+ * are immutable, a cached entry can never become stale.
+ */
+public final class TaskMetadata {
+
+    private static final LoadingCache<TaskInfo, TaskMetadata> CACHE = CacheBuilder.newBuilder()
+            .weakKeys() // also compares keys by identity
+            .build(CacheLoader.from(taskInfo -> new TaskMetadata(taskInfo.getName(), taskInfo.getLabels())));
+
+    private final String taskName;
+    private final Labels labels;
+
+    private final String type;
+    private final String indexString;
+    private final Integer index;
+    private final String hostname;
+    private final List<String> offerAttributeStrings;
+    private final String targetConfigurationString;
+    private final UUID targetConfiguration;
+    private final boolean isTransient;
+    private final boolean isPermanentlyFailed;
+    private final boolean hasReadinessCheckLabel;
+
+    /**
+     * Returns the shared metadata for the provided task, decoding it if it hasn't been decoded already.
+     */
+    public static TaskMetadata of(TaskInfo taskInfo) {
+        return CACHE.getUnchecked(taskInfo);
+    }
+
+    /**
+     * Returns newly decoded metadata for the provided task builder. Builders are mutable, so the result isn't cached.
+     */
+    public static TaskMetadata of(TaskInfo.Builder taskInfoBuilder) {
+        return new TaskMetadata(taskInfoBuilder.getName(), taskInfoBuilder.getLabels());
+    }
+
+    private TaskMetadata(String taskName, Labels labels) {
+        this.taskName = taskName;
+        this.labels = labels;
+
+        String type = null;
+        String indexString = null;
+        String hostname = null;
+        String offerAttributes = null;
+        String targetConfiguration = null;
+        String transientFlag = null;
+        String permanentlyFailedFlag = null;
+        boolean hasReadinessCheckLabel = false;
+        // In the event of duplicate labels, the last duplicate wins (as with LabelUtils.toMap()):
+        for (Label label : labels.getLabelsList()) {
+            switch (label.getKey()) {
+            case LabelConstants.TASK_TYPE_LABEL:
+                type = label.getValue();
+                break;
+            case LabelConstants.TASK_INDEX_LABEL:
+                indexString = label.getValue();
+                break;
+            case LabelConstants.OFFER_HOSTNAME_LABEL:
+                hostname = label.getValue();
+                break;
+            case LabelConstants.OFFER_ATTRIBUTES_LABEL:
+                offerAttributes = label.getValue();
+                break;
+            case LabelConstants.TARGET_CONFIGURATION_LABEL:
+                targetConfiguration = label.getValue();
+                break;
+            case LabelConstants.TRANSIENT_FLAG_LABEL:
+                transientFlag = label.getValue();
+                break;
+            case LabelConstants.PERMANENTLY_FAILED_LABEL:
+                permanentlyFailedFlag = label.getValue();
+                break;
+            case LabelConstants.READINESS_CHECK_LABEL:
+                hasReadinessCheckLabel = true;
+                break;
+            default:
+                break;
+            }
+        }
+
+        this.type = type;
+        this.indexString = indexString;
+        this.index = parseIndex(indexString);
+        this.hostname = hostname;
+        this.offerAttributeStrings = offerAttributes == null
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(AttributeStringUtils.toStringList(offerAttributes));
+        this.targetConfigurationString = targetConfiguration;
+        this.targetConfiguration = parseUUID(targetConfiguration);
+        // null is false
+        this.isTransient = Boolean.valueOf(transientFlag);
+        this.isPermanentlyFailed = Boolean.valueOf(permanentlyFailedFlag);
+        this.hasReadinessCheckLabel = hasReadinessCheckLabel;
+    }
+
+    /**
+     * Returns the task type string, which was embedded in the task.
+     *
+     * @throws TaskException if the type could not be found
+     */
+    public String getType() throws TaskException {
+        return getOrThrow(type, LabelConstants.TASK_TYPE_LABEL);
+    }
+
+    /**
+     * Returns the pod instance index of the task.
+     *
+     * @throws TaskException if the index data wasn't found
+     * @throws NumberFormatException if parsing the index as an integer failed
+     */
+    public int getIndex() throws TaskException, NumberFormatException {
+        getOrThrow(indexString, LabelConstants.TASK_INDEX_LABEL);
+        // Reparse an invalid value in order to throw the same exception as when it was first decoded:
+        return index != null ? index : Integer.parseInt(indexString);
+    }
+
+    /**
+     * Returns the hostname of the agent machine running the task.
+     *
+     * @throws TaskException if the hostname could not be found
+     */
+    public String getHostname() throws TaskException {
+        return getOrThrow(hostname, LabelConstants.OFFER_HOSTNAME_LABEL);
+    }
+
+    /**
+     * Returns an unmodifiable list of the string representations of any offer attributes which were embedded in the
+     * task, or an empty list if there were none.
+     */
+    public List<String> getOfferAttributeStrings() {
+        return offerAttributeStrings;
+    }
+
+    /**
+     * Returns the ID referencing a configuration in a {@link com.mesosphere.sdk.state.ConfigStore} associated with the
+     * task.
+     *
+     * @throws TaskException if the task has no target configuration label
+     * @throws IllegalArgumentException if the target configuration isn't a valid UUID
+     */
+    public UUID getTargetConfiguration() throws TaskException {
+        getOrThrow(targetConfigurationString, LabelConstants.TARGET_CONFIGURATION_LABEL);
+        return targetConfiguration != null ? targetConfiguration : UUID.fromString(targetConfigurationString);
+    }
+
+    /**
+     * Returns whether the task is marked as transient.
+     */
+    public boolean isTransient() {
+        return isTransient;
+    }
+
+    /**
+     * Returns whether the task is marked as permanently failed.
+     */
+    public boolean isPermanentlyFailed() {
+        return isPermanentlyFailed;
+    }
+
+    /**
+     * Returns whether the task has a readiness check label.
+     */
+    public boolean hasReadinessCheckLabel() {
+        return hasReadinessCheckLabel;
+    }
+
+    private String getOrThrow(String value, String key) throws TaskException {
+        if (value == null) {
+            throw new TaskException(String.format(
+                    "Task %s is missing label %s. Current labels are: %s", taskName, key, LabelUtils.toMap(labels)));
+        }
+        return value;
+    }
+
+    private static Integer parseIndex(String indexString) {
+        if (indexString == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(indexString);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static UUID parseUUID(String uuidString) {
+        if (uuidString == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(uuidString);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
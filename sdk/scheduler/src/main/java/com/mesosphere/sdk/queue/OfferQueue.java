@@ -20,6 +20,8 @@ import java.util.stream.Collectors;
 public class OfferQueue {
     private static final int DEFAULT_CAPACITY = 100;
     private static final Duration DEFAULT_OFFER_WAIT = Duration.ofSeconds(5);
+    // Enqueued by wake(), and never returned by takeAll(). Compared by identity:
+    private static final Protos.Offer WAKE_MARKER = Protos.Offer.newBuilder().buildPartial();
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final BlockingQueue<Protos.Offer> queue;
 
@@ -55,9 +57,20 @@ public class OfferQueue {
             logger.warn("Interrupted while waiting for offer in queue.");
         }
 
+        offers.removeIf(offer -> offer == WAKE_MARKER);
         return offers;
     }
 
+    /**
+     * Wakes a caller which is waiting in {@link #takeAll(Duration)}, or the next caller if none is waiting, which then
+     * returns any Offers in the queue without waiting for more. This allows work which doesn't need new Offers to be
+     * handled promptly.
+     */
+    public void wake() {
+        // If the queue is full, a caller won't wait anyway:
+        queue.offer(WAKE_MARKER);
+    }
+
     /**
      * Calling this method will wait for Offers for a static duration of {@link OfferQueue#DEFAULT_CAPACITY}.
      * It returns all Offers currently in the queue if any are present and an empty list if the duration
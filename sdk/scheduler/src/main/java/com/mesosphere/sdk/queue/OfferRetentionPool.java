@@ -0,0 +1,220 @@
+package com.mesosphere.sdk.queue;
+
+import org.apache.mesos.Protos;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds offers which went unused in an offer cycle for a bounded time, instead of declining them. Retained offers are
+ * evaluated again in the following cycles, so that work which appears shortly afterwards (e.g. the next step of a
+ * rolling update) can be matched immediately, rather than waiting for a revive and for Mesos to resend offers.
+ *
+ * <p>Each offer cycle {@link #checkout()}s the retained offers, evaluates them along with any newly received offers,
+ * {@link #retain(Collection)}s any which are still unused, and then calls {@link #finishCycle()}. A checked out offer
+ * which isn't retained again is assumed to have been accepted, and is counted as a hit. Offers are declined once they
+ * have been retained for the maximum age, or when they are evicted to make room for newer offers.
+ */
+public class OfferRetentionPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OfferRetentionPool.class);
+
+    private final int maxOffers;
+    private final long maxAgeMs;
+    private final LongSupplier clock;
+
+    // Offer ID => retained offer
+    private final LinkedHashMap<Protos.OfferID, RetainedOffer> retainedOffers = new LinkedHashMap<>();
+    // Offers which are being evaluated in the current cycle
+    private final Map<Protos.OfferID, RetainedOffer> checkedOutOffers = new HashMap<>();
+    // Offers which were rescinded during the current cycle, and which must not be retained
+    private final Set<Protos.OfferID> rescindedOfferIds = new HashSet<>();
+
+    private long retainedCount = 0;
+    private long hitCount = 0;
+    private long expiredCount = 0;
+    private long evictedCount = 0;
+    private long rescindedCount = 0;
+
+    /**
+     * Creates a new pool with the provided limits.
+     *
+     * @param maxOffers the maximum number of offers to be retained at once
+     * @param maxAge the maximum time that an offer may be retained before it is declined
+     */
+    public OfferRetentionPool(int maxOffers, Duration maxAge) {
+        this(maxOffers, maxAge, System::currentTimeMillis);
+    }
+
+    OfferRetentionPool(int maxOffers, Duration maxAge, LongSupplier clock) {
+        if (maxOffers < 1) {
+            throw new IllegalArgumentException("Maximum retained offers must be positive: " + maxOffers);
+        }
+        if (maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("Maximum offer age must be positive: " + maxAge);
+        }
+        this.maxOffers = maxOffers;
+        this.maxAgeMs = maxAge.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Removes and returns any retained offers which have reached the maximum age. These should be declined.
+     */
+    public synchronized List<Protos.Offer> takeExpired() {
+        long now = clock.getAsLong();
+        List<Protos.Offer> expiredOffers = new ArrayList<>();
+        Iterator<RetainedOffer> iter = retainedOffers.values().iterator();
+        while (iter.hasNext()) {
+            RetainedOffer retainedOffer = iter.next();
+            if (now - retainedOffer.retainedAtMs >= maxAgeMs) {
+                expiredOffers.add(retainedOffer.offer);
+                iter.remove();
+            }
+        }
+        expiredCount += expiredOffers.size();
+        return expiredOffers;
+    }
+
+    /**
+     * Returns the retained offers for evaluation in the current cycle. They are no longer retained unless they are
+     * passed to {@link #retain(Collection)} again before {@link #finishCycle()} is called.
+     */
+    public synchronized List<Protos.Offer> checkout() {
+        List<Protos.Offer> offers = new ArrayList<>(retainedOffers.size());
+        for (RetainedOffer retainedOffer : retainedOffers.values()) {
+            offers.add(retainedOffer.offer);
+            checkedOutOffers.put(retainedOffer.offer.getId(), retainedOffer);
+        }
+        retainedOffers.clear();
+        return offers;
+    }
+
+    /**
+     * Retains the provided unused offers, except for any which were rescinded during the current cycle. Offers which
+     * were checked out keep their original retention time. Returns any offers which were evicted to stay within the
+     * maximum number of retained offers. These should be declined.
+     */
+    public synchronized List<Protos.Offer> retain(Collection<Protos.Offer> unusedOffers) {
+        long now = clock.getAsLong();
+        for (Protos.Offer offer : unusedOffers) {
+            if (rescindedOfferIds.contains(offer.getId())) {
+                continue;
+            }
+            RetainedOffer retainedOffer = checkedOutOffers.remove(offer.getId());
+            if (retainedOffer == null) {
+                retainedOffer = new RetainedOffer(offer, now);
+                ++retainedCount;
+            }
+            retainedOffers.put(offer.getId(), retainedOffer);
+        }
+
+        if (retainedOffers.size() <= maxOffers) {
+            return Collections.emptyList();
+        }
+        // Evict the oldest offers first, as they're closest to expiring anyway
+        List<RetainedOffer> byAge = new ArrayList<>(retainedOffers.values());
+        byAge.sort(Comparator.comparingLong(retainedOffer -> retainedOffer.retainedAtMs));
+        List<Protos.Offer> evictedOffers = new ArrayList<>();
+        for (RetainedOffer retainedOffer : byAge.subList(0, retainedOffers.size() - maxOffers)) {
+            evictedOffers.add(retainedOffer.offer);
+            retainedOffers.remove(retainedOffer.offer.getId());
+        }
+        evictedCount += evictedOffers.size();
+        return evictedOffers;
+    }
+
+    /**
+     * Completes the current cycle. Any checked out offers which weren't retained again are counted as hits.
+     */
+    public synchronized void finishCycle() {
+        hitCount += checkedOutOffers.size();
+        checkedOutOffers.clear();
+        rescindedOfferIds.clear();
+    }
+
+    /**
+     * Removes the specified offer following a rescind from Mesos, and ensures that it isn't retained if it's currently
+     * being evaluated. Returns whether the offer was previously retained.
+     */
+    public synchronized boolean rescind(Protos.OfferID offerId) {
+        // The offer may have been newly received in the current cycle, so we remember it even if it's unknown to us:
+        rescindedOfferIds.add(offerId);
+        boolean removed = retainedOffers.remove(offerId) != null;
+        removed |= checkedOutOffers.remove(offerId) != null;
+        if (removed) {
+            ++rescindedCount;
+            LOGGER.info("Removed rescinded offer from retention pool: {}", offerId.getValue());
+        }
+        return removed;
+    }
+
+    /**
+     * Discards all retained offers without declining them, e.g. because they were invalidated by a master failover.
+     */
+    public synchronized void clear() {
+        retainedOffers.clear();
+        checkedOutOffers.clear();
+        rescindedOfferIds.clear();
+    }
+
+    /**
+     * Returns the number of offers which are currently retained.
+     */
+    public synchronized int getSize() {
+        return retainedOffers.size();
+    }
+
+    /**
+     * Returns the fraction of retained offers which were later accepted, among retained offers which have since been
+     * accepted, expired, evicted, or rescinded. Returns zero if no retained offers have been resolved yet.
+     */
+    public synchronized double getHitRate() {
+        long resolvedCount = hitCount + expiredCount + evictedCount + rescindedCount;
+        return resolvedCount == 0 ? 0 : (double) hitCount / resolvedCount;
+    }
+
+    /**
+     * Returns a JSON representation of the pool's limits and counters.
+     */
+    public synchronized JSONObject toJSON() {
+        JSONObject json = new JSONObject();
+        json.put("max-offers", maxOffers);
+        json.put("max-age-ms", maxAgeMs);
+        json.put("size", retainedOffers.size());
+        json.put("retained", retainedCount);
+        json.put("hits", hitCount);
+        json.put("expired", expiredCount);
+        json.put("evicted", evictedCount);
+        json.put("rescinded", rescindedCount);
+        json.put("hit-rate", getHitRate());
+        return json;
+    }
+
+    /**
+     * An offer along with the time that it was first retained.
+     */
+    private static class RetainedOffer {
+        private final Protos.Offer offer;
+        private final long retainedAtMs;
+
+        private RetainedOffer(Protos.Offer offer, long retainedAtMs) {
+            this.offer = offer;
+            this.retainedAtMs = retainedAtMs;
+        }
+    }
+}
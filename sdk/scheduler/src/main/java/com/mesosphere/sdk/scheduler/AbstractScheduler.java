@@ -3,8 +3,10 @@ package com.mesosphere.sdk.scheduler;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.TextFormat;
 import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.offer.OfferLogUtils;
 import com.mesosphere.sdk.offer.OfferUtils;
 import com.mesosphere.sdk.queue.OfferQueue;
+import com.mesosphere.sdk.queue.OfferRetentionPool;
 import com.mesosphere.sdk.reconciliation.DefaultReconciler;
 import com.mesosphere.sdk.reconciliation.Reconciler;
 import com.mesosphere.sdk.scheduler.plan.PlanCoordinator;
@@ -21,6 +23,7 @@ import org.eclipse.jetty.util.component.LifeCycle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -35,10 +38,18 @@ public abstract class AbstractScheduler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractScheduler.class);
 
+    // Shorter wait for new offers, used when there are retained offers to be reevaluated
+    private static final Duration RETAINED_OFFER_WAIT = Duration.ofSeconds(1);
+
     protected final StateStore stateStore;
     protected final ConfigStore<ServiceSpec> configStore;
     protected final SchedulerFlags schedulerFlags;
 
+    /**
+     * Holds unused offers for reevaluation in later cycles, if enabled. See {@link #declineOrRetainOffers}.
+     */
+    protected final Optional<OfferRetentionPool> offerRetentionPool;
+
     private SchedulerApiServer apiServer;
     // Tracks whether apiServer has entered a started state. We avoid launching tasks until after the API server has
     // started, because when tasks launch they typically require access to ArtifactResource for config templates.
@@ -72,6 +83,11 @@ public abstract class AbstractScheduler {
         this.stateStore = stateStore;
         this.configStore = configStore;
         this.schedulerFlags = schedulerFlags;
+        int offerRetentionMs = schedulerFlags.getOfferRetentionMs();
+        this.offerRetentionPool = offerRetentionMs > 0
+                ? Optional.of(new OfferRetentionPool(
+                        schedulerFlags.getOfferRetentionMaxOffers(), Duration.ofMillis(offerRetentionMs)))
+                : Optional.empty();
     }
 
     /**
@@ -195,6 +211,14 @@ public abstract class AbstractScheduler {
         return this;
     }
 
+    /**
+     * Starts the next offer cycle without waiting for new offers to arrive, e.g. when there's new work which may need
+     * offers to be revived.
+     */
+    protected void wakeOfferCycle() {
+        mesosScheduler.offerQueue.wake();
+    }
+
     /**
      * Returns a list of API resources to be served by the scheduler to the local cluster.
      * This may be called before {@link #initialize(SchedulerDriver)} has been called.
@@ -213,6 +237,27 @@ public abstract class AbstractScheduler {
      */
     protected abstract void processOffers(SchedulerDriver driver, List<Protos.Offer> offers, Collection<Step> steps);
 
+    /**
+     * Disposes of offers which were left unused by {@link #processOffers(SchedulerDriver, List, Collection)}. If offer
+     * retention is enabled, the offers are retained for reevaluation in later cycles, and only offers which don't fit
+     * in the retention pool are declined. Otherwise all of the offers are declined.
+     */
+    protected void declineOrRetainOffers(SchedulerDriver driver, List<Protos.Offer> unusedOffers) {
+        if (unusedOffers.isEmpty()) {
+            return;
+        }
+        if (!offerRetentionPool.isPresent()) {
+            OfferUtils.declineOffers(driver, unusedOffers, Constants.LONG_DECLINE_SECONDS);
+            return;
+        }
+        List<Protos.Offer> evictedOffers = offerRetentionPool.get().retain(unusedOffers);
+        if (!evictedOffers.isEmpty()) {
+            LOGGER.info("Declining {} offer{}: Offer retention pool is full.",
+                    evictedOffers.size(), evictedOffers.size() == 1 ? "" : "s");
+            OfferUtils.declineOffers(driver, evictedOffers, Constants.LONG_DECLINE_SECONDS);
+        }
+    }
+
     /**
      * Handles a task status update which was received from Mesos. This call is executed on a separate thread which is
      * run by the Mesos Scheduler Driver.
@@ -346,6 +391,10 @@ public abstract class AbstractScheduler {
         @Override
         public void reregistered(SchedulerDriver driver, Protos.MasterInfo masterInfo) {
             LOGGER.info("Re-registered with master: {}", TextFormat.shortDebugString(masterInfo));
+            // Any offers from before the re-registration are no longer valid:
+            offerRetentionPool.ifPresent(OfferRetentionPool::clear);
+            // The framework is no longer suppressed after re-registering:
+            reviveManager.reset();
             restartReconciliation();
         }
 
@@ -353,6 +402,7 @@ public abstract class AbstractScheduler {
         public void offerRescinded(SchedulerDriver driver, Protos.OfferID offerId) {
             LOGGER.info("Rescinding offer: {}", offerId.getValue());
             offerQueue.remove(offerId);
+            offerRetentionPool.ifPresent(pool -> pool.rescind(offerId));
         }
 
         @Override
@@ -393,14 +443,29 @@ public abstract class AbstractScheduler {
          */
         private void processQueuedOffers() {
             LOGGER.info("Waiting for queued offers...");
-            List<Protos.Offer> offers = offerQueue.takeAll();
-            if (offers.isEmpty() && !isInitialized.get()) {
+            List<Protos.Offer> queuedOffers = offerRetentionPool.isPresent() && offerRetentionPool.get().getSize() > 0
+                    // Don't leave retained offers sitting idle for the full wait when no new offers arrive:
+                    ? offerQueue.takeAll(RETAINED_OFFER_WAIT)
+                    : offerQueue.takeAll();
+            if (queuedOffers.isEmpty() && !isInitialized.get()) {
                 // The scheduler hasn't finished registration yet, so many members haven't been initialized yet either.
                 // Avoid hitting NPE for planCoordinator, driver, etc.
                 LOGGER.info("Retrying wait for offers: Registration hasn't completed yet.");
                 return;
             }
 
+            List<Protos.Offer> offers = new ArrayList<>();
+            if (offerRetentionPool.isPresent()) {
+                List<Protos.Offer> expiredOffers = offerRetentionPool.get().takeExpired();
+                if (!expiredOffers.isEmpty()) {
+                    LOGGER.info("Declining {} retained offer{}: Maximum retention time reached.",
+                            expiredOffers.size(), expiredOffers.size() == 1 ? "" : "s");
+                    OfferUtils.declineOffers(driver, expiredOffers, Constants.LONG_DECLINE_SECONDS);
+                }
+                offers.addAll(offerRetentionPool.get().checkout());
+            }
+            offers.addAll(queuedOffers);
+
             // Get the current work
             Collection<Step> steps = planCoordinator.getCandidates();
 
@@ -408,13 +473,22 @@ public abstract class AbstractScheduler {
                     offers.size(), offers.size() == 1 ? "" : "s",
                     steps.size(), steps.size() == 1 ? "" : "s");
             for (int i = 0; i < offers.size(); ++i) {
-                LOGGER.info("  {}: {}", i + 1, TextFormat.shortDebugString(offers.get(i)));
+                LOGGER.info("  {}: {}", i + 1, OfferLogUtils.summarize(offers.get(i)));
+                OfferLogUtils.logProtobuf("Offer", offers.get(i));
             }
 
             // Match offers with work (call into implementation)
             processOffers(driver, offers, steps);
+            if (offerRetentionPool.isPresent()) {
+                OfferRetentionPool pool = offerRetentionPool.get();
+                pool.finishCycle();
+                // The same counters are served at /v1/offers/retention, so they are only logged when debugging:
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Offer retention pool: {}", pool.toJSON());
+                }
+            }
 
-            // Revive previously suspended offers, if necessary
+            // Revive previously declined offers if there's new work, or suppress offers if there's no work
             reviveManager.revive(steps);
 
             synchronized (inProgressLock) {
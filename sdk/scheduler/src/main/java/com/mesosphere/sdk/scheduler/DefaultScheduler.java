@@ -70,6 +70,10 @@ public class DefaultScheduler extends AbstractScheduler {
         private ServiceSpec serviceSpec;
         private final SchedulerFlags schedulerFlags;
         private final Persister persister;
+        // The ZK persister underlying the default persister, or empty if a custom persister was provided
+        private Optional<CuratorPersister> curatorPersister = Optional.empty();
+        // Fingerprint of the inputs which the service spec was generated from, or empty if it was provided directly
+        private Optional<String> specFingerprint = Optional.empty();
 
         // When these optionals are unset, we use default values:
         private Optional<StateStore> stateStoreOptional = Optional.empty();
@@ -84,12 +88,16 @@ public class DefaultScheduler extends AbstractScheduler {
         private RecoveryPlanOverriderFactory recoveryPlanOverriderFactory;
 
         private Builder(ServiceSpec serviceSpec, SchedulerFlags schedulerFlags) throws PersisterException {
+            this(serviceSpec, schedulerFlags, CuratorPersister.newBuilder(serviceSpec).build());
+        }
+
+        private Builder(ServiceSpec serviceSpec, SchedulerFlags schedulerFlags, CuratorPersister curatorPersister)
+                throws PersisterException {
             this(
                     serviceSpec,
                     schedulerFlags,
-                    schedulerFlags.isStateCacheEnabled() ?
-                            new PersisterCache(CuratorPersister.newBuilder(serviceSpec).build()) :
-                            CuratorPersister.newBuilder(serviceSpec).build());
+                    schedulerFlags.isStateCacheEnabled() ? new PersisterCache(curatorPersister) : curatorPersister);
+            this.curatorPersister = Optional.of(curatorPersister);
         }
 
         private Builder(ServiceSpec serviceSpec, SchedulerFlags schedulerFlags, Persister persister) {
@@ -112,6 +120,44 @@ public class DefaultScheduler extends AbstractScheduler {
             return schedulerFlags;
         }
 
+        /**
+         * Returns the {@link CuratorPersister} which underlies the default persister, or an empty {@link Optional} if a
+         * custom persister was provided. Its ZK session may be shared, e.g. with a
+         * {@link com.mesosphere.sdk.curator.CuratorLocker}.
+         */
+        public Optional<CuratorPersister> getCuratorPersister() {
+            return curatorPersister;
+        }
+
+        /**
+         * Loads the latest data from storage into the persister cache, if the cache is enabled. This may be called
+         * ahead of {@link #getStateStore()} and {@link #getConfigStore()}, e.g. while waiting to take over from another
+         * scheduler, and then again once the stores are to be used.
+         */
+        public void refreshPersisterCache() throws PersisterException {
+            if (persister instanceof PersisterCache) {
+                ((PersisterCache) persister).refresh();
+            }
+        }
+
+        /**
+         * Returns whether the persister cache is enabled, i.e. whether {@link #refreshPersisterCache()} has any effect.
+         */
+        public boolean isPersisterCacheEnabled() {
+            return persister instanceof PersisterCache;
+        }
+
+        /**
+         * Replaces the content of the persister cache with the provided copy of all stored data, if the cache is
+         * enabled. This avoids reading the data from storage again, e.g. when it's been kept up to date by a
+         * {@link com.mesosphere.sdk.curator.CuratorMirror} while waiting to take over from another scheduler.
+         */
+        public void refreshPersisterCache(Map<String, byte[]> allData) {
+            if (persister instanceof PersisterCache) {
+                ((PersisterCache) persister).refresh(allData);
+            }
+        }
+
         /**
          * Specifies a custom {@link StateStore}, otherwise the return value of
          * {@link DefaultScheduler#createStateStore(ServiceSpec, SchedulerFlags)} will be used.
@@ -139,7 +185,7 @@ public class DefaultScheduler extends AbstractScheduler {
          */
         public StateStore getStateStore() {
             if (!stateStoreOptional.isPresent()) {
-                setStateStore(new StateStore(persister));
+                setStateStore(new StateStore(persister, schedulerFlags.getStatusPersistencePolicy()));
             }
             return stateStoreOptional.get();
         }
@@ -338,8 +384,25 @@ public class DefaultScheduler extends AbstractScheduler {
             configValidators.addAll(defaultConfigValidators(getSchedulerFlags()));
             configValidators.addAll(customConfigValidators);
 
-            final ConfigurationUpdater.UpdateResult configUpdateResult =
-                    updateConfig(serviceSpec, stateStore, configStore, configValidators);
+            final ConfigurationUpdater.UpdateResult configUpdateResult;
+            Optional<UUID> unchangedConfigId = getUnchangedTargetConfigId(configStore);
+            if (unchangedConfigId.isPresent()) {
+                // The target config already passed validation when it was generated from these same inputs:
+                LOGGER.info("Inputs are unchanged since target configuration {} was validated, skipping config update",
+                        unchangedConfigId.get());
+                configUpdateResult = new ConfigurationUpdater.UpdateResult(
+                        unchangedConfigId.get(),
+                        StateStoreUtils.getLastCompletedUpdateType(stateStore)
+                                .equals(ConfigurationUpdater.UpdateResult.DeploymentType.NONE) ?
+                                ConfigurationUpdater.UpdateResult.DeploymentType.DEPLOY :
+                                ConfigurationUpdater.UpdateResult.DeploymentType.UPDATE,
+                        Collections.emptyList());
+            } else {
+                configUpdateResult = updateConfig(serviceSpec, stateStore, configStore, configValidators);
+                if (configUpdateResult.getErrors().isEmpty()) {
+                    storeFingerprint(configStore, configUpdateResult.getTargetId());
+                }
+            }
 
             if (!configUpdateResult.getErrors().isEmpty()) {
                 LOGGER.warn("Failed to update configuration due to errors with configuration {}: {}",
@@ -376,6 +439,37 @@ public class DefaultScheduler extends AbstractScheduler {
                     Optional.ofNullable(recoveryPlanOverriderFactory));
         }
 
+        /**
+         * Returns the ID of the target config if it was generated from inputs which match the fingerprint of the
+         * service spec, or an empty {@link Optional} otherwise.
+         */
+        private Optional<UUID> getUnchangedTargetConfigId(ConfigStore<ServiceSpec> configStore) {
+            if (!specFingerprint.isPresent()) {
+                return Optional.empty();
+            }
+            try {
+                Optional<UUID> configId = configStore.fetchFingerprint(specFingerprint.get());
+                if (configId.isPresent() && configId.get().equals(configStore.getTargetConfig())) {
+                    return configId;
+                }
+            } catch (ConfigStoreException e) {
+                LOGGER.warn("Failed to check fingerprint of target configuration, updating configuration", e);
+            }
+            return Optional.empty();
+        }
+
+        private void storeFingerprint(ConfigStore<ServiceSpec> configStore, UUID configId) {
+            if (!specFingerprint.isPresent()) {
+                return;
+            }
+            try {
+                configStore.storeFingerprint(specFingerprint.get(), configId);
+            } catch (ConfigStoreException e) {
+                // Not fatal: the configuration will just be generated and validated again on the next restart
+                LOGGER.warn(String.format("Failed to store fingerprint of configuration %s", configId), e);
+            }
+        }
+
         /**
          * Given the plans specified and the update scenario, the deploy plan may be overriden by a specified update
          * plan.
@@ -438,6 +532,65 @@ public class DefaultScheduler extends AbstractScheduler {
         return new Builder(serviceSpec, schedulerFlags, persister);
     }
 
+    /**
+     * Creates a new {@link Builder} based on the {@link ServiceSpec} produced by the provided generator. If the
+     * generator's inputs are unchanged since the current target configuration was generated and validated, then that
+     * configuration is read back from storage, and is not generated or validated again.
+     */
+    public static Builder newBuilder(DefaultServiceSpec.Generator generator, SchedulerFlags schedulerFlags)
+            throws Exception {
+        CuratorPersister curatorPersister = CuratorPersister.newBuilder(
+                generator.getServiceName(), generator.getZookeeperConnection()).build();
+        Optional<String> fingerprint = generator.getFingerprint();
+        Builder builder = new Builder(
+                getOrGenerateServiceSpec(generator, fingerprint, curatorPersister),
+                schedulerFlags,
+                curatorPersister);
+        builder.specFingerprint = fingerprint;
+        return builder;
+    }
+
+    /**
+     * Creates a new {@link Builder} based on the {@link ServiceSpec} produced by the provided generator, using the
+     * provided {@link Persister}.
+     */
+    @VisibleForTesting
+    public static Builder newBuilder(
+            DefaultServiceSpec.Generator generator,
+            SchedulerFlags schedulerFlags,
+            Persister persister) throws Exception {
+        Optional<String> fingerprint = generator.getFingerprint();
+        Builder builder =
+                new Builder(getOrGenerateServiceSpec(generator, fingerprint, persister), schedulerFlags, persister);
+        builder.specFingerprint = fingerprint;
+        return builder;
+    }
+
+    /**
+     * Returns the target configuration if it was generated from inputs with the provided fingerprint, or otherwise
+     * generates a new {@link ServiceSpec}.
+     */
+    private static ServiceSpec getOrGenerateServiceSpec(
+            DefaultServiceSpec.Generator generator,
+            Optional<String> fingerprint,
+            Persister persister) throws Exception {
+        if (fingerprint.isPresent()) {
+            try {
+                ConfigStore<ServiceSpec> configStore =
+                        new ConfigStore<>(DefaultServiceSpec.getConfigurationFactory(), persister);
+                Optional<UUID> configId = configStore.fetchFingerprint(fingerprint.get());
+                if (configId.isPresent() && configId.get().equals(configStore.getTargetConfig())) {
+                    LOGGER.info("Inputs are unchanged since target configuration {} was generated, reusing it",
+                            configId.get());
+                    return configStore.fetch(configId.get());
+                }
+            } catch (ConfigStoreException e) {
+                LOGGER.warn("Failed to fetch configuration for unchanged inputs, generating a new configuration", e);
+            }
+        }
+        return generator.build();
+    }
+
     /**
      * Version of {@link #createConfigStore(ServiceSpec, Collection)} which allows passing a custom {@link Persister}
      * object. Exposed for unit tests.
@@ -566,6 +719,7 @@ public class DefaultScheduler extends AbstractScheduler {
         this.podResource = new PodResource(stateStore);
         this.resources.add(podResource);
         this.resources.add(new StateResource(stateStore, new StringPropertyDeserializer()));
+        offerRetentionPool.ifPresent(pool -> this.resources.add(new OfferRetentionResource(pool)));
     }
 
     @Override
@@ -629,6 +783,8 @@ public class DefaultScheduler extends AbstractScheduler {
             launchConstrainer = new UnconstrainedLaunchConstrainer();
             failureMonitor = new NeverFailureMonitor();
         }
+        // Run an offer cycle as soon as pods are found to have failed, so that their permanent recovery can begin:
+        failureMonitor.setExpiryListener(this::wakeOfferCycle);
         planManagers.add(new DefaultRecoveryPlanManager(
                 stateStore,
                 configStore,
@@ -692,10 +848,8 @@ public class DefaultScheduler extends AbstractScheduler {
         List<Protos.OfferID> cleanerOffers = cleanerScheduler.resourceOffers(driver, unusedOffers);
         unusedOffers = OfferUtils.filterOutAcceptedOffers(unusedOffers, cleanerOffers);
 
-        // Decline remaining offers.
-        if (!unusedOffers.isEmpty()) {
-            OfferUtils.declineOffers(driver, unusedOffers, Constants.LONG_DECLINE_SECONDS);
-        }
+        // Decline remaining offers, or retain them for reevaluation if offer retention is enabled.
+        declineOrRetainOffers(driver, unusedOffers);
 
         if (offers.isEmpty()) {
             LOGGER.info("0 Offers processed.");
@@ -703,7 +857,7 @@ public class DefaultScheduler extends AbstractScheduler {
             LOGGER.info("{} Offer{} processed:\n"
                     + "  {} accepted by Plans: {}\n"
                     + "  {} accepted by Resource Cleaner: {}\n"
-                    + "  {} declined: {}",
+                    + "  {} unused: {}",
                     offers.size(),
                     offers.size() == 1 ? "" : "s",
                     planOffers.size(),
@@ -713,6 +867,9 @@ public class DefaultScheduler extends AbstractScheduler {
                     unusedOffers.size(),
                     unusedOffers.stream().map(offer -> offer.getId().getValue()).collect(Collectors.toList()));
         }
+
+        // Candidate selection and offer evaluation may have changed step statuses
+        plansResource.plansUpdated();
     }
 
     @Override
@@ -723,6 +880,7 @@ public class DefaultScheduler extends AbstractScheduler {
 
         stateStore.storeStatus(taskName, status);
         planCoordinator.getPlanManagers().forEach(planManager -> planManager.update(status));
+        plansResource.plansUpdated();
 
         if (lastStatus.isPresent() &&
                 AuxLabelAccess.isInitialLaunch(lastStatus.get()) &&
@@ -737,13 +895,16 @@ public class DefaultScheduler extends AbstractScheduler {
         // If the TaskStatus contains an IP Address, store it as a property in the StateStore.
         // We expect the TaskStatus to contain an IP address in both Host or CNI networking.
         // Currently, we are always _missing_ the IP Address on TASK_LOST. We always expect it on TASK_RUNNINGs
+        // Skip rewriting the property if the stored network info is unchanged, e.g. for repeated TASK_RUNNING updates.
         if (status.hasContainerStatus() &&
                 status.getContainerStatus().getNetworkInfosCount() > 0 &&
                 status.getContainerStatus().getNetworkInfosList().stream()
                         .anyMatch(networkInfo -> networkInfo.getIpAddressesCount() > 0)) {
             // Map the TaskStatus to a TaskInfo. The map will throw a StateStoreException if no such TaskInfo exists.
             try {
-                StateStoreUtils.storeTaskStatusAsProperty(stateStore, taskName, status);
+                if (!StateStoreUtils.hasTaskStatusPropertyNetworkInfos(stateStore, taskName, status)) {
+                    StateStoreUtils.storeTaskStatusAsProperty(stateStore, taskName, status);
+                }
             } catch (StateStoreException e) {
                 LOGGER.warn("Unable to store network info for status update: " + status, e);
             }
@@ -751,6 +912,10 @@ public class DefaultScheduler extends AbstractScheduler {
 
     }
 
+    /**
+     * Returns the plan coordinator which was built when the scheduler registered, or {@code null} if the scheduler
+     * hasn't registered yet.
+     */
     @VisibleForTesting
     PlanCoordinator getPlanCoordinator() {
         return planCoordinator;
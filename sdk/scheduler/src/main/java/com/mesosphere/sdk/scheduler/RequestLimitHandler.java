@@ -0,0 +1,280 @@
+package com.mesosphere.sdk.scheduler;
+
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.HandlerWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Limits the number of API requests which may be handled at once, so that a burst of requests can't occupy every
+ * server thread.
+ * <p>
+ * Up to {@code maxConcurrentRequests} requests are handled at once. Further requests are suspended, without holding a
+ * server thread, for up to {@code maxQueueWait} until it's their turn, with at most {@code maxQueuedRequests}
+ * suspended at once. Requests which can't be handled are rejected with a {@code 503 Service Unavailable} response and
+ * a {@code Retry-After} header.
+ * <p>
+ * Two kinds of requests are handled in separate lanes, each with its own limit and no queue, so that they neither wait
+ * for nor hold up the other APIs:
+ * <ul>
+ * <li>Reserved paths, such as health checks, which are expected to be cheap.</li>
+ * <li>Long-lived paths, such as event streams, which hold their request open for a long time.</li>
+ * </ul>
+ * A path also covers any paths beneath it.
+ */
+class RequestLimitHandler extends HandlerWrapper {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestLimitHandler.class);
+
+    static final String RETRY_AFTER_HEADER = "Retry-After";
+    static final int RETRY_AFTER_SECONDS = 1;
+
+    /**
+     * The number of requests to reserved paths which may be handled at once. These requests are expected to be
+     * cheap, so this is only a guard against a flood of health checks.
+     */
+    private static final int MAX_RESERVED_REQUESTS = 4;
+
+    /**
+     * Request attribute which is set on a suspended request when it's resumed with a permit handed over to it. A
+     * suspended request which is resumed without this attribute has waited too long.
+     */
+    private static final String PERMIT_ATTRIBUTE = RequestLimitHandler.class.getName() + ".permit";
+
+    private final Collection<String> reservedPaths;
+    private final Semaphore reservedPermits = new Semaphore(MAX_RESERVED_REQUESTS);
+    private final Collection<String> longLivedPaths;
+    private final Semaphore longLivedPermits;
+
+    private final int maxQueuedRequests;
+    private final Duration maxQueueWait;
+    private final AtomicBoolean overloaded = new AtomicBoolean(false);
+    // Access to the following is guarded by 'queue':
+    private final Deque<AsyncContext> queue = new ArrayDeque<>();
+    private int availablePermits;
+
+    RequestLimitHandler(
+            int maxConcurrentRequests,
+            int maxQueuedRequests,
+            Duration maxQueueWait,
+            Collection<String> reservedPaths,
+            int maxLongLivedRequests,
+            Collection<String> longLivedPaths) {
+        this.availablePermits = maxConcurrentRequests;
+        this.maxQueuedRequests = maxQueuedRequests;
+        this.maxQueueWait = maxQueueWait;
+        this.reservedPaths = new ArrayList<>(reservedPaths);
+        this.longLivedPermits = new Semaphore(maxLongLivedRequests);
+        this.longLivedPaths = new ArrayList<>(longLivedPaths);
+    }
+
+    @Override
+    public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        if (matchesAny(reservedPaths, target)) {
+            handleInLane(reservedPermits, target, baseRequest, request, response);
+        } else if (matchesAny(longLivedPaths, target)) {
+            handleInLane(longLivedPermits, target, baseRequest, request, response);
+        } else if (baseRequest.getDispatcherType() == DispatcherType.ASYNC) {
+            handleResumed(target, baseRequest, request, response);
+        } else {
+            handleNew(target, baseRequest, request, response);
+        }
+    }
+
+    /**
+     * Returns the number of requests which are currently suspended until it's their turn.
+     */
+    int getQueuedRequestCount() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * Handles a request in a lane without a queue.
+     */
+    private void handleInLane(
+            Semaphore permits,
+            String target,
+            Request baseRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException, ServletException {
+        if (!permits.tryAcquire()) {
+            reject(target, baseRequest, response);
+            return;
+        }
+        try {
+            super.handle(target, baseRequest, request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Handles a new request immediately if a permit is available, or otherwise suspends it until a permit is handed
+     * over by a completed request.
+     */
+    private void handleNew(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        boolean acquired;
+        synchronized (queue) {
+            if (availablePermits > 0) {
+                --availablePermits;
+                acquired = true;
+            } else if (queue.size() < maxQueuedRequests) {
+                AsyncContext asyncContext = baseRequest.startAsync();
+                asyncContext.setTimeout(maxQueueWait.toMillis());
+                asyncContext.addListener(new QueueTimeoutListener(asyncContext));
+                queue.addLast(asyncContext);
+                return;
+            } else {
+                acquired = false;
+            }
+        }
+        if (!acquired) {
+            reject(target, baseRequest, response);
+            return;
+        }
+        if (overloaded.compareAndSet(true, false)) {
+            LOGGER.info("API requests are no longer being rejected");
+        }
+        handleWithPermit(target, baseRequest, request, response);
+    }
+
+    /**
+     * Handles a suspended request which has been resumed, either with a permit or because it waited too long.
+     */
+    private void handleResumed(
+            String target,
+            Request baseRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException, ServletException {
+        if (!Boolean.TRUE.equals(request.getAttribute(PERMIT_ATTRIBUTE))) {
+            reject(target, baseRequest, response);
+            return;
+        }
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+        handleWithPermit(target, baseRequest, request, response);
+    }
+
+    private void handleWithPermit(
+            String target,
+            Request baseRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException, ServletException {
+        try {
+            super.handle(target, baseRequest, request, response);
+        } finally {
+            releasePermit();
+        }
+    }
+
+    /**
+     * Hands the permit of a completed request over to the oldest suspended request, or makes it available if no
+     * requests are suspended.
+     */
+    private void releasePermit() {
+        // Suspended requests are resumed while holding the lock, so that a request whose wait expires at the same time
+        // is resumed exactly once: either here with the permit, or by its timeout without one.
+        synchronized (queue) {
+            AsyncContext next;
+            while ((next = queue.pollFirst()) != null) {
+                if (dispatchWithPermit(next)) {
+                    return;
+                }
+            }
+            ++availablePermits;
+        }
+    }
+
+    /**
+     * Resumes a suspended request with a permit handed over to it, and returns whether it was resumed. Must be called
+     * while holding the lock on {@code queue}.
+     */
+    private static boolean dispatchWithPermit(AsyncContext asyncContext) {
+        try {
+            asyncContext.getRequest().setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+            asyncContext.dispatch();
+            return true;
+        } catch (IllegalStateException e) {
+            // The request has already been completed, e.g. following an error, so the permit is passed on
+            LOGGER.warn("Failed to resume suspended request, handing its permit to the next one", e);
+            return false;
+        }
+    }
+
+    private void reject(String target, Request baseRequest, HttpServletResponse response) throws IOException {
+        if (overloaded.compareAndSet(false, true)) {
+            LOGGER.warn("Rejecting API requests until load decreases, starting with: {}", target);
+        }
+        baseRequest.setHandled(true);
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(RETRY_AFTER_HEADER, String.valueOf(RETRY_AFTER_SECONDS));
+        response.setContentType("text/plain");
+        response.getWriter().println("Too many concurrent requests, please retry later");
+    }
+
+    private static boolean matchesAny(Collection<String> paths, String target) {
+        for (String path : paths) {
+            if (target.equals(path) || target.startsWith(path + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resumes a suspended request without a permit once it has waited too long, so that it's rejected.
+     */
+    private class QueueTimeoutListener implements AsyncListener {
+        private final AsyncContext asyncContext;
+
+        private QueueTimeoutListener(AsyncContext asyncContext) {
+            this.asyncContext = asyncContext;
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            synchronized (queue) {
+                // If the request is no longer queued, it has already been resumed with a permit
+                if (queue.remove(asyncContext)) {
+                    asyncContext.dispatch();
+                }
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // Nothing to do
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            synchronized (queue) {
+                queue.remove(asyncContext);
+            }
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Nothing to do
+        }
+    }
+}
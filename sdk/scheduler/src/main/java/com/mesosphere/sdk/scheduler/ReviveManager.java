@@ -3,61 +3,92 @@ package com.mesosphere.sdk.scheduler;
 import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
 import com.mesosphere.sdk.scheduler.plan.Status;
 import com.mesosphere.sdk.scheduler.plan.Step;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.mesos.SchedulerDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 /**
- * This class determines whether offers should be revived based on changes to the work being processed by the scheduler.
+ * This class suppresses and revives offers based on the work being processed by the scheduler.
+ *
+ * <p>When there are no candidate steps for long enough, offers are suppressed so that an idle scheduler isn't sent
+ * offers which it would only decline. When new work appears, offers are revived: immediately if they had been
+ * suppressed, and otherwise subject to an adaptive backoff. Revives which follow closely after the previous revive
+ * double the backoff, up to a maximum, while a revive after a quiet period resets it to the minimum. A revive which is
+ * deferred by the backoff is retried in a later cycle, once the backoff has elapsed.
  */
 public class ReviveManager {
 
+    private static final Duration DEFAULT_MIN_REVIVE_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration DEFAULT_MAX_REVIVE_BACKOFF = Duration.ofSeconds(60);
+    private static final Duration DEFAULT_SUPPRESS_DELAY = Duration.ofSeconds(30);
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final SchedulerDriver driver;
-    private final TokenBucket tokenBucket;
+    private final long minBackoffMs;
+    private final long maxBackoffMs;
+    private final long suppressDelayMs;
+    private final LongSupplier clock;
+
     private Set<WorkItem> candidates = new HashSet<>();
+    // The framework always starts out revived following a (re-)registration
+    private boolean suppressed = false;
+    private long backoffMs;
+    private long lastReviveMs;
+    private long idleSinceMs;
+
+    private long reviveCount = 0;
+    private long suppressCount = 0;
+    private long deferredReviveCount = 0;
 
     public ReviveManager(SchedulerDriver driver) {
-        this(driver, TokenBucket.newBuilder().build());
+        this(driver, DEFAULT_MIN_REVIVE_BACKOFF, DEFAULT_MAX_REVIVE_BACKOFF, DEFAULT_SUPPRESS_DELAY,
+                System::currentTimeMillis);
     }
 
-    public ReviveManager(SchedulerDriver driver, TokenBucket tokenBucket) {
+    /**
+     * Creates a new instance with custom timing.
+     *
+     * @param minBackoff the minimum time between revives, following a quiet period
+     * @param maxBackoff the maximum time between revives, when revives are frequent
+     * @param suppressDelay the time that there must be no candidate steps before offers are suppressed
+     * @param clock the source of the current time in milliseconds
+     */
+    ReviveManager(
+            SchedulerDriver driver,
+            Duration minBackoff,
+            Duration maxBackoff,
+            Duration suppressDelay,
+            LongSupplier clock) {
+        if (minBackoff.isNegative() || maxBackoff.compareTo(minBackoff) < 0 || suppressDelay.isNegative()) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid revive configuration: minBackoff=%s, maxBackoff=%s, suppressDelay=%s",
+                    minBackoff, maxBackoff, suppressDelay));
+        }
         this.driver = driver;
-        this.tokenBucket = tokenBucket;
+        this.minBackoffMs = minBackoff.toMillis();
+        this.maxBackoffMs = maxBackoff.toMillis();
+        this.suppressDelayMs = suppressDelay.toMillis();
+        this.clock = clock;
+        this.backoffMs = minBackoffMs;
+        this.lastReviveMs = clock.getAsLong() - maxBackoffMs;
+        this.idleSinceMs = clock.getAsLong();
     }
 
     /**
+     * Suppresses or revives offers as needed for the provided candidate steps. Should be called once per offer cycle.
      *
-     * Instead of just suppressing offers when all work is complete, we set refuse seconds of 2 weeks
-     * (a.k.a. forever) whenever we decline any offer.  When we see *new* work ({@link PodInstanceRequirement}`s) we
-     * assume that the offers we've declined forever may be useful to that work, and so we revive offers.
-     *
-     * Pseudo-code algorithm is this:
-     *
-     *     // We always start out revived
-     *     List<Requirement> oldRequirements = getRequirements();
-     *
-     *     while (true) {
-     *         List<Requirement> currRequirements = getRequirements()
-     *         List<Requirement> newRequirements = oldRequirements - currRequirements;
-     *         if (newRequirements.isEmpty()) {
-     *             print “No new work”;
-     *         } else {
-     *             oldRequirements = currRequirements;
-     *             revive();
-     *         }
-     *     }
-     *
-     * The invariant maintained is that the oldRequirements have always had revive called for them at least once, giving
-     * them access to offers.
+     * <p>When we see *new* work ({@link PodInstanceRequirement}s) we assume that the offers we've declined for a long
+     * time may be useful to that work, and so we revive offers. The previous candidates are only updated when a revive
+     * actually occurs, so that work whose revive was deferred is still treated as new in the following cycles.
      *
      * This case must work:
      *
@@ -66,30 +97,97 @@ public class ReviveManager {
      *     kafka-0-broker fails    @ 11:00, it's new work!
      *     ...
      */
-    public void revive(Collection<Step> steps) {
+    public synchronized void revive(Collection<Step> steps) {
+        long now = clock.getAsLong();
         Set<WorkItem> currCandidates = getCandidates(steps);
-        Set<WorkItem> newCandidates = new HashSet<>(currCandidates);
-        newCandidates.removeAll(candidates);
-
-        logger.info("Candidates, old: {}, current: {}, new:{}", candidates, currCandidates, newCandidates);
 
-        if (!newCandidates.isEmpty()) {
-            if (tokenBucket.tryAcquire()) {
-                logger.info("Reviving offers.");
-                driver.reviveOffers();
-            } else {
-                logger.warn("Revive attempt has been throttled.");
-                return;
+        if (currCandidates.isEmpty()) {
+            candidates = currCandidates;
+            if (!suppressed && now - idleSinceMs >= suppressDelayMs) {
+                driver.suppressOffers();
+                suppressed = true;
+                ++suppressCount;
+                logger.info("Suppressed offers: No work for {}ms. {}", now - idleSinceMs, getCountsString());
             }
+            return;
         }
+        idleSinceMs = now;
 
+        Set<WorkItem> newCandidates = new HashSet<>(currCandidates);
+        newCandidates.removeAll(candidates);
+        if (newCandidates.isEmpty()) {
+            return;
+        }
+        logger.info("Candidates, old: {}, current: {}, new: {}", candidates, currCandidates, newCandidates);
+
+        long sinceLastReviveMs = now - lastReviveMs;
+        if (!suppressed && sinceLastReviveMs < backoffMs) {
+            ++deferredReviveCount;
+            logger.info("Deferring revive for {}ms due to backoff. {}", backoffMs - sinceLastReviveMs,
+                    getCountsString());
+            return;
+        }
+
+        driver.reviveOffers();
+        ++reviveCount;
+        // Revives in quick succession back off exponentially, while a quiet period resets the backoff:
+        backoffMs = sinceLastReviveMs < maxBackoffMs
+                ? Math.min(maxBackoffMs, Math.max(1, backoffMs * 2))
+                : minBackoffMs;
+        lastReviveMs = now;
+        logger.info("Revived offers{}. Next revive backoff: {}ms. {}",
+                suppressed ? " after suppression" : "", backoffMs, getCountsString());
+        suppressed = false;
         candidates = currCandidates;
     }
 
+    /**
+     * Resets the suppression state following a re-registration with the master, which leaves the framework revived.
+     * Current work is treated as new work in the following cycle.
+     */
+    public synchronized void reset() {
+        suppressed = false;
+        candidates = new HashSet<>();
+        idleSinceMs = clock.getAsLong();
+    }
+
+    /**
+     * Returns whether offers are currently suppressed.
+     */
+    public synchronized boolean isSuppressed() {
+        return suppressed;
+    }
+
+    /**
+     * Returns the number of times that offers have been revived.
+     */
+    public synchronized long getReviveCount() {
+        return reviveCount;
+    }
+
+    /**
+     * Returns the number of times that offers have been suppressed.
+     */
+    public synchronized long getSuppressCount() {
+        return suppressCount;
+    }
+
+    /**
+     * Returns the number of times that a revive was deferred due to backoff.
+     */
+    public synchronized long getDeferredReviveCount() {
+        return deferredReviveCount;
+    }
+
+    private String getCountsString() {
+        return String.format("Totals: %d revived, %d suppressed, %d deferred",
+                reviveCount, suppressCount, deferredReviveCount);
+    }
+
     /**
      * Returns candidates which potentially need new offers.
      */
-    private Set<WorkItem> getCandidates(Collection<Step> steps) {
+    private static Set<WorkItem> getCandidates(Collection<Step> steps) {
         return steps.stream()
                 .filter(step -> !step.getStatus().equals(Status.COMPLETE))
                 .map(step -> new WorkItem(step))
@@ -111,12 +209,19 @@ public class ReviveManager {
 
         @Override
         public boolean equals(Object o) {
-            return EqualsBuilder.reflectionEquals(this, o);
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof WorkItem)) {
+                return false;
+            }
+            WorkItem other = (WorkItem) o;
+            return name.equals(other.name) && podInstanceRequirement.equals(other.podInstanceRequirement);
         }
 
         @Override
         public int hashCode() {
-            return HashCodeBuilder.reflectionHashCode(this);
+            return Objects.hash(name, podInstanceRequirement);
         }
 
         @Override
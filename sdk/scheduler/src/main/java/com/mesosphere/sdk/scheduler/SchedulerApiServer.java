@@ -1,5 +1,6 @@
 package com.mesosphere.sdk.scheduler;
 
+import com.mesosphere.sdk.api.HealthResource;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.util.component.LifeCycle;
 import org.glassfish.jersey.jetty.JettyHttpContainerFactory;
@@ -9,49 +10,71 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.ws.rs.core.UriBuilder;
 
 /**
 - * The SchedulerApiServer runs the {@link JettyApiServer} that exposes the Scheduler's API.
  * The SchedulerApiServer runs the Jetty {@link Server} that exposes the Scheduler's API.
+ * <p>
+ * The number of API requests handled at once is limited by a {@link RequestLimitHandler}, so that a burst of requests
+ * can't starve the {@link HealthResource}, which is always served from a reserved lane. Plan event requests, which may
+ * be held open for minutes, are served from a separate lane so that watching clients don't hold up other requests.
  */
 public class SchedulerApiServer {
     private static final Logger LOGGER = LoggerFactory.getLogger(SchedulerApiServer.class);
 
+    /** The longest time that an API request may wait for its turn to be handled before it's rejected. */
+    private static final Duration MAX_QUEUE_WAIT = Duration.ofSeconds(5);
+    private static final String HEALTH_PATH = "/v1/health";
+    /** The number of plan event requests which may be held open at once. */
+    private static final int MAX_EVENT_REQUESTS = 32;
+    private static final String PLAN_EVENTS_PATH = "/v1/plans/events";
+
     private final int port;
-    private final Server server;
+    private final Collection<Object> resources;
     private final Duration startTimeout;
+    private final int maxConcurrentRequests;
+    private final int maxQueuedRequests;
+    private final AtomicBoolean startCalled = new AtomicBoolean(false);
+
+    // Created by the server thread, as initializing the Jersey resources can take a while:
+    private volatile Server server;
 
     public SchedulerApiServer(SchedulerFlags schedulerFlags, Collection<Object> resources) {
         this.port = schedulerFlags.getApiServerPort();
-        this.server = JettyHttpContainerFactory.createServer(
-                UriBuilder.fromUri("http://0.0.0.0/").port(this.port).build(),
-                new ResourceConfig(MultiPartFeature.class).registerInstances(new HashSet<>(resources)),
-                false /* don't start yet. wait for start() call below. */);
+        List<Object> allResources = new ArrayList<>(resources);
+        allResources.add(new HealthResource());
+        this.resources = allResources;
         this.startTimeout = schedulerFlags.getApiServerInitTimeout();
+        this.maxConcurrentRequests = schedulerFlags.getApiServerMaxConcurrentRequests();
+        this.maxQueuedRequests = schedulerFlags.getApiServerMaxQueuedRequests();
     }
 
     /**
-     * Launches the API server on a separate thread.
+     * Creates and launches the API server on a separate thread.
      *
      * @param listener A listener object which will be notified when the underlying server changes state
      */
     public void start(LifeCycle.Listener listener) {
-        if (server.isStarted()) {
+        if (startCalled.getAndSet(true)) {
             throw new IllegalStateException("Already started");
         }
-        server.addLifeCycleListener(listener);
 
         final Timer startTimer = new Timer("API-start-timeout");
         startTimer.schedule(new TimerTask() {
             @Override
             public void run() {
-                if (!server.isStarted()) {
+                Server createdServer = server;
+                if (createdServer == null || !createdServer.isStarted()) {
                     LOGGER.error("API Server failed to start at port {} within {}ms", port, startTimeout.toMillis());
                     SchedulerUtils.hardExit(SchedulerErrorCode.API_SERVER_ERROR);
                 }
@@ -62,6 +85,20 @@ public class SchedulerApiServer {
             public void run() {
                 try {
                     LOGGER.info("Starting API server at port {}", port);
+                    server = JettyHttpContainerFactory.createServer(
+                            UriBuilder.fromUri("http://0.0.0.0/").port(port).build(),
+                            new ResourceConfig(MultiPartFeature.class).registerInstances(new HashSet<>(resources)),
+                            false /* don't start yet. wait for start() call below. */);
+                    RequestLimitHandler requestLimitHandler = new RequestLimitHandler(
+                            maxConcurrentRequests,
+                            maxQueuedRequests,
+                            MAX_QUEUE_WAIT,
+                            Collections.singleton(HEALTH_PATH),
+                            MAX_EVENT_REQUESTS,
+                            Collections.singleton(PLAN_EVENTS_PATH));
+                    requestLimitHandler.setHandler(server.getHandler());
+                    server.setHandler(requestLimitHandler);
+                    server.addLifeCycleListener(listener);
                     server.start();
                     LOGGER.info("API server started at port {}", port);
                     startTimer.cancel();
@@ -72,7 +109,9 @@ public class SchedulerApiServer {
                 } finally {
                     LOGGER.info("API server at port {} exiting", port);
                     try {
-                        server.destroy();
+                        if (server != null) {
+                            server.destroy();
+                        }
                     } catch (Exception e) {
                         LOGGER.error(String.format("Failed to stop API server at port %d with exception: ", port), e);
                     }
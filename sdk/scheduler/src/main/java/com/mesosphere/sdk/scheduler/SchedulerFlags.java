@@ -1,10 +1,19 @@
 package com.mesosphere.sdk.scheduler;
 
+import com.mesosphere.sdk.offer.evaluate.LocalityOfferScorer;
+import com.mesosphere.sdk.offer.evaluate.OfferEvaluator;
+import com.mesosphere.sdk.offer.evaluate.OfferScorer;
+import com.mesosphere.sdk.offer.evaluate.SpreadOfferScorer;
+import com.mesosphere.sdk.offer.evaluate.TightestFitOfferScorer;
+import com.mesosphere.sdk.state.StatusPersistencePolicy;
+import org.apache.mesos.Protos;
 import org.apache.mesos.Protos.Credential;
 import org.json.JSONObject;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * This class encapsulates global Scheduler settings retrieved from the environment. Presented as a non-static object
@@ -55,6 +64,15 @@ public class SchedulerFlags {
     private static final String API_SERVER_TIMEOUT_S_ENV = "API_SERVER_TIMEOUT_S";
     /** The default number of seconds to wait for the Scheduler API to come up during startup. */
     private static final int DEFAULT_API_SERVER_TIMEOUT_S = 600;
+    /** The number of Scheduler API requests which may be handled at once. */
+    private static final String API_SERVER_MAX_CONCURRENT_REQUESTS_ENV = "API_SERVER_MAX_CONCURRENT_REQUESTS";
+    private static final int DEFAULT_API_SERVER_MAX_CONCURRENT_REQUESTS = 16;
+    /**
+     * The number of Scheduler API requests which may wait for their turn to be handled. Requests beyond this are
+     * rejected with a 503 response.
+     */
+    private static final String API_SERVER_MAX_QUEUED_REQUESTS_ENV = "API_SERVER_MAX_QUEUED_REQUESTS";
+    private static final int DEFAULT_API_SERVER_MAX_QUEUED_REQUESTS = 64;
 
     /**
      * Envvar name to specify a custom amount of time before auth token expiration that will trigger auth
@@ -70,8 +88,6 @@ public class SchedulerFlags {
     private static final String LIBMESOS_URI_ENV = "LIBMESOS_URI";
     /** Specifies the Java URI to be used when launching tasks. */
     private static final String JAVA_URI_ENV = "JAVA_URI";
-    /** Standard Java envvar pointing to the JRE location on disk. */
-    private static final String JAVA_HOME_ENV = "JAVA_HOME";
     /** When set, specifies that uninstall should be performed. */
     private static final String SDK_UNINSTALL = "SDK_UNINSTALL";
 
@@ -81,6 +97,64 @@ public class SchedulerFlags {
      */
     private static final String DISABLE_STATE_CACHE_ENV = "DISABLE_STATE_CACHE";
 
+    /**
+     * Controls whether the scheduler runs as a warm standby when another scheduler holds the service lock (disabled by
+     * default). If this envvar is set (to anything at all), the scheduler waits for the lock for as long as it takes,
+     * while preloading the state cache, instead of exiting after a timeout.
+     */
+    private static final String WARM_STANDBY_ENV = "SCHEDULER_WARM_STANDBY";
+
+    /**
+     * Controls which TaskStatus updates are written to ZK, see {@link StatusPersistencePolicy}:
+     * <ul>
+     * <li>{@code all} (default): every update is written as it is received</li>
+     * <li>{@code changes}: only meaningful changes are written, and only state changes are written immediately</li>
+     * <li>{@code inactive-changes}: only meaningful changes are written, and only transitions into an inactive state
+     * (exited or lost) are written immediately</li>
+     * </ul>
+     */
+    private static final String TASK_STATUS_PERSISTENCE_ENV = "TASK_STATUS_PERSISTENCE";
+    /** The longest time in milliseconds that a deferred TaskStatus write may be delayed. */
+    private static final String TASK_STATUS_MAX_DEFERRAL_MS_ENV = "TASK_STATUS_MAX_DEFERRAL_MS";
+    private static final int DEFAULT_TASK_STATUS_MAX_DEFERRAL_MS = 5000;
+    /** The number of deferred TaskStatus writes at which all deferred writes are performed immediately. */
+    private static final String TASK_STATUS_MAX_PENDING_WRITES_ENV = "TASK_STATUS_MAX_PENDING_WRITES";
+    private static final int DEFAULT_TASK_STATUS_MAX_PENDING_WRITES = 500;
+
+    /**
+     * Controls how an offer is chosen when several offers could satisfy a pod:
+     * <ul>
+     * <li>{@code first-fit} (default): the first viable offer is used</li>
+     * <li>{@code tightest-fit}: the viable offer whose unreserved cpus and mem would be most fully consumed</li>
+     * <li>{@code spread}: the viable offer from the agent with the fewest of the service's other tasks</li>
+     * <li>{@code locality}: the viable offer from an agent which previously hosted the pod, or else the service</li>
+     * </ul>
+     */
+    private static final String OFFER_SELECTION_ENV = "OFFER_SELECTION";
+    /** The number of viable offers to compare before choosing the best of them, when not using first-fit. */
+    private static final String OFFER_SELECTION_MAX_CANDIDATES_ENV = "OFFER_SELECTION_MAX_CANDIDATES";
+    private static final int DEFAULT_OFFER_SELECTION_MAX_CANDIDATES = 10;
+
+    /**
+     * Controls how the outcome of evaluating each offer is logged:
+     * <ul>
+     * <li>{@code summary} (default): a single line per offer, with the number of failed evaluation stages of each
+     * type</li>
+     * <li>{@code full}: the outcome of every evaluation stage, along with any nested outcomes</li>
+     * </ul>
+     */
+    private static final String OFFER_EVALUATION_LOGGING_ENV = "OFFER_EVALUATION_LOGGING";
+
+    /**
+     * The time in milliseconds that unused offers are held by the scheduler before being declined, so that work which
+     * appears shortly afterwards can use them without waiting for a revive. Zero (default) disables retention, in
+     * which case unused offers are declined immediately. Retained offers are unavailable to other frameworks.
+     */
+    private static final String OFFER_RETENTION_MS_ENV = "OFFER_RETENTION_MS";
+    /** The maximum number of unused offers to be retained at once. */
+    private static final String OFFER_RETENTION_MAX_OFFERS_ENV = "OFFER_RETENTION_MAX_OFFERS";
+    private static final int DEFAULT_OFFER_RETENTION_MAX_OFFERS = 20;
+
     /**
      * When a port named {@code api} is added to the Marathon app definition for the scheduler, marathon should create
      * an envvar with this name in the scheduler env. This is preferred over using e.g. the {@code PORT0} envvar which
@@ -155,6 +229,32 @@ public class SchedulerFlags {
         return flagStore.getRequiredInt(MARATHON_API_PORT_ENV);
     }
 
+    /**
+     * Returns the number of API requests which may be handled at once.
+     */
+    public int getApiServerMaxConcurrentRequests() {
+        int maxRequests = flagStore.getOptionalInt(
+                API_SERVER_MAX_CONCURRENT_REQUESTS_ENV, DEFAULT_API_SERVER_MAX_CONCURRENT_REQUESTS);
+        if (maxRequests < 1) {
+            throw FlagException.invalidValue(String.format(
+                    "Expected %s >= 1, got: %d", API_SERVER_MAX_CONCURRENT_REQUESTS_ENV, maxRequests));
+        }
+        return maxRequests;
+    }
+
+    /**
+     * Returns the number of API requests which may wait to be handled, beyond which requests are rejected.
+     */
+    public int getApiServerMaxQueuedRequests() {
+        int maxRequests = flagStore.getOptionalInt(
+                API_SERVER_MAX_QUEUED_REQUESTS_ENV, DEFAULT_API_SERVER_MAX_QUEUED_REQUESTS);
+        if (maxRequests < 0) {
+            throw FlagException.invalidValue(String.format(
+                    "Expected %s >= 0, got: %d", API_SERVER_MAX_QUEUED_REQUESTS_ENV, maxRequests));
+        }
+        return maxRequests;
+    }
+
     public String getExecutorURI() {
         return flagStore.getRequired(EXECUTOR_URI_ENV);
     }
@@ -167,10 +267,6 @@ public class SchedulerFlags {
         return flagStore.getRequired(JAVA_URI_ENV);
     }
 
-    public String getJavaHome() {
-        return flagStore.getRequired(JAVA_HOME_ENV);
-    }
-
     public String getDcosSpaceLabelValue() {
         String value = flagStore.getOptional(DCOS_SPACE_ENV, null);
         if (value != null) {
@@ -189,6 +285,123 @@ public class SchedulerFlags {
         return !flagStore.isPresent(DISABLE_STATE_CACHE_ENV);
     }
 
+    public boolean isWarmStandbyEnabled() {
+        return flagStore.isPresent(WARM_STANDBY_ENV);
+    }
+
+    /**
+     * Returns the configured policy for writing TaskStatus updates, or throws {@link FlagException} if the configured
+     * values are invalid.
+     */
+    public StatusPersistencePolicy getStatusPersistencePolicy() {
+        String mode = flagStore.getOptional(TASK_STATUS_PERSISTENCE_ENV, "all");
+        switch (mode) {
+        case "all":
+            return StatusPersistencePolicy.writeAll();
+        case "changes":
+            return getChangesOnlyStatusPersistencePolicy(StatusPersistencePolicy.ALL_STATES);
+        case "inactive-changes":
+            return getChangesOnlyStatusPersistencePolicy(StatusPersistencePolicy.INACTIVE_STATES);
+        default:
+            throw FlagException.invalidValue(String.format(
+                    "Unsupported value for %s, expected 'all', 'changes', or 'inactive-changes': %s",
+                    TASK_STATUS_PERSISTENCE_ENV, mode));
+        }
+    }
+
+    private StatusPersistencePolicy getChangesOnlyStatusPersistencePolicy(
+            Collection<Protos.TaskState> synchronousStates) {
+        int maxDeferralMs =
+                flagStore.getOptionalInt(TASK_STATUS_MAX_DEFERRAL_MS_ENV, DEFAULT_TASK_STATUS_MAX_DEFERRAL_MS);
+        int maxPendingWrites =
+                flagStore.getOptionalInt(TASK_STATUS_MAX_PENDING_WRITES_ENV, DEFAULT_TASK_STATUS_MAX_PENDING_WRITES);
+        if (maxDeferralMs < 0 || maxPendingWrites < 1) {
+            throw FlagException.invalidValue(String.format(
+                    "Expected %s >= 0 and %s >= 1, got: %d and %d",
+                    TASK_STATUS_MAX_DEFERRAL_MS_ENV, TASK_STATUS_MAX_PENDING_WRITES_ENV,
+                    maxDeferralMs, maxPendingWrites));
+        }
+        return StatusPersistencePolicy.changesOnly(
+                synchronousStates, Duration.ofMillis(maxDeferralMs), maxPendingWrites);
+    }
+
+    /**
+     * Returns the configured scorer for choosing between viable offers, or an empty Optional if the first viable offer
+     * should be used. Throws {@link FlagException} if the configured value is invalid.
+     */
+    public Optional<OfferScorer> getOfferScorer() {
+        String mode = flagStore.getOptional(OFFER_SELECTION_ENV, "first-fit");
+        switch (mode) {
+        case "first-fit":
+            return Optional.empty();
+        case "tightest-fit":
+            return Optional.of(new TightestFitOfferScorer());
+        case "spread":
+            return Optional.of(new SpreadOfferScorer());
+        case "locality":
+            return Optional.of(new LocalityOfferScorer());
+        default:
+            throw FlagException.invalidValue(String.format(
+                    "Unsupported value for %s, expected 'first-fit', 'tightest-fit', 'spread', or 'locality': %s",
+                    OFFER_SELECTION_ENV, mode));
+        }
+    }
+
+    /**
+     * Returns the number of viable offers to compare before choosing the best of them, when an offer scorer is used.
+     */
+    public int getOfferSelectionMaxCandidates() {
+        int maxCandidates = flagStore.getOptionalInt(
+                OFFER_SELECTION_MAX_CANDIDATES_ENV, DEFAULT_OFFER_SELECTION_MAX_CANDIDATES);
+        if (maxCandidates < 1) {
+            throw FlagException.invalidValue(String.format(
+                    "Expected %s >= 1, got: %d", OFFER_SELECTION_MAX_CANDIDATES_ENV, maxCandidates));
+        }
+        return maxCandidates;
+    }
+
+    /**
+     * Returns how the outcomes of offer evaluations should be logged, or throws {@link FlagException} if the configured
+     * value is invalid.
+     */
+    public OfferEvaluator.OutcomeLogging getOfferEvaluationLogging() {
+        String mode = flagStore.getOptional(OFFER_EVALUATION_LOGGING_ENV, "summary");
+        switch (mode) {
+        case "full":
+            return OfferEvaluator.OutcomeLogging.FULL;
+        case "summary":
+            return OfferEvaluator.OutcomeLogging.SUMMARY;
+        default:
+            throw FlagException.invalidValue(String.format(
+                    "Unsupported value for %s, expected 'full' or 'summary': %s", OFFER_EVALUATION_LOGGING_ENV, mode));
+        }
+    }
+
+    /**
+     * Returns the time in milliseconds that unused offers should be retained before being declined, or zero if unused
+     * offers should be declined immediately.
+     */
+    public int getOfferRetentionMs() {
+        int retentionMs = flagStore.getOptionalInt(OFFER_RETENTION_MS_ENV, 0);
+        if (retentionMs < 0) {
+            throw FlagException.invalidValue(String.format(
+                    "Expected %s >= 0, got: %d", OFFER_RETENTION_MS_ENV, retentionMs));
+        }
+        return retentionMs;
+    }
+
+    /**
+     * Returns the maximum number of unused offers to be retained at once, when offer retention is enabled.
+     */
+    public int getOfferRetentionMaxOffers() {
+        int maxOffers = flagStore.getOptionalInt(OFFER_RETENTION_MAX_OFFERS_ENV, DEFAULT_OFFER_RETENTION_MAX_OFFERS);
+        if (maxOffers < 1) {
+            throw FlagException.invalidValue(String.format(
+                    "Expected %s >= 1, got: %d", OFFER_RETENTION_MAX_OFFERS_ENV, maxOffers));
+        }
+        return maxOffers;
+    }
+
     public boolean isUninstallEnabled() {
         return flagStore.isPresent(SDK_UNINSTALL);
     }
@@ -0,0 +1,161 @@
+package com.mesosphere.sdk.scheduler;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs the phases of scheduler startup, and reports how long each phase took. Background phases are started as soon as
+ * the phases they depend on have completed, so that phases which don't depend on each other run in parallel.
+ */
+public class StartupPhases {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupPhases.class);
+
+    private final Executor executor;
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+    // Phases in the order they were declared
+    private final List<Phase> phases = new ArrayList<>();
+
+    public StartupPhases() {
+        this(Executors.newCachedThreadPool(new StartupThreadFactory()), System::nanoTime);
+    }
+
+    @VisibleForTesting
+    StartupPhases(Executor executor, LongSupplier nanoClock) {
+        this.executor = executor;
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Runs the provided task in the background, once all of the provided dependencies have completed.
+     *
+     * @return a future for the result of the task, which fails if the task or any of its dependencies failed
+     */
+    public <T> CompletableFuture<T> supplyAsync(String name, Supplier<T> task, CompletableFuture<?>... dependencies) {
+        Phase phase = addPhase(name);
+        return CompletableFuture.allOf(dependencies).thenApplyAsync(ignored -> phase.run(task), executor);
+    }
+
+    /**
+     * Runs the provided task in the background, once all of the provided dependencies have completed.
+     *
+     * @return a future which completes when the task completes, and fails if the task or any of its dependencies failed
+     */
+    public CompletableFuture<Void> runAsync(String name, Runnable task, CompletableFuture<?>... dependencies) {
+        return supplyAsync(name, () -> {
+            task.run();
+            return null;
+        }, dependencies);
+    }
+
+    /**
+     * Runs the provided task on the calling thread, for phases which must complete before startup can proceed.
+     */
+    public void run(String name, Runnable task) {
+        addPhase(name).run(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Logs the timing of each phase so far.
+     */
+    public void logReport() {
+        LOGGER.info("Startup phases after {}ms:\n{}", toMillis(nanoClock.getAsLong() - startNanos), getReport());
+    }
+
+    /**
+     * Returns a line per phase, with when it started relative to the start of startup, and how long it took.
+     */
+    @VisibleForTesting
+    String getReport() {
+        List<String> lines = new ArrayList<>();
+        synchronized (phases) {
+            for (Phase phase : phases) {
+                lines.add(phase.toString());
+            }
+        }
+        return String.join("\n", lines);
+    }
+
+    private Phase addPhase(String name) {
+        Phase phase = new Phase(name);
+        synchronized (phases) {
+            phases.add(phase);
+        }
+        return phase;
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * The timing of a single phase, which may be updated from any thread.
+     */
+    private class Phase {
+        private final String name;
+        private volatile Long phaseStartNanos;
+        private volatile Long phaseEndNanos;
+        private volatile boolean failed;
+
+        private Phase(String name) {
+            this.name = name;
+        }
+
+        private <T> T run(Supplier<T> task) {
+            phaseStartNanos = nanoClock.getAsLong();
+            try {
+                return task.get();
+            } catch (RuntimeException e) {
+                failed = true;
+                LOGGER.error(String.format("Startup phase %s failed", name), e);
+                throw e;
+            } finally {
+                phaseEndNanos = nanoClock.getAsLong();
+            }
+        }
+
+        @Override
+        public String toString() {
+            Long start = phaseStartNanos;
+            Long end = phaseEndNanos;
+            if (start == null) {
+                return String.format("- %s: waiting", name);
+            }
+            String offset = String.format("- %s: started at +%dms", name, toMillis(start - startNanos));
+            if (end == null) {
+                return String.format("%s, still running", offset);
+            }
+            return String.format("%s, %s after %dms", offset, failed ? "failed" : "completed", toMillis(end - start));
+        }
+    }
+
+    /**
+     * Creates daemon threads, so that a phase which is still running doesn't prevent the process from exiting.
+     */
+    private static class StartupThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, String.format("startup-%d", count.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -52,27 +52,39 @@ public class DefaultPlanScheduler implements PlanScheduler {
             return Collections.emptyList();
         }
 
-        List<OfferID> acceptedOfferIds = new ArrayList<>();
+        // Leftover resources from a partially used offer flow on to the following steps. The recommendations for all
+        // steps are recorded as they're made, and then sent together so that each offer is accepted only once.
+        List<OfferRecommendation> recordedRecommendations = new ArrayList<>();
         List<Offer> availableOffers = new ArrayList<>(offers);
 
-        for (Step step : steps) {
-            acceptedOfferIds.addAll(resourceOffers(driver, availableOffers, step));
-            availableOffers = PlanUtils.filterAcceptedOffers(availableOffers, acceptedOfferIds);
+        try {
+            for (Step step : steps) {
+                List<OfferRecommendation> recommendations = resourceOffers(availableOffers, step);
+                recordedRecommendations.addAll(recommendations);
+                availableOffers = getRemainingOffers(availableOffers, recommendations);
+            }
+        } catch (RuntimeException e) {
+            // The earlier steps have already recorded their launches and been told that they're starting. Send their
+            // operations anyway, so that they aren't left waiting on tasks which Mesos was never asked to launch.
+            if (!recordedRecommendations.isEmpty()) {
+                logger.error("Failed to process offers for all steps, accepting the {} recommendations " +
+                        "which were already recorded", recordedRecommendations.size());
+                offerAccepter.acceptRecorded(driver, recordedRecommendations);
+            }
+            throw e;
         }
 
-        return acceptedOfferIds;
-    }
-
-    private Collection<OfferID> resourceOffers(
-            SchedulerDriver driver,
-            List<Offer> offers,
-            Step step) {
-
-        if (driver == null || offers == null) {
-            logger.error("Unexpected null argument encountered: driver='{}' offers='{}'", driver, offers);
+        if (recordedRecommendations.isEmpty()) {
             return Collections.emptyList();
         }
+        return offerAccepter.acceptRecorded(driver, recordedRecommendations);
+    }
 
+    /**
+     * Evaluates the provided offers against the provided step, and records any resulting recommendations. Returns the
+     * recorded recommendations, or an empty list if the step didn't use any of the offers.
+     */
+    private List<OfferRecommendation> resourceOffers(List<Offer> offers, Step step) {
         if (step == null) {
             logger.info("Ignoring resource offers for null step.");
             return Collections.emptyList();
@@ -116,18 +128,42 @@ public class DefaultPlanScheduler implements PlanScheduler {
             return Collections.emptyList();
         }
 
-        List<OfferID> acceptedOffers = offerAccepter.accept(driver, recommendations);
-
-        // Notify step of offer outcome:
-        if (acceptedOffers.isEmpty()) {
+        // Recording the recommendations immediately ensures that the evaluation of any following steps (e.g. placement
+        // rules) sees the tasks which are about to be launched by this step.
+        if (!offerAccepter.record(recommendations)) {
             // If no Operations occurred it may be of interest to the Step.  For example it may want to set its state
             // to Pending to ensure it will be reattempted on the next Offer cycle.
             step.updateOfferStatus(Collections.emptyList());
-        } else {
-            step.updateOfferStatus(getNonTransientRecommendations(recommendations));
+            return Collections.emptyList();
         }
 
-        return acceptedOffers;
+        // Notify step of offer outcome:
+        step.updateOfferStatus(getNonTransientRecommendations(recommendations));
+        return recommendations;
+    }
+
+    /**
+     * Returns the provided offers with any resources used by the provided recommendations removed. Offers which have no
+     * resources left are omitted.
+     */
+    private static List<Offer> getRemainingOffers(List<Offer> offers, List<OfferRecommendation> recommendations) {
+        if (recommendations.isEmpty()) {
+            return offers;
+        }
+        Set<OfferID> usedOfferIds = recommendations.stream()
+                .map(recommendation -> recommendation.getOffer().getId())
+                .collect(Collectors.toSet());
+        List<Offer> remainingOffers = new ArrayList<>();
+        for (Offer offer : offers) {
+            if (usedOfferIds.contains(offer.getId())) {
+                offer = OfferUtils.getRemainingOffer(offer, recommendations);
+                if (offer.getResourcesCount() == 0) {
+                    continue;
+                }
+            }
+            remainingOffers.add(offer);
+        }
+        return remainingOffers;
     }
 
     private void killTasks(PodInstanceRequirement podInstanceRequirement) {
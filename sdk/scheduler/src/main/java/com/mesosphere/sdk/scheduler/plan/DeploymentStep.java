@@ -91,7 +91,7 @@ public class DeploymentStep extends AbstractStep {
         // log a bulleted list of operations, with each operation on one line:
         logger.info("Updated step '{} [{}]' with {} recommendations:", getName(), getId(), recommendations.size());
         for (OfferRecommendation recommendation : recommendations) {
-            logger.info("  {}", TextFormat.shortDebugString(recommendation.getOperation()));
+            logger.info("  {}", OfferLogUtils.summarize(recommendation.getOperation()));
         }
         setTaskIds(recommendations);
 
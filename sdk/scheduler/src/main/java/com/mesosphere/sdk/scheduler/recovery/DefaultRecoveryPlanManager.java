@@ -6,6 +6,7 @@ import com.mesosphere.sdk.scheduler.plan.*;
 import com.mesosphere.sdk.scheduler.plan.strategy.ParallelStrategy;
 import com.mesosphere.sdk.scheduler.recovery.constrain.LaunchConstrainer;
 import com.mesosphere.sdk.scheduler.recovery.monitor.FailureMonitor;
+import com.mesosphere.sdk.specification.PodInstance;
 import com.mesosphere.sdk.specification.ServiceSpec;
 import com.mesosphere.sdk.specification.TaskSpec;
 import com.mesosphere.sdk.state.ConfigStore;
@@ -63,6 +64,7 @@ public class DefaultRecoveryPlanManager implements PlanManager {
         this.launchConstrainer = launchConstrainer;
         this.recoveryPlanOverriders = overrideRecoveryManagers;
         plan = new DefaultPlan(DEFAULT_RECOVERY_PLAN_NAME, Collections.emptyList());
+        failureMonitor.setFailureListener(this::permanentlyFailed);
     }
 
     @Override
@@ -85,6 +87,8 @@ public class DefaultRecoveryPlanManager implements PlanManager {
 
     @Override
     public Collection<? extends Step> getCandidates(Collection<PodInstanceRequirement> dirtyAssets) {
+        // Candidates are requested on the scheduler thread, where the monitor may safely mark failed pods:
+        failureMonitor.markExpiredFailures();
         synchronized (planLock) {
             updatePlan(dirtyAssets);
             return getPlan().getCandidates(dirtyAssets).stream()
@@ -106,11 +110,41 @@ public class DefaultRecoveryPlanManager implements PlanManager {
      */
     @Override
     public void update(Protos.TaskStatus status) {
+        failureMonitor.update(status);
         synchronized (planLock) {
             getPlan().update(status);
         }
     }
 
+    /**
+     * Switches any pending transient recovery of the provided pod to a permanent recovery, following the failure
+     * monitor deciding that the pod has permanently failed. Recoveries which are already underway are left as-is.
+     */
+    void permanentlyFailed(PodInstance podInstance) {
+        synchronized (planLock) {
+            List<PodInstanceRequirement> permanentRequirements = getPlan().getChildren().stream()
+                    .flatMap(phase -> phase.getChildren().stream())
+                    .filter(step -> step instanceof DefaultRecoveryStep)
+                    .filter(step -> step.isPending())
+                    .filter(step -> ((DefaultRecoveryStep) step).getRecoveryType().equals(RecoveryType.TRANSIENT))
+                    .map(step -> step.getPodInstanceRequirement())
+                    .filter(requirement -> requirement.isPresent())
+                    .map(requirement -> requirement.get())
+                    .filter(requirement -> requirement.getPodInstance().getName().equals(podInstance.getName()))
+                    .map(requirement -> PodInstanceRequirement.newBuilder(requirement)
+                            .recoveryType(RecoveryType.PERMANENT)
+                            .build())
+                    .collect(Collectors.toList());
+            if (permanentRequirements.isEmpty()) {
+                // The pod will be recovered as permanently failed once it's next found to need recovery
+                return;
+            }
+            logger.info("Switching recovery of pod '{}' to permanent", podInstance.getName());
+            // Phases are replaced by name, which is the same for the new permanent steps:
+            setPlan(updatePhases(createPhases(permanentRequirements)));
+        }
+    }
+
     protected void updatePlan(Collection<PodInstanceRequirement> dirtyAssets) {
         logger.info("Dirty assets for recovery plan consideration: {}", dirtyAssets);
 
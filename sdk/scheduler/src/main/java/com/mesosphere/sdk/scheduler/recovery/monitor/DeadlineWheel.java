@@ -0,0 +1,136 @@
+package com.mesosphere.sdk.scheduler.recovery.monitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A hashed timing wheel of deadlines, each identified by a unique key. Deadlines are rounded up to a whole tick and
+ * placed in the wheel bucket for that tick, so that scheduling and cancelling a deadline take constant time, and
+ * advancing the wheel only visits the buckets for the ticks which have passed. Deadlines which are more than a full
+ * revolution of the wheel away stay in their bucket until the revolution in which they are due.
+ *
+ * <p>This class is not thread-safe.
+ */
+class DeadlineWheel<K, V> {
+
+    private final long tickMs;
+    private final List<Map<K, Entry<V>>> buckets;
+    private final Map<K, Entry<V>> entries = new HashMap<>();
+    // The last tick which has been processed by advance()
+    private long currentTick;
+
+    /**
+     * Creates a new wheel.
+     *
+     * @param tickMs the resolution of deadlines in milliseconds
+     * @param bucketCount the number of ticks in a revolution of the wheel
+     * @param nowMs the current time in milliseconds
+     */
+    DeadlineWheel(long tickMs, int bucketCount, long nowMs) {
+        if (tickMs < 1) {
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickMs);
+        }
+        if (bucketCount < 1) {
+            throw new IllegalArgumentException("Bucket count must be positive: " + bucketCount);
+        }
+        this.tickMs = tickMs;
+        this.buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; ++i) {
+            buckets.add(new LinkedHashMap<>());
+        }
+        this.currentTick = Math.floorDiv(nowMs, tickMs);
+    }
+
+    /**
+     * Schedules a deadline for the provided key, unless one is already scheduled. Returns whether a deadline was
+     * scheduled.
+     */
+    boolean scheduleIfAbsent(K key, V value, long deadlineMs) {
+        if (entries.containsKey(key)) {
+            return false;
+        }
+        // Deadlines in ticks which have already been processed are handled by the next advance():
+        long tick = Math.max(toDeadlineTick(deadlineMs), currentTick + 1);
+        Entry<V> entry = new Entry<>(value, tick);
+        entries.put(key, entry);
+        getBucket(tick).put(key, entry);
+        return true;
+    }
+
+    /**
+     * Returns the value for the provided key, if it has a deadline which hasn't yet expired.
+     */
+    Optional<V> get(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry == null ? Optional.empty() : Optional.of(entry.value);
+    }
+
+    /**
+     * Cancels any deadline for the provided key, and returns its value.
+     */
+    Optional<V> cancel(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        getBucket(entry.tick).remove(key);
+        return Optional.of(entry.value);
+    }
+
+    /**
+     * Removes and returns the values of all deadlines which are due as of the provided time.
+     */
+    List<V> advance(long nowMs) {
+        long nowTick = Math.floorDiv(nowMs, tickMs);
+        if (nowTick <= currentTick) {
+            return new ArrayList<>();
+        }
+        List<V> expired = new ArrayList<>();
+        // Each bucket only needs to be visited once, however long it's been since the last advance:
+        long lastTick = Math.min(nowTick, currentTick + buckets.size());
+        for (long tick = currentTick + 1; tick <= lastTick; ++tick) {
+            Iterator<Map.Entry<K, Entry<V>>> iter = getBucket(tick).entrySet().iterator();
+            while (iter.hasNext()) {
+                Map.Entry<K, Entry<V>> bucketEntry = iter.next();
+                if (bucketEntry.getValue().tick <= nowTick) {
+                    iter.remove();
+                    entries.remove(bucketEntry.getKey());
+                    expired.add(bucketEntry.getValue().value);
+                }
+            }
+        }
+        currentTick = nowTick;
+        return expired;
+    }
+
+    /**
+     * Returns the number of deadlines which haven't yet expired.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    private Map<K, Entry<V>> getBucket(long tick) {
+        return buckets.get((int) Math.floorMod(tick, (long) buckets.size()));
+    }
+
+    private long toDeadlineTick(long deadlineMs) {
+        // Round up, so that deadlines never expire early:
+        return Math.floorDiv(deadlineMs + tickMs - 1, tickMs);
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long tick;
+
+        private Entry(V value, long tick) {
+            this.value = value;
+            this.tick = tick;
+        }
+    }
+}
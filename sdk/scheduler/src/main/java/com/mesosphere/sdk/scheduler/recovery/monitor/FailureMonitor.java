@@ -1,6 +1,10 @@
 package com.mesosphere.sdk.scheduler.recovery.monitor;
 
+import com.mesosphere.sdk.specification.PodInstance;
 import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskStatus;
+
+import java.util.function.Consumer;
 
 /**
  * Instances of this class are used to determine when a stopped task has failed and should be restarted elsewhere.
@@ -16,4 +20,38 @@ public interface FailureMonitor {
      * machine might still come back
      */
     boolean hasFailed(TaskInfo task);
+
+    /**
+     * Notifies the monitor of a task status update, e.g. so that it can stop tracking a task which has recovered. Does
+     * nothing by default.
+     */
+    default void update(TaskStatus status) {
+    }
+
+    /**
+     * Marks the pods of any tasks which the monitor has decided by itself to have failed as permanently failed, and
+     * notifies the listener set by {@link #setFailureListener(Consumer)}. This must be called from the scheduler
+     * thread, which also records task launches. Does nothing by default, for monitors which only decide within
+     * {@link #hasFailed(TaskInfo)}.
+     */
+    default void markExpiredFailures() {
+    }
+
+    /**
+     * Sets a listener to be notified when the monitor decides by itself that a pod has permanently failed, outside of
+     * a call to {@link #hasFailed(TaskInfo)}. The listener is called from {@link #markExpiredFailures()}, after the
+     * monitor has marked the pod's tasks as permanently failed. Does nothing by default, for monitors which only decide
+     * within {@link #hasFailed(TaskInfo)}.
+     */
+    default void setFailureListener(Consumer<PodInstance> listener) {
+    }
+
+    /**
+     * Sets a listener to be notified when the monitor has decided in the background that tasks have failed, so that
+     * the scheduler thread can call {@link #markExpiredFailures()} without waiting for its next offer cycle. The
+     * listener may be called from any thread. Does nothing by default, for monitors which only decide within
+     * {@link #hasFailed(TaskInfo)}.
+     */
+    default void setExpiryListener(Runnable listener) {
+    }
 }
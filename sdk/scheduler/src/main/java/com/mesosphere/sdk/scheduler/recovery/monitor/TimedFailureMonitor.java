@@ -1,24 +1,41 @@
 package com.mesosphere.sdk.scheduler.recovery.monitor;
 
+import com.mesosphere.sdk.offer.CommonIdUtils;
 import com.mesosphere.sdk.offer.TaskException;
 import com.mesosphere.sdk.offer.TaskUtils;
 import com.mesosphere.sdk.specification.PodInstance;
 import com.mesosphere.sdk.specification.ServiceSpec;
 import com.mesosphere.sdk.state.ConfigStore;
 import com.mesosphere.sdk.state.StateStore;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 import org.apache.mesos.Protos.TaskID;
 import org.apache.mesos.Protos.TaskInfo;
+import org.apache.mesos.Protos.TaskStatus;
 import com.mesosphere.sdk.scheduler.recovery.FailureUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
-import java.util.Date;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 /**
  * Implements a {@link FailureMonitor} with a time-based policy.
  * <p>
+ * The first time a stopped task is seen, a deadline is scheduled for it on a timing wheel, which is advanced once per
+ * tick in the background. A task leaves the wheel when a status shows that it's running again, or when it's replaced by
+ * a task with a different {@link TaskID}. When a deadline expires, the task is queued and the expiry listener is
+ * notified, so that the scheduler thread can promptly call {@link #markExpiredFailures()}. This marks the task's pod as
+ * permanently failed and notifies any failure listener, rather than waiting for the pod's next recovery to call
+ * {@link #hasFailed(TaskInfo)}. The background tick stops whenever no tasks are being tracked.
+ * <p>
  * Note that, for safety reasons, this only sets a lower bound on when task is determined failed. Since during an outage
  * system clocks can be accidentally misconfigured (for instance, when adding new nodes), we cannot rely on system time
  * (since we might underestimate the wait), and so we must reset our clock from zero when the framework restarts. This
@@ -28,12 +45,26 @@ import java.util.HashMap;
  * machines.
  */
 public class TimedFailureMonitor extends DefaultFailureMonitor {
-    private static final Log log = LogFactory.getLog(TimedFailureMonitor.class);
-    // This map stores the time when we first noticed the failure
-    private final HashMap<TaskID, Date> firstFailureDetected;
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimedFailureMonitor.class);
+
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final int WHEEL_BUCKETS = 512;
+
     private final Duration durationUntilFailed;
     private final StateStore stateStore;
     private final ConfigStore<ServiceSpec> configStore;
+    private final LongSupplier clock;
+    private final boolean tickInBackground;
+
+    // Task name => the stopped task, until the task recovers or its deadline expires
+    private final DeadlineWheel<String, TaskInfo> deadlines;
+    // Task name => the ID of the task which was found to have failed, until the task recovers or is replaced
+    private final Map<String, TaskID> failedTaskIds = new HashMap<>();
+    // Task name => a task whose deadline has expired, until its pod is marked as failed by markExpiredFailures()
+    private final Map<String, TaskInfo> expiredTasks = new HashMap<>();
+    private Consumer<PodInstance> failureListener = podInstance -> { };
+    private Runnable expiryListener = () -> { };
+    private ScheduledExecutorService tickExecutor;
 
     /**
      * Creates a new {@link FailureMonitor} that waits for at least a specified duration before deciding that the task
@@ -46,18 +77,29 @@ public class TimedFailureMonitor extends DefaultFailureMonitor {
             Duration durationUntilFailed,
             StateStore stateStore,
             ConfigStore<ServiceSpec> configStore) {
-        this.firstFailureDetected = new HashMap<>();
+        this(durationUntilFailed, stateStore, configStore, System::currentTimeMillis, true);
+    }
+
+    TimedFailureMonitor(
+            Duration durationUntilFailed,
+            StateStore stateStore,
+            ConfigStore<ServiceSpec> configStore,
+            LongSupplier clock,
+            boolean tickInBackground) {
         this.durationUntilFailed = durationUntilFailed;
         this.stateStore = stateStore;
         this.configStore = configStore;
+        this.clock = clock;
+        this.tickInBackground = tickInBackground;
+        this.deadlines = new DeadlineWheel<>(TICK.toMillis(), WHEEL_BUCKETS, clock.getAsLong());
     }
 
     /**
      * Determines whether the given task has failed, by tracking the time delta between the first observed failure and
      * the current time.
      * <p>
-     * The first time a task is noticed to be failed, we record that time into a map, keyed by the task's {@link
-     * TaskID}. Then, we return true if at least the configured amount of time has passed since then.
+     * The first time a task is noticed to be failed, a deadline is scheduled for it, keyed by the task's name. Then, we
+     * return true once the deadline has expired, i.e. at least the configured amount of time has passed since then.
      *
      * @param terminatedTask The task that stopped and might be failed
      * @return true if the task has been stopped for at least the configured interval
@@ -67,29 +109,251 @@ public class TimedFailureMonitor extends DefaultFailureMonitor {
         if (super.hasFailed(terminatedTask)) {
             return true;
         }
+        // Check for expired deadlines here too, in case the wheel isn't currently being advanced in the background:
+        tick();
 
-        Date taskLaunchedTime;
-        synchronized (firstFailureDetected) {
-            if (!firstFailureDetected.containsKey(terminatedTask.getTaskId())) {
-                firstFailureDetected.put(terminatedTask.getTaskId(), new Date());
+        String taskName = terminatedTask.getName();
+        synchronized (deadlines) {
+            TaskID failedTaskId = failedTaskIds.get(taskName);
+            if (failedTaskId != null) {
+                if (failedTaskId.equals(terminatedTask.getTaskId())) {
+                    return true;
+                }
+                // A replacement task has stopped
+                failedTaskIds.remove(taskName);
+            }
+
+            if (deadlines.get(taskName)
+                    .filter(task -> !task.getTaskId().equals(terminatedTask.getTaskId()))
+                    .isPresent()) {
+                // A replacement task has stopped, start over
+                deadlines.cancel(taskName);
+            }
+            if (deadlines.scheduleIfAbsent(
+                    taskName, terminatedTask, clock.getAsLong() + durationUntilFailed.toMillis())) {
+                LOGGER.info("Task {} has stopped, will be considered failed after {}", taskName, durationUntilFailed);
+                startTicking();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Stops tracking tasks which have been relaunched or have resumed running.
+     */
+    @Override
+    public void update(TaskStatus status) {
+        boolean isActive;
+        switch (status.getState()) {
+        case TASK_STAGING:
+        case TASK_STARTING:
+        case TASK_RUNNING:
+            isActive = true;
+            break;
+        default:
+            isActive = false;
+            break;
+        }
+
+        String taskName;
+        try {
+            taskName = CommonIdUtils.toTaskName(status.getTaskId());
+        } catch (TaskException e) {
+            LOGGER.warn("Failed to get task name from status: {}", status.getTaskId().getValue());
+            return;
+        }
+        synchronized (deadlines) {
+            if (isActive) {
+                boolean wasStopped = deadlines.cancel(taskName).isPresent();
+                boolean wasFailed = failedTaskIds.remove(taskName) != null;
+                boolean wasExpired = expiredTasks.remove(taskName) != null;
+                if (wasStopped || wasFailed || wasExpired) {
+                    LOGGER.info("Task {} has recovered, no longer tracking it for failure", taskName);
+                }
+            } else if (forgetReplacedTask(taskName, status.getTaskId())) {
+                LOGGER.info("Task {} has been relaunched, no longer tracking its previous launch", taskName);
             }
-            taskLaunchedTime = firstFailureDetected.get(terminatedTask.getTaskId());
         }
+    }
 
-        Date taskExpiredTime = new Date(taskLaunchedTime.getTime() + durationUntilFailed.toMillis());
-        Date now = new Date();
-        log.info("Looking at " + terminatedTask.getName() + " launchHappened at " + taskLaunchedTime + ", expires at "
-                + taskExpiredTime + " which is " + now.after(taskExpiredTime));
+    /**
+     * Marks the pods of any tasks whose deadline has expired as permanently failed, and notifies the listener. Tasks
+     * which have since been relaunched or have resumed running are skipped. This must be called from the scheduler
+     * thread, which also records task launches, so that marking a pod can't overwrite a relaunch of the same task.
+     */
+    @Override
+    public void markExpiredFailures() {
+        List<TaskInfo> tasksToMark;
+        Consumer<PodInstance> listener;
+        synchronized (deadlines) {
+            if (expiredTasks.isEmpty()) {
+                return;
+            }
+            tasksToMark = new ArrayList<>(expiredTasks.values());
+            expiredTasks.clear();
+            listener = failureListener;
+        }
 
-        if (now.after(taskExpiredTime)) {
+        // Storing the tasks and notifying the listener is done outside the lock, as these may take other locks:
+        for (TaskInfo task : tasksToMark) {
+            if (!isStillStopped(task)) {
+                LOGGER.info("Task {} was relaunched or resumed before its pod could be marked as failed",
+                        task.getName());
+                synchronized (deadlines) {
+                    failedTaskIds.remove(task.getName(), task.getTaskId());
+                }
+                continue;
+            }
+            LOGGER.info("Task {} has been stopped for at least {}, marking its pod as permanently failed",
+                    task.getName(), durationUntilFailed);
             try {
-                PodInstance podInstance = TaskUtils.getPodInstance(configStore, terminatedTask);
+                PodInstance podInstance = TaskUtils.getPodInstance(configStore, task);
                 FailureUtils.setPermanentlyFailed(stateStore, podInstance);
+                listener.accept(podInstance);
             } catch (TaskException e) {
-                log.error("Failed to get pod instance to mark as failed.", e);
+                LOGGER.error("Failed to get pod instance to mark as failed.", e);
+            } catch (RuntimeException e) {
+                LOGGER.error(String.format("Failed to mark pod of task %s as failed.", task.getName()), e);
             }
         }
+    }
+
+    /**
+     * Stops advancing the wheel in the background. Deadlines which expire afterwards are noticed the next time
+     * {@link #hasFailed(TaskInfo)} is called, which advances the wheel itself.
+     */
+    public void stop() {
+        synchronized (deadlines) {
+            stopTicking();
+        }
+    }
+
+    @Override
+    public void setFailureListener(Consumer<PodInstance> listener) {
+        synchronized (deadlines) {
+            this.failureListener = listener;
+        }
+    }
+
+    @Override
+    public void setExpiryListener(Runnable listener) {
+        synchronized (deadlines) {
+            this.expiryListener = listener;
+        }
+    }
 
-        return super.hasFailed(terminatedTask);
+    /**
+     * Returns the number of stopped tasks which are currently tracked.
+     */
+    int getTrackedTaskCount() {
+        synchronized (deadlines) {
+            return deadlines.size() + failedTaskIds.size();
+        }
+    }
+
+    /**
+     * Returns whether the wheel is currently being advanced in the background.
+     */
+    boolean isTicking() {
+        synchronized (deadlines) {
+            return tickExecutor != null;
+        }
+    }
+
+    /**
+     * Queues any tasks whose deadline has expired, to be marked as failed by {@link #markExpiredFailures()}, and
+     * notifies the expiry listener if there were any. Stops the background tick once no deadlines remain.
+     */
+    void tick() {
+        List<TaskInfo> expired;
+        Runnable listener;
+        synchronized (deadlines) {
+            expired = deadlines.advance(clock.getAsLong());
+            for (TaskInfo task : expired) {
+                failedTaskIds.put(task.getName(), task.getTaskId());
+                expiredTasks.put(task.getName(), task);
+            }
+            if (deadlines.size() == 0) {
+                stopTicking();
+            }
+            listener = expiryListener;
+        }
+        // Notified outside the lock, as the listener may take other locks:
+        if (!expired.isEmpty()) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Forgets any tracking of the named task which belongs to a launch other than the provided one. Must be called
+     * while holding the lock on {@code deadlines}.
+     *
+     * @return whether anything was forgotten
+     */
+    private boolean forgetReplacedTask(String taskName, TaskID currentTaskId) {
+        boolean forgot = false;
+        if (deadlines.get(taskName).filter(task -> !task.getTaskId().equals(currentTaskId)).isPresent()) {
+            deadlines.cancel(taskName);
+            forgot = true;
+        }
+        TaskID failedTaskId = failedTaskIds.get(taskName);
+        if (failedTaskId != null && !failedTaskId.equals(currentTaskId)) {
+            failedTaskIds.remove(taskName);
+            forgot = true;
+        }
+        TaskInfo expiredTask = expiredTasks.get(taskName);
+        if (expiredTask != null && !expiredTask.getTaskId().equals(currentTaskId)) {
+            expiredTasks.remove(taskName);
+            forgot = true;
+        }
+        return forgot;
+    }
+
+    /**
+     * Returns whether the stored state still shows the provided launch of the task as stopped.
+     */
+    private boolean isStillStopped(TaskInfo task) {
+        Optional<TaskInfo> storedTask = stateStore.fetchTask(task.getName());
+        if (!storedTask.isPresent() || !storedTask.get().getTaskId().equals(task.getTaskId())) {
+            return false;
+        }
+        Optional<TaskStatus> storedStatus = stateStore.fetchStatus(task.getName());
+        return storedStatus.isPresent()
+                && storedStatus.get().getTaskId().equals(task.getTaskId())
+                && TaskUtils.isRecoveryNeeded(storedStatus.get());
+    }
+
+    /**
+     * Starts advancing the wheel in the background, if it isn't already. Must be called while holding the lock on
+     * {@code deadlines}.
+     */
+    private void startTicking() {
+        if (!tickInBackground || tickExecutor != null) {
+            return;
+        }
+        tickExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TimedFailureMonitor-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        tickExecutor.scheduleAtFixedRate(() -> {
+            try {
+                tick();
+            } catch (Throwable e) {
+                // Don't let an unexpected error stop the ticks
+                LOGGER.error("Failed to process failure deadlines", e);
+            }
+        }, TICK.toMillis(), TICK.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops advancing the wheel in the background, if it's being advanced. Must be called while holding the lock on
+     * {@code deadlines}.
+     */
+    private void stopTicking() {
+        if (tickExecutor != null) {
+            tickExecutor.shutdown();
+            tickExecutor = null;
+        }
     }
 }
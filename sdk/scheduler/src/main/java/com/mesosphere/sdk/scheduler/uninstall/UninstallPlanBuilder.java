@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.mesos.Protos;
@@ -75,7 +76,8 @@ class UninstallPlanBuilder {
         List<Phase> phases = new ArrayList<>();
 
         // First, we kill all the tasks, so that we may release their reserved resources.
-        taskKillSteps = stateStore.fetchTasks().stream()
+        Collection<Protos.TaskInfo> allTasks = stateStore.fetchTasks();
+        taskKillSteps = allTasks.stream()
                 .map(Protos.TaskInfo::getTaskId)
                 .map(taskID -> new TaskKillStep(taskID))
                 .collect(Collectors.toList());
@@ -92,11 +94,10 @@ class UninstallPlanBuilder {
         // Filter the tasks to those that have actually created resources. Tasks in an ERROR state which are also
         // flagged as permanently failed are assumed to not have resources reserved on Mesos' end, despite our State
         // Store still listing them with resources. This is because we log the planned reservation before it occurs.
-        Collection<Protos.TaskInfo> allTasks = stateStore.fetchTasks();
-        List<Protos.TaskID> taskIdsInErrorState = stateStore.fetchStatuses().stream()
+        Set<Protos.TaskID> taskIdsInErrorState = stateStore.fetchStatuses().stream()
                 .filter(taskStatus -> taskStatus.getState() == Protos.TaskState.TASK_ERROR)
                 .map(Protos.TaskStatus::getTaskId)
-                .collect(Collectors.toList());
+                .collect(Collectors.toSet());
         List<Protos.TaskInfo> tasksNotFailedAndErrored = allTasks.stream()
                 .filter(taskInfo -> !(FailureUtils.isPermanentlyFailed(taskInfo)
                         && taskIdsInErrorState.contains(taskInfo.getTaskId())))
@@ -9,7 +9,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static com.mesosphere.sdk.offer.Constants.TOMBSTONE_MARKER;
 
@@ -26,66 +25,73 @@ public class UninstallRecorder implements OperationRecorder {
         this.resourceSteps = resourceSteps;
     }
 
-    private static boolean containsResource(Protos.TaskInfo taskInfo, Protos.Resource resource) {
-        return ResourceUtils.getAllResources(taskInfo).stream()
-                .anyMatch(taskInfoResource -> resourcesMatch(taskInfoResource, resource));
-    }
-
-    private static boolean resourcesMatch(Protos.Resource taskInfoResource, Protos.Resource resource) {
-        return ResourceUtils.getResourceId(resource)
-                .equals(ResourceUtils.getResourceId(taskInfoResource));
+    @Override
+    public void record(OfferRecommendation offerRecommendation) throws Exception {
+        recordAll(Collections.singletonList(offerRecommendation));
     }
 
+    /**
+     * Marks the resources in all of the provided {@link UninstallRecommendation}s as uninstalled, writing the updated
+     * tasks to the {@link StateStore} in a single batch.
+     */
     @Override
-    public void record(OfferRecommendation offerRecommendation) throws Exception {
-        if (!(offerRecommendation instanceof UninstallRecommendation)) {
-            return;
-        }
+    public void recordAll(Collection<OfferRecommendation> offerRecommendations) throws Exception {
+        // Task name => task with all of its uninstalled resources tombstoned so far
+        Map<String, Protos.TaskInfo> tasksToUpdate = new LinkedHashMap<>();
+        List<OfferRecommendation> uninstallRecommendations = new ArrayList<>();
 
-        // each offerRec ought to be tied to a resource with an ID
-        UninstallRecommendation uninstallRecommendation = (UninstallRecommendation) offerRecommendation;
-        Protos.Resource resource = uninstallRecommendation.getResource();
-        logger.info("Marking resource as uninstalled: {}", TextFormat.shortDebugString(resource));
+        for (OfferRecommendation offerRecommendation : offerRecommendations) {
+            if (!(offerRecommendation instanceof UninstallRecommendation)) {
+                continue;
+            }
 
-        // Find the tasks referencing the resource in this OfferRecommendation
-        List<Protos.TaskInfo> tasksToUpdate = stateStore.fetchTasks().stream()
-                .filter(taskSpec -> containsResource(taskSpec, resource))
-                .collect(Collectors.toList());
-        logger.info("Resource {} found in {} task(s).", resource.getName(), tasksToUpdate.size());
-        tasksToUpdate.forEach(taskInfo ->
-                logger.info("Resource {} found in task: {}",
-                        resource.getName(),
-                        TextFormat.shortDebugString(taskInfo)));
-        if (!tasksToUpdate.isEmpty()) {
-            stateStore.storeTasks(updateResources(resource, tasksToUpdate));
+            // each offerRec ought to be tied to a resource with an ID
+            UninstallRecommendation uninstallRecommendation = (UninstallRecommendation) offerRecommendation;
+            Protos.Resource resource = uninstallRecommendation.getResource();
+            Optional<String> resourceId = ResourceUtils.getResourceId(resource);
+            logger.info("Marking resource as uninstalled: {}", TextFormat.shortDebugString(resource));
+            if (!resourceId.isPresent()) {
+                continue;
+            }
 
-            // broadcast uninstallRecommendation to each UninstallStep in resource phase
-            List<OfferRecommendation> uninstallRecommendations = Collections.singletonList(uninstallRecommendation);
-            resourceSteps.forEach(step -> step.updateOfferStatus(uninstallRecommendations));
+            // Find the tasks referencing the resource in this OfferRecommendation
+            Collection<String> taskNames = stateStore.fetchTaskNamesForResourceId(resourceId.get());
+            logger.info("Resource {} found in {} task(s): {}", resource.getName(), taskNames.size(), taskNames);
+            if (taskNames.isEmpty()) {
+                continue;
+            }
+            for (String taskName : taskNames) {
+                Protos.TaskInfo taskInfo = tasksToUpdate.get(taskName);
+                if (taskInfo == null) {
+                    Optional<Protos.TaskInfo> storedTaskInfo = stateStore.fetchTask(taskName);
+                    if (!storedTaskInfo.isPresent()) {
+                        continue;
+                    }
+                    taskInfo = storedTaskInfo.get();
+                }
+                tasksToUpdate.put(taskName, updateResources(resourceId.get(), taskInfo));
+            }
+            uninstallRecommendations.add(uninstallRecommendation);
         }
-    }
 
-    private Collection<Protos.TaskInfo> updateResources(
-            Protos.Resource resource, List<Protos.TaskInfo> tasksToUpdate) {
-        // create new copies of taskinfos with updated resources
-        Optional<String> initialResourceId = ResourceUtils.getResourceId(resource);
-        List<Protos.TaskInfo> updatedTaskInfos = new ArrayList<>();
-        if (!initialResourceId.isPresent()) {
-            return updatedTaskInfos;
+        if (!tasksToUpdate.isEmpty()) {
+            stateStore.storeTasks(tasksToUpdate.values());
         }
-        for (Protos.TaskInfo taskInfoToUpdate : tasksToUpdate) {
-            Collection<Protos.Resource> updatedResources =
-                    updatedResources(initialResourceId.get(), taskInfoToUpdate.getResourcesList());
-            Protos.TaskInfo taskInfo = Protos.TaskInfo.newBuilder(taskInfoToUpdate)
-                    .clearResources()
-                    .addAllResources(updatedResources)
-                    .build();
-            updatedTaskInfos.add(taskInfo);
+        if (!uninstallRecommendations.isEmpty()) {
+            // broadcast uninstallRecommendations to each UninstallStep in resource phase
+            resourceSteps.forEach(step -> step.updateOfferStatus(uninstallRecommendations));
         }
-        return updatedTaskInfos;
     }
 
-    private Collection<Protos.Resource> updatedResources(
+    private static Protos.TaskInfo updateResources(String resourceId, Protos.TaskInfo taskInfoToUpdate) {
+        // create a new copy of the taskinfo with updated resources
+        return Protos.TaskInfo.newBuilder(taskInfoToUpdate)
+                .clearResources()
+                .addAllResources(updatedResources(resourceId, taskInfoToUpdate.getResourcesList()))
+                .build();
+    }
+
+    private static Collection<Protos.Resource> updatedResources(
             String initialResourceId, List<Protos.Resource> resourcesList) {
         // find the matching resource in each task and update its resource_id
         String uninstalledResourceId = TOMBSTONE_MARKER + initialResourceId;
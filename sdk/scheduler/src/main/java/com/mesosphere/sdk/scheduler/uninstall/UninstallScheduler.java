@@ -29,6 +29,7 @@ public class UninstallScheduler extends AbstractScheduler {
 
     private final UninstallPlanBuilder uninstallPlanBuilder;
     private final PlanManager uninstallPlanManager;
+    private final PlansResource plansResource;
     private final Collection<Object> resources;
 
     private OfferAccepter offerAccepter;
@@ -49,8 +50,9 @@ public class UninstallScheduler extends AbstractScheduler {
         uninstallPlanBuilder = new UninstallPlanBuilder(
                 serviceSpec, stateStore, configStore, schedulerFlags, secretsClient);
         uninstallPlanManager = new DefaultPlanManager(uninstallPlanBuilder.getPlan());
-        resources = Collections.singletonList(new PlansResource()
-                .setPlanManagers(Collections.singletonList(uninstallPlanManager)));
+        plansResource = new PlansResource()
+                .setPlanManagers(Collections.singletonList(uninstallPlanManager));
+        resources = Collections.singletonList(plansResource);
     }
 
     @Override
@@ -124,11 +126,14 @@ public class UninstallScheduler extends AbstractScheduler {
             LOGGER.info("Declining {} unused offers", unusedOffers.size());
             OfferUtils.declineOffers(driver, unusedOffers, Constants.LONG_DECLINE_SECONDS);
         }
+
+        plansResource.plansUpdated();
     }
 
     @Override
     protected void processStatusUpdate(Protos.TaskStatus status) {
         stateStore.storeStatus(StateStoreUtils.getTaskName(stateStore, status), status);
+        plansResource.plansUpdated();
     }
 
     private static boolean allButStateStoreUninstalled(StateStore stateStore, SchedulerFlags schedulerFlags) {
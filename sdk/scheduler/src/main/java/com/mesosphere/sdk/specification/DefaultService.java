@@ -2,6 +2,8 @@ package com.mesosphere.sdk.specification;
 
 import com.google.protobuf.TextFormat;
 import com.mesosphere.sdk.curator.CuratorLocker;
+import com.mesosphere.sdk.curator.CuratorMirror;
+import com.mesosphere.sdk.curator.CuratorPersister;
 import com.mesosphere.sdk.dcos.Capabilities;
 import com.mesosphere.sdk.dcos.DcosCertInstaller;
 import com.mesosphere.sdk.dcos.SecretsClient;
@@ -18,7 +20,9 @@ import com.mesosphere.sdk.scheduler.plan.Plan;
 import com.mesosphere.sdk.scheduler.uninstall.UninstallScheduler;
 import com.mesosphere.sdk.specification.yaml.RawServiceSpec;
 import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreException;
 import com.mesosphere.sdk.state.StateStoreUtils;
+import com.mesosphere.sdk.storage.PersisterException;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.client.fluent.Executor;
 import org.apache.http.impl.client.LaxRedirectStrategy;
@@ -27,10 +31,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -45,6 +51,12 @@ public class DefaultService implements Runnable {
     protected static final int TWO_WEEK_SEC = 2 * 7 * 24 * 60 * 60;
     protected static final Logger LOGGER = LoggerFactory.getLogger(DefaultService.class);
 
+    /**
+     * How long to wait for a standby copy of the stored data to catch up with changes made by the previous scheduler,
+     * before reading all of the data again instead.
+     */
+    private static final Duration MIRROR_CATCH_UP_TIMEOUT = Duration.ofSeconds(10);
+
     private DefaultScheduler.Builder schedulerBuilder;
     private AbstractScheduler scheduler;
     private StateStore stateStore;
@@ -65,7 +77,7 @@ public class DefaultService implements Runnable {
     public DefaultService(RawServiceSpec rawServiceSpec, File configTemplateDir, SchedulerFlags schedulerFlags)
             throws Exception {
         this(DefaultScheduler.newBuilder(
-                DefaultServiceSpec.newGenerator(rawServiceSpec, schedulerFlags, configTemplateDir).build(),
+                DefaultServiceSpec.newGenerator(rawServiceSpec, schedulerFlags, configTemplateDir),
                 schedulerFlags)
                 .setPlansFrom(rawServiceSpec));
     }
@@ -97,7 +109,7 @@ public class DefaultService implements Runnable {
         return usesGpus || DcosConstants.DEFAULT_GPU_POLICY;
     }
 
-    private void initService() {
+    private void initService(CompletableFuture<Boolean> certPhase) {
         // Use a single stateStore for either scheduler as the StateStoreCache requires a single instance of StateStore.
         this.stateStore = schedulerBuilder.getStateStore();
         if (schedulerBuilder.getSchedulerFlags().isUninstallEnabled()) {
@@ -110,6 +122,8 @@ public class DefaultService implements Runnable {
             Optional<SecretsClient> secretsClient = Optional.empty();
             if (!TaskUtils.getTasksWithTLS(schedulerBuilder.getServiceSpec()).isEmpty()) {
                 try {
+                    // The secrets client is built with the DC/OS cert, once it's been installed:
+                    certPhase.join();
                     TokenProvider tokenProvider = TLSEvaluationStage.Builder.tokenProviderFromEnvironment(
                             schedulerBuilder.getSchedulerFlags());
                     Executor executor = Executor.newInstance(
@@ -144,16 +158,46 @@ public class DefaultService implements Runnable {
 
     @Override
     public void run() {
-        // Install the certs from "$MESOS_SANDBOX/.ssl" (if present) inside the JRE being used to run the scheduler.
-        DcosCertInstaller.installCertificate(schedulerBuilder.getSchedulerFlags().getJavaHome());
+        StartupPhases startup = new StartupPhases();
+
+        // Neither the DC/OS cert nor the DC/OS version are needed until we register with Mesos, so they're loaded in
+        // the background while we get the lock and load our state. Install the certs from "$MESOS_SANDBOX/.ssl" (if
+        // present) in memory, for use by the scheduler's HTTPS clients. The version is fetched with the cert in place,
+        // in case the fetch is redirected over HTTPS:
+        CompletableFuture<Boolean> certPhase =
+                startup.supplyAsync("cert-install", DcosCertInstaller::installCertificate);
+        startup.runAsync("dcos-version", () -> Capabilities.getInstance().prefetch(), certPhase);
 
-        CuratorLocker locker = new CuratorLocker(schedulerBuilder.getServiceSpec());
-        locker.lock();
+        // Share the persister's ZK session when possible, rather than opening a second session just for the lock:
+        Optional<CuratorPersister> curatorPersister = schedulerBuilder.getCuratorPersister();
+        CuratorLocker locker = curatorPersister.isPresent() ?
+                new CuratorLocker(schedulerBuilder.getServiceSpec(), curatorPersister.get()) :
+                new CuratorLocker(schedulerBuilder.getServiceSpec());
+        // When standing by, a copy of the stored data is kept up to date while waiting for the lock, so that it doesn't
+        // all need to be read from ZK again once we take over:
+        Optional<CuratorMirror> mirror = schedulerBuilder.getSchedulerFlags().isWarmStandbyEnabled()
+                && curatorPersister.isPresent()
+                && schedulerBuilder.isPersisterCacheEnabled()
+                ? Optional.of(new CuratorMirror(curatorPersister.get()))
+                : Optional.empty();
+        startup.run("lock", () -> {
+            if (schedulerBuilder.getSchedulerFlags().isWarmStandbyEnabled()) {
+                locker.lockAsStandby(() -> startMirror(mirror));
+            } else {
+                locker.lock();
+            }
+        });
 
-        // Only create/start the scheduler (and state store, etc...) AFTER getting the curator lock above:
-        initService();
+        // Only load state and create/start the scheduler (and state store, etc...) AFTER getting the curator lock
+        // above.
+        startup.run("state-load", () -> loadState(mirror));
+        startup.run("scheduler-init", () -> initService(certPhase));
 
         try {
+            // TLS artifacts are provisioned via the DC/OS CA once offers arrive, which requires the cert:
+            startup.run("cert-wait", certPhase::join);
+            startup.logReport();
+
             if (scheduler.getMesosScheduler().isPresent()) {
                 Protos.Status status;
                 Protos.FrameworkInfo frameworkInfo = getFrameworkInfo(schedulerBuilder.getServiceSpec(), stateStore);
@@ -168,6 +212,7 @@ public class DefaultService implements Runnable {
                                 schedulerBuilder.getSchedulerFlags())
                         .run();
                 LOGGER.error("Scheduler driver exited with status: {}", status);
+                closeStateStore();
                 // DRIVER_STOPPED will occur when we call stop(boolean) during uninstall.
                 // When this happens, we continue running so that we can advertise that the uninstall plan is complete.
                 if (status != null && status != Protos.Status.DRIVER_STOPPED) {
@@ -179,6 +224,60 @@ public class DefaultService implements Runnable {
         }
     }
 
+    private void closeStateStore() {
+        // Write any deferred task statuses before we exit:
+        try {
+            stateStore.close();
+        } catch (StateStoreException e) {
+            LOGGER.error("Failed to store deferred task statuses", e);
+        }
+    }
+
+    private static void startMirror(Optional<CuratorMirror> mirror) {
+        if (!mirror.isPresent()) {
+            return;
+        }
+        try {
+            mirror.get().start();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while loading standby copy of stored data");
+        }
+    }
+
+    private void loadState(Optional<CuratorMirror> mirror) {
+        if (mirror.isPresent()) {
+            try {
+                // The other scheduler may have written more data shortly before releasing the lock, so wait for the
+                // copy to catch up. Nothing else writes to ZK once we hold the lock.
+                if (mirror.get().awaitCurrent(MIRROR_CATCH_UP_TIMEOUT)) {
+                    LOGGER.info("Loading persister cache from standby copy...");
+                    schedulerBuilder.refreshPersisterCache(mirror.get().getAllData());
+                    return;
+                }
+                LOGGER.warn("Standby copy of stored data isn't current, discarding it");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while waiting for standby copy of stored data");
+            } catch (IllegalStateException e) {
+                LOGGER.warn("Standby copy of stored data became stale, discarding it", e);
+            } finally {
+                mirror.get().close();
+            }
+        }
+        refreshPersisterCache("Loading");
+    }
+
+    private void refreshPersisterCache(String action) {
+        LOGGER.info("{} persister cache...", action);
+        try {
+            schedulerBuilder.refreshPersisterCache();
+        } catch (PersisterException e) {
+            // The cache is reloaded on first use if the refresh failed:
+            LOGGER.error("Failed to refresh persister cache", e);
+        }
+    }
+
     private static Protos.FrameworkInfo getFrameworkInfo(ServiceSpec serviceSpec, StateStore stateStore) {
         Protos.FrameworkInfo.Builder fwkInfoBuilder = Protos.FrameworkInfo.newBuilder()
                 .setName(serviceSpec.getName())
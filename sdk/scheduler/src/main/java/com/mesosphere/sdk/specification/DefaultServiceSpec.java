@@ -5,16 +5,23 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.mesosphere.sdk.config.ConfigurationComparator;
 import com.mesosphere.sdk.config.ConfigurationFactory;
 import com.mesosphere.sdk.config.SerializationUtils;
 import com.mesosphere.sdk.config.TaskEnvRouter;
 import com.mesosphere.sdk.dcos.DcosConstants;
+import com.mesosphere.sdk.generated.SDKBuildInfo;
 import com.mesosphere.sdk.offer.evaluate.placement.*;
 import com.mesosphere.sdk.scheduler.SchedulerFlags;
+import com.mesosphere.sdk.scheduler.SchedulerUtils;
 import com.mesosphere.sdk.specification.validation.UniquePodType;
 import com.mesosphere.sdk.specification.validation.ValidationUtils;
+import com.mesosphere.sdk.specification.yaml.RawConfig;
+import com.mesosphere.sdk.specification.yaml.RawPod;
 import com.mesosphere.sdk.specification.yaml.RawServiceSpec;
+import com.mesosphere.sdk.specification.yaml.RawTask;
 import com.mesosphere.sdk.specification.yaml.YAMLToInternalMappers;
 import com.mesosphere.sdk.state.ConfigStoreException;
 import com.mesosphere.sdk.storage.StorageError.Reason;
@@ -247,6 +254,14 @@ public class DefaultServiceSpec implements ServiceSpec {
         }
     }
 
+    /**
+     * Returns a {@link ConfigFactory} which may be used to deserialize {@link DefaultServiceSpec}s which were already
+     * checked when they were stored, without checking a particular {@code ServiceSpecification} instance.
+     */
+    public static ConfigurationFactory<ServiceSpec> getConfigurationFactory() {
+        return new ConfigFactory(Collections.emptyList());
+    }
+
     /**
      * Returns a {@link ConfigFactory} which may be used to deserialize
      * {@link DefaultServiceSpec}s, which has been confirmed to successfully and
@@ -420,6 +435,65 @@ public class DefaultServiceSpec implements ServiceSpec {
             return YAMLToInternalMappers.convertServiceSpec(
                     rawServiceSpec, schedulerFlags, taskEnvRouter, configTemplateReader);
         }
+
+        /**
+         * Returns the name of the service to be generated, without generating the rest of the service.
+         */
+        public String getServiceName() {
+            return SchedulerUtils.getServiceName(rawServiceSpec);
+        }
+
+        /**
+         * Returns the ZK connection of the service to be generated, without generating the rest of the service.
+         */
+        public String getZookeeperConnection() {
+            return SchedulerUtils.getZkHost(rawServiceSpec, schedulerFlags);
+        }
+
+        /**
+         * Returns a fingerprint of all inputs to {@link #build()}: the rendered YAML (including any environment values
+         * referenced by the template), the scheduler and SDK versions, task environment settings, and the content of
+         * any config templates. If the fingerprint matches that of a prior {@link ServiceSpec}, then {@link #build()}
+         * would produce the same {@link ServiceSpec}. Returns an empty {@link Optional} if the {@link RawServiceSpec}
+         * wasn't rendered from a template by a {@link RawServiceSpec.Builder}.
+         *
+         * @throws IOException if a config template couldn't be read
+         */
+        public Optional<String> getFingerprint() throws IOException {
+            if (!rawServiceSpec.getRenderedYamlDigest().isPresent()) {
+                return Optional.empty();
+            }
+            Hasher hasher = Hashing.sha256().newHasher();
+            putField(hasher, "sdk", SDKBuildInfo.VERSION + "/" + SDKBuildInfo.GIT_SHA);
+            putField(hasher, "package", String.format(
+                    "%s/%d", schedulerFlags.getPackageVersion(), schedulerFlags.getPackageBuildTimeMs()));
+            putField(hasher, "yaml", rawServiceSpec.getRenderedYamlDigest().get());
+            putField(hasher, "zookeeper", getZookeeperConnection());
+            putField(hasher, "executor", schedulerFlags.getExecutorURI());
+            for (Map.Entry<String, RawPod> podEntry : rawServiceSpec.getPods().entrySet()) {
+                for (Map.Entry<String, String> envEntry : taskEnvRouter.getConfig(podEntry.getKey()).entrySet()) {
+                    putField(hasher, "env", String.format("%s:%s=%s",
+                            podEntry.getKey(), envEntry.getKey(), envEntry.getValue()));
+                }
+                for (RawTask rawTask : podEntry.getValue().getTasks().values()) {
+                    if (rawTask.getConfigs() == null) {
+                        continue;
+                    }
+                    for (RawConfig rawConfig : rawTask.getConfigs().values()) {
+                        putField(hasher, "template", rawConfig.getTemplate());
+                        putField(hasher, "content", configTemplateReader.read(rawConfig.getTemplate()));
+                    }
+                }
+            }
+            return Optional.of(hasher.hash().toString());
+        }
+
+        private static void putField(Hasher hasher, String name, String value) {
+            // Length prefixes avoid collisions between e.g. ("ab", "c") and ("a", "bc"):
+            hasher.putString(name, StandardCharsets.UTF_8)
+                    .putInt(value.length())
+                    .putString(value, StandardCharsets.UTF_8);
+        }
     }
 
 
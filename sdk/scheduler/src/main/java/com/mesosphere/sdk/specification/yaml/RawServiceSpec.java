@@ -6,6 +6,7 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
 
 import java.io.File;
 import java.io.IOException;
@@ -14,6 +15,7 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
@@ -69,7 +71,12 @@ public class RawServiceSpec {
                     missingValues);
             LOGGER.info("Rendered ServiceSpec from {}:\nMissing template values: {}\n{}",
                     pathToYamlTemplate.getAbsolutePath(), missingValues, yamlWithEnv);
-            return YAML_MAPPER.readValue(yamlWithEnv.getBytes(StandardCharsets.UTF_8), RawServiceSpec.class);
+            RawServiceSpec rawServiceSpec =
+                    YAML_MAPPER.readValue(yamlWithEnv.getBytes(StandardCharsets.UTF_8), RawServiceSpec.class);
+            // The rendered YAML reflects both the template and any environment values which it references:
+            rawServiceSpec.renderedYamlDigest =
+                    Optional.of(Hashing.sha256().hashString(yamlWithEnv, StandardCharsets.UTF_8).toString());
+            return rawServiceSpec;
         }
     }
 
@@ -78,6 +85,7 @@ public class RawServiceSpec {
     private final RawScheduler scheduler;
     private final WriteOnceLinkedHashMap<String, RawPod> pods;
     private final WriteOnceLinkedHashMap<String, RawPlan> plans;
+    private Optional<String> renderedYamlDigest = Optional.empty();
 
     public static Builder newBuilder(File pathToYamlTemplate) throws IOException {
         return new Builder(pathToYamlTemplate);
@@ -116,4 +124,12 @@ public class RawServiceSpec {
     public WriteOnceLinkedHashMap<String, RawPlan> getPlans() {
         return plans;
     }
+
+    /**
+     * Returns a digest of the rendered YAML which this was parsed from, or an empty {@link Optional} if this wasn't
+     * produced by a {@link Builder}.
+     */
+    public Optional<String> getRenderedYamlDigest() {
+        return renderedYamlDigest;
+    }
 }
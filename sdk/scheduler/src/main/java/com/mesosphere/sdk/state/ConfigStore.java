@@ -22,6 +22,8 @@ import java.util.*;
  * <br>&nbsp;&nbsp;-> [Config-ID-0] (contains serialized config)
  * <br>&nbsp;&nbsp;-> [Config-ID-1] (contains serialized config)
  * <br>&nbsp;&nbsp;-> ...
+ * <br>&nbsp;-> ConfigFingerprints/
+ * <br>&nbsp;&nbsp;-> [Fingerprint] (contains UUID of the config generated from inputs with that fingerprint)
  *
  * @param <T> The {@code Configuration} object to be serialized and deserialized in the
  *            implementation of this interface
@@ -38,6 +40,7 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
 
     private static final String TARGET_PATH_NAME = "ConfigTarget";
     private static final String CONFIGURATIONS_PATH_NAME = "Configurations";
+    private static final String FINGERPRINTS_PATH_NAME = "ConfigFingerprints";
 
     private final ConfigurationFactory<T> factory;
     private final Persister persister;
@@ -171,6 +174,57 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
         }
     }
 
+    /**
+     * Records that the configuration with the provided UUID was generated from inputs with the provided fingerprint,
+     * and that it passed validation. This allows skipping generation and validation of the configuration when the
+     * inputs haven't changed. Only the most recently stored fingerprint is retained.
+     *
+     * @throws ConfigStoreException if writing fails
+     */
+    public void storeFingerprint(String fingerprint, UUID id) throws ConfigStoreException {
+        try {
+            persister.deleteAll(FINGERPRINTS_PATH_NAME);
+        } catch (PersisterException e) {
+            if (e.getReason() != Reason.NOT_FOUND) {
+                throw new ConfigStoreException(e, String.format(
+                        "Failed to clear prior config fingerprints at path '%s'", FINGERPRINTS_PATH_NAME));
+            }
+        }
+        String path = getFingerprintPath(fingerprint);
+        try {
+            persister.set(path, id.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (PersisterException e) {
+            throw new ConfigStoreException(e, String.format(
+                    "Failed to store fingerprint of configuration '%s' to path '%s'", id, path));
+        }
+    }
+
+    /**
+     * Returns the UUID of the configuration which was generated from inputs with the provided fingerprint, or an
+     * empty {@link Optional} if the fingerprint isn't known.
+     *
+     * @throws ConfigStoreException if retrieval fails
+     */
+    public Optional<UUID> fetchFingerprint(String fingerprint) throws ConfigStoreException {
+        String path = getFingerprintPath(fingerprint);
+        String uuidStr;
+        try {
+            uuidStr = new String(persister.get(path), StandardCharsets.UTF_8);
+        } catch (PersisterException e) {
+            if (e.getReason() == Reason.NOT_FOUND) {
+                return Optional.empty();
+            }
+            throw new ConfigStoreException(e, String.format(
+                    "Failed to retrieve configuration fingerprint from path '%s'", path));
+        }
+        try {
+            return Optional.of(UUID.fromString(uuidStr));
+        } catch (IllegalArgumentException e) {
+            throw new ConfigStoreException(Reason.SERIALIZATION_ERROR, String.format(
+                    "Failed to parse '%s' as a UUID", uuidStr));
+        }
+    }
+
     @Override
     public void setTargetConfig(UUID id) throws ConfigStoreException {
         try {
@@ -207,4 +261,8 @@ public class ConfigStore<T extends Configuration> implements ConfigTargetStore {
     private static String getConfigPath(UUID id) {
         return PersisterUtils.join(CONFIGURATIONS_PATH_NAME, id.toString());
     }
+
+    private static String getFingerprintPath(String fingerprint) {
+        return PersisterUtils.join(FINGERPRINTS_PATH_NAME, fingerprint);
+    }
 }
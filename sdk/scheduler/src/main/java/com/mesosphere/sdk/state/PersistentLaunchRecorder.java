@@ -30,6 +30,25 @@ public class PersistentLaunchRecorder implements OperationRecorder {
 
     @Override
     public void record(OfferRecommendation offerRecommendation) throws Exception {
+        recordAll(Collections.singletonList(offerRecommendation));
+    }
+
+    /**
+     * Records the launches among the provided recommendations for a single step, writing all of the resulting TaskInfo
+     * and TaskStatus updates to the {@link StateStore} in a single transaction. The steps whose launches are sent in
+     * one offer acceptance are each recorded separately, as they're evaluated.
+     */
+    @Override
+    public void recordAll(Collection<OfferRecommendation> offerRecommendations) throws Exception {
+        StateStore.LaunchTransaction transaction = stateStore.beginLaunchTransaction();
+        for (OfferRecommendation offerRecommendation : offerRecommendations) {
+            record(offerRecommendation, transaction);
+        }
+        transaction.commit();
+    }
+
+    private void record(OfferRecommendation offerRecommendation, StateStore.LaunchTransaction transaction)
+            throws Exception {
         if (!(offerRecommendation instanceof LaunchOfferRecommendation)) {
             return;
         }
@@ -47,8 +66,7 @@ public class PersistentLaunchRecorder implements OperationRecorder {
             isInitialLaunch = false;
             logger.warn("No pod found for task {}: treating this as not an initial launch", taskInfo.getName());
         } else {
-            Collection<Protos.TaskInfo> podTasks =
-                    StateStoreUtils.fetchPodTasks(stateStore, podInstance.get());
+            Collection<Protos.TaskInfo> podTasks = fetchPodTasks(podInstance.get(), transaction);
             // If there are no taskinfos, then treat this as an initial launch:
             isInitialLaunch = podTasks.isEmpty() ||
                     podTasks.stream().allMatch(podTask -> FailureUtils.isPermanentlyFailed(podTask));
@@ -83,11 +101,11 @@ public class PersistentLaunchRecorder implements OperationRecorder {
                 TextFormat.shortDebugString(taskInfo));
 
         if (podInstance.isPresent()) {
-            updateTaskResourcesWithinResourceSet(podInstance.get(), taskInfo);
+            updateTaskResourcesWithinResourceSet(podInstance.get(), taskInfo, transaction);
         }
-        stateStore.storeTasks(Collections.singletonList(taskInfo));
+        transaction.storeTasks(Collections.singletonList(taskInfo));
         if (taskStatus.isPresent()) {
-            stateStore.storeStatus(taskInfo.getName(), taskStatus.get());
+            transaction.storeStatus(taskInfo.getName(), taskStatus.get());
         }
     }
 
@@ -108,6 +126,13 @@ public class PersistentLaunchRecorder implements OperationRecorder {
      */
     @VisibleForTesting
     void updateTaskResourcesWithinResourceSet(PodInstance podInstance, Protos.TaskInfo taskInfo) {
+        StateStore.LaunchTransaction transaction = stateStore.beginLaunchTransaction();
+        updateTaskResourcesWithinResourceSet(podInstance, taskInfo, transaction);
+        transaction.commit();
+    }
+
+    private void updateTaskResourcesWithinResourceSet(
+            PodInstance podInstance, Protos.TaskInfo taskInfo, StateStore.LaunchTransaction transaction) {
         Optional<TaskSpec> taskSpec = TaskUtils.getTaskSpec(podInstance, taskInfo.getName());
         if (!taskSpec.isPresent()) {
             return;
@@ -115,8 +140,8 @@ public class PersistentLaunchRecorder implements OperationRecorder {
 
         // Update any other TaskInfos in this resource set to have the same resources:
         Collection<Protos.TaskInfo> taskInfosWithSameResourceSet =
-                getOtherTasksInResourceSet(podInstance, taskSpec.get());
-        stateStore.storeTasks(updateTasksWithResources(
+                getOtherTasksInResourceSet(podInstance, taskSpec.get(), transaction);
+        transaction.storeTasks(updateTasksWithResources(
                 taskInfosWithSameResourceSet,
                 taskInfo.getResourcesList(),
                 taskInfo.hasExecutor() ? Optional.of(taskInfo.getExecutor().getResourcesList()) : Optional.empty()));
@@ -126,7 +151,8 @@ public class PersistentLaunchRecorder implements OperationRecorder {
      * Returns a list of other tasks whose pod and resource set match the provided task information.
      * The returned list will avoid including the same task that was provided.
      */
-    private Collection<Protos.TaskInfo> getOtherTasksInResourceSet(PodInstance podInstance, TaskSpec sourceTaskSpec) {
+    private Collection<Protos.TaskInfo> getOtherTasksInResourceSet(
+            PodInstance podInstance, TaskSpec sourceTaskSpec, StateStore.LaunchTransaction transaction) {
         // Find the names of tasks sharing the resource set being used in this launch
         List<String> taskNamesToUpdate = podInstance.getPod().getTasks().stream()
                 // Avoid returning sourceTask itself:
@@ -137,7 +163,7 @@ public class PersistentLaunchRecorder implements OperationRecorder {
 
         // Fetch any existing matching TaskInfos from the state store
         List<Protos.TaskInfo> taskInfosToUpdate = taskNamesToUpdate.stream()
-                .map(taskName -> stateStore.fetchTask(taskName))
+                .map(taskName -> transaction.fetchTask(taskName))
                 .filter(taskInfoOptional -> taskInfoOptional.isPresent())
                 .map(taskInfoOptional -> taskInfoOptional.get())
                 .collect(Collectors.toList());
@@ -151,6 +177,18 @@ public class PersistentLaunchRecorder implements OperationRecorder {
         return taskInfosToUpdate;
     }
 
+    /**
+     * Returns the tasks in the provided pod, including any which were stored earlier in the provided transaction.
+     */
+    private static Collection<Protos.TaskInfo> fetchPodTasks(
+            PodInstance podInstance, StateStore.LaunchTransaction transaction) {
+        return podInstance.getPod().getTasks().stream()
+                .map(taskSpec -> transaction.fetchTask(TaskSpec.getInstanceName(podInstance, taskSpec)))
+                .filter(taskInfo -> taskInfo.isPresent())
+                .map(taskInfo -> taskInfo.get())
+                .collect(Collectors.toList());
+    }
+
     /**
      * Returns {@link Protos.TaskInfo}s which have been updated to contain the provided resource list, overwriting any
      * previous resource information.
@@ -1,7 +1,10 @@
 package com.mesosphere.sdk.state;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.mesosphere.sdk.offer.TaskUtils;
+import com.mesosphere.sdk.offer.taskdata.TaskMetadata;
 import com.mesosphere.sdk.offer.taskdata.TaskPackingUtils;
 import com.mesosphere.sdk.storage.Persister;
 import com.mesosphere.sdk.storage.PersisterException;
@@ -14,6 +17,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A {@code StateStore} stores the state of a service, including tasks' TaskInfo and TaskStatus objects. Each
@@ -59,13 +67,47 @@ public class StateStore {
 
     protected final Persister persister;
 
+    private final StatusPersistencePolicy statusPersistencePolicy;
+    // Task name => status which has been accepted but not yet written, when the policy allows deferring writes. Status
+    // writes hold the status lock throughout so that a deferred flush cannot overwrite a newer status.
+    private final Map<String, Protos.TaskStatus> pendingStatuses = new ConcurrentHashMap<>();
+    private final Object statusLock = new Object();
+    private ScheduledExecutorService statusFlushExecutor;
+    private boolean statusFlushScheduled = false;
+    private boolean closed = false;
+    // Task name => most recently stored or loaded TaskInfo, along with a hash of its stored bytes. Reused for as long
+    // as the stored bytes are unchanged, so that repeated fetches share one TaskInfo instance along with its decoded
+    // TaskMetadata.
+    private final Map<String, LoadedTask> loadedTasks = new ConcurrentHashMap<>();
+    // Resource/persistence ID => names of tasks holding the resource, and pod instance name => names of tasks in the
+    // pod. Populated from all stored tasks on first use, and then kept up to date as tasks are stored, loaded, and
+    // cleared.
+    private final TaskResourceIndex resourceIndex = new TaskResourceIndex();
+    private final TaskPodIndex podIndex = new TaskPodIndex();
+    private volatile boolean indexesLoaded = false;
+    // Incremented whenever a task or status is stored or cleared, so that readers can tell when to refresh any data
+    // they've derived from the stored tasks.
+    private final AtomicLong modificationCount = new AtomicLong();
+
     /**
      * Creates a new {@link StateStore} which uses the provided {@link Persister} to access state data.
      *
      * @param persister The persister which holds the state data
      */
     public StateStore(Persister persister) {
+        this(persister, StatusPersistencePolicy.writeAll());
+    }
+
+    /**
+     * Creates a new {@link StateStore} which uses the provided {@link Persister} to access state data, and which
+     * persists TaskStatuses according to the provided policy.
+     *
+     * @param persister The persister which holds the state data
+     * @param statusPersistencePolicy Which TaskStatus updates to write, and when
+     */
+    public StateStore(Persister persister, StatusPersistencePolicy statusPersistencePolicy) {
         this.persister = persister;
+        this.statusPersistencePolicy = statusPersistencePolicy;
 
         // Check version up-front:
         int currentVersion = new SchemaVersionStore(persister).fetch();
@@ -161,35 +203,171 @@ public class StateStore {
         } catch (PersisterException e) {
             throw new StateStoreException(e, String.format("Failed to store %d TaskInfos", tasks.size()));
         }
+        for (Protos.TaskInfo taskInfo : tasks) {
+            putLoadedTask(taskInfo.getName(),
+                    taskBytesMap.get(getTaskInfoPath(taskInfo.getName())),
+                    TaskPackingUtils.unpack(taskInfo));
+        }
+        modificationCount.incrementAndGet();
     }
 
     /**
      * Stores the TaskStatus of a particular Task. The {@link TaskInfo} for this exact task MUST have already been
      * written via {@link #storeTasks(Collection)} beforehand. The TaskId must be well-formatted as produced by {@link
      * com.mesosphere.sdk.offer.CommonIdUtils#toTaskId(String)}.
+     * <p>
+     * Depending on the {@link StatusPersistencePolicy}, an update may be skipped if it doesn't change anything, or its
+     * write may be deferred. Deferred statuses are still returned by {@link #fetchStatus(String)}.
      *
      * @param status The status to be stored, which meets the above requirements
      * @throws StateStoreException if storing the TaskStatus fails, or if its TaskId is malformed, or if its matching
      *                             TaskInfo wasn't stored first
      */
     public void storeStatus(String taskName, Protos.TaskStatus status) throws StateStoreException {
-        Optional<Protos.TaskStatus> currentStatusOptional = fetchStatus(taskName);
-        if (currentStatusOptional.isPresent()
+        synchronized (statusLock) {
+            Protos.TaskStatus currentStatus = fetchStatus(taskName).orElse(null);
+            checkNotLostAfterTerminal(taskName, currentStatus, status);
+
+            if (!statusPersistencePolicy.shouldWrite(currentStatus, status)) {
+                logger.debug("Skipping unchanged status '{}' for '{}'", status.getState(), taskName);
+                return;
+            }
+
+            String path = getTaskStatusPath(taskName);
+            if (!closed && !statusPersistencePolicy.isSynchronous(currentStatus, status)) {
+                logger.info("Deferring status '{}' for '{}' in '{}'", status.getState(), taskName, path);
+                pendingStatuses.put(taskName, status);
+                modificationCount.incrementAndGet();
+                if (pendingStatuses.size() >= statusPersistencePolicy.getMaxPendingWrites()) {
+                    flushPendingStatuses();
+                } else {
+                    scheduleStatusFlush();
+                }
+                return;
+            }
+
+            logger.info("Storing status '{}' for '{}' in '{}'", status.getState(), taskName, path);
+            try {
+                persister.set(path, status.toByteArray());
+            } catch (PersisterException e) {
+                throw new StateStoreException(e);
+            }
+            // Only drop any older deferred status once it's been superseded in storage:
+            pendingStatuses.remove(taskName);
+            modificationCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Rejects a TASK_LOST status for a task which is already in a terminal state, as the loss is already accounted for.
+     *
+     * @throws StateStoreException if the status should be ignored
+     */
+    private static void checkNotLostAfterTerminal(
+            String taskName, Protos.TaskStatus currentStatus, Protos.TaskStatus status) throws StateStoreException {
+        if (currentStatus != null
                 && status.getState().equals(Protos.TaskState.TASK_LOST)
-                && TaskUtils.isTerminal(currentStatusOptional.get())) {
+                && TaskUtils.isTerminal(currentStatus)) {
             throw new StateStoreException(Reason.LOGIC_ERROR,
                     String.format("Ignoring TASK_LOST for Task already in a terminal state %s: %s",
-                            currentStatusOptional.get().getState(), taskName));
+                            currentStatus.getState(), taskName));
         }
+    }
 
-        String path = getTaskStatusPath(taskName);
-        logger.info("Storing status '{}' for '{}' in '{}'", status.getState(), taskName, path);
+    /**
+     * Immediately writes any TaskStatuses whose writes were deferred by the {@link StatusPersistencePolicy}. Does
+     * nothing if there are none.
+     *
+     * @throws StateStoreException if writing the TaskStatuses fails, in which case they remain pending
+     */
+    public void flushStatuses() throws StateStoreException {
+        synchronized (statusLock) {
+            flushPendingStatuses();
+        }
+    }
 
+    /**
+     * Writes any deferred TaskStatuses and stops the background thread which periodically writes them. Any statuses
+     * stored afterwards are written immediately, regardless of the {@link StatusPersistencePolicy}. Does nothing if
+     * already closed.
+     *
+     * @throws StateStoreException if writing the TaskStatuses fails, in which case they remain pending
+     */
+    public void close() throws StateStoreException {
+        synchronized (statusLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                flushPendingStatuses();
+            } finally {
+                if (statusFlushExecutor != null) {
+                    statusFlushExecutor.shutdownNow();
+                    statusFlushExecutor = null;
+                }
+                statusFlushScheduled = false;
+            }
+        }
+    }
+
+    /**
+     * Writes all pending statuses in a single transaction. Must be called while holding {@code statusLock}.
+     */
+    private void flushPendingStatuses() throws StateStoreException {
+        if (pendingStatuses.isEmpty()) {
+            return;
+        }
+        Map<String, byte[]> statusBytesMap = new HashMap<>();
+        for (Map.Entry<String, Protos.TaskStatus> entry : pendingStatuses.entrySet()) {
+            statusBytesMap.put(getTaskStatusPath(entry.getKey()), entry.getValue().toByteArray());
+        }
+        logger.info("Storing {} deferred status{}: {}",
+                statusBytesMap.size(), statusBytesMap.size() == 1 ? "" : "es", pendingStatuses.keySet());
         try {
-            persister.set(path, status.toByteArray());
+            persister.setMany(statusBytesMap);
         } catch (PersisterException e) {
-            throw new StateStoreException(e);
+            throw new StateStoreException(e, String.format("Failed to store %d TaskStatuses", statusBytesMap.size()));
+        }
+        pendingStatuses.clear();
+    }
+
+    /**
+     * Ensures that pending statuses are written within the policy's deferral bound. Must be called while holding
+     * {@code statusLock}.
+     */
+    private void scheduleStatusFlush() {
+        if (statusFlushScheduled || closed) {
+            return;
+        }
+        if (statusFlushExecutor == null) {
+            statusFlushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "StateStore-status-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
         }
+        statusFlushScheduled = true;
+        statusFlushExecutor.schedule(() -> {
+            synchronized (statusLock) {
+                statusFlushScheduled = false;
+                try {
+                    flushPendingStatuses();
+                } catch (StateStoreException e) {
+                    logger.error("Failed to store deferred TaskStatuses, will retry", e);
+                    scheduleStatusFlush();
+                }
+            }
+        }, statusPersistencePolicy.getMaxDeferral().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns a new {@link LaunchTransaction}, which collects the TaskInfo and TaskStatus writes for one or more task
+     * launches and then commits them together in a single write to the underlying storage. The launches for each
+     * step are recorded in their own transaction.
+     */
+    public LaunchTransaction beginLaunchTransaction() {
+        return new LaunchTransaction();
     }
 
     /**
@@ -199,6 +377,13 @@ public class StateStore {
      * @throws StateStoreException when clearing the indicated Task's information fails
      */
     public void clearTask(String taskName) throws StateStoreException {
+        synchronized (statusLock) {
+            pendingStatuses.remove(taskName);
+        }
+        loadedTasks.remove(taskName);
+        resourceIndex.remove(taskName);
+        podIndex.remove(taskName);
+        modificationCount.incrementAndGet();
         try {
             persister.deleteAll(getTaskPath(taskName));
         } catch (PersisterException e) {
@@ -271,10 +456,16 @@ public class StateStore {
         try {
             byte[] bytes = persister.get(path);
             if (bytes.length > 0) {
+                LoadedTask loadedTask = loadedTasks.get(taskName);
+                if (loadedTask != null && loadedTask.bytesHash.equals(hash(bytes))) {
+                    return Optional.of(loadedTask.taskInfo);
+                }
                 // TODO(nick): This unpack operation is no longer needed, but it doesn't hurt anything to leave it in
                 // place to support reading older data. Remove this unpack call after services have had time to stop
                 // storing packed TaskInfos in zk (after June 2017 or so?).
-                return Optional.of(TaskPackingUtils.unpack(Protos.TaskInfo.parseFrom(bytes)));
+                Protos.TaskInfo taskInfo = TaskPackingUtils.unpack(Protos.TaskInfo.parseFrom(bytes));
+                putLoadedTask(taskName, bytes, taskInfo);
+                return Optional.of(taskInfo);
             } else {
                 throw new StateStoreException(Reason.SERIALIZATION_ERROR, String.format(
                         "Empty TaskInfo for TaskName: %s", taskName));
@@ -291,6 +482,74 @@ public class StateStore {
         }
     }
 
+    /**
+     * Returns the names of all tasks which hold a resource with the provided resource ID, including executor resources,
+     * or an empty collection if no tasks hold the resource. This is a lookup in an index which is maintained as tasks
+     * are stored, rather than a scan of all tasks.
+     *
+     * @param resourceId The resource ID to look up
+     * @throws StateStoreException if the index needed to be initialized and fetching the tasks failed
+     */
+    public Collection<String> fetchTaskNamesForResourceId(String resourceId) throws StateStoreException {
+        loadIndexes();
+        return resourceIndex.getTaskNamesForResourceId(resourceId);
+    }
+
+    /**
+     * Returns the names of all tasks which hold a persistent volume with the provided persistence ID, or an empty
+     * collection if no tasks hold the volume.
+     *
+     * @param persistenceId The persistence ID to look up
+     * @throws StateStoreException if the index needed to be initialized and fetching the tasks failed
+     */
+    public Collection<String> fetchTaskNamesForPersistenceId(String persistenceId) throws StateStoreException {
+        loadIndexes();
+        return resourceIndex.getTaskNamesForPersistenceId(persistenceId);
+    }
+
+    /**
+     * Returns the names of all pod instances which have stored tasks, in sorted order. This is a lookup in an index
+     * which is maintained as tasks are stored, rather than a scan of all tasks.
+     *
+     * @throws StateStoreException if the index needed to be initialized and fetching the tasks failed
+     */
+    public List<String> fetchPodNames() throws StateStoreException {
+        loadIndexes();
+        return podIndex.getPodNames();
+    }
+
+    /**
+     * Returns the names of the stored tasks in the provided pod instance in sorted order, or an empty list if the pod
+     * instance has no stored tasks.
+     *
+     * @param podInstanceName The pod instance name to look up, e.g. {@code hello-0}
+     * @throws StateStoreException if the index needed to be initialized and fetching the tasks failed
+     */
+    public List<String> fetchTaskNamesForPod(String podInstanceName) throws StateStoreException {
+        loadIndexes();
+        return podIndex.getTaskNames(podInstanceName);
+    }
+
+    /**
+     * Returns the names of any stored tasks whose pod instance couldn't be determined from their labels, in sorted
+     * order.
+     *
+     * @throws StateStoreException if the index needed to be initialized and fetching the tasks failed
+     */
+    public List<String> fetchTaskNamesWithoutPod() throws StateStoreException {
+        loadIndexes();
+        return podIndex.getTaskNamesWithoutPod();
+    }
+
+    /**
+     * Returns a count which is incremented whenever a task or status is stored or cleared via this instance. Callers
+     * which cache data derived from tasks and statuses may compare this value against the value at the time that the
+     * data was derived, to determine whether it needs to be refreshed.
+     */
+    public long getModificationCount() {
+        return modificationCount.get();
+    }
+
     /**
      * Fetches all {@link TaskStatus}es from the underlying storage, or an empty list if none are found. Note that this
      * list may have fewer entries than {@link #fetchTasks()} if some tasks are lacking statuses.
@@ -301,6 +560,11 @@ public class StateStore {
     public Collection<Protos.TaskStatus> fetchStatuses() throws StateStoreException {
         Collection<Protos.TaskStatus> taskStatuses = new ArrayList<>();
         for (String taskName : fetchTaskNames()) {
+            Optional<Protos.TaskStatus> pendingStatus = getPendingStatus(taskName);
+            if (pendingStatus.isPresent()) {
+                taskStatuses.add(pendingStatus.get());
+                continue;
+            }
             try {
                 byte[] bytes = persister.get(getTaskStatusPath(taskName));
                 taskStatuses.add(Protos.TaskStatus.parseFrom(bytes));
@@ -329,6 +593,10 @@ public class StateStore {
      *                             information otherwise fails
      */
     public Optional<Protos.TaskStatus> fetchStatus(String taskName) throws StateStoreException {
+        Optional<Protos.TaskStatus> pendingStatus = getPendingStatus(taskName);
+        if (pendingStatus.isPresent()) {
+            return pendingStatus;
+        }
         String path = getTaskStatusPath(taskName);
         try {
             byte[] bytes = persister.get(path);
@@ -350,6 +618,10 @@ public class StateStore {
         }
     }
 
+    private Optional<Protos.TaskStatus> getPendingStatus(String taskName) {
+        return Optional.ofNullable(pendingStatuses.get(taskName));
+    }
+
     // Read/Write properties
 
     /**
@@ -439,6 +711,13 @@ public class StateStore {
      * Clears the root service node, leaving just the root node behind.
      */
     public void clearAllData() throws StateStoreException {
+        synchronized (statusLock) {
+            pendingStatuses.clear();
+        }
+        loadedTasks.clear();
+        resourceIndex.clear();
+        podIndex.clear();
+        modificationCount.incrementAndGet();
         try {
             persister.deleteAll(PersisterUtils.PATH_DELIM_STR);
         } catch (PersisterException e) {
@@ -460,6 +739,31 @@ public class StateStore {
 
     // Internals
 
+    private void putLoadedTask(String taskName, byte[] bytes, Protos.TaskInfo taskInfo) {
+        // Decode the task's metadata once up-front, rather than in whichever reader happens to come first:
+        TaskMetadata.of(taskInfo);
+        loadedTasks.put(taskName, new LoadedTask(hash(bytes), taskInfo));
+        resourceIndex.put(taskName, taskInfo);
+        podIndex.put(taskName, taskInfo);
+    }
+
+    private static HashCode hash(byte[] bytes) {
+        return Hashing.sha256().hashBytes(bytes);
+    }
+
+    private void loadIndexes() throws StateStoreException {
+        if (indexesLoaded) {
+            return;
+        }
+        synchronized (resourceIndex) {
+            if (!indexesLoaded) {
+                // Loading each task adds it to the indexes:
+                fetchTasks();
+                indexesLoaded = true;
+            }
+        }
+    }
+
     protected static String getTaskInfoPath(String taskName) {
         return PersisterUtils.join(getTaskPath(taskName), TASK_INFO_PATH_NAME);
     }
@@ -491,4 +795,125 @@ public class StateStore {
                     value.length, MAX_VALUE_LENGTH_BYTES));
         }
     }
+
+    /**
+     * A {@link Protos.TaskInfo} along with a hash of the serialized form it was stored or loaded as.
+     */
+    private static class LoadedTask {
+        private final HashCode bytesHash;
+        private final Protos.TaskInfo taskInfo;
+
+        private LoadedTask(HashCode bytesHash, Protos.TaskInfo taskInfo) {
+            this.bytesHash = bytesHash;
+            this.taskInfo = taskInfo;
+        }
+    }
+
+    /**
+     * A batch of TaskInfo and TaskStatus writes which is committed via a single {@link Persister#setMany(Map)} call,
+     * such that either all of the writes succeed or none of them do. Reads via {@link #fetchTask(String)} see any
+     * TaskInfos which have been stored in the transaction but not yet committed.
+     *
+     * <p>Statuses stored in a transaction are always written on commit, regardless of the
+     * {@link StatusPersistencePolicy}, as they describe tasks which are about to be launched.
+     */
+    public class LaunchTransaction {
+        // Task name => TaskInfo/TaskStatus, in the order they were stored
+        private final Map<String, Protos.TaskInfo> tasks = new LinkedHashMap<>();
+        private final Map<String, Protos.TaskStatus> statuses = new LinkedHashMap<>();
+        private boolean committed = false;
+
+        private LaunchTransaction() {
+            // Created via StateStore.beginLaunchTransaction()
+        }
+
+        /**
+         * Adds the provided TaskInfos to the transaction, replacing any previously added TaskInfos of the same names.
+         */
+        public LaunchTransaction storeTasks(Collection<Protos.TaskInfo> taskInfos) {
+            checkNotCommitted();
+            for (Protos.TaskInfo taskInfo : taskInfos) {
+                tasks.put(taskInfo.getName(), taskInfo);
+            }
+            return this;
+        }
+
+        /**
+         * Adds the provided TaskStatus to the transaction, replacing any previously added TaskStatus for the same task.
+         * As with {@link StateStore#storeStatus(String, Protos.TaskStatus)}, a TASK_LOST status is rejected if the task
+         * is already in a terminal state.
+         *
+         * @throws StateStoreException if the status is rejected, or if fetching the current status fails
+         */
+        public LaunchTransaction storeStatus(String taskName, Protos.TaskStatus status) throws StateStoreException {
+            checkNotCommitted();
+            Protos.TaskStatus currentStatus = statuses.get(taskName);
+            if (currentStatus == null) {
+                currentStatus = StateStore.this.fetchStatus(taskName).orElse(null);
+            }
+            checkNotLostAfterTerminal(taskName, currentStatus, status);
+            statuses.put(taskName, status);
+            return this;
+        }
+
+        /**
+         * Returns the TaskInfo for the provided task name, preferring any which was added to this transaction over the
+         * one in the {@link StateStore}.
+         *
+         * @throws StateStoreException if fetching the TaskInfo from the {@link StateStore} fails
+         */
+        public Optional<Protos.TaskInfo> fetchTask(String taskName) throws StateStoreException {
+            Protos.TaskInfo taskInfo = tasks.get(taskName);
+            return taskInfo != null ? Optional.of(taskInfo) : StateStore.this.fetchTask(taskName);
+        }
+
+        /**
+         * Writes all of the TaskInfos and TaskStatuses in this transaction in a single operation. Does nothing if the
+         * transaction is empty. A transaction may only be committed once.
+         *
+         * @throws StateStoreException if the write fails, in which case nothing is written
+         */
+        public void commit() throws StateStoreException {
+            checkNotCommitted();
+            committed = true;
+            if (tasks.isEmpty() && statuses.isEmpty()) {
+                return;
+            }
+
+            Map<String, byte[]> bytesMap = new HashMap<>();
+            for (Protos.TaskInfo taskInfo : tasks.values()) {
+                bytesMap.put(getTaskInfoPath(taskInfo.getName()), taskInfo.toByteArray());
+            }
+            for (Map.Entry<String, Protos.TaskStatus> entry : statuses.entrySet()) {
+                bytesMap.put(getTaskStatusPath(entry.getKey()), entry.getValue().toByteArray());
+            }
+
+            logger.info("Storing {} TaskInfo{} and {} TaskStatus{} in one transaction: {}",
+                    tasks.size(), tasks.size() == 1 ? "" : "s",
+                    statuses.size(), statuses.size() == 1 ? "" : "es",
+                    tasks.keySet());
+            synchronized (statusLock) {
+                try {
+                    persister.setMany(bytesMap);
+                } catch (PersisterException e) {
+                    throw new StateStoreException(e, String.format(
+                            "Failed to store %d TaskInfos and %d TaskStatuses", tasks.size(), statuses.size()));
+                }
+                // Any older deferred statuses for these tasks must not overwrite the ones we just wrote:
+                statuses.keySet().forEach(pendingStatuses::remove);
+            }
+            for (Protos.TaskInfo taskInfo : tasks.values()) {
+                putLoadedTask(taskInfo.getName(),
+                        bytesMap.get(getTaskInfoPath(taskInfo.getName())),
+                        TaskPackingUtils.unpack(taskInfo));
+            }
+            modificationCount.incrementAndGet();
+        }
+
+        private void checkNotCommitted() {
+            if (committed) {
+                throw new IllegalStateException("Launch transaction has already been committed");
+            }
+        }
+    }
 }
@@ -247,6 +247,25 @@ public class StateStoreUtils {
         stateStore.storeProperty(taskName + PROPERTY_TASK_INFO_SUFFIX, taskStatus.toByteArray());
     }
 
+    /**
+     * Returns whether the TaskStatus stored as a Property for the specified task name has the same network infos as
+     * the provided TaskStatus. Returns false if no such Property is stored, or if it can't be decoded.
+     */
+    public static boolean hasTaskStatusPropertyNetworkInfos(
+            StateStore stateStore, String taskName, Protos.TaskStatus taskStatus) throws StateStoreException {
+        byte[] bytes = fetchPropertyOrEmptyArray(stateStore, taskName + PROPERTY_TASK_INFO_SUFFIX);
+        if (bytes.length == 0) {
+            return false;
+        }
+        try {
+            return Protos.TaskStatus.parseFrom(bytes).getContainerStatus().getNetworkInfosList()
+                    .equals(taskStatus.getContainerStatus().getNetworkInfosList());
+        } catch (IOException e) {
+            LOGGER.warn("Unable to decode stored TaskStatus for taskName=" + taskName, e);
+            return false;
+        }
+    }
+
     /**
      * Returns an Optional<TaskStatus> from the properties in the provided state store for the specified
      * task name.
@@ -0,0 +1,140 @@
+package com.mesosphere.sdk.state;
+
+import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+import org.apache.mesos.Protos;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Determines how {@link StateStore#storeStatus(String, Protos.TaskStatus)} persists {@link Protos.TaskStatus}es.
+ *
+ * <p>By default, every status update is written to storage as it is received. Alternatively, writes may be limited to
+ * updates which carry a meaningful change for the task: its state, its health, its check status, its labels (which
+ * carry readiness check results), or its container status (which carries its IP addresses). Repeated updates which
+ * only differ in e.g. timestamp or message are not written at all.
+ *
+ * <p>Of the meaningful changes, only transitions into one of the configured synchronous states are written
+ * immediately. Other changes are held in memory, where successive changes to the same task are coalesced into a single
+ * write, and are flushed within the configured deferral bound. Deferred changes which are lost in a scheduler restart
+ * are recovered from Mesos via task reconciliation.
+ */
+public class StatusPersistencePolicy {
+
+    /**
+     * All task states: any change to a task's state is written synchronously.
+     */
+    public static final Set<Protos.TaskState> ALL_STATES =
+            Collections.unmodifiableSet(EnumSet.allOf(Protos.TaskState.class));
+
+    /**
+     * States in which the task is no longer active, i.e. it has exited or has been lost: only transitions which may
+     * trigger recovery are written synchronously.
+     */
+    public static final Set<Protos.TaskState> INACTIVE_STATES = Collections.unmodifiableSet(EnumSet.complementOf(
+            EnumSet.of(
+                    Protos.TaskState.TASK_STAGING,
+                    Protos.TaskState.TASK_STARTING,
+                    Protos.TaskState.TASK_RUNNING,
+                    Protos.TaskState.TASK_KILLING)));
+
+    private static final StatusPersistencePolicy WRITE_ALL =
+            new StatusPersistencePolicy(false, ALL_STATES, Duration.ZERO, 0);
+
+    private final boolean changesOnly;
+    private final Set<Protos.TaskState> synchronousStates;
+    private final Duration maxDeferral;
+    private final int maxPendingWrites;
+
+    /**
+     * Returns a policy which writes every status update synchronously, regardless of whether anything changed.
+     */
+    public static StatusPersistencePolicy writeAll() {
+        return WRITE_ALL;
+    }
+
+    /**
+     * Returns a policy which only writes meaningful changes.
+     *
+     * @param synchronousStates transitions into these states are written immediately, while other changes are deferred
+     * @param maxDeferral the longest time that a deferred change may remain unwritten
+     * @param maxPendingWrites the number of deferred changes at which all deferred changes are written immediately
+     */
+    public static StatusPersistencePolicy changesOnly(
+            Collection<Protos.TaskState> synchronousStates, Duration maxDeferral, int maxPendingWrites) {
+        if (maxDeferral.isNegative()) {
+            throw new IllegalArgumentException("Maximum deferral must not be negative: " + maxDeferral);
+        }
+        if (maxPendingWrites < 1) {
+            throw new IllegalArgumentException("Maximum pending writes must be positive: " + maxPendingWrites);
+        }
+        Set<Protos.TaskState> states = EnumSet.noneOf(Protos.TaskState.class);
+        states.addAll(synchronousStates);
+        return new StatusPersistencePolicy(true, states, maxDeferral, maxPendingWrites);
+    }
+
+    private StatusPersistencePolicy(
+            boolean changesOnly, Set<Protos.TaskState> synchronousStates, Duration maxDeferral, int maxPendingWrites) {
+        this.changesOnly = changesOnly;
+        this.synchronousStates = synchronousStates;
+        this.maxDeferral = maxDeferral;
+        this.maxPendingWrites = maxPendingWrites;
+    }
+
+    /**
+     * Returns whether only meaningful changes are written, or {@code false} if every update is written.
+     */
+    public boolean isChangesOnly() {
+        return changesOnly;
+    }
+
+    /**
+     * Returns the longest time that a deferred change may remain unwritten.
+     */
+    public Duration getMaxDeferral() {
+        return maxDeferral;
+    }
+
+    /**
+     * Returns the number of deferred changes at which all deferred changes are written immediately.
+     */
+    public int getMaxPendingWrites() {
+        return maxPendingWrites;
+    }
+
+    /**
+     * Returns whether the provided update should be written at all, given the task's previous status.
+     */
+    public boolean shouldWrite(Protos.TaskStatus previous, Protos.TaskStatus current) {
+        return !changesOnly || previous == null || isMeaningfulChange(previous, current);
+    }
+
+    /**
+     * Returns whether the provided update should be written immediately, as opposed to being deferred.
+     */
+    public boolean isSynchronous(Protos.TaskStatus previous, Protos.TaskStatus current) {
+        if (!changesOnly) {
+            return true;
+        }
+        boolean stateChanged = previous == null || !previous.getState().equals(current.getState());
+        return stateChanged && synchronousStates.contains(current.getState());
+    }
+
+    private static boolean isMeaningfulChange(Protos.TaskStatus previous, Protos.TaskStatus current) {
+        return !previous.getTaskId().equals(current.getTaskId())
+                || !previous.getState().equals(current.getState())
+                || previous.hasHealthy() != current.hasHealthy()
+                || previous.getHealthy() != current.getHealthy()
+                || !previous.getCheckStatus().equals(current.getCheckStatus())
+                || !previous.getLabels().equals(current.getLabels())
+                || !previous.getContainerStatus().equals(current.getContainerStatus());
+    }
+
+    @Override
+    public String toString() {
+        return ReflectionToStringBuilder.toString(this);
+    }
+}
@@ -0,0 +1,103 @@
+package com.mesosphere.sdk.state;
+
+import com.mesosphere.sdk.offer.taskdata.TaskMetadata;
+import com.mesosphere.sdk.specification.PodInstance;
+import org.apache.mesos.Protos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * An index from pod instance names to the names of the stored tasks in each pod instance. This allows lookups of a
+ * pod's tasks without decoding every task in the {@link StateStore}. Tasks whose pod instance can't be determined from
+ * their labels are tracked separately.
+ */
+class TaskPodIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskPodIndex.class);
+
+    // Pod instance name => task names, both in sorted order
+    private final SortedMap<String, SortedSet<String>> taskNamesByPod = new TreeMap<>();
+    // Task names whose pod instance couldn't be determined
+    private final SortedSet<String> taskNamesWithoutPod = new TreeSet<>();
+    // Task name => pod instance name, or an empty Optional if the task is in taskNamesWithoutPod
+    private final Map<String, Optional<String>> podByTaskName = new HashMap<>();
+
+    /**
+     * Indexes the provided task, replacing any entry from a previous version of the same task.
+     */
+    synchronized void put(String taskName, Protos.TaskInfo taskInfo) {
+        Optional<String> podName = getPodInstanceName(taskInfo);
+        if (podName.equals(podByTaskName.get(taskName))) {
+            return;
+        }
+        remove(taskName);
+        if (podName.isPresent()) {
+            taskNamesByPod.computeIfAbsent(podName.get(), k -> new TreeSet<>()).add(taskName);
+        } else {
+            taskNamesWithoutPod.add(taskName);
+        }
+        podByTaskName.put(taskName, podName);
+    }
+
+    /**
+     * Removes any entry for the provided task.
+     */
+    synchronized void remove(String taskName) {
+        Optional<String> podName = podByTaskName.remove(taskName);
+        if (podName == null) {
+            return;
+        }
+        if (podName.isPresent()) {
+            SortedSet<String> taskNames = taskNamesByPod.get(podName.get());
+            taskNames.remove(taskName);
+            if (taskNames.isEmpty()) {
+                taskNamesByPod.remove(podName.get());
+            }
+        } else {
+            taskNamesWithoutPod.remove(taskName);
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    synchronized void clear() {
+        taskNamesByPod.clear();
+        taskNamesWithoutPod.clear();
+        podByTaskName.clear();
+    }
+
+    /**
+     * Returns the names of all pod instances which have stored tasks, in sorted order.
+     */
+    synchronized List<String> getPodNames() {
+        return new ArrayList<>(taskNamesByPod.keySet());
+    }
+
+    /**
+     * Returns the names of the tasks in the provided pod instance in sorted order, or an empty list if there are none.
+     */
+    synchronized List<String> getTaskNames(String podName) {
+        SortedSet<String> taskNames = taskNamesByPod.get(podName);
+        return taskNames == null ? Collections.emptyList() : new ArrayList<>(taskNames);
+    }
+
+    /**
+     * Returns the names of the tasks whose pod instance couldn't be determined, in sorted order.
+     */
+    synchronized List<String> getTaskNamesWithoutPod() {
+        return new ArrayList<>(taskNamesWithoutPod);
+    }
+
+    private static Optional<String> getPodInstanceName(Protos.TaskInfo taskInfo) {
+        try {
+            TaskMetadata metadata = TaskMetadata.of(taskInfo);
+            return Optional.of(PodInstance.getName(metadata.getType(), metadata.getIndex()));
+        } catch (Exception e) {
+            LOGGER.warn(String.format("Failed to extract pod information from task %s", taskInfo.getName()), e);
+            return Optional.empty();
+        }
+    }
+}
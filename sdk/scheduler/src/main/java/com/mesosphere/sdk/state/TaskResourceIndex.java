@@ -0,0 +1,107 @@
+package com.mesosphere.sdk.state;
+
+import com.mesosphere.sdk.offer.ResourceUtils;
+import org.apache.mesos.Protos;
+
+import java.util.*;
+
+/**
+ * An index from the resource IDs and persistence IDs held by stored tasks to the names of those tasks. This allows
+ * lookups of the tasks which hold a given resource without scanning every task in the {@link StateStore}.
+ *
+ * <p>A resource may be held by several tasks, as is the case for executor resources and for resources which are shared
+ * between tasks in the same resource set.
+ */
+class TaskResourceIndex {
+
+    // Resource ID => task names
+    private final Map<String, Set<String>> taskNamesByResourceId = new HashMap<>();
+    // Persistence ID => task names
+    private final Map<String, Set<String>> taskNamesByPersistenceId = new HashMap<>();
+    // Task name => IDs which the task is currently indexed under, used for removing the task's prior entries
+    private final Map<String, IndexedIds> idsByTaskName = new HashMap<>();
+
+    /**
+     * Indexes the provided task, replacing any entries from a previous version of the same task.
+     */
+    synchronized void put(String taskName, Protos.TaskInfo taskInfo) {
+        remove(taskName);
+        IndexedIds ids = new IndexedIds();
+        for (Protos.Resource resource : ResourceUtils.getAllResources(taskInfo)) {
+            Optional<String> resourceId = ResourceUtils.getResourceId(resource);
+            if (resourceId.isPresent()) {
+                ids.resourceIds.add(resourceId.get());
+            }
+            Optional<String> persistenceId = ResourceUtils.getPersistenceId(resource);
+            if (persistenceId.isPresent()) {
+                ids.persistenceIds.add(persistenceId.get());
+            }
+        }
+        if (ids.resourceIds.isEmpty() && ids.persistenceIds.isEmpty()) {
+            return;
+        }
+        ids.resourceIds.forEach(id -> taskNamesByResourceId.computeIfAbsent(id, k -> new HashSet<>()).add(taskName));
+        ids.persistenceIds.forEach(id ->
+                taskNamesByPersistenceId.computeIfAbsent(id, k -> new HashSet<>()).add(taskName));
+        idsByTaskName.put(taskName, ids);
+    }
+
+    /**
+     * Removes any entries for the provided task.
+     */
+    synchronized void remove(String taskName) {
+        IndexedIds ids = idsByTaskName.remove(taskName);
+        if (ids == null) {
+            return;
+        }
+        ids.resourceIds.forEach(id -> removeEntry(taskNamesByResourceId, id, taskName));
+        ids.persistenceIds.forEach(id -> removeEntry(taskNamesByPersistenceId, id, taskName));
+    }
+
+    /**
+     * Removes all entries.
+     */
+    synchronized void clear() {
+        taskNamesByResourceId.clear();
+        taskNamesByPersistenceId.clear();
+        idsByTaskName.clear();
+    }
+
+    /**
+     * Returns the names of the tasks which hold a resource with the provided resource ID, or an empty set if there are
+     * none.
+     */
+    synchronized Set<String> getTaskNamesForResourceId(String resourceId) {
+        return copy(taskNamesByResourceId.get(resourceId));
+    }
+
+    /**
+     * Returns the names of the tasks which hold a volume with the provided persistence ID, or an empty set if there are
+     * none.
+     */
+    synchronized Set<String> getTaskNamesForPersistenceId(String persistenceId) {
+        return copy(taskNamesByPersistenceId.get(persistenceId));
+    }
+
+    private static void removeEntry(Map<String, Set<String>> index, String id, String taskName) {
+        Set<String> taskNames = index.get(id);
+        if (taskNames != null) {
+            taskNames.remove(taskName);
+            if (taskNames.isEmpty()) {
+                index.remove(id);
+            }
+        }
+    }
+
+    private static Set<String> copy(Set<String> taskNames) {
+        return taskNames == null ? Collections.emptySet() : new HashSet<>(taskNames);
+    }
+
+    /**
+     * The resource IDs and persistence IDs which a task is indexed under.
+     */
+    private static class IndexedIds {
+        private final Set<String> resourceIds = new HashSet<>();
+        private final Set<String> persistenceIds = new HashSet<>();
+    }
+}
@@ -114,19 +114,39 @@ public class PersisterCache implements Persister {
     public void refresh() throws PersisterException {
         rwlock.lock();
         try {
-            if (_cache != null) {
-                logger.info("Cache content before refresh:\n{}", _cache.getDebugString());
-            }
-
-            // We already have our own locking, so we can disable locking in the underlying cache:
-            _cache = new MemPersister(MemPersister.LockMode.DISABLED, PersisterUtils.getAllData(persister));
-
+            replace(PersisterUtils.getAllData(persister));
             logger.info("Loaded data from persister:\n{}", _cache.getDebugString());
         } finally {
             rwlock.unlock();
         }
     }
 
+    /**
+     * Refreshes the cache with the provided data, which must be a current copy of the underlying persister's data in
+     * the form returned by {@link PersisterUtils#getAllData(Persister)}. For example, the data may have been kept up to
+     * date while waiting to take over from another scheduler, so that it doesn't need to be read again.
+     */
+    public void refresh(Map<String, byte[]> allData) {
+        rwlock.lock();
+        try {
+            replace(allData);
+            logger.info("Loaded data from provided copy:\n{}", _cache.getDebugString());
+        } finally {
+            rwlock.unlock();
+        }
+    }
+
+    private void replace(Map<String, byte[]> allData) {
+        if (_cache != null) {
+            logger.info("Cache content before refresh:\n{}", _cache.getDebugString());
+        }
+
+        // We already have our own locking, so we can disable locking in the underlying cache:
+        _cache = new MemPersister(MemPersister.LockMode.DISABLED, allData);
+        // Avoid loading the data again on first use, if this was an explicit refresh ahead of use:
+        inited.set(true);
+    }
+
     private MemPersister getCache() throws PersisterException {
         if (!inited.getAndSet(true)) {
             refresh();
@@ -0,0 +1,154 @@
+package com.mesosphere.sdk.api;
+
+import com.mesosphere.sdk.scheduler.plan.DefaultPhase;
+import com.mesosphere.sdk.scheduler.plan.DefaultPlan;
+import com.mesosphere.sdk.scheduler.plan.DefaultPlanManager;
+import com.mesosphere.sdk.scheduler.plan.Phase;
+import com.mesosphere.sdk.scheduler.plan.Plan;
+import com.mesosphere.sdk.scheduler.plan.PlanManager;
+import com.mesosphere.sdk.scheduler.plan.Status;
+import com.mesosphere.sdk.scheduler.plan.Step;
+import com.mesosphere.sdk.scheduler.plan.TestStep;
+import com.mesosphere.sdk.scheduler.plan.strategy.SerialStrategy;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.core.Response;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PlanStatusTrackerTest {
+
+    private TestStep step0;
+    private TestStep step1;
+    private Plan plan;
+    private AtomicInteger planManagerCalls;
+    private PlanStatusTracker tracker;
+
+    @Before
+    public void beforeEach() {
+        step0 = new TestStep("step-0", null);
+        step1 = new TestStep("step-1", null);
+        List<Step> steps = Arrays.asList(step0, step1);
+        Phase phase = new DefaultPhase("phase", steps, new SerialStrategy<>(), Collections.emptyList());
+        plan = new DefaultPlan("deploy", Collections.singletonList(phase));
+        PlanManager planManager = new DefaultPlanManager(plan);
+        plan.proceed();
+
+        planManagerCalls = new AtomicInteger();
+        tracker = new PlanStatusTracker(() -> {
+            planManagerCalls.incrementAndGet();
+            return Collections.singletonList(planManager);
+        }, 3);
+    }
+
+    @Test
+    public void testSnapshotOnlyRebuiltWhenInvalidated() {
+        PlanStatusTracker.Snapshot snapshot = tracker.getSnapshot("deploy").get();
+        assertEquals(Status.PENDING, snapshot.getPlanInfo().getStatus());
+        assertEquals(Response.Status.ACCEPTED, snapshot.getResponseStatus());
+        assertFalse(tracker.getSnapshot("other").isPresent());
+        assertEquals(1, planManagerCalls.get());
+
+        step0.setStatus(Status.COMPLETE);
+        step1.setStatus(Status.COMPLETE);
+        // Not invalidated: stale snapshot is returned
+        assertSame(snapshot, tracker.getSnapshot("deploy").get());
+        assertEquals(1, planManagerCalls.get());
+
+        tracker.invalidate();
+        snapshot = tracker.getSnapshot("deploy").get();
+        assertEquals(Status.COMPLETE, snapshot.getPlanInfo().getStatus());
+        assertEquals(Response.Status.OK, snapshot.getResponseStatus());
+        tracker.getSnapshot("deploy");
+        assertEquals(2, planManagerCalls.get());
+    }
+
+    @Test
+    public void testEventsResumeFromSequence() throws InterruptedException {
+        assertEquals(0, tracker.getSequence());
+
+        step0.setStatus(Status.PREPARED);
+        tracker.invalidate();
+        JSONObject result = tracker.awaitEvents(0, 0);
+        assertFalse(result.getBoolean("reset"));
+        JSONArray events = result.getJSONArray("events");
+        // Step changes are reported before the phase and plan they belong to
+        assertEquals(3, events.length());
+        assertEquals(3, result.getLong("sequence"));
+        assertEvent(events.getJSONObject(0), 1, "step-0", Status.PENDING, Status.PREPARED);
+        assertEquals(step0.getId().toString(), events.getJSONObject(0).getString("id"));
+        assertEvent(events.getJSONObject(1), 2, null, Status.PENDING, Status.IN_PROGRESS);
+        assertEquals("phase", events.getJSONObject(1).getString("phase"));
+        assertEvent(events.getJSONObject(2), 3, null, Status.PENDING, Status.IN_PROGRESS);
+        assertFalse(events.getJSONObject(2).has("phase"));
+
+        // Resume from the middle:
+        events = tracker.awaitEvents(2, 0).getJSONArray("events");
+        assertEquals(1, events.length());
+        assertEquals(3, events.getJSONObject(0).getLong("sequence"));
+
+        // Nothing new:
+        tracker.invalidate();
+        result = tracker.awaitEvents(3, 0);
+        assertFalse(result.getBoolean("reset"));
+        assertEquals(0, result.getJSONArray("events").length());
+    }
+
+    @Test
+    public void testResetWhenEventsUnavailable() throws InterruptedException {
+        // The first snapshot is the baseline, and doesn't produce events
+        assertEquals(0, tracker.getSequence());
+        step0.setStatus(Status.PREPARED);
+        tracker.invalidate();
+        tracker.getSequence();
+        step0.setStatus(Status.COMPLETE);
+        tracker.invalidate();
+        assertEquals(4, tracker.getSequence());
+
+        // Only the last three events are retained
+        assertTrue(tracker.awaitEvents(0, 0).getBoolean("reset"));
+        assertFalse(tracker.awaitEvents(1, 0).getBoolean("reset"));
+        // Sequence from another scheduler instance
+        JSONObject result = tracker.awaitEvents(10, 0);
+        assertTrue(result.getBoolean("reset"));
+        assertEquals(4, result.getLong("sequence"));
+        assertEquals(0, result.getJSONArray("events").length());
+    }
+
+    @Test
+    public void testWaiterWokenByChange() throws Exception {
+        tracker.getSequence();
+        Thread changer = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                return;
+            }
+            step0.setStatus(Status.PREPARED);
+            tracker.invalidate();
+        });
+        changer.start();
+        JSONObject result = tracker.awaitEvents(0, 10000);
+        changer.join();
+        assertEquals(3, result.getJSONArray("events").length());
+    }
+
+    private static void assertEvent(JSONObject event, long sequence, String step, Status previous, Status status) {
+        assertEquals(sequence, event.getLong("sequence"));
+        assertEquals("deploy", event.getString("plan"));
+        if (step == null) {
+            assertFalse(event.has("step"));
+        } else {
+            assertEquals(step, event.getString("step"));
+        }
+        assertEquals(previous.toString(), event.getString("previous"));
+        assertEquals(status.toString(), event.getString("status"));
+    }
+}
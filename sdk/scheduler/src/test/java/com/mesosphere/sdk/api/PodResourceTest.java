@@ -6,6 +6,10 @@ import com.mesosphere.sdk.offer.taskdata.TaskLabelWriter;
 import com.mesosphere.sdk.scheduler.TaskKiller;
 import com.mesosphere.sdk.scheduler.recovery.RecoveryType;
 import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.state.StateStoreException;
+import com.mesosphere.sdk.storage.StorageError.Reason;
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.testutils.ResponseTestUtils;
 import com.mesosphere.sdk.testutils.TaskTestUtils;
 import com.mesosphere.sdk.testutils.TestConstants;
 
@@ -27,6 +31,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -63,30 +69,34 @@ public class PodResourceTest {
                 .setType("test")
                 .setIndex(0)
                 .toProto());
-        POD_0_TASK_A = infoBuilder.setName("a").setTaskId(CommonIdUtils.toTaskId("a")).build();
+        POD_0_TASK_A = infoBuilder.setName("test-0-a").setTaskId(CommonIdUtils.toTaskId("test-0-a")).build();
         POD_0_STATUS_A = TaskTestUtils.generateStatus(POD_0_TASK_A.getTaskId(), TaskState.TASK_RUNNING);
 
-        POD_0_TASK_B = POD_0_TASK_A.toBuilder().setName("b").setTaskId(CommonIdUtils.toTaskId("b")).build();
+        POD_0_TASK_B = POD_0_TASK_A.toBuilder()
+                .setName("test-0-b").setTaskId(CommonIdUtils.toTaskId("test-0-b")).build();
         POD_0_STATUS_B = TaskTestUtils.generateStatus(POD_0_TASK_B.getTaskId(), TaskState.TASK_STAGING);
 
-        POD_0_TASK_C = POD_0_TASK_A.toBuilder().setName("c").setTaskId(CommonIdUtils.toTaskId("c")).build();
+        POD_0_TASK_C = POD_0_TASK_A.toBuilder()
+                .setName("test-0-c").setTaskId(CommonIdUtils.toTaskId("test-0-c")).build();
         POD_0_STATUS_C = TaskTestUtils.generateStatus(POD_0_TASK_C.getTaskId(), TaskState.TASK_RUNNING);
 
-        POD_0_TASK_D = POD_0_TASK_A.toBuilder().setName("d").setTaskId(CommonIdUtils.toTaskId("d")).build();
+        POD_0_TASK_D = POD_0_TASK_A.toBuilder()
+                .setName("test-0-d").setTaskId(CommonIdUtils.toTaskId("test-0-d")).build();
 
         // pod 1
         infoBuilder = POD_0_TASK_A.toBuilder();
         infoBuilder.setLabels(new TaskLabelWriter(infoBuilder).setIndex(1).toProto());
-        POD_1_TASK_A = infoBuilder.setName("a").setTaskId(CommonIdUtils.toTaskId("a")).build();
+        POD_1_TASK_A = infoBuilder.setName("test-1-a").setTaskId(CommonIdUtils.toTaskId("test-1-a")).build();
         POD_1_STATUS_A = TaskTestUtils.generateStatus(POD_1_TASK_A.getTaskId(), TaskState.TASK_FINISHED);
 
-        POD_1_TASK_B = POD_1_TASK_A.toBuilder().setName("b").setTaskId(CommonIdUtils.toTaskId("b")).build();
+        POD_1_TASK_B = POD_1_TASK_A.toBuilder()
+                .setName("test-1-b").setTaskId(CommonIdUtils.toTaskId("test-1-b")).build();
         POD_1_STATUS_B = TaskTestUtils.generateStatus(POD_1_TASK_B.getTaskId(), TaskState.TASK_RUNNING);
 
         // pod 2
         infoBuilder = POD_0_TASK_A.toBuilder();
         infoBuilder.setLabels(new TaskLabelWriter(infoBuilder).setIndex(2).toProto());
-        POD_2_TASK_A = infoBuilder.setName("a").setTaskId(CommonIdUtils.toTaskId("a")).build();
+        POD_2_TASK_A = infoBuilder.setName("test-2-a").setTaskId(CommonIdUtils.toTaskId("test-2-a")).build();
         POD_2_STATUS_A = TaskTestUtils.generateStatus(POD_2_TASK_A.getTaskId(), TaskState.TASK_FINISHED);
     }
     private static final Collection<TaskInfo> TASK_INFOS = Arrays.asList(
@@ -109,23 +119,30 @@ public class PodResourceTest {
             POD_2_STATUS_A);
 
     @Mock private TaskKiller mockTaskKiller;
-    @Mock private StateStore mockStateStore;
+    private StateStore stateStore;
 
     private PodResource resource;
 
     @Before
     public void beforeAll() {
         MockitoAnnotations.initMocks(this);
-        resource = new PodResource(mockStateStore);
+        stateStore = new StateStore(new MemPersister());
+        stateStore.storeTasks(TASK_INFOS);
+        for (TaskStatus status : TASK_STATUSES) {
+            TaskInfo taskInfo = TASK_INFOS.stream()
+                    .filter(task -> task.getTaskId().equals(status.getTaskId()))
+                    .findAny().get();
+            stateStore.storeStatus(taskInfo.getName(), status);
+        }
+        resource = new PodResource(stateStore);
         resource.setTaskKiller(mockTaskKiller);
     }
 
     @Test
     public void testGetPodNames() {
-        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
-        Response response = resource.getPods();
+        Response response = resource.getPods(null, null);
         assertEquals(200, response.getStatus());
-        JSONArray json = new JSONArray((String) response.getEntity());
+        JSONArray json = new JSONArray(ResponseTestUtils.getStreamedEntity(response));
         assertEquals(json.toString(), 4, json.length());
 
         assertEquals("test-0", json.get(0));
@@ -136,11 +153,9 @@ public class PodResourceTest {
 
     @Test
     public void testGetAllPodStatuses() {
-        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
-        when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
-        Response response = resource.getPodStatuses();
+        Response response = resource.getPodStatuses(null, null, null);
         assertEquals(200, response.getStatus());
-        JSONObject json = new JSONObject((String) response.getEntity());
+        JSONObject json = new JSONObject(ResponseTestUtils.getStreamedEntity(response));
         assertEquals(json.toString(), 4, json.length());
 
         JSONArray pod = json.getJSONArray("test-0");
@@ -148,26 +163,26 @@ public class PodResourceTest {
 
         JSONObject task = pod.getJSONObject(0);
         assertEquals(3, task.length());
-        assertEquals("a", task.getString("name"));
-        assertTrue(task.getString("id").startsWith("a__"));
+        assertEquals("test-0-a", task.getString("name"));
+        assertTrue(task.getString("id").startsWith("test-0-a__"));
         assertEquals("TASK_RUNNING", task.getString("state"));
 
         task = pod.getJSONObject(1);
         assertEquals(3, task.length());
-        assertEquals("b", task.getString("name"));
-        assertTrue(task.getString("id").startsWith("b__"));
+        assertEquals("test-0-b", task.getString("name"));
+        assertTrue(task.getString("id").startsWith("test-0-b__"));
         assertEquals("TASK_STAGING", task.getString("state"));
 
         task = pod.getJSONObject(2);
         assertEquals(3, task.length());
-        assertEquals("c", task.getString("name"));
-        assertTrue(task.getString("id").startsWith("c__"));
+        assertEquals("test-0-c", task.getString("name"));
+        assertTrue(task.getString("id").startsWith("test-0-c__"));
         assertEquals("TASK_RUNNING", task.getString("state"));
 
         task = pod.getJSONObject(3);
         assertEquals(3, task.length());
-        assertEquals("d", task.getString("name"));
-        assertTrue(task.getString("id").startsWith("d__"));
+        assertEquals("test-0-d", task.getString("name"));
+        assertTrue(task.getString("id").startsWith("test-0-d__"));
         assertEquals("No state defined", task.getString("state"));
 
         pod = json.getJSONArray("test-1");
@@ -175,14 +190,14 @@ public class PodResourceTest {
 
         task = pod.getJSONObject(0);
         assertEquals(3, task.length());
-        assertEquals("a", task.getString("name"));
-        assertTrue(task.getString("id").startsWith("a__"));
+        assertEquals("test-1-a", task.getString("name"));
+        assertTrue(task.getString("id").startsWith("test-1-a__"));
         assertEquals("TASK_FINISHED", task.getString("state"));
 
         task = pod.getJSONObject(1);
         assertEquals(3, task.length());
-        assertEquals("b", task.getString("name"));
-        assertTrue(task.getString("id").startsWith("b__"));
+        assertEquals("test-1-b", task.getString("name"));
+        assertTrue(task.getString("id").startsWith("test-1-b__"));
         assertEquals("TASK_RUNNING", task.getString("state"));
 
         pod = json.getJSONArray("test-2");
@@ -190,8 +205,8 @@ public class PodResourceTest {
 
         task = pod.getJSONObject(0);
         assertEquals(3, task.length());
-        assertEquals("a", task.getString("name"));
-        assertTrue(task.getString("id").startsWith("a__"));
+        assertEquals("test-2-a", task.getString("name"));
+        assertTrue(task.getString("id").startsWith("test-2-a__"));
         assertEquals("TASK_FINISHED", task.getString("state"));
 
         pod = json.getJSONArray("UNKNOWN_POD");
@@ -204,40 +219,138 @@ public class PodResourceTest {
         assertEquals("TASK_RUNNING", task.getString("state"));
     }
 
+    @Test
+    public void testGetAllPodStatusesRefreshedOnChange() {
+        StateStore spyStateStore = spy(stateStore);
+        resource = new PodResource(spyStateStore);
+        Response response = resource.getPodStatuses(null, null, null);
+        assertEquals(200, response.getStatus());
+        String content = ResponseTestUtils.getStreamedEntity(response);
+        // Unchanged state is served from the same snapshot, without reading the state again:
+        assertEquals(content, ResponseTestUtils.getStreamedEntity(resource.getPodStatuses(null, null, null)));
+        verify(spyStateStore, times(1)).fetchPodNames();
+
+        spyStateStore.storeStatus(
+                POD_2_TASK_A.getName(),
+                TaskTestUtils.generateStatus(POD_2_TASK_A.getTaskId(), TaskState.TASK_RUNNING));
+        response = resource.getPodStatuses(null, null, null);
+        assertEquals(200, response.getStatus());
+        JSONObject json = new JSONObject(ResponseTestUtils.getStreamedEntity(response));
+        assertEquals("TASK_RUNNING", json.getJSONArray("test-2").getJSONObject(0).getString("state"));
+
+        spyStateStore.clearTask(POD_2_TASK_A.getName());
+        json = new JSONObject(ResponseTestUtils.getStreamedEntity(resource.getPodStatuses(null, null, null)));
+        assertEquals(json.toString(), 3, json.length());
+        assertFalse(json.has("test-2"));
+    }
+
+    @Test
+    public void testGetAllPodStatusesLargeListingNotKept() {
+        StateStore spyStateStore = spy(stateStore);
+        resource = new PodResource(spyStateStore, 1);
+        String content = ResponseTestUtils.getStreamedEntity(resource.getPodStatuses(null, null, null));
+        // Listings with more tasks than can be kept are streamed from the state each time:
+        assertEquals(content, ResponseTestUtils.getStreamedEntity(resource.getPodStatuses(null, null, null)));
+        verify(spyStateStore, times(2)).fetchPodNames();
+        JSONObject json = new JSONObject(content);
+        assertEquals(json.toString(), 4, json.length());
+    }
+
+    @Test
+    public void testGetPodStatusesStateStoreFailure() {
+        StateStore mockStateStore = mock(StateStore.class);
+        when(mockStateStore.fetchPodNames()).thenReturn(Arrays.asList("test-0"));
+        when(mockStateStore.fetchTaskNamesForPod("test-0"))
+                .thenThrow(new StateStoreException(Reason.UNKNOWN, "hi"));
+        resource = new PodResource(mockStateStore);
+        // The failure is reported as an error, rather than as a truncated response:
+        assertEquals(500, resource.getPodStatuses(null, null, null).getStatus());
+        assertEquals(500, resource.getPodStatuses(2, null, null).getStatus());
+    }
+
     @Test
     public void testGetPodStatus() {
-        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
-        when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
-        Response response = resource.getPodStatus("test-1");
+        Response response = resource.getPodStatus("test-1", null);
         assertEquals(200, response.getStatus());
-        JSONArray json = new JSONArray((String) response.getEntity());
+        JSONArray json = new JSONArray(ResponseTestUtils.getStreamedEntity(response));
         assertEquals(json.toString(), 2, json.length());
 
         JSONObject task = json.getJSONObject(0);
         assertEquals(3, task.length());
-        assertEquals("a", task.getString("name"));
-        assertTrue(task.getString("id").startsWith("a__"));
+        assertEquals("test-1-a", task.getString("name"));
+        assertTrue(task.getString("id").startsWith("test-1-a__"));
         assertEquals("TASK_FINISHED", task.getString("state"));
 
         task = json.getJSONObject(1);
         assertEquals(3, task.length());
-        assertEquals("b", task.getString("name"));
-        assertTrue(task.getString("id").startsWith("b__"));
+        assertEquals("test-1-b", task.getString("name"));
+        assertTrue(task.getString("id").startsWith("test-1-b__"));
         assertEquals("TASK_RUNNING", task.getString("state"));
     }
 
     @Test
     public void testGetPodStatusNotFound() {
-        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
-        when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
-        Response response = resource.getPodStatus("aaa");
+        Response response = resource.getPodStatus("aaa", null);
         assertEquals(404, response.getStatus());
     }
 
+    @Test
+    public void testGetPodStatusSelectedFields() {
+        Response response = resource.getPodStatus("test-1", "state,name");
+        assertEquals(200, response.getStatus());
+        JSONArray json = new JSONArray(ResponseTestUtils.getStreamedEntity(response));
+        assertEquals(json.toString(), 2, json.length());
+
+        JSONObject task = json.getJSONObject(0);
+        assertEquals(2, task.length());
+        assertEquals("test-1-a", task.getString("name"));
+        assertEquals("TASK_FINISHED", task.getString("state"));
+
+        assertEquals(400, resource.getPodStatus("test-1", "name,bogus").getStatus());
+    }
+
+    @Test
+    public void testGetPodNamesPaged() {
+        Response response = resource.getPods(2, null);
+        assertEquals(200, response.getStatus());
+        JSONArray json = new JSONArray(ResponseTestUtils.getStreamedEntity(response));
+        // Paged listings are ordered by name:
+        assertEquals(json.toString(), 2, json.length());
+        assertEquals("UNKNOWN_POD_test-task-name", json.get(0));
+        assertEquals("test-0", json.get(1));
+        assertEquals("test-0", response.getHeaderString(ListingPage.NEXT_CURSOR_HEADER));
+
+        response = resource.getPods(2, "test-0");
+        json = new JSONArray(ResponseTestUtils.getStreamedEntity(response));
+        assertEquals(json.toString(), 2, json.length());
+        assertEquals("test-1", json.get(0));
+        assertEquals("test-2", json.get(1));
+        // Nothing remains after this page:
+        assertNull(response.getHeaderString(ListingPage.NEXT_CURSOR_HEADER));
+
+        assertEquals(400, resource.getPods(0, null).getStatus());
+    }
+
+    @Test
+    public void testGetAllPodStatusesPaged() {
+        Response response = resource.getPodStatuses(2, "UNKNOWN_POD", "name");
+        assertEquals(200, response.getStatus());
+        JSONObject json = new JSONObject(ResponseTestUtils.getStreamedEntity(response));
+        assertEquals(json.toString(), 2, json.length());
+        assertEquals(4, json.getJSONArray("test-0").length());
+        assertEquals(2, json.getJSONArray("test-1").length());
+        assertEquals(1, json.getJSONArray("test-1").getJSONObject(0).length());
+        assertEquals("test-1", response.getHeaderString(ListingPage.NEXT_CURSOR_HEADER));
+
+        response = resource.getPodStatuses(2, "test-1", null);
+        json = new JSONObject(ResponseTestUtils.getStreamedEntity(response));
+        assertEquals(json.toString(), 1, json.length());
+        assertEquals(1, json.getJSONArray("test-2").length());
+        assertNull(response.getHeaderString(ListingPage.NEXT_CURSOR_HEADER));
+    }
+
     @Test
     public void testGetPodInfo() {
-        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
-        when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
         Response response = resource.getPodInfo("test-1");
         assertEquals(200, response.getStatus());
         @SuppressWarnings("unchecked")
@@ -251,8 +364,6 @@ public class PodResourceTest {
 
     @Test
     public void testGetPodInfoNotFound() {
-        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
-        when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
         Response response = resource.getPodInfo("aaa");
         assertEquals(404, response.getStatus());
     }
@@ -261,27 +372,22 @@ public class PodResourceTest {
 
     @Test
     public void testRestartPodNotFound() {
-        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
-        when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
         Response response = resource.restartPod("aaa");
         assertEquals(404, response.getStatus());
     }
 
     @Test
     public void testRestartPodManyRunning() {
-        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
-        when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
-
         Response response = resource.restartPod("test-0");
         assertEquals(200, response.getStatus());
         JSONObject json = new JSONObject((String) response.getEntity());
         assertEquals(2, json.length());
         assertEquals("test-0", json.getString("pod"));
         assertEquals(4, json.getJSONArray("tasks").length());
-        assertEquals("a", json.getJSONArray("tasks").get(0));
-        assertEquals("b", json.getJSONArray("tasks").get(1));
-        assertEquals("c", json.getJSONArray("tasks").get(2));
-        assertEquals("d", json.getJSONArray("tasks").get(3));
+        assertEquals("test-0-a", json.getJSONArray("tasks").get(0));
+        assertEquals("test-0-b", json.getJSONArray("tasks").get(1));
+        assertEquals("test-0-c", json.getJSONArray("tasks").get(2));
+        assertEquals("test-0-d", json.getJSONArray("tasks").get(3));
 
         verify(mockTaskKiller).killTask(POD_0_TASK_A.getTaskId(), RecoveryType.TRANSIENT);
         verify(mockTaskKiller).killTask(POD_0_TASK_B.getTaskId(), RecoveryType.TRANSIENT);
@@ -292,17 +398,14 @@ public class PodResourceTest {
 
     @Test
     public void testRestartPodOneRunning() {
-        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
-        when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
-
         Response response = resource.restartPod("test-1");
         assertEquals(200, response.getStatus());
         JSONObject json = new JSONObject((String) response.getEntity());
         assertEquals(2, json.length());
         assertEquals("test-1", json.getString("pod"));
         assertEquals(2, json.getJSONArray("tasks").length());
-        assertEquals("a", json.getJSONArray("tasks").get(0));
-        assertEquals("b", json.getJSONArray("tasks").get(1));
+        assertEquals("test-1-a", json.getJSONArray("tasks").get(0));
+        assertEquals("test-1-b", json.getJSONArray("tasks").get(1));
 
         verify(mockTaskKiller).killTask(POD_1_TASK_A.getTaskId(), RecoveryType.TRANSIENT);
         verify(mockTaskKiller).killTask(POD_1_TASK_B.getTaskId(), RecoveryType.TRANSIENT);
@@ -313,27 +416,22 @@ public class PodResourceTest {
 
     @Test
     public void testReplacePodNotFound() {
-        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
-        when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
         Response response = resource.replacePod("aaa");
         assertEquals(404, response.getStatus());
     }
 
     @Test
     public void testReplacePodManyRunning() {
-        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
-        when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
-
         Response response = resource.replacePod("test-0");
         assertEquals(200, response.getStatus());
         JSONObject json = new JSONObject((String) response.getEntity());
         assertEquals(2, json.length());
         assertEquals("test-0", json.getString("pod"));
         assertEquals(4, json.getJSONArray("tasks").length());
-        assertEquals("a", json.getJSONArray("tasks").get(0));
-        assertEquals("b", json.getJSONArray("tasks").get(1));
-        assertEquals("c", json.getJSONArray("tasks").get(2));
-        assertEquals("d", json.getJSONArray("tasks").get(3));
+        assertEquals("test-0-a", json.getJSONArray("tasks").get(0));
+        assertEquals("test-0-b", json.getJSONArray("tasks").get(1));
+        assertEquals("test-0-c", json.getJSONArray("tasks").get(2));
+        assertEquals("test-0-d", json.getJSONArray("tasks").get(3));
 
         verify(mockTaskKiller).killTask(POD_0_TASK_A.getTaskId(), RecoveryType.PERMANENT);
         verify(mockTaskKiller).killTask(POD_0_TASK_B.getTaskId(), RecoveryType.PERMANENT);
@@ -344,17 +442,14 @@ public class PodResourceTest {
 
     @Test
     public void testReplacePodOneRunning() {
-        when(mockStateStore.fetchTasks()).thenReturn(TASK_INFOS);
-        when(mockStateStore.fetchStatuses()).thenReturn(TASK_STATUSES);
-
         Response response = resource.replacePod("test-1");
         assertEquals(200, response.getStatus());
         JSONObject json = new JSONObject((String) response.getEntity());
         assertEquals(2, json.length());
         assertEquals("test-1", json.getString("pod"));
         assertEquals(2, json.getJSONArray("tasks").length());
-        assertEquals("a", json.getJSONArray("tasks").get(0));
-        assertEquals("b", json.getJSONArray("tasks").get(1));
+        assertEquals("test-1-a", json.getJSONArray("tasks").get(0));
+        assertEquals("test-1-b", json.getJSONArray("tasks").get(1));
 
         verify(mockTaskKiller).killTask(POD_1_TASK_A.getTaskId(), RecoveryType.PERMANENT);
         verify(mockTaskKiller).killTask(POD_1_TASK_B.getTaskId(), RecoveryType.PERMANENT);
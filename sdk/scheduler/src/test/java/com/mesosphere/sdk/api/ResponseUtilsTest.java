@@ -1,10 +1,12 @@
 package com.mesosphere.sdk.api;
 
+import com.mesosphere.sdk.testutils.ResponseTestUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Test;
 
 import static com.mesosphere.sdk.api.ResponseUtils.jsonOkResponse;
+import static com.mesosphere.sdk.api.ResponseUtils.jsonStreamingOkResponse;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Arrays;
@@ -36,6 +38,23 @@ public class ResponseUtilsTest {
                 jsonOkResponse(obj));
     }
 
+    @Test
+    public void testStreaming() {
+        Response r = jsonStreamingOkResponse(generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("hello", "hi");
+            generator.writeArrayFieldStart("hey");
+            generator.writeString("hello");
+            generator.writeEndArray();
+            generator.writeEndObject();
+        });
+        assertEquals(200, r.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, r.getMediaType());
+        JSONObject json = new JSONObject(ResponseTestUtils.getStreamedEntity(r));
+        assertEquals("hi", json.getString("hello"));
+        assertEquals("hello", json.getJSONArray("hey").getString(0));
+    }
+
     private static void checkJsonOkResponse(String expectedContent, Response r) {
         assertEquals(200, r.getStatus());
         assertEquals(MediaType.APPLICATION_JSON_TYPE, r.getMediaType());
@@ -7,6 +7,7 @@ import com.mesosphere.sdk.api.types.StringPropertyDeserializer;
 import com.mesosphere.sdk.state.StateStore;
 import com.mesosphere.sdk.state.StateStoreException;
 import com.mesosphere.sdk.storage.StorageError.Reason;
+import com.mesosphere.sdk.testutils.ResponseTestUtils;
 
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 import org.json.JSONArray;
@@ -24,6 +25,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -76,9 +78,9 @@ public class StateResourceTest {
     @Test
     public void testGetPropertyKeys() {
         when(mockStateStore.fetchPropertyKeys()).thenReturn(Arrays.asList("hi", "hey"));
-        Response response = resource.getPropertyKeys();
+        Response response = resource.getPropertyKeys(null, null);
         assertEquals(200, response.getStatus());
-        JSONArray json = new JSONArray((String) response.getEntity());
+        JSONArray json = new JSONArray(ResponseTestUtils.getStreamedEntity(response));
         assertEquals(2, json.length());
         assertEquals("hi", json.get(0));
         assertEquals("hey", json.get(1));
@@ -87,16 +89,34 @@ public class StateResourceTest {
     @Test
     public void testGetPropertyKeysEmpty() {
         when(mockStateStore.fetchPropertyKeys()).thenReturn(Collections.emptyList());
-        Response response = resource.getPropertyKeys();
+        Response response = resource.getPropertyKeys(null, null);
         assertEquals(200, response.getStatus());
-        JSONArray json = new JSONArray((String) response.getEntity());
+        JSONArray json = new JSONArray(ResponseTestUtils.getStreamedEntity(response));
         assertEquals(0, json.length());
     }
 
+    @Test
+    public void testGetPropertyKeysPaged() {
+        when(mockStateStore.fetchPropertyKeys()).thenReturn(Arrays.asList("hi", "hey", "hello"));
+        Response response = resource.getPropertyKeys(2, null);
+        assertEquals(200, response.getStatus());
+        JSONArray json = new JSONArray(ResponseTestUtils.getStreamedEntity(response));
+        assertEquals(2, json.length());
+        assertEquals("hello", json.get(0));
+        assertEquals("hey", json.get(1));
+        assertEquals("hey", response.getHeaderString(ListingPage.NEXT_CURSOR_HEADER));
+
+        response = resource.getPropertyKeys(2, "hey");
+        json = new JSONArray(ResponseTestUtils.getStreamedEntity(response));
+        assertEquals(1, json.length());
+        assertEquals("hi", json.get(0));
+        assertNull(response.getHeaderString(ListingPage.NEXT_CURSOR_HEADER));
+    }
+
     @Test
     public void testGetPropertyKeysFails() {
         when(mockStateStore.fetchPropertyKeys()).thenThrow(new StateStoreException(Reason.UNKNOWN, "hi"));
-        Response response = resource.getPropertyKeys();
+        Response response = resource.getPropertyKeys(null, null);
         assertEquals(500, response.getStatus());
     }
 
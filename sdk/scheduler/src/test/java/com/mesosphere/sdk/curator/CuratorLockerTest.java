@@ -10,14 +10,28 @@ import com.mesosphere.sdk.testutils.TestConstants;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.framework.imps.CuratorFrameworkState;
+import org.apache.curator.test.KillSession;
 import org.apache.curator.test.TestingServer;
 
 /**
  * Tests for {@link CuratorLocker}.
  */
 public class CuratorLockerTest {
+    /**
+     * Well below the ZK session timeout, which is how long a restarted scheduler may need to wait for the lock.
+     */
+    private static final long FAILOVER_LIMIT_MS = 5000;
+
     @Mock private ServiceSpec mockServiceSpec;
 
     private static TestingServer testZk;
@@ -80,6 +94,100 @@ public class CuratorLockerTest {
         locker1.unlock();
     }
 
+    @Test
+    public void testStandbyTakesOverOnUnlock() throws Exception {
+        locker1.lock();
+        AtomicBoolean preloaded = new AtomicBoolean(false);
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread standby = new Thread(() -> {
+            locker2.lockAsStandby(() -> preloaded.set(true));
+            acquired.countDown();
+        });
+        standby.start();
+
+        // The standby keeps waiting for as long as the lock is held:
+        assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+        locker1.unlock();
+        // ... and takes over via its watch once the lock is released:
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        standby.join();
+        assertFalse(locker2.checkExited());
+        assertTrue(preloaded.get());
+        locker2.unlock();
+    }
+
+    @Test
+    public void testStandbyTakesOverOnSessionExpiry() throws Exception {
+        CuratorFramework leaderClient = newClient();
+        CuratorPersister leaderPersister = new CuratorPersister(TestConstants.SERVICE_NAME, leaderClient);
+        TestCuratorLocker leader = new TestCuratorLocker(mockServiceSpec, leaderPersister);
+        leader.lock();
+        assertFalse(leader.checkExited());
+        leaderPersister.set("/a", "a".getBytes(StandardCharsets.UTF_8));
+
+        CuratorFramework standbyClient = newClient();
+        CuratorPersister standbyPersister = new CuratorPersister(TestConstants.SERVICE_NAME, standbyClient);
+        TestCuratorLocker standby = new TestCuratorLocker(mockServiceSpec, standbyPersister);
+        CuratorMirror mirror = new CuratorMirror(standbyPersister);
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread standbyThread = new Thread(() -> {
+            standby.lockAsStandby(() -> {
+                try {
+                    mirror.start();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            acquired.countDown();
+        });
+        standbyThread.start();
+        assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+
+        // The leader writes more data shortly before its session is lost:
+        leaderPersister.set("/a", "a2".getBytes(StandardCharsets.UTF_8));
+        leaderPersister.set("/b", "b".getBytes(StandardCharsets.UTF_8));
+        long startNanos = System.nanoTime();
+        KillSession.kill(leaderClient.getZookeeperClient().getZooKeeper(), testZk.getConnectString());
+
+        // The standby takes over via its watch as soon as the session expires, with the leader's data in hand:
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        assertTrue(mirror.awaitCurrent(Duration.ofSeconds(5)));
+        long takeoverMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        assertTrue(String.format("Takeover took %dms", takeoverMs), takeoverMs < FAILOVER_LIMIT_MS);
+        standbyThread.join();
+        assertFalse(standby.checkExited());
+        Map<String, String> data = CuratorMirrorTest.asStrings(mirror.getAllData());
+        assertEquals("a2", data.get("/a"));
+        assertEquals("b", data.get("/b"));
+
+        mirror.close();
+        standby.unlock();
+        standbyClient.close();
+        leaderClient.close();
+    }
+
+    @Test
+    public void testSharedClientLeftOpen() throws Exception {
+        // The client is started by the persister:
+        CuratorFramework client = newClient();
+        CuratorLocker sharedLocker =
+                new CuratorLocker(mockServiceSpec, new CuratorPersister(TestConstants.SERVICE_NAME, client));
+        sharedLocker.lock();
+        locker1.lock();
+        assertTrue(locker1.checkExited());
+        sharedLocker.unlock();
+        assertEquals(CuratorFrameworkState.STARTED, client.getState());
+
+        locker1.lock();
+        assertFalse(locker1.checkExited());
+        locker1.unlock();
+        client.close();
+    }
+
+    private static CuratorFramework newClient() {
+        return CuratorFrameworkFactory.newClient(testZk.getConnectString(), CuratorUtils.getDefaultRetry());
+    }
+
     private static class TestCuratorLocker extends CuratorLocker {
         private boolean exited;
 
@@ -88,6 +196,11 @@ public class CuratorLockerTest {
             this.exited = false;
         }
 
+        TestCuratorLocker(ServiceSpec serviceSpec, CuratorPersister persister) {
+            super(serviceSpec, persister);
+            this.exited = false;
+        }
+
         @Override
         protected TimeUnit getWaitTimeUnit() {
             return TimeUnit.MILLISECONDS;
@@ -0,0 +1,126 @@
+package com.mesosphere.sdk.curator;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.test.KillSession;
+import org.apache.curator.test.TestingServer;
+import org.junit.*;
+
+import com.mesosphere.sdk.storage.PersisterUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CuratorMirror}.
+ */
+public class CuratorMirrorTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private static TestingServer testZk;
+    private CuratorFramework client;
+    private CuratorPersister persister;
+    private CuratorMirror mirror;
+
+    @BeforeClass
+    public static void beforeAll() throws Exception {
+        testZk = new TestingServer();
+    }
+
+    @Before
+    public void beforeEach() throws Exception {
+        CuratorTestUtils.clear(testZk);
+        client = CuratorFrameworkFactory.newClient(testZk.getConnectString(), CuratorUtils.getDefaultRetry());
+        persister = new CuratorPersister(TestConstants.SERVICE_NAME, client);
+        mirror = new CuratorMirror(persister);
+    }
+
+    @After
+    public void afterEach() {
+        mirror.close();
+        client.close();
+    }
+
+    @Test
+    public void testInitialLoad() throws Exception {
+        persister.set("/a", bytes("a"));
+        persister.set("/a/b/c", bytes("c"));
+        persister.set("/d", bytes("d"));
+
+        mirror.start();
+
+        assertEquals(asStrings(PersisterUtils.getAllData(persister)), asStrings(mirror.getAllData()));
+    }
+
+    @Test
+    public void testChangesAreMirrored() throws Exception {
+        persister.set("/a", bytes("a"));
+        persister.set("/a/b", bytes("b"));
+        persister.set("/c/d", bytes("d"));
+        mirror.start();
+
+        persister.set("/a", bytes("a2"));
+        Map<String, byte[]> many = new HashMap<>();
+        many.put("/a/e", bytes("e"));
+        many.put("/f/g/h", bytes("h"));
+        persister.setMany(many);
+        persister.deleteAll("/c");
+
+        assertTrue(mirror.awaitCurrent(TIMEOUT));
+        Map<String, String> expected = asStrings(PersisterUtils.getAllData(persister));
+        assertEquals(expected, asStrings(mirror.getAllData()));
+        assertEquals("a2", expected.get("/a"));
+        assertFalse(expected.containsKey("/c/d"));
+    }
+
+    @Test
+    public void testRecreatedNodeIsMirrored() throws Exception {
+        persister.set("/a/b", bytes("b"));
+        mirror.start();
+
+        persister.deleteAll("/a");
+        persister.set("/a/b", bytes("b2"));
+
+        assertTrue(mirror.awaitCurrent(TIMEOUT));
+        assertEquals(asStrings(PersisterUtils.getAllData(persister)), asStrings(mirror.getAllData()));
+    }
+
+    @Test
+    public void testStaleAfterSessionExpiry() throws Exception {
+        persister.set("/a", bytes("a"));
+        mirror.start();
+        assertTrue(mirror.awaitCurrent(TIMEOUT));
+
+        KillSession.kill(client.getZookeeperClient().getZooKeeper(), testZk.getConnectString());
+
+        // The client is notified of the expiry asynchronously:
+        for (int i = 0; i < 50 && mirror.awaitCurrent(TIMEOUT); ++i) {
+            Thread.sleep(100);
+        }
+        assertFalse(mirror.awaitCurrent(TIMEOUT));
+        try {
+            mirror.getAllData();
+            fail("Expected a stale mirror");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    private static byte[] bytes(String str) {
+        return str.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static Map<String, String> asStrings(Map<String, byte[]> data) {
+        Map<String, String> strings = new TreeMap<>();
+        for (Map.Entry<String, byte[]> entry : data.entrySet()) {
+            strings.put(entry.getKey(), new String(entry.getValue(), StandardCharsets.UTF_8));
+        }
+        return strings;
+    }
+}
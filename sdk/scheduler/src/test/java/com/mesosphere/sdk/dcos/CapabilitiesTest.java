@@ -24,6 +24,15 @@ public class CapabilitiesTest {
         when(mockDcosCluster.getDcosVersion()).thenReturn(mockDcosVersion);
     }
 
+    @Test
+    public void testPrefetchFailureDeferredToFirstUse() throws IOException {
+        when(mockDcosCluster.getDcosVersion()).thenThrow(new IOException("unreachable")).thenReturn(mockDcosVersion);
+        when(mockDcosVersion.getElements()).thenReturn(new DcosVersion.Elements("1.10.0"));
+        Capabilities capabilities = new Capabilities(mockDcosCluster);
+        capabilities.prefetch();
+        Assert.assertTrue(capabilities.supportsDefaultExecutor());
+    }
+
     @Test
     public void test_090() throws IOException {
         Capabilities capabilities = testCapabilities("0.9.0");
@@ -5,62 +5,45 @@ import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
 
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.attribute.PosixFilePermission;
-import java.util.HashSet;
-import java.util.Set;
-
-import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyDouble;
-import static org.mockito.Mockito.when;
 
 public class DcosCertInstallerTest {
-    static Set<PosixFilePermission> keytoolPermissions = new HashSet<>();
-
-    static {
-        keytoolPermissions.add(PosixFilePermission.OWNER_READ);
-        keytoolPermissions.add(PosixFilePermission.OWNER_WRITE);
-        keytoolPermissions.add(PosixFilePermission.OWNER_EXECUTE);
-    }
-
-    private String jrePath = "testjre";
-    private String keytool = "exit 0";
-
-    @Mock
-    DcosCertInstaller.ProcessRunner mockProcessRunner;
+    private SSLContext defaultContext;
+    private SSLSocketFactory defaultSocketFactory;
 
     @Before
     public void init() throws Exception {
-        MockitoAnnotations.initMocks(this);
         cleanup();
+        defaultContext = SSLContext.getDefault();
+        defaultSocketFactory = HttpsURLConnection.getDefaultSSLSocketFactory();
         Files.createDirectories(Paths.get(".ssl"));
-        Files.createFile(Paths.get(".ssl", "ca.crt"));
-        Files.createFile(Paths.get(".ssl", "ca-bundle.crt"));
-        Files.createDirectories(Paths.get(jrePath));
-        Files.createDirectories(Paths.get(jrePath, "bin"));
-        Files.createDirectories(Paths.get(jrePath, "lib", "security"));
-        Files.createFile(Paths.get(jrePath, "lib", "security", "cacerts"));
+        Files.copy(getResourcePath("dcos-ca.crt"), Paths.get(".ssl", "ca.crt"));
+        Files.copy(getResourcePath("dcos-ca-bundle.crt"), Paths.get(".ssl", "ca-bundle.crt"));
     }
 
     @After
     public void cleanup() throws Exception {
-        FileUtils.deleteQuietly(new File(jrePath));
         FileUtils.deleteQuietly(new File(".ssl"));
+        // Avoid leaking the test certs into other tests:
+        if (defaultContext != null) {
+            SSLContext.setDefault(defaultContext);
+            HttpsURLConnection.setDefaultSSLSocketFactory(defaultSocketFactory);
+        }
+        DcosCertInstaller.clearSSLContext();
     }
 
     @Test
     public void testInstallCertificateIdeal110() throws Exception {
-        final Path path = Paths.get(jrePath, "bin", "keytool");
-        Files.write(path, keytool.getBytes("UTF-8"));
-        Files.setPosixFilePermissions(path, keytoolPermissions);
-        when(mockProcessRunner.run(any(), anyDouble())).thenReturn(0);
-        Assert.assertTrue(DcosCertInstaller.installCertificate(jrePath, mockProcessRunner));
+        Assert.assertTrue(DcosCertInstaller.installCertificate());
+        SSLContext context = DcosCertInstaller.getSSLContext().get();
+        Assert.assertSame(context, SSLContext.getDefault());
     }
 
     @Test
@@ -68,33 +51,33 @@ public class DcosCertInstallerTest {
         // Remove the post 1.10 file
         Files.delete(Paths.get(".ssl", "ca-bundle.crt"));
 
-        final Path path = Paths.get(jrePath, "bin", "keytool");
-        Files.write(path, keytool.getBytes("UTF-8"));
-        Files.setPosixFilePermissions(path, keytoolPermissions);
-        when(mockProcessRunner.run(any(), anyDouble())).thenReturn(0);
-        Assert.assertTrue(DcosCertInstaller.installCertificate(jrePath, mockProcessRunner));
+        Assert.assertTrue(DcosCertInstaller.installCertificate());
+        Assert.assertTrue(DcosCertInstaller.getSSLContext().isPresent());
     }
 
     @Test
-    public void testInstallCertificateFailureKeytoolError() throws Exception {
-        final Path path = Paths.get(jrePath, "bin", "keytool");
-        Files.write(path, keytool.getBytes("UTF-8"));
-        Files.setPosixFilePermissions(path, keytoolPermissions);
-        when(mockProcessRunner.run(any(), anyDouble())).thenReturn(1);
-        Assert.assertFalse(DcosCertInstaller.installCertificate(jrePath, mockProcessRunner));
+    public void testInstallCertificateFailureInvalidCert() throws Exception {
+        Files.write(Paths.get(".ssl", "ca-bundle.crt"), "not a cert".getBytes("UTF-8"));
+        Assert.assertFalse(DcosCertInstaller.installCertificate());
+        Assert.assertFalse(DcosCertInstaller.getSSLContext().isPresent());
+        Assert.assertSame(defaultContext, SSLContext.getDefault());
     }
 
     @Test
-    public void testInstallCertificateFailureNoJRE() throws Exception {
-        FileUtils.deleteQuietly(new File(jrePath));
-        when(mockProcessRunner.run(any(), anyDouble())).thenReturn(0);
-        Assert.assertFalse(DcosCertInstaller.installCertificate(jrePath, mockProcessRunner));
+    public void testInstallCertificateFailureEmptyCert() throws Exception {
+        Files.write(Paths.get(".ssl", "ca-bundle.crt"), new byte[0]);
+        Assert.assertFalse(DcosCertInstaller.installCertificate());
+        Assert.assertFalse(DcosCertInstaller.getSSLContext().isPresent());
     }
 
     @Test
     public void testInstallCertificateFailureNoCert() throws Exception {
         FileUtils.deleteQuietly(new File(".ssl"));
-        when(mockProcessRunner.run(any(), anyDouble())).thenReturn(0);
-        Assert.assertFalse(DcosCertInstaller.installCertificate(jrePath, mockProcessRunner));
+        Assert.assertFalse(DcosCertInstaller.installCertificate());
+        Assert.assertFalse(DcosCertInstaller.getSSLContext().isPresent());
+    }
+
+    private Path getResourcePath(String name) {
+        return Paths.get(getClass().getClassLoader().getResource(name).getPath());
     }
 }
@@ -5,6 +5,10 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Tests for the {@link DcosCluster} class.
@@ -23,6 +27,7 @@ public class DcosClusterTest {
     private static class TestDcosCluster extends DcosCluster {
 
         private final String version;
+        private final AtomicInteger fetchCount = new AtomicInteger(0);
 
         private TestDcosCluster(String version) {
             super();
@@ -34,6 +39,7 @@ public class DcosClusterTest {
             if (!path.equals(EXPECTED_URI)) {
                 throw new IOException(String.format("Expected URI '%s', got '%s'", EXPECTED_URI, path));
             }
+            fetchCount.incrementAndGet();
             return String.format(RESPONSE_TEMPLATE, version);
         }
     }
@@ -99,6 +105,25 @@ public class DcosClusterTest {
         dcosVersion.getElements().getSecondElement();
     }
 
+    @Test
+    public void testVersionFetchedOnce() throws Exception {
+        TestDcosCluster dcosCluster = new TestDcosCluster(TEST_VERSION);
+        List<CompletableFuture<DcosVersion>> fetches = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            fetches.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return dcosCluster.getDcosVersion();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        for (CompletableFuture<DcosVersion> fetch : fetches) {
+            Assert.assertEquals(TEST_VERSION, fetch.get().getVersion());
+        }
+        Assert.assertEquals(1, dcosCluster.fetchCount.get());
+    }
+
     @Test
     public void testGetUri() throws IOException, URISyntaxException {
         Assert.assertEquals(DcosConstants.MESOS_LEADER_URI, new TestDcosCluster("foo").getDcosUri().toString());
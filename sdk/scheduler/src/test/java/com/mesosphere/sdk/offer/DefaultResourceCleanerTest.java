@@ -1,6 +1,7 @@
 package com.mesosphere.sdk.offer;
 
 import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.MemPersister;
 import com.mesosphere.sdk.testutils.*;
 import org.apache.mesos.Protos.Offer;
 import org.apache.mesos.Protos.Offer.Operation;
@@ -16,8 +17,6 @@ import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
 public class DefaultResourceCleanerTest extends DefaultCapabilitiesTestSuite {
 
@@ -75,21 +74,15 @@ public class DefaultResourceCleanerTest extends DefaultCapabilitiesTestSuite {
     private final List<ResourceCleaner> emptyCleaners = new ArrayList<>();
     private final List<ResourceCleaner> populatedCleaners = new ArrayList<>();
     private final List<ResourceCleaner> allCleaners = new ArrayList<>();
-    private final StateStore mockStateStore;
 
     public DefaultResourceCleanerTest() {
-        // Validate ResourceCleaner statelessness by only initializing them once
-
-        mockStateStore = mock(StateStore.class);
+        // Cleaners look up expected resources in their state store's live index, so they're initialized once up-front
 
         // cleaners without any expected resources
-        when(mockStateStore.fetchTasks()).thenReturn(new ArrayList<>());
-        emptyCleaners.add(new DefaultResourceCleaner(mockStateStore));
+        emptyCleaners.add(new DefaultResourceCleaner(getStateStore()));
 
         // cleaners with expected resources
-        when(mockStateStore.fetchTasks())
-                .thenReturn(Arrays.asList(TASK_INFO_1, TASK_INFO_2));
-        populatedCleaners.add(new DefaultResourceCleaner(mockStateStore));
+        populatedCleaners.add(new DefaultResourceCleaner(getStateStore(TASK_INFO_1, TASK_INFO_2)));
 
         allCleaners.addAll(emptyCleaners);
         allCleaners.addAll(populatedCleaners);
@@ -295,8 +288,7 @@ public class DefaultResourceCleanerTest extends DefaultCapabilitiesTestSuite {
     @Test
     public void testExpectedPermanentlyFailedResource() {
         TaskInfo failedTask = TaskTestUtils.withFailedFlag(TASK_INFO_1);
-        when(mockStateStore.fetchTasks()).thenReturn(Arrays.asList(failedTask, TASK_INFO_2));
-        ResourceCleaner cleaner = new DefaultResourceCleaner(mockStateStore);
+        ResourceCleaner cleaner = new DefaultResourceCleaner(getStateStore(failedTask, TASK_INFO_2));
 
         List<Offer> offers = OfferTestUtils.getOffers(EXPECTED_RESOURCE_1);
         List<OfferRecommendation> recommendations = cleaner.evaluate(offers);
@@ -307,8 +299,7 @@ public class DefaultResourceCleanerTest extends DefaultCapabilitiesTestSuite {
     @Test
     public void testExpectedPermanentlyFailedVolume() {
         TaskInfo failedTask = TaskTestUtils.withFailedFlag(TASK_INFO_2);
-        when(mockStateStore.fetchTasks()).thenReturn(Arrays.asList(TASK_INFO_1, failedTask));
-        ResourceCleaner cleaner = new DefaultResourceCleaner(mockStateStore);
+        ResourceCleaner cleaner = new DefaultResourceCleaner(getStateStore(TASK_INFO_1, failedTask));
         List<Offer> offers = OfferTestUtils.getOffers(EXPECTED_RESOURCE_2);
         List<OfferRecommendation> recommendations = cleaner.evaluate(offers);
 
@@ -320,4 +311,17 @@ public class DefaultResourceCleanerTest extends DefaultCapabilitiesTestSuite {
         rec = recommendations.get(1);
         assertEquals(Operation.Type.UNRESERVE, rec.getOperation().getType());
     }
+
+    /**
+     * Returns a state store containing the provided tasks, which are each given a distinct name.
+     */
+    private static StateStore getStateStore(TaskInfo... taskInfos) {
+        StateStore stateStore = new StateStore(new MemPersister());
+        List<TaskInfo> namedTaskInfos = new ArrayList<>();
+        for (int i = 0; i < taskInfos.length; ++i) {
+            namedTaskInfos.add(taskInfos[i].toBuilder().setName(TestConstants.TASK_NAME + "-" + i).build());
+        }
+        stateStore.storeTasks(namedTaskInfos);
+        return stateStore;
+    }
 }
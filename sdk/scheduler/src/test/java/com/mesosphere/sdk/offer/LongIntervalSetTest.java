@@ -0,0 +1,78 @@
+package com.mesosphere.sdk.offer;
+
+import org.apache.mesos.Protos.Value.Range;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link LongIntervalSet}.
+ */
+public class LongIntervalSetTest {
+
+    @Test
+    public void testAddMergesOverlappingAndAdjacent() {
+        LongIntervalSet set = new LongIntervalSet();
+        set.add(10, 20);
+        set.add(30, 40);
+        set.add(50, 60);
+        set.add(1, 2);
+        assertEquals("[1-2, 10-20, 30-40, 50-60]", set.toString());
+
+        set.add(21, 29);
+        assertEquals("[1-2, 10-40, 50-60]", set.toString());
+        set.add(3, 55);
+        assertEquals("[1-60]", set.toString());
+        set.add(70, 70);
+        assertEquals(2, set.getIntervalCount());
+        assertEquals(61, set.getValueCount());
+    }
+
+    @Test
+    public void testRemoveSplitsAndTrims() {
+        LongIntervalSet set = LongIntervalSet.fromRanges(Arrays.asList(getRange(1, 10), getRange(20, 30)));
+        set.remove(5, 5);
+        assertEquals("[1-4, 6-10, 20-30]", set.toString());
+        set.remove(1, 1);
+        assertEquals("[2-4, 6-10, 20-30]", set.toString());
+        set.remove(8, 25);
+        assertEquals("[2-4, 6-7, 26-30]", set.toString());
+        set.remove(11, 19);
+        assertEquals("[2-4, 6-7, 26-30]", set.toString());
+        set.remove(0, 100);
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testContains() {
+        LongIntervalSet set = LongIntervalSet.fromRanges(Arrays.asList(getRange(20, 30), getRange(1, 10)));
+        assertFalse(set.contains(0));
+        assertTrue(set.contains(1));
+        assertTrue(set.contains(10));
+        assertFalse(set.contains(15));
+        assertTrue(set.containsAll(22, 30));
+        assertFalse(set.containsAll(5, 25));
+        assertTrue(set.containsAll(LongIntervalSet.fromRanges(Arrays.asList(getRange(2, 3), getRange(25, 25)))));
+        assertFalse(set.containsAll(LongIntervalSet.fromRanges(Arrays.asList(getRange(2, 3), getRange(31, 31)))));
+    }
+
+    @Test
+    public void testManyIntervals() {
+        LongIntervalSet set = new LongIntervalSet();
+        for (long i = 0; i < 1000; ++i) {
+            set.add(i * 2, i * 2);
+        }
+        assertEquals(1000, set.getIntervalCount());
+        for (long i = 0; i < 1000; ++i) {
+            set.add(i * 2 + 1, i * 2 + 1);
+        }
+        assertEquals("[0-1999]", set.toString());
+        assertEquals(Arrays.asList(getRange(0, 1999)), set.toRangeList());
+    }
+
+    private static Range getRange(long begin, long end) {
+        return Range.newBuilder().setBegin(begin).setEnd(end).build();
+    }
+}
@@ -107,4 +107,37 @@ public class MesosResourcePoolTest extends DefaultCapabilitiesTestSuite {
                 pool.consumeReservableMerged(desiredUnreservedResource.getName(), resourceValue, Constants.ANY_ROLE)
                         .isPresent());
     }
+
+    @Test
+    public void testConsumeAndFreeUnreservedPorts() {
+        Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedPorts(10000, 10005),
+                ResourceTestUtils.getUnreservedPorts(10010, 10010)));
+        MesosResourcePool pool = new MesosResourcePool(offer, Optional.of(Constants.ANY_ROLE));
+
+        Protos.Value port = getPortValue(10002);
+        MesosResource consumed = pool.consumeReservableMerged(Constants.PORTS_RESOURCE_TYPE, port, Constants.ANY_ROLE)
+                .get();
+        Assert.assertEquals(port.getRanges(), consumed.getResource().getRanges());
+        Assert.assertEquals("[10000-10001, 10003-10005, 10010-10010]",
+                pool.getReservableRanges(Constants.PORTS_RESOURCE_TYPE, Constants.ANY_ROLE).get().toString());
+        Assert.assertEquals(3, pool.getUnreservedMergedPool()
+                .get(Constants.PORTS_RESOURCE_TYPE).getRanges().getRangeCount());
+
+        // Already consumed, or never offered:
+        Assert.assertFalse(pool.consumeReservableMerged(Constants.PORTS_RESOURCE_TYPE, port, Constants.ANY_ROLE)
+                .isPresent());
+        Assert.assertFalse(pool.consumeReservableMerged(
+                Constants.PORTS_RESOURCE_TYPE, getPortValue(10008), Constants.ANY_ROLE).isPresent());
+
+        pool.free(consumed);
+        Assert.assertEquals("[10000-10005, 10010-10010]",
+                pool.getReservableRanges(Constants.PORTS_RESOURCE_TYPE, Constants.ANY_ROLE).get().toString());
+    }
+
+    private static Protos.Value getPortValue(long port) {
+        Protos.Value.Builder builder = Protos.Value.newBuilder().setType(Protos.Value.Type.RANGES);
+        builder.getRangesBuilder().addRangeBuilder().setBegin(port).setEnd(port);
+        return builder.build();
+    }
 }
@@ -0,0 +1,72 @@
+package com.mesosphere.sdk.offer;
+
+import com.mesosphere.sdk.testutils.DefaultCapabilitiesTestSuite;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos;
+import org.apache.mesos.Protos.Offer.Operation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class OfferLogUtilsTest extends DefaultCapabilitiesTestSuite {
+
+    @Test
+    public void testSummarizeLaunch() {
+        Protos.TaskInfo taskInfo = Protos.TaskInfo.newBuilder()
+                .setTaskId(TestConstants.TASK_ID)
+                .setName(TestConstants.TASK_NAME)
+                .setSlaveId(TestConstants.AGENT_ID)
+                .addResources(ResourceTestUtils.getExpectedScalar("cpus", 1.5, "cpu-id"))
+                .addResources(ResourceTestUtils.getExpectedScalar("mem", 256, "mem-id"))
+                .addResources(ResourceTestUtils.getExpectedRanges("ports", 1000, 1009, "ports-id"))
+                .build();
+        Operation operation = Operation.newBuilder()
+                .setType(Operation.Type.LAUNCH)
+                .setLaunch(Operation.Launch.newBuilder().addTaskInfos(taskInfo))
+                .build();
+
+        Assert.assertEquals(
+                "LAUNCH tasks=[test-task-name] cpus=1.5 mem=256 ports=10 reservations=[cpu-id, mem-id, ports-id]",
+                OfferLogUtils.summarize(operation));
+    }
+
+    @Test
+    public void testSummarizeReserve() {
+        Operation operation = Operation.newBuilder()
+                .setType(Operation.Type.RESERVE)
+                .setReserve(Operation.Reserve.newBuilder()
+                        .addResources(ResourceTestUtils.getExpectedScalar("cpus", 1.0, "cpu-id-1"))
+                        .addResources(ResourceTestUtils.getExpectedScalar("cpus", 2.0, "cpu-id-2")))
+                .build();
+
+        Assert.assertEquals("RESERVE cpus=3 reservations=[cpu-id-1, cpu-id-2]", OfferLogUtils.summarize(operation));
+    }
+
+    @Test
+    public void testSummarizeOffer() {
+        Protos.Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(4.0),
+                ResourceTestUtils.getUnreservedPorts(10000, 10999)));
+
+        Assert.assertEquals("test-offer-id host=test-hostname cpus=4 ports=1000", OfferLogUtils.summarize(offer));
+    }
+
+    @Test
+    public void testSummaryLengthIsBounded() {
+        Operation.Reserve.Builder reserveBuilder = Operation.Reserve.newBuilder();
+        for (int i = 0; i < 100; ++i) {
+            reserveBuilder.addResources(ResourceTestUtils.getExpectedScalar("cpus", 0.1, "cpu-id-" + i));
+        }
+        String summary = OfferLogUtils.summarize(Operation.newBuilder()
+                .setType(Operation.Type.RESERVE)
+                .setReserve(reserveBuilder)
+                .build());
+
+        Assert.assertEquals(OfferLogUtils.MAX_SUMMARY_LENGTH, summary.length());
+        Assert.assertTrue(summary, summary.startsWith("RESERVE cpus=10"));
+        Assert.assertTrue(summary, summary.endsWith("..."));
+    }
+}
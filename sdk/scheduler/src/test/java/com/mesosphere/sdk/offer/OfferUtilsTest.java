@@ -2,6 +2,7 @@ package com.mesosphere.sdk.offer;
 
 import com.mesosphere.sdk.testutils.OfferTestUtils;
 import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
 import org.apache.mesos.Protos;
 import org.apache.mesos.SchedulerDriver;
 import org.junit.Assert;
@@ -17,7 +18,9 @@ import java.util.stream.Collectors;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class OfferUtilsTest {
     public static final int SUFFICIENT_CPUS = 2;
@@ -80,6 +83,54 @@ public class OfferUtilsTest {
         verify(mockSchedulerDriver).declineOffer(eq(offerIds.get(1)), any());
     }
 
+    @Test
+    public void testGetRemainingOffer() {
+        Protos.Resource existingCpu = ResourceTestUtils.getExpectedScalar("cpus", 1.0, "existing-cpu");
+        Protos.Resource otherCpu = ResourceTestUtils.getExpectedScalar("cpus", 1.0, "other-cpu");
+        Protos.Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                existingCpu,
+                otherCpu,
+                ResourceTestUtils.getUnreservedMem(1000),
+                ResourceTestUtils.getUnreservedMountVolume(2000),
+                ResourceTestUtils.getUnreservedMountVolume(3000)));
+        Protos.Offer.Operation launch = Protos.Offer.Operation.newBuilder()
+                .setType(Protos.Offer.Operation.Type.LAUNCH)
+                .setLaunch(Protos.Offer.Operation.Launch.newBuilder()
+                        .addTaskInfos(TaskTestUtils.getTaskInfo(existingCpu)))
+                .build();
+        OfferRecommendation launchRecommendation = mock(OfferRecommendation.class);
+        when(launchRecommendation.getOffer()).thenReturn(offer);
+        when(launchRecommendation.getOperation()).thenReturn(launch);
+
+        Protos.Offer remainingOffer = OfferUtils.getRemainingOffer(offer, Arrays.asList(
+                launchRecommendation,
+                new ReserveOfferRecommendation(offer, ResourceTestUtils.getExpectedScalar("mem", 400, "new-mem")),
+                new ReserveOfferRecommendation(offer, ResourceTestUtils.getExpectedMountVolume(2000))));
+
+        Assert.assertEquals(offer.getId(), remainingOffer.getId());
+        Assert.assertEquals(Arrays.asList(
+                otherCpu,
+                ResourceTestUtils.getUnreservedMem(600),
+                ResourceTestUtils.getUnreservedMountVolume(3000)),
+                remainingOffer.getResourcesList());
+    }
+
+    @Test
+    public void testGetRemainingOfferSplitScalars() {
+        Protos.Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(0.5),
+                ResourceTestUtils.getUnreservedCpu(1.0)));
+        Protos.Offer remainingOffer = OfferUtils.getRemainingOffer(offer, Arrays.asList(
+                new ReserveOfferRecommendation(offer, ResourceTestUtils.getExpectedCpu(1.0))));
+        Assert.assertEquals(
+                Arrays.asList(ResourceTestUtils.getUnreservedCpu(0.5)),
+                remainingOffer.getResourcesList());
+
+        remainingOffer = OfferUtils.getRemainingOffer(remainingOffer, Arrays.asList(
+                new ReserveOfferRecommendation(remainingOffer, ResourceTestUtils.getExpectedCpu(0.5))));
+        Assert.assertEquals(0, remainingOffer.getResourcesCount());
+    }
+
     private List<Protos.Offer> getOffers(double cpus, double mem, double disk) {
         final ArrayList<Protos.Offer> offers = new ArrayList<>();
         offers.addAll(OfferTestUtils.getOffers(
@@ -0,0 +1,44 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.function.Supplier;
+
+public class EvaluationOutcomeTest {
+
+    @Test
+    public void testReasonFormattedOnlyWhenRequested() {
+        CountingArg arg = new CountingArg();
+        EvaluationOutcome outcome = EvaluationOutcome.fail(this, "Failed because of %s", arg).build();
+        Assert.assertFalse(outcome.isPassing());
+        Assert.assertEquals("EvaluationOutcomeTest", outcome.getSource());
+        Assert.assertEquals(0, arg.count);
+
+        Assert.assertEquals("Failed because of arg", outcome.getReason());
+        Assert.assertEquals("FAIL(EvaluationOutcomeTest): Failed because of arg", outcome.toString());
+        // The formatted reason is reused:
+        Assert.assertEquals(1, arg.count);
+    }
+
+    @Test
+    public void testSupplierInvokedOnlyWhenRequested() {
+        CountingArg arg = new CountingArg();
+        Supplier<String> supplier = () -> "supplied " + arg;
+        EvaluationOutcome outcome = EvaluationOutcome.pass(this, "Passed with %s", supplier).build();
+        Assert.assertEquals(0, arg.count);
+
+        Assert.assertEquals("Passed with supplied arg", outcome.getReason());
+        Assert.assertEquals(1, arg.count);
+    }
+
+    private static class CountingArg {
+        private int count = 0;
+
+        @Override
+        public String toString() {
+            ++count;
+            return "arg";
+        }
+    }
+}
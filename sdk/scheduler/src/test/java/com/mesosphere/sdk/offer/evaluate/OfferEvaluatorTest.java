@@ -29,6 +29,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -101,6 +103,75 @@ public class OfferEvaluatorTest extends OfferEvaluatorTestBase {
         return new ArrayList<>(Arrays.asList(expectedExecutorCpu, expectedExecutorMem, expectedExecutorDisk));
     }
 
+    @Test
+    public void testTightestFitChoosesSmallestViableOffer() throws Exception {
+        PodInstanceRequirement podInstanceRequirement = PodInstanceRequirementTestUtils.getCpuRequirement(1.0);
+        Offer largeOffer = OfferTestUtils.getCompleteOffer(ResourceTestUtils.getUnreservedScalar("cpus", 4.0));
+        Offer insufficientOffer = OfferTestUtils.getCompleteOffer(ResourceTestUtils.getUnreservedScalar("cpus", 0.5));
+        Offer smallOffer = OfferTestUtils.getCompleteOffer(ResourceTestUtils.getUnreservedScalar("cpus", 1.5));
+        List<Offer> offers = Arrays.asList(largeOffer, insufficientOffer, smallOffer);
+
+        // First fit:
+        List<OfferRecommendation> recommendations = evaluator.evaluate(podInstanceRequirement, offers);
+        Assert.assertEquals(5, recommendations.size());
+        Assert.assertEquals(largeOffer, recommendations.get(0).getOffer());
+
+        evaluator = new OfferEvaluator(
+                stateStore, TestConstants.SERVICE_NAME, targetConfig, flags, true,
+                Optional.of(new TightestFitOfferScorer()), 10);
+        recommendations = evaluator.evaluate(podInstanceRequirement, offers);
+        Assert.assertEquals(5, recommendations.size());
+        Assert.assertEquals(smallOffer, recommendations.get(0).getOffer());
+
+        // Only the first viable offer is considered:
+        evaluator = new OfferEvaluator(
+                stateStore, TestConstants.SERVICE_NAME, targetConfig, flags, true,
+                Optional.of(new TightestFitOfferScorer()), 1);
+        recommendations = evaluator.evaluate(podInstanceRequirement, offers);
+        Assert.assertEquals(largeOffer, recommendations.get(0).getOffer());
+    }
+
+    @Test
+    public void testSideEffectStagesOnlyEvaluatedForChosenOffer() throws Exception {
+        PodInstanceRequirement podInstanceRequirement = PodInstanceRequirementTestUtils.getCpuRequirement(1.0);
+        Offer largeOffer = OfferTestUtils.getCompleteOffer(ResourceTestUtils.getUnreservedScalar("cpus", 4.0));
+        Offer smallOffer = OfferTestUtils.getCompleteOffer(ResourceTestUtils.getUnreservedScalar("cpus", 1.5));
+        List<Offer> evaluatedOffers = new ArrayList<>();
+        OfferEvaluationStage sideEffectStage = new OfferEvaluationStage() {
+            @Override
+            public EvaluationOutcome evaluate(MesosResourcePool mesosResourcePool, PodInfoBuilder podInfoBuilder) {
+                evaluatedOffers.add(mesosResourcePool.getOffer());
+                return EvaluationOutcome.pass(this, "side effect").build();
+            }
+
+            @Override
+            public boolean hasSideEffects() {
+                return true;
+            }
+        };
+        evaluator = new OfferEvaluator(
+                stateStore, TestConstants.SERVICE_NAME, targetConfig, flags, true,
+                Optional.of(new TightestFitOfferScorer()), 10) {
+            @Override
+            public List<OfferEvaluationStage> getEvaluationPipeline(
+                    PodInstanceRequirement podInstanceRequirement,
+                    Collection<TaskInfo> allTasks,
+                    Map<String, TaskInfo> thisPodTasks,
+                    Optional<ExecutorInfo> executorInfo) {
+                List<OfferEvaluationStage> stages = new ArrayList<>(
+                        super.getEvaluationPipeline(podInstanceRequirement, allTasks, thisPodTasks, executorInfo));
+                stages.add(sideEffectStage);
+                return stages;
+            }
+        };
+
+        List<OfferRecommendation> recommendations =
+                evaluator.evaluate(podInstanceRequirement, Arrays.asList(largeOffer, smallOffer));
+        Assert.assertEquals(5, recommendations.size());
+        Assert.assertEquals(smallOffer, recommendations.get(0).getOffer());
+        Assert.assertEquals(Arrays.asList(smallOffer), evaluatedOffers);
+    }
+
     @Test
     public void testReserveLaunchScalarRefined() throws Exception {
         ResourceRefinementCapabilityContext context = new ResourceRefinementCapabilityContext(Capabilities.getInstance());
@@ -0,0 +1,161 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.specification.DefaultResourceSet;
+import com.mesosphere.sdk.specification.PortSpec;
+import com.mesosphere.sdk.specification.ResourceSet;
+import com.mesosphere.sdk.specification.ResourceSpec;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class OfferResourcePrefilterTest {
+
+    @Test
+    public void testSufficientOfferPasses() {
+        OfferResourcePrefilter prefilter = getPrefilter(getResourceSet().build());
+        Protos.Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(1.0),
+                ResourceTestUtils.getUnreservedMem(256)));
+        assertFalse(prefilter.getRejectionReason(offer).isPresent());
+    }
+
+    @Test
+    public void testInsufficientScalarRejected() {
+        OfferResourcePrefilter prefilter = getPrefilter(getResourceSet().build());
+        // Split across multiple resources: still insufficient in total
+        Protos.Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(0.5),
+                ResourceTestUtils.getUnreservedCpu(0.25),
+                ResourceTestUtils.getUnreservedMem(256)));
+        Optional<String> reason = prefilter.getRejectionReason(offer);
+        assertTrue(reason.isPresent());
+        assertTrue(reason.get(), reason.get().contains("'cpus'"));
+    }
+
+    @Test
+    public void testReservedResourcesNotCounted() {
+        OfferResourcePrefilter prefilter = getPrefilter(getResourceSet().build());
+        Protos.Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getExpectedCpu(1.0),
+                ResourceTestUtils.getUnreservedMem(256)));
+        assertTrue(prefilter.getRejectionReason(offer).isPresent());
+    }
+
+    @Test
+    public void testHostPortsCounted() {
+        OfferResourcePrefilter prefilter = getPrefilter(getResourceSet()
+                .addResource(getPortSpec("a", 0))
+                .addResource(getPortSpec("b", 10000))
+                .build());
+        Protos.Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(1.0),
+                ResourceTestUtils.getUnreservedMem(256),
+                ResourceTestUtils.getUnreservedPorts(10000, 10000)));
+        Optional<String> reason = prefilter.getRejectionReason(offer);
+        assertTrue(reason.isPresent());
+        assertTrue(reason.get(), reason.get().contains("'ports'"));
+
+        offer = offer.toBuilder().addResources(ResourceTestUtils.getUnreservedPorts(20000, 20010)).build();
+        assertFalse(prefilter.getRejectionReason(offer).isPresent());
+    }
+
+    @Test
+    public void testOverlayPortsNotCounted() {
+        PortSpec overlayPort = new PortSpec(
+                getPortSpec("a", 0).getValue(),
+                TestConstants.ROLE,
+                Constants.ANY_ROLE,
+                TestConstants.PRINCIPAL,
+                "PORT_A",
+                "a",
+                Constants.DISPLAYED_PORT_VISIBILITY,
+                Collections.singletonList("dcos"));
+        OfferResourcePrefilter prefilter = getPrefilter(getResourceSet().addResource(overlayPort).build());
+        Protos.Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(1.0),
+                ResourceTestUtils.getUnreservedMem(256)));
+        assertFalse(prefilter.getRejectionReason(offer).isPresent());
+    }
+
+    @Test
+    public void testVolumesCounted() {
+        OfferResourcePrefilter prefilter = getPrefilter(getResourceSet()
+                .addVolume("ROOT", 100.0, "root")
+                .addVolume("MOUNT", 1000.0, "mount")
+                .build());
+        Protos.Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(1.0),
+                ResourceTestUtils.getUnreservedMem(256),
+                ResourceTestUtils.getUnreservedDisk(50)));
+        Optional<String> reason = prefilter.getRejectionReason(offer);
+        assertTrue(reason.isPresent());
+        assertTrue(reason.get(), reason.get().contains("MOUNT"));
+
+        // The MOUNT volume doesn't count towards the 'disk' total:
+        offer = offer.toBuilder().addResources(ResourceTestUtils.getUnreservedMountVolume(2000)).build();
+        reason = prefilter.getRejectionReason(offer);
+        assertTrue(reason.isPresent());
+        assertTrue(reason.get(), reason.get().contains("'disk'"));
+
+        offer = offer.toBuilder().addResources(ResourceTestUtils.getUnreservedDisk(50)).build();
+        assertFalse(prefilter.getRejectionReason(offer).isPresent());
+    }
+
+    @Test
+    public void testExecutorResourcesCounted() {
+        Collection<ResourceSpec> executorResources = getResourceSet().build().getResources();
+        OfferResourcePrefilter prefilter = OfferResourcePrefilter.forNewPod(
+                Collections.singletonList(getResourceSet().build()),
+                Collections.emptyList(),
+                executorResources,
+                Optional.empty());
+        Protos.Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(1.5),
+                ResourceTestUtils.getUnreservedMem(512)));
+        assertTrue(prefilter.getRejectionReason(offer).isPresent());
+
+        offer = offer.toBuilder().addResources(ResourceTestUtils.getUnreservedCpu(0.5)).build();
+        assertFalse(prefilter.getRejectionReason(offer).isPresent());
+    }
+
+    private static OfferResourcePrefilter getPrefilter(ResourceSet resourceSet) {
+        return OfferResourcePrefilter.forNewPod(
+                Collections.singletonList(resourceSet),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Optional.empty());
+    }
+
+    private static DefaultResourceSet.Builder getResourceSet() {
+        return DefaultResourceSet.newBuilder(TestConstants.ROLE, Constants.ANY_ROLE, TestConstants.PRINCIPAL)
+                .id("resourceSet")
+                .cpus(1.0)
+                .memory(256.0);
+    }
+
+    private static PortSpec getPortSpec(String name, int port) {
+        return new PortSpec(
+                Protos.Value.newBuilder()
+                        .setType(Protos.Value.Type.RANGES)
+                        .setRanges(Protos.Value.Ranges.newBuilder()
+                                .addRange(Protos.Value.Range.newBuilder().setBegin(port).setEnd(port)))
+                        .build(),
+                TestConstants.ROLE,
+                Constants.ANY_ROLE,
+                TestConstants.PRINCIPAL,
+                "PORT_" + name,
+                name,
+                Constants.DISPLAYED_PORT_VISIBILITY,
+                Collections.emptyList());
+    }
+}
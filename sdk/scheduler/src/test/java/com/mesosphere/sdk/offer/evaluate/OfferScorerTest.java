@@ -0,0 +1,65 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import com.mesosphere.sdk.offer.TaskUtils;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirementTestUtils;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OfferScorerTest {
+
+    private static final Protos.SlaveID OTHER_AGENT_ID = Protos.SlaveID.newBuilder().setValue("other-agent").build();
+
+    private final PodInstanceRequirement podInstanceRequirement =
+            PodInstanceRequirementTestUtils.getCpuRequirement(1.0, 0);
+    private final Protos.Offer offer = OfferTestUtils.getOffer(ResourceTestUtils.getUnreservedCpu(1.0));
+
+    @Test
+    public void testSpreadPrefersEmptyAgents() {
+        OfferScorer scorer = new SpreadOfferScorer();
+        assertEquals(1.0, score(scorer), 0.0);
+        // The pod's own prior tasks don't count against the agent:
+        assertEquals(1.0, score(scorer, getPodTask(TestConstants.AGENT_ID)), 0.0);
+        assertEquals(1.0, score(scorer, getOtherTask("a", OTHER_AGENT_ID)), 0.0);
+        assertEquals(0.5, score(scorer, getOtherTask("a", TestConstants.AGENT_ID)), 0.0);
+        assertEquals(1.0 / 3,
+                score(scorer, getOtherTask("a", TestConstants.AGENT_ID), getOtherTask("b", TestConstants.AGENT_ID)),
+                0.0001);
+    }
+
+    @Test
+    public void testLocalityPrefersPriorAgents() {
+        OfferScorer scorer = new LocalityOfferScorer();
+        assertEquals(0.0, score(scorer), 0.0);
+        assertEquals(0.0, score(scorer, getPodTask(OTHER_AGENT_ID)), 0.0);
+        assertEquals(0.5, score(scorer, getOtherTask("a", TestConstants.AGENT_ID)), 0.0);
+        assertEquals(1.0,
+                score(scorer, getOtherTask("a", TestConstants.AGENT_ID), getPodTask(TestConstants.AGENT_ID)), 0.0);
+    }
+
+    private double score(OfferScorer scorer, Protos.TaskInfo... tasks) {
+        return scorer.score(offer, Collections.emptyList(), podInstanceRequirement, Arrays.asList(tasks));
+    }
+
+    private Protos.TaskInfo getPodTask(Protos.SlaveID agentId) {
+        List<String> taskNames = TaskUtils.getTaskNames(podInstanceRequirement.getPodInstance());
+        return getOtherTask(taskNames.get(0), agentId);
+    }
+
+    private static Protos.TaskInfo getOtherTask(String name, Protos.SlaveID agentId) {
+        return Protos.TaskInfo.newBuilder()
+                .setName(name)
+                .setTaskId(Protos.TaskID.newBuilder().setValue(name + "__id"))
+                .setSlaveId(agentId)
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.mesosphere.sdk.offer.evaluate;
+
+import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.scheduler.SchedulerFlags;
+import com.mesosphere.sdk.scheduler.plan.DefaultPodInstance;
+import com.mesosphere.sdk.scheduler.plan.PodInstanceRequirement;
+import com.mesosphere.sdk.specification.*;
+import com.mesosphere.sdk.testutils.*;
+import org.apache.mesos.Protos;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+public class PodInfoBuilderTest extends DefaultCapabilitiesTestSuite {
+    private static final SchedulerFlags flags = OfferRequirementTestUtils.getTestSchedulerFlags();
+    private static final UUID TARGET_CONFIG_ID = UUID.randomUUID();
+
+    private PodInfoBuilder.PrototypeCache prototypeCache;
+
+    @Before
+    public void beforeEach() {
+        prototypeCache = new PodInfoBuilder.PrototypeCache();
+    }
+
+    @Test
+    public void testPrototypeCopiesAreIndependent() throws Exception {
+        PodInstanceRequirement requirement = getRequirement("./cmd", Collections.emptyMap());
+        PodInfoBuilder first = getPodInfoBuilder(requirement);
+        PodInfoBuilder second = getPodInfoBuilder(requirement);
+        Assert.assertEquals(
+                first.getTaskBuilder(TestConstants.TASK_NAME).build(),
+                second.getTaskBuilder(TestConstants.TASK_NAME).build());
+        Assert.assertEquals(TestConstants.FRAMEWORK_ID, second.getExecutorBuilder().get().getFrameworkId());
+
+        first.getTaskBuilder(TestConstants.TASK_NAME).getCommandBuilder().setValue("./other");
+        first.getExecutorBuilder().get().setName("other");
+        Assert.assertEquals("./cmd", second.getTaskBuilder(TestConstants.TASK_NAME).getCommand().getValue());
+        Assert.assertEquals(TestConstants.POD_TYPE, second.getExecutorBuilder().get().getName());
+        Assert.assertEquals("./cmd", getPodInfoBuilder(requirement)
+                .getTaskBuilder(TestConstants.TASK_NAME).getCommand().getValue());
+    }
+
+    @Test
+    public void testRequirementEnvironmentAheadOfSecrets() throws Exception {
+        PodInfoBuilder podInfoBuilder = getPodInfoBuilder(
+                getRequirement("./cmd", Collections.singletonMap("EXTRA", "value")));
+        List<String> names = getEnvironmentNames(podInfoBuilder);
+        Assert.assertEquals(names.size() - 2, names.indexOf("EXTRA"));
+        Assert.assertEquals(names.size() - 1, names.indexOf("SECRET_ENV"));
+        Assert.assertTrue(names.indexOf("CONFIG_TEMPLATE_CONFIG") < names.indexOf("EXTRA"));
+
+        // The environment of one requirement doesn't carry over to another:
+        podInfoBuilder = getPodInfoBuilder(getRequirement("./cmd", Collections.emptyMap()));
+        names = getEnvironmentNames(podInfoBuilder);
+        Assert.assertFalse(names.contains("EXTRA"));
+        Assert.assertEquals(names.size() - 1, names.indexOf("SECRET_ENV"));
+    }
+
+    @Test
+    public void testChangedSpecIsRebuilt() throws Exception {
+        Assert.assertEquals("./cmd", getPodInfoBuilder(getRequirement("./cmd", Collections.emptyMap()))
+                .getTaskBuilder(TestConstants.TASK_NAME).getCommand().getValue());
+        // Same config ID, but a different spec:
+        Assert.assertEquals("./other", getPodInfoBuilder(getRequirement("./other", Collections.emptyMap()))
+                .getTaskBuilder(TestConstants.TASK_NAME).getCommand().getValue());
+    }
+
+    private static List<String> getEnvironmentNames(PodInfoBuilder podInfoBuilder) {
+        return podInfoBuilder.getTaskBuilder(TestConstants.TASK_NAME).getCommand().getEnvironment()
+                .getVariablesList().stream()
+                .map(Protos.Environment.Variable::getName)
+                .collect(Collectors.toList());
+    }
+
+    private PodInfoBuilder getPodInfoBuilder(PodInstanceRequirement requirement) throws Exception {
+        return new PodInfoBuilder(
+                requirement,
+                TestConstants.SERVICE_NAME,
+                TARGET_CONFIG_ID,
+                flags,
+                Collections.emptyList(),
+                TestConstants.FRAMEWORK_ID,
+                true,
+                prototypeCache);
+    }
+
+    private static PodInstanceRequirement getRequirement(String command, Map<String, String> environment) {
+        ResourceSet resourceSet =
+                DefaultResourceSet.newBuilder(TestConstants.ROLE, Constants.ANY_ROLE, TestConstants.PRINCIPAL)
+                        .id(TestConstants.RESOURCE_SET_ID)
+                        .cpus(1.0)
+                        .build();
+        TaskSpec taskSpec = DefaultTaskSpec.newBuilder()
+                .name(TestConstants.TASK_NAME)
+                .commandSpec(DefaultCommandSpec.newBuilder(Collections.emptyMap())
+                        .value(command)
+                        .build())
+                .configFiles(Arrays.asList(new DefaultConfigFileSpec("config", "conf/config.xml", "template")))
+                .goalState(GoalState.RUNNING)
+                .resourceSet(resourceSet)
+                .build();
+        PodSpec podSpec = DefaultPodSpec.newBuilder("executor-uri")
+                .type(TestConstants.POD_TYPE)
+                .count(1)
+                .tasks(Arrays.asList(taskSpec))
+                .secrets(Arrays.asList(new DefaultSecretSpec("secret/path", "SECRET_ENV", null)))
+                .preReservedRole(Constants.ANY_ROLE)
+                .build();
+        return PodInstanceRequirement.newBuilder(
+                new DefaultPodInstance(podSpec, 0), Arrays.asList(TestConstants.TASK_NAME))
+                .environment(environment)
+                .build();
+    }
+}
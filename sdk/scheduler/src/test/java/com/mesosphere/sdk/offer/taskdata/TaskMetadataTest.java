@@ -0,0 +1,82 @@
+package com.mesosphere.sdk.offer.taskdata;
+
+import com.mesosphere.sdk.offer.TaskException;
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class TaskMetadataTest {
+
+    @Test
+    public void testMetadataSharedForSameTaskInfo() throws TaskException {
+        Protos.TaskInfo taskInfo = getTaskInfo(new TaskLabelWriter(getTaskInfo(Protos.Labels.getDefaultInstance()))
+                .setType("foo")
+                .setIndex(3)
+                .setHostname(Protos.Offer.newBuilder()
+                        .setId(TestConstants.OFFER_ID)
+                        .setFrameworkId(TestConstants.FRAMEWORK_ID)
+                        .setSlaveId(TestConstants.AGENT_ID)
+                        .setHostname(TestConstants.HOSTNAME)
+                        .build())
+                .setPermanentlyFailed()
+                .toProto());
+        TaskMetadata metadata = TaskMetadata.of(taskInfo);
+        assertSame(metadata, TaskMetadata.of(taskInfo));
+        assertEquals("foo", metadata.getType());
+        assertEquals(3, metadata.getIndex());
+        assertEquals(TestConstants.HOSTNAME, metadata.getHostname());
+        assertTrue(metadata.getOfferAttributeStrings().isEmpty());
+        assertTrue(metadata.isPermanentlyFailed());
+        assertFalse(metadata.isTransient());
+        assertFalse(metadata.hasReadinessCheckLabel());
+
+        // An equal but distinct TaskInfo gets its own copy:
+        Protos.TaskInfo copy = Protos.TaskInfo.newBuilder(taskInfo).build();
+        assertNotSame(metadata, TaskMetadata.of(copy));
+        assertEquals(3, TaskMetadata.of(copy).getIndex());
+    }
+
+    @Test
+    public void testLastDuplicateLabelWins() throws TaskException {
+        UUID targetConfig = UUID.randomUUID();
+        Protos.Labels labels = Protos.Labels.newBuilder().addAllLabels(Arrays.asList(
+                getLabel(LabelConstants.TARGET_CONFIGURATION_LABEL, UUID.randomUUID().toString()),
+                getLabel(LabelConstants.TARGET_CONFIGURATION_LABEL, targetConfig.toString()),
+                getLabel(LabelConstants.TRANSIENT_FLAG_LABEL, "true")))
+                .build();
+        TaskMetadata metadata = TaskMetadata.of(getTaskInfo(labels).toBuilder());
+        assertEquals(targetConfig, metadata.getTargetConfiguration());
+        assertTrue(metadata.isTransient());
+    }
+
+    @Test(expected = TaskException.class)
+    public void testMissingTypeFails() throws TaskException {
+        TaskMetadata.of(getTaskInfo(Protos.Labels.getDefaultInstance())).getType();
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testInvalidIndexFails() throws TaskException {
+        Protos.Labels labels = Protos.Labels.newBuilder()
+                .addLabels(getLabel(LabelConstants.TASK_INDEX_LABEL, "zero"))
+                .build();
+        TaskMetadata.of(getTaskInfo(labels)).getIndex();
+    }
+
+    private static Protos.Label getLabel(String key, String value) {
+        return Protos.Label.newBuilder().setKey(key).setValue(value).build();
+    }
+
+    private static Protos.TaskInfo getTaskInfo(Protos.Labels labels) {
+        return Protos.TaskInfo.newBuilder()
+                .setName(TestConstants.TASK_NAME)
+                .setTaskId(TestConstants.TASK_ID)
+                .setSlaveId(TestConstants.AGENT_ID)
+                .setLabels(labels)
+                .build();
+    }
+}
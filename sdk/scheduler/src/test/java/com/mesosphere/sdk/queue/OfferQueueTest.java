@@ -5,6 +5,7 @@ import org.apache.mesos.Protos;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -49,6 +50,21 @@ public class OfferQueueTest {
         Assert.assertEquals(TEST_CAPACITY, offerQueue.getRemainingCapacity());
     }
 
+    @Test
+    public void testWakeReturnsWithoutWaiting() {
+        OfferQueue offerQueue = new OfferQueue(TEST_CAPACITY);
+        offerQueue.wake();
+        long startMs = System.currentTimeMillis();
+        Assert.assertTrue(offerQueue.takeAll(Duration.ofSeconds(30)).isEmpty());
+        Assert.assertTrue(System.currentTimeMillis() - startMs < 5000);
+
+        // Offers which are queued alongside a wake are returned as usual:
+        offerQueue.offer(getOffer());
+        offerQueue.wake();
+        Assert.assertEquals(1, offerQueue.takeAll().size());
+        Assert.assertTrue(offerQueue.isEmpty());
+    }
+
     @Test
     public void testTakeMultiple() {
         OfferQueue offerQueue = new OfferQueue(TEST_CAPACITY);
@@ -0,0 +1,104 @@
+package com.mesosphere.sdk.queue;
+
+import com.mesosphere.sdk.testutils.TestConstants;
+import org.apache.mesos.Protos;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class tests the {@link OfferRetentionPool}.
+ */
+public class OfferRetentionPoolTest {
+
+    private AtomicLong now;
+    private OfferRetentionPool pool;
+
+    @Before
+    public void beforeEach() {
+        now = new AtomicLong(0);
+        pool = new OfferRetentionPool(2, Duration.ofSeconds(10), now::get);
+    }
+
+    @Test
+    public void testUnretainedOffersCountedAsHits() {
+        assertTrue(pool.retain(Arrays.asList(getOffer("a"), getOffer("b"))).isEmpty());
+        pool.finishCycle();
+        assertEquals(2, pool.getSize());
+
+        List<Protos.Offer> offers = pool.checkout();
+        assertEquals(2, offers.size());
+        assertEquals(0, pool.getSize());
+        // "a" was used, "b" remains unused:
+        pool.retain(Collections.singletonList(getOffer("b")));
+        pool.finishCycle();
+        assertEquals(1, pool.getSize());
+        assertEquals(1.0, pool.getHitRate(), 0.0);
+        assertEquals(2, pool.toJSON().getLong("retained"));
+        assertEquals(1, pool.toJSON().getLong("hits"));
+    }
+
+    @Test
+    public void testOffersExpireFromFirstRetention() {
+        pool.retain(Collections.singletonList(getOffer("a")));
+        pool.finishCycle();
+
+        now.set(6000);
+        pool.checkout();
+        pool.retain(Arrays.asList(getOffer("a"), getOffer("b")));
+        pool.finishCycle();
+        assertTrue(pool.takeExpired().isEmpty());
+
+        now.set(10000);
+        List<Protos.Offer> expired = pool.takeExpired();
+        assertEquals(1, expired.size());
+        assertEquals("a", expired.get(0).getId().getValue());
+        assertEquals(1, pool.getSize());
+        assertEquals(0.0, pool.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void testOldestOffersEvicted() {
+        pool.retain(Collections.singletonList(getOffer("a")));
+        now.set(1000);
+        List<Protos.Offer> evicted = pool.retain(Arrays.asList(getOffer("b"), getOffer("c")));
+        assertEquals(1, evicted.size());
+        assertEquals("a", evicted.get(0).getId().getValue());
+        assertEquals(2, pool.getSize());
+        assertEquals(1, pool.toJSON().getLong("evicted"));
+    }
+
+    @Test
+    public void testRescindedOffersNotRetained() {
+        pool.retain(Arrays.asList(getOffer("a"), getOffer("b")));
+        pool.finishCycle();
+        assertTrue(pool.rescind(getOffer("a").getId()));
+        assertEquals(1, pool.getSize());
+
+        // Rescinded while being evaluated, along with a new offer which hasn't been retained yet:
+        pool.checkout();
+        assertTrue(pool.rescind(getOffer("b").getId()));
+        assertFalse(pool.rescind(getOffer("c").getId()));
+        assertTrue(pool.retain(Arrays.asList(getOffer("b"), getOffer("c"))).isEmpty());
+        pool.finishCycle();
+        assertEquals(0, pool.getSize());
+        assertEquals(2, pool.toJSON().getLong("rescinded"));
+        assertEquals(0, pool.toJSON().getLong("hits"));
+    }
+
+    private static Protos.Offer getOffer(String id) {
+        return Protos.Offer.newBuilder()
+                .setId(Protos.OfferID.newBuilder().setValue(id))
+                .setFrameworkId(TestConstants.FRAMEWORK_ID)
+                .setSlaveId(TestConstants.AGENT_ID)
+                .setHostname(TestConstants.HOSTNAME)
+                .build();
+    }
+}
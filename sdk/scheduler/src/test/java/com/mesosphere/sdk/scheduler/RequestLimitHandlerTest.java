@@ -0,0 +1,250 @@
+package com.mesosphere.sdk.scheduler;
+
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+public class RequestLimitHandlerTest {
+    private static final String API_PATH = "/v1/state/frameworkId";
+    private static final String HEALTH_PATH = "/v1/health";
+    private static final String EVENTS_PATH = "/v1/plans/events";
+    // Requests to this path are handled after sleeping for the number of milliseconds in the query, if any:
+    private static final String SLEEP_PATH = "/v1/sleep";
+
+    // Released once for each request which has started to be handled:
+    private final Semaphore requestsStarted = new Semaphore(0);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private RequestLimitHandler handler;
+    private Server server;
+
+    @After
+    public void afterEach() throws Exception {
+        release.countDown();
+        executor.shutdownNow();
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testOverloadedRequestIsRejected() throws Exception {
+        startServer(1, 0, Duration.ZERO, 1);
+
+        Future<Integer> blocked = executor.submit(() -> get(API_PATH));
+        awaitRequestsStarted(1);
+
+        HttpURLConnection rejected = connect(API_PATH);
+        Assert.assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, rejected.getResponseCode());
+        Assert.assertEquals(
+                String.valueOf(RequestLimitHandler.RETRY_AFTER_SECONDS),
+                rejected.getHeaderField(RequestLimitHandler.RETRY_AFTER_HEADER));
+
+        release.countDown();
+        Assert.assertEquals(HttpServletResponse.SC_OK, (int) blocked.get(5, TimeUnit.SECONDS));
+        // With the first request complete, further requests are handled again:
+        Assert.assertEquals(HttpServletResponse.SC_OK, get(API_PATH));
+    }
+
+    @Test
+    public void testQueuedRequestIsHandled() throws Exception {
+        startServer(1, 1, Duration.ofSeconds(30), 1);
+
+        Future<Integer> blocked = executor.submit(() -> get(API_PATH));
+        awaitRequestsStarted(1);
+        Future<Integer> queued = executor.submit(() -> get(API_PATH));
+        awaitQueuedRequests(1);
+        // The queued request is waiting without being handled, and the queue is now full:
+        Assert.assertEquals(0, requestsStarted.availablePermits());
+        Assert.assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, get(API_PATH));
+
+        release.countDown();
+        Assert.assertEquals(HttpServletResponse.SC_OK, (int) blocked.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(HttpServletResponse.SC_OK, (int) queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testQueuedRequestIsRejectedAfterWaiting() throws Exception {
+        startServer(1, 1, Duration.ofMillis(100), 1);
+
+        Future<Integer> blocked = executor.submit(() -> get(API_PATH));
+        awaitRequestsStarted(1);
+        Assert.assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, get(API_PATH));
+
+        release.countDown();
+        Assert.assertEquals(HttpServletResponse.SC_OK, (int) blocked.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testReservedPathIsHandledWhenOverloaded() throws Exception {
+        startServer(1, 0, Duration.ZERO, 1);
+
+        Future<Integer> blocked = executor.submit(() -> get(API_PATH));
+        awaitRequestsStarted(1);
+
+        Assert.assertEquals(HttpServletResponse.SC_OK, get(HEALTH_PATH));
+        Assert.assertEquals(HttpServletResponse.SC_OK, get(HEALTH_PATH + "/"));
+
+        release.countDown();
+        Assert.assertEquals(HttpServletResponse.SC_OK, (int) blocked.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLongLivedRequestsHaveTheirOwnLane() throws Exception {
+        startServer(1, 0, Duration.ZERO, 1);
+
+        Future<Integer> stream = executor.submit(() -> get(EVENTS_PATH + "/stream"));
+        awaitRequestsStarted(1);
+
+        // An open event stream doesn't hold up other requests, but does limit further event requests:
+        Future<Integer> blocked = executor.submit(() -> get(API_PATH));
+        awaitRequestsStarted(1);
+        Assert.assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, get(EVENTS_PATH));
+
+        release.countDown();
+        Assert.assertEquals(HttpServletResponse.SC_OK, (int) stream.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(HttpServletResponse.SC_OK, (int) blocked.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testQueueTimeoutRacingWithCompletion() throws Exception {
+        startServer(1, 1, Duration.ofMillis(50), 1);
+
+        // Each queued request's wait expires at around the time the request ahead of it completes, so that its
+        // permit is handed over at the same moment as its timeout. Either outcome is fine, as long as each request
+        // is answered once and the permit isn't lost:
+        for (int i = 0; i < 50; ++i) {
+            String sleepQuery = "?" + (40 + i % 20);
+            Future<Integer> first = executor.submit(() -> get(SLEEP_PATH + sleepQuery));
+            awaitRequestsStarted(1);
+            Future<Integer> queued = executor.submit(() -> get(SLEEP_PATH));
+            Assert.assertEquals(HttpServletResponse.SC_OK, (int) first.get(5, TimeUnit.SECONDS));
+            int queuedStatus = queued.get(5, TimeUnit.SECONDS);
+            Assert.assertTrue(String.valueOf(queuedStatus), queuedStatus == HttpServletResponse.SC_OK
+                    || queuedStatus == HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            requestsStarted.drainPermits();
+        }
+
+        Assert.assertEquals(0, handler.getQueuedRequestCount());
+        Assert.assertEquals(HttpServletResponse.SC_OK, get(SLEEP_PATH));
+    }
+
+    @Test
+    public void testHealthStaysUpWhileSaturated() throws Exception {
+        final int maxConcurrentRequests = 4;
+        final int maxQueuedRequests = 16;
+        final int clientCount = 100;
+        startServer(maxConcurrentRequests, maxQueuedRequests, Duration.ofSeconds(30), 1);
+
+        List<Future<Integer>> responses = new ArrayList<>();
+        for (int i = 0; i < clientCount; ++i) {
+            responses.add(executor.submit(() -> get(API_PATH)));
+        }
+        awaitRequestsStarted(maxConcurrentRequests);
+        awaitQueuedRequests(maxQueuedRequests);
+
+        // The main lane is full, but health checks are still answered:
+        for (int i = 0; i < 20; ++i) {
+            Assert.assertEquals(HttpServletResponse.SC_OK, get(HEALTH_PATH));
+        }
+
+        // Once the handled requests complete, the queued requests are handled and the rest were rejected:
+        release.countDown();
+        int okCount = 0;
+        for (Future<Integer> response : responses) {
+            int status = response.get(30, TimeUnit.SECONDS);
+            if (status == HttpServletResponse.SC_OK) {
+                ++okCount;
+            } else {
+                Assert.assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, status);
+            }
+        }
+        Assert.assertEquals(maxConcurrentRequests + maxQueuedRequests, okCount);
+        Assert.assertEquals(0, handler.getQueuedRequestCount());
+        Assert.assertEquals(HttpServletResponse.SC_OK, get(API_PATH));
+    }
+
+    private void startServer(
+            int maxConcurrentRequests, int maxQueuedRequests, Duration maxQueueWait, int maxLongLivedRequests)
+            throws Exception {
+        handler = new RequestLimitHandler(
+                maxConcurrentRequests,
+                maxQueuedRequests,
+                maxQueueWait,
+                Collections.singleton(HEALTH_PATH),
+                maxLongLivedRequests,
+                Collections.singleton(EVENTS_PATH));
+        handler.setHandler(new AbstractHandler() {
+            @Override
+            public void handle(
+                    String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) {
+                if (!target.startsWith(HEALTH_PATH)) {
+                    requestsStarted.release();
+                    try {
+                        if (target.startsWith(SLEEP_PATH)) {
+                            String sleepMs = request.getQueryString();
+                            Thread.sleep(sleepMs == null ? 0 : Long.parseLong(sleepMs));
+                        } else {
+                            release.await();
+                        }
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                baseRequest.setHandled(true);
+                response.setStatus(HttpServletResponse.SC_OK);
+            }
+        });
+        server = new Server(0);
+        server.setHandler(handler);
+        server.start();
+    }
+
+    private void awaitRequestsStarted(int count) throws InterruptedException {
+        Assert.assertTrue(requestsStarted.tryAcquire(count, 5, TimeUnit.SECONDS));
+    }
+
+    private void awaitQueuedRequests(int count) throws InterruptedException {
+        for (int i = 0; i < 50 && handler.getQueuedRequestCount() != count; ++i) {
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(count, handler.getQueuedRequestCount());
+    }
+
+    private int get(String path) {
+        try {
+            return connect(path).getResponseCode();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpURLConnection connect(String path) throws IOException {
+        int port = ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+        HttpURLConnection connection = (HttpURLConnection) new URL("http", "localhost", port, path).openConnection();
+        connection.setReadTimeout((int) TimeUnit.SECONDS.toMillis(30));
+        return connection;
+    }
+}
@@ -15,7 +15,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -24,6 +26,7 @@ import static org.mockito.Mockito.*;
 public class ReviveManagerTest {
     private ReviveManager manager;
     private final UUID testUUID = UUID.randomUUID();
+    private final AtomicLong now = new AtomicLong(100000);
     @Mock private SchedulerDriver driver;
 
     @Before
@@ -52,6 +55,7 @@ public class ReviveManagerTest {
         manager = getReviveManager();
         manager.revive(getSteps(0));
         manager.revive(Collections.emptyList());
+        now.addAndGet(2000);
         manager.revive(getSteps(0));
         verify(driver, times(2)).reviveOffers();
     }
@@ -60,16 +64,44 @@ public class ReviveManagerTest {
     public void reviveOnAdditionalNewWork() {
         manager = getReviveManager();
         manager.revive(getSteps(0));
+        now.addAndGet(2000);
         manager.revive(getSteps(1));
         verify(driver, times(2)).reviveOffers();
     }
 
     @Test
-    public void dontReviveWhenThrottled() {
-        ReviveManager manager = new ReviveManager(driver);
+    public void deferReviveDuringBackoff() {
+        manager = getReviveManager();
         manager.revive(getSteps(0));
         manager.revive(getSteps(1));
         verify(driver, times(1)).reviveOffers();
+        assertEquals(1, manager.getDeferredReviveCount());
+
+        // The deferred work is still treated as new once the backoff has elapsed:
+        now.addAndGet(2000);
+        manager.revive(getSteps(1));
+        verify(driver, times(2)).reviveOffers();
+    }
+
+    @Test
+    public void backoffGrowsWithFrequentRevivesAndResetsWhenQuiet() {
+        manager = getReviveManager();
+        manager.revive(getSteps(0)); // backoff: 1s
+        now.addAndGet(1000);
+        manager.revive(getSteps(1)); // backoff: 2s
+        now.addAndGet(1000);
+        manager.revive(getSteps(2)); // deferred
+        verify(driver, times(2)).reviveOffers();
+        now.addAndGet(1000);
+        manager.revive(getSteps(2)); // backoff: 4s
+        verify(driver, times(3)).reviveOffers();
+
+        now.addAndGet(10000);
+        manager.revive(getSteps(3)); // backoff: 1s
+        now.addAndGet(1000);
+        manager.revive(getSteps(4));
+        verify(driver, times(5)).reviveOffers();
+        assertEquals(5, manager.getReviveCount());
     }
 
     @Test
@@ -79,8 +111,54 @@ public class ReviveManagerTest {
         verify(driver, times(0)).reviveOffers();
     }
 
+    @Test
+    public void suppressWhenIdleThenReviveImmediately() {
+        manager = getReviveManager();
+        manager.revive(getSteps(0));
+        manager.revive(Collections.emptyList());
+        verify(driver, never()).suppressOffers();
+
+        now.addAndGet(5000);
+        manager.revive(Collections.emptyList());
+        manager.revive(Collections.emptyList());
+        verify(driver, times(1)).suppressOffers();
+        assertTrue(manager.isSuppressed());
+
+        manager.revive(getSteps(1));
+        verify(driver, times(2)).reviveOffers();
+        assertFalse(manager.isSuppressed());
+        assertEquals(1, manager.getSuppressCount());
+    }
+
+    @Test
+    public void noBackoffAfterSuppression() {
+        manager = new ReviveManager(driver, Duration.ofSeconds(1), Duration.ofSeconds(8), Duration.ZERO, now::get);
+        manager.revive(getSteps(0));
+        manager.revive(Collections.emptyList());
+        verify(driver, times(1)).suppressOffers();
+
+        // Would have been deferred by the backoff if offers weren't suppressed:
+        manager.revive(getSteps(1));
+        verify(driver, times(2)).reviveOffers();
+        assertEquals(0, manager.getDeferredReviveCount());
+    }
+
+    @Test
+    public void resetAfterReregistration() {
+        manager = getReviveManager();
+        now.addAndGet(5000);
+        manager.revive(Collections.emptyList());
+        assertTrue(manager.isSuppressed());
+
+        manager.reset();
+        assertFalse(manager.isSuppressed());
+        now.addAndGet(2000);
+        manager.revive(Collections.emptyList());
+        verify(driver, times(1)).suppressOffers();
+    }
+
     private ReviveManager getReviveManager() {
-        return new ReviveManager(driver, TokenBucket.newBuilder().acquireInterval(Duration.ZERO).build());
+        return new ReviveManager(driver, Duration.ofSeconds(1), Duration.ofSeconds(8), Duration.ofSeconds(5), now::get);
     }
 
     private List<Step> getSteps(Integer index) {
@@ -29,6 +29,8 @@ public class SchedulerApiServerTest {
         SchedulerFlags mockFlags = mock(SchedulerFlags.class);
         when(mockFlags.getApiServerInitTimeout()).thenReturn(timeout);
         when(mockFlags.getApiServerPort()).thenReturn(port);
+        when(mockFlags.getApiServerMaxConcurrentRequests()).thenReturn(16);
+        when(mockFlags.getApiServerMaxQueuedRequests()).thenReturn(64);
         return mockFlags;
     }
 
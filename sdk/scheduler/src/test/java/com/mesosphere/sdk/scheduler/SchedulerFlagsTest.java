@@ -1,5 +1,6 @@
 package com.mesosphere.sdk.scheduler;
 
+import com.mesosphere.sdk.offer.evaluate.OfferEvaluator;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.contrib.java.lang.system.EnvironmentVariables;
@@ -25,4 +26,14 @@ public class SchedulerFlagsTest {
         assert !schedulerFlags.isUninstallEnabled();
     }
 
+    @Test
+    public void testOfferEvaluationLoggingDefaultsToSummary() throws Exception {
+        environmentVariables.set("OFFER_EVALUATION_LOGGING", null);
+        SchedulerFlags schedulerFlags = SchedulerFlags.fromEnv();
+        assert schedulerFlags.getOfferEvaluationLogging() == OfferEvaluator.OutcomeLogging.SUMMARY;
+        environmentVariables.set("OFFER_EVALUATION_LOGGING", "full");
+        schedulerFlags = SchedulerFlags.fromEnv();
+        assert schedulerFlags.getOfferEvaluationLogging() == OfferEvaluator.OutcomeLogging.FULL;
+    }
+
 }
\ No newline at end of file
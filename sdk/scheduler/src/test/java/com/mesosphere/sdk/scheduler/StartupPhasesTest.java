@@ -0,0 +1,82 @@
+package com.mesosphere.sdk.scheduler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class StartupPhasesTest {
+
+    @Test
+    public void testDependentPhaseWaitsForDependencies() throws Exception {
+        StartupPhases startup = new StartupPhases();
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = startup.supplyAsync("first", () -> {
+            await(release);
+            order.add("first");
+            return "first-result";
+        });
+        CompletableFuture<Void> independent = startup.runAsync("independent", () -> order.add("independent"));
+        CompletableFuture<Void> dependent = startup.runAsync("dependent", () -> order.add("dependent"), first);
+
+        // The independent phase doesn't wait for the first phase:
+        independent.get(5, TimeUnit.SECONDS);
+        Assert.assertFalse(dependent.isDone());
+
+        release.countDown();
+        dependent.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(Arrays.asList("independent", "first", "dependent"), order);
+        Assert.assertEquals("first-result", first.get());
+    }
+
+    @Test
+    public void testReport() {
+        AtomicLong nanos = new AtomicLong(0);
+        StartupPhases startup = new StartupPhases(Runnable::run, nanos::get);
+
+        nanos.set(TimeUnit.MILLISECONDS.toNanos(5));
+        startup.run("lock", () -> nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(20)));
+        try {
+            startup.run("broken", () -> {
+                nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(3));
+                throw new IllegalStateException("test");
+            });
+            Assert.fail("Expected exception");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("test"));
+        CompletableFuture<Void> skipped = startup.runAsync("skipped", () -> { }, failed);
+
+        Assert.assertEquals(
+                "- lock: started at +5ms, completed after 20ms\n" +
+                "- broken: started at +25ms, failed after 3ms\n" +
+                "- skipped: waiting",
+                startup.getReport());
+        try {
+            skipped.join();
+            Assert.fail("Expected exception");
+        } catch (CompletionException e) {
+            // expected: a failed dependency fails the phase
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
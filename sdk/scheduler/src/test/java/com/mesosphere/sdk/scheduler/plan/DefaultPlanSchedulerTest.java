@@ -9,11 +9,14 @@ import com.mesosphere.sdk.specification.PodInstance;
 import com.mesosphere.sdk.specification.PodSpec;
 import com.mesosphere.sdk.state.StateStore;
 import com.mesosphere.sdk.testutils.OfferRequirementTestUtils;
+import com.mesosphere.sdk.testutils.OfferTestUtils;
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
 
 import org.apache.mesos.Protos.*;
 import org.apache.mesos.SchedulerDriver;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -53,6 +56,9 @@ public class DefaultPlanSchedulerTest {
     public void beforeEach() throws Exception {
         MockitoAnnotations.initMocks(this);
         mockRecommendations = Arrays.asList(mockRecommendation);
+        when(mockRecommendation.getOffer()).thenReturn(OFFERS.get(0));
+        when(mockRecommendation.getOperation()).thenReturn(
+                Offer.Operation.newBuilder().setType(Offer.Operation.Type.LAUNCH).build());
         scheduler = new DefaultPlanScheduler(mockOfferAccepter, mockOfferEvaluator, mockStateStore, mockTaskKiller);
 
         ClassLoader classLoader = getClass().getClassLoader();
@@ -107,11 +113,12 @@ public class DefaultPlanSchedulerTest {
         TestOfferStep step = new TestOfferStep(podInstanceRequirement);
         step.setStatus(Status.PENDING);
         when(mockOfferEvaluator.evaluate(podInstanceRequirement, OFFERS)).thenReturn(mockRecommendations);
-        when(mockOfferAccepter.accept(mockSchedulerDriver, mockRecommendations)).thenReturn(new ArrayList<>());
+        when(mockOfferAccepter.record(mockRecommendations)).thenReturn(false);
 
         assertTrue(scheduler.resourceOffers(mockSchedulerDriver, OFFERS, Arrays.asList(step)).isEmpty());
         assertTrue(step.recommendations.isEmpty());
-        verify(mockOfferAccepter).accept(mockSchedulerDriver, mockRecommendations);
+        verify(mockOfferAccepter).record(mockRecommendations);
+        verify(mockOfferAccepter, never()).acceptRecorded(any(), any());
         assertTrue(step.isPrepared());
     }
 
@@ -120,13 +127,90 @@ public class DefaultPlanSchedulerTest {
         TestOfferStep step = new TestOfferStep(podInstanceRequirement);
         step.setStatus(Status.PENDING);
         when(mockOfferEvaluator.evaluate(podInstanceRequirement, OFFERS)).thenReturn(mockRecommendations);
-        when(mockOfferAccepter.accept(mockSchedulerDriver, mockRecommendations)).thenReturn(ACCEPTED_IDS);
+        when(mockOfferAccepter.record(mockRecommendations)).thenReturn(true);
+        when(mockOfferAccepter.acceptRecorded(mockSchedulerDriver, mockRecommendations)).thenReturn(ACCEPTED_IDS);
 
         assertEquals(ACCEPTED_IDS, scheduler.resourceOffers(mockSchedulerDriver, OFFERS, Arrays.asList(step)));
         assertFalse(step.recommendations.isEmpty());
         assertTrue(step.isStarting());
     }
 
+    @Test
+    public void testRecordedLaunchesAcceptedWhenLaterStepFails() throws InvalidRequirementException {
+        PodInstanceRequirement otherPodInstanceRequirement = PodInstanceRequirement.newBuilder(
+                new DefaultPodInstance(podInstanceRequirement.getPodInstance().getPod(), 1),
+                podInstanceRequirement.getTasksToLaunch()).build();
+        TestOfferStep step0 = new TestOfferStep(podInstanceRequirement);
+        TestOfferStep step1 = new TestOfferStep(otherPodInstanceRequirement);
+        step0.setStatus(Status.PENDING);
+        step1.setStatus(Status.PENDING);
+        when(mockOfferEvaluator.evaluate(eq(podInstanceRequirement), any())).thenReturn(mockRecommendations);
+        when(mockOfferEvaluator.evaluate(eq(otherPodInstanceRequirement), any()))
+                .thenThrow(new IllegalStateException("test failure"));
+        when(mockOfferAccepter.record(mockRecommendations)).thenReturn(true);
+
+        try {
+            scheduler.resourceOffers(mockSchedulerDriver, OFFERS, Arrays.asList(step0, step1));
+            fail("Expected the second step's failure to be thrown");
+        } catch (IllegalStateException e) {
+            assertEquals("test failure", e.getMessage());
+        }
+        // The first step was told that it's starting, so its recorded launch must still be sent:
+        assertTrue(step0.isStarting());
+        verify(mockOfferAccepter).acceptRecorded(mockSchedulerDriver, mockRecommendations);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStepsShareOffer() throws InvalidRequirementException {
+        Offer offer = OfferTestUtils.getOffer(Arrays.asList(
+                ResourceTestUtils.getUnreservedCpu(2.0),
+                ResourceTestUtils.getUnreservedPorts(10000, 10001)));
+        PodInstanceRequirement otherPodInstanceRequirement = PodInstanceRequirement.newBuilder(
+                new DefaultPodInstance(podInstanceRequirement.getPodInstance().getPod(), 1),
+                podInstanceRequirement.getTasksToLaunch()).build();
+        TestOfferStep step0 = new TestOfferStep(podInstanceRequirement);
+        TestOfferStep step1 = new TestOfferStep(otherPodInstanceRequirement);
+        step0.setStatus(Status.PENDING);
+        step1.setStatus(Status.PENDING);
+
+        when(mockOfferEvaluator.evaluate(eq(podInstanceRequirement), any())).thenAnswer(invocation -> {
+            List<Offer> offers = (List<Offer>) invocation.getArguments()[1];
+            return Arrays.asList(
+                    new ReserveOfferRecommendation(offers.get(0), ResourceTestUtils.getExpectedCpu(1.0)),
+                    new ReserveOfferRecommendation(
+                            offers.get(0), ResourceTestUtils.getExpectedRanges("ports", 10000, 10000, "port-0")));
+        });
+        when(mockOfferEvaluator.evaluate(eq(otherPodInstanceRequirement), any())).thenAnswer(invocation -> {
+            List<Offer> offers = (List<Offer>) invocation.getArguments()[1];
+            // The second step sees what's left over from the first step:
+            assertEquals(1, offers.size());
+            assertEquals(offer.getId(), offers.get(0).getId());
+            assertEquals(Arrays.asList(
+                    ResourceTestUtils.getUnreservedCpu(1.0),
+                    ResourceTestUtils.getUnreservedPorts(10001, 10001)),
+                    offers.get(0).getResourcesList());
+            return Arrays.asList(new ReserveOfferRecommendation(
+                    offers.get(0), ResourceTestUtils.getExpectedScalar("cpus", 1.0, "cpu-1")));
+        });
+
+        scheduler = new DefaultPlanScheduler(
+                new OfferAccepter(Collections.emptyList()), mockOfferEvaluator, mockStateStore, mockTaskKiller);
+        assertEquals(
+                Arrays.asList(offer.getId()),
+                scheduler.resourceOffers(mockSchedulerDriver, Arrays.asList(offer), Arrays.asList(step0, step1)));
+        assertEquals(2, step0.recommendations.size());
+        assertEquals(1, step1.recommendations.size());
+        assertTrue(step0.isStarting());
+        assertTrue(step1.isStarting());
+
+        // All three operations are sent in a single call:
+        ArgumentCaptor<Collection> operationsCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(mockSchedulerDriver, times(1)).acceptOffers(
+                eq(Arrays.asList(offer.getId())), operationsCaptor.capture(), any());
+        assertEquals(3, operationsCaptor.getValue().size());
+    }
+
     private static class TestOfferStep extends TestStep {
         private final PodInstanceRequirement podInstanceRequirement;
         private Collection<OfferRecommendation> recommendations;
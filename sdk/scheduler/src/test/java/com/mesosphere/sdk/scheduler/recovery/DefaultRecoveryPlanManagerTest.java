@@ -181,7 +181,8 @@ public class DefaultRecoveryPlanManagerTest extends DefaultCapabilitiesTestSuite
         stateStore.storeTasks(taskInfos);
         stateStore.storeStatus(taskInfo.getName(), status);
         stateStore.storeFrameworkId(TestConstants.FRAMEWORK_ID);
-        when(offerAccepter.accept(any(), any())).thenReturn(Arrays.asList(offers.get(0).getId()));
+        when(offerAccepter.record(any())).thenReturn(true);
+        when(offerAccepter.acceptRecorded(any(), any())).thenReturn(Arrays.asList(offers.get(0).getId()));
         launchConstrainer.setCanLaunch(true);
 
         recoveryManager.update(status);
@@ -197,7 +198,7 @@ public class DefaultRecoveryPlanManagerTest extends DefaultCapabilitiesTestSuite
         verify(launchConstrainer, times(1)).canLaunch(any());
 
         // Verify we ran launching code
-        verify(offerAccepter, times(1)).accept(any(), any());
+        verify(offerAccepter, times(1)).acceptRecorded(any(), any());
         reset(mockDeployManager);
     }
 
@@ -212,7 +213,8 @@ public class DefaultRecoveryPlanManagerTest extends DefaultCapabilitiesTestSuite
         stateStore.storeTasks(taskInfos);
         stateStore.storeStatus(taskInfo.getName(), status);
         stateStore.storeFrameworkId(TestConstants.FRAMEWORK_ID);
-        when(offerAccepter.accept(any(), any())).thenReturn(Arrays.asList(offers.get(0).getId()));
+        when(offerAccepter.record(any())).thenReturn(true);
+        when(offerAccepter.acceptRecorded(any(), any())).thenReturn(Arrays.asList(offers.get(0).getId()));
         when(step.getName()).thenReturn("different-name");
         when(mockDeployManager.getCandidates(Collections.emptyList())).thenReturn((Collection) Arrays.asList(step));
 
@@ -261,6 +263,30 @@ public class DefaultRecoveryPlanManagerTest extends DefaultCapabilitiesTestSuite
         reset(mockDeployManager);
     }
 
+    @Test
+    public void permanentFailureSwitchesPendingTransientRecovery() throws Exception {
+        final Protos.TaskStatus status = TaskTestUtils.generateStatus(
+                taskInfo.getTaskId(),
+                Protos.TaskState.TASK_FAILED);
+
+        launchConstrainer.setCanLaunch(false);
+        stateStore.storeTasks(taskInfos);
+        stateStore.storeStatus(taskInfo.getName(), status);
+        recoveryManager.update(status);
+        recoveryManager.getCandidates(Collections.emptyList());
+
+        DefaultRecoveryStep step =
+                (DefaultRecoveryStep) recoveryManager.getPlan().getChildren().get(0).getChildren().get(0);
+        assertEquals(RecoveryType.TRANSIENT, step.getRecoveryType());
+
+        recoveryManager.permanentlyFailed(new DefaultPodInstance(serviceSpec.getPods().get(0), 0));
+        assertEquals(1, recoveryManager.getPlan().getChildren().size());
+        step = (DefaultRecoveryStep) recoveryManager.getPlan().getChildren().get(0).getChildren().get(0);
+        assertEquals("test-task-type-0:[test-task-name]", step.getName());
+        assertEquals(RecoveryType.PERMANENT, step.getRecoveryType());
+        assertTrue(step.isPending());
+    }
+
     @Test
     public void failedTaskCanBeRestarted() throws Exception {
         final List<Offer> offers = getOffers();
@@ -273,7 +299,8 @@ public class DefaultRecoveryPlanManagerTest extends DefaultCapabilitiesTestSuite
         stateStore.storeTasks(taskInfos);
         stateStore.storeStatus(taskInfo.getName(), status);
         stateStore.storeFrameworkId(TestConstants.FRAMEWORK_ID);
-        when(offerAccepter.accept(any(), any())).thenReturn(Arrays.asList(offers.get(0).getId()));
+        when(offerAccepter.record(any())).thenReturn(true);
+        when(offerAccepter.acceptRecorded(any(), any())).thenReturn(Arrays.asList(offers.get(0).getId()));
 
         recoveryManager.update(status);
         final Collection<Protos.OfferID> acceptedOffers = planScheduler.resourceOffers(
@@ -283,7 +310,7 @@ public class DefaultRecoveryPlanManagerTest extends DefaultCapabilitiesTestSuite
 
         // Verify we launched the task
         assertEquals(1, acceptedOffers.size());
-        verify(offerAccepter, times(1)).accept(any(), recommendationCaptor.capture());
+        verify(offerAccepter, times(1)).acceptRecorded(any(), recommendationCaptor.capture());
         assertEquals(6, recommendationCaptor.getValue().size());
 
         // Verify the Task is reported as failed.
@@ -333,7 +360,7 @@ public class DefaultRecoveryPlanManagerTest extends DefaultCapabilitiesTestSuite
                 recoveryManager.getPlan().getChildren().get(0).getChildren().get(0).getName());
 
         // Verify we didn't launch the task
-        verify(offerAccepter, times(0)).accept(any(), eq(new ArrayList<>()));
+        verify(offerAccepter, times(0)).acceptRecorded(any(), eq(new ArrayList<>()));
         reset(mockDeployManager);
     }
 
@@ -352,7 +379,8 @@ public class DefaultRecoveryPlanManagerTest extends DefaultCapabilitiesTestSuite
         stateStore.storeTasks(infos);
         stateStore.storeStatus(taskInfo.getName(), status);
         stateStore.storeFrameworkId(TestConstants.FRAMEWORK_ID);
-        when(offerAccepter.accept(any(), any())).thenReturn(Arrays.asList(offers.get(0).getId()));
+        when(offerAccepter.record(any())).thenReturn(true);
+        when(offerAccepter.acceptRecorded(any(), any())).thenReturn(Arrays.asList(offers.get(0).getId()));
         when(mockDeployManager.getCandidates(Collections.emptyList())).thenReturn(Collections.emptyList());
 
         recoveryManager.update(status);
@@ -364,7 +392,7 @@ public class DefaultRecoveryPlanManagerTest extends DefaultCapabilitiesTestSuite
         assertEquals(1, acceptedOffers.size());
 
         // Verify we launched the task
-        verify(offerAccepter, times(1)).accept(any(), recommendationCaptor.capture());
+        verify(offerAccepter, times(1)).acceptRecorded(any(), recommendationCaptor.capture());
         assertEquals(6, recommendationCaptor.getValue().size());
 
         // Verify the appropriate task was not checked for failure with failure monitor.
@@ -387,7 +415,8 @@ public class DefaultRecoveryPlanManagerTest extends DefaultCapabilitiesTestSuite
                 Protos.TaskState.TASK_FAILED);
 
         launchConstrainer.setCanLaunch(true);
-        when(offerAccepter.accept(any(), any())).thenReturn(Arrays.asList(offers.get(0).getId()));
+        when(offerAccepter.record(any())).thenReturn(true);
+        when(offerAccepter.acceptRecorded(any(), any())).thenReturn(Arrays.asList(offers.get(0).getId()));
 
         // TASK_RUNNING
         stateStore.storeTasks(taskInfos);
@@ -418,7 +447,8 @@ public class DefaultRecoveryPlanManagerTest extends DefaultCapabilitiesTestSuite
                 Protos.TaskState.TASK_FAILED);
 
         launchConstrainer.setCanLaunch(true);
-        when(offerAccepter.accept(any(), any())).thenReturn(Arrays.asList(offers.get(0).getId()));
+        when(offerAccepter.record(any())).thenReturn(true);
+        when(offerAccepter.acceptRecorded(any(), any())).thenReturn(Arrays.asList(offers.get(0).getId()));
 
         // TASK_RUNNING
         stateStore.storeTasks(taskInfos);
@@ -0,0 +1,63 @@
+package com.mesosphere.sdk.scheduler.recovery.monitor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+public class DeadlineWheelTest {
+
+    @Test
+    public void testDeadlinesExpireInOrder() {
+        DeadlineWheel<String, String> wheel = new DeadlineWheel<>(1000, 8, 0);
+        Assert.assertTrue(wheel.scheduleIfAbsent("a", "a-value", 1500));
+        Assert.assertTrue(wheel.scheduleIfAbsent("b", "b-value", 3000));
+        Assert.assertFalse(wheel.scheduleIfAbsent("a", "other", 500));
+        Assert.assertEquals(2, wheel.size());
+
+        // Deadlines are rounded up to a whole tick, and never expire early:
+        Assert.assertEquals(Collections.emptyList(), wheel.advance(1999));
+        Assert.assertEquals(Arrays.asList("a-value"), wheel.advance(2000));
+        Assert.assertEquals(Collections.emptyList(), wheel.advance(2999));
+        Assert.assertEquals(Arrays.asList("b-value"), wheel.advance(3000));
+        Assert.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testCancel() {
+        DeadlineWheel<String, String> wheel = new DeadlineWheel<>(1000, 8, 0);
+        wheel.scheduleIfAbsent("a", "a-value", 1000);
+        Assert.assertEquals("a-value", wheel.cancel("a").get());
+        Assert.assertFalse(wheel.cancel("a").isPresent());
+        Assert.assertFalse(wheel.get("a").isPresent());
+        Assert.assertEquals(Collections.emptyList(), wheel.advance(5000));
+    }
+
+    @Test
+    public void testDeadlinesBeyondRevolution() {
+        DeadlineWheel<String, String> wheel = new DeadlineWheel<>(1000, 4, 0);
+        wheel.scheduleIfAbsent("near", "near", 2000);
+        // Shares a bucket with "near", but is two revolutions later:
+        wheel.scheduleIfAbsent("far", "far", 10000);
+
+        Assert.assertEquals(Arrays.asList("near"), wheel.advance(2000));
+        Assert.assertEquals(Collections.emptyList(), wheel.advance(9999));
+        Assert.assertEquals(Arrays.asList("far"), wheel.advance(10000));
+    }
+
+    @Test
+    public void testAdvancePastManyRevolutions() {
+        DeadlineWheel<String, String> wheel = new DeadlineWheel<>(1000, 4, 0);
+        wheel.scheduleIfAbsent("a", "a", 1000);
+        wheel.scheduleIfAbsent("b", "b", 7000);
+        wheel.scheduleIfAbsent("c", "c", 200000);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a", "b")), new HashSet<>(wheel.advance(100000)));
+        Assert.assertEquals(1, wheel.size());
+        // A deadline which is already past is expired by the next tick:
+        wheel.scheduleIfAbsent("d", "d", 0);
+        Assert.assertEquals(Arrays.asList("d"), wheel.advance(101000));
+    }
+}
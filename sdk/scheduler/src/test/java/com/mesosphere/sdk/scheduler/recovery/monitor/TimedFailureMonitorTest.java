@@ -0,0 +1,223 @@
+package com.mesosphere.sdk.scheduler.recovery.monitor;
+
+import com.mesosphere.sdk.offer.CommonIdUtils;
+import com.mesosphere.sdk.offer.taskdata.TaskLabelWriter;
+import com.mesosphere.sdk.scheduler.recovery.FailureUtils;
+import com.mesosphere.sdk.specification.DefaultServiceSpec;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.state.ConfigStore;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.storage.Persister;
+import com.mesosphere.sdk.testutils.OfferRequirementTestUtils;
+import com.mesosphere.sdk.testutils.TaskTestUtils;
+import org.apache.mesos.Protos;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TimedFailureMonitorTest {
+    private static final String TASK_NAME = "test-task-type-0-test-task-name";
+    private static final Duration DURATION_UNTIL_FAILED = Duration.ofMinutes(1);
+
+    @Mock private ConfigStore<ServiceSpec> mockConfigStore;
+    private StateStore stateStore;
+    private UUID configId;
+    private TimedFailureMonitor failureMonitor;
+    private long now;
+    private List<String> failedPods;
+
+    @Before
+    public void beforeEach() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        Persister persister = new MemPersister();
+        stateStore = new StateStore(persister);
+        File specFile = new File(getClass().getClassLoader().getResource("recovery-plan-manager-test.yml").getPath());
+        ServiceSpec serviceSpec = DefaultServiceSpec.newGenerator(
+                specFile, OfferRequirementTestUtils.getTestSchedulerFlags()).build();
+        ConfigStore<ServiceSpec> configStore =
+                new ConfigStore<>(DefaultServiceSpec.getConfigurationFactory(serviceSpec), persister);
+        configId = configStore.store(serviceSpec);
+        configStore.setTargetConfig(configId);
+
+        now = 0;
+        failureMonitor = new TimedFailureMonitor(DURATION_UNTIL_FAILED, stateStore, configStore, () -> now, false);
+        failedPods = new ArrayList<>();
+        failureMonitor.setFailureListener(podInstance -> failedPods.add(podInstance.getName()));
+    }
+
+    @Test
+    public void testFailedAfterDeadline() {
+        Protos.TaskInfo task = storeTask();
+        Assert.assertFalse(failureMonitor.hasFailed(task));
+
+        now = DURATION_UNTIL_FAILED.toMillis() - 1;
+        failureMonitor.tick();
+        failureMonitor.markExpiredFailures();
+        Assert.assertFalse(failureMonitor.hasFailed(task));
+        Assert.assertTrue(failedPods.isEmpty());
+
+        // The tick only queues the expired task, which is marked as failed on the scheduler thread:
+        now = DURATION_UNTIL_FAILED.toMillis();
+        failureMonitor.tick();
+        Assert.assertTrue(failedPods.isEmpty());
+        Assert.assertFalse(FailureUtils.isPermanentlyFailed(stateStore.fetchTask(TASK_NAME).get()));
+        failureMonitor.markExpiredFailures();
+        Assert.assertEquals(Arrays.asList("test-task-type-0"), failedPods);
+        Assert.assertTrue(FailureUtils.isPermanentlyFailed(stateStore.fetchTask(TASK_NAME).get()));
+        Assert.assertTrue(failureMonitor.hasFailed(task));
+    }
+
+    @Test
+    public void testRecoveredTaskIsNotFailed() {
+        Protos.TaskInfo task = storeTask();
+        Assert.assertFalse(failureMonitor.hasFailed(task));
+        failureMonitor.update(getStatus(task, Protos.TaskState.TASK_RUNNING));
+        Assert.assertEquals(0, failureMonitor.getTrackedTaskCount());
+
+        now = DURATION_UNTIL_FAILED.toMillis();
+        failureMonitor.tick();
+        failureMonitor.markExpiredFailures();
+        Assert.assertTrue(failedPods.isEmpty());
+        Assert.assertFalse(FailureUtils.isPermanentlyFailed(stateStore.fetchTask(TASK_NAME).get()));
+    }
+
+    @Test
+    public void testRelaunchBeforeMarkingIsNotFailed() {
+        Protos.TaskInfo task = storeTask();
+        Assert.assertFalse(failureMonitor.hasFailed(task));
+
+        now = DURATION_UNTIL_FAILED.toMillis();
+        failureMonitor.tick();
+        // The task is relaunched after its deadline expired, but before the expiry was processed:
+        Protos.TaskInfo relaunchedTask = storeTask();
+        stateStore.storeStatus(TASK_NAME, getStatus(relaunchedTask, Protos.TaskState.TASK_STAGING));
+        failureMonitor.markExpiredFailures();
+
+        Assert.assertTrue(failedPods.isEmpty());
+        Assert.assertFalse(FailureUtils.isPermanentlyFailed(stateStore.fetchTask(TASK_NAME).get()));
+        Assert.assertEquals(relaunchedTask, stateStore.fetchTask(TASK_NAME).get());
+        Assert.assertFalse(failureMonitor.hasFailed(relaunchedTask));
+    }
+
+    @Test
+    public void testStatusOfReplacementStopsTracking() {
+        Protos.TaskInfo task = storeTask();
+        Assert.assertFalse(failureMonitor.hasFailed(task));
+
+        Protos.TaskInfo relaunchedTask = storeTask();
+        failureMonitor.update(getStatus(relaunchedTask, Protos.TaskState.TASK_FAILED));
+        Assert.assertEquals(0, failureMonitor.getTrackedTaskCount());
+    }
+
+    @Test
+    public void testExpiryListenerIsNotified() {
+        AtomicInteger expiries = new AtomicInteger();
+        failureMonitor.setExpiryListener(expiries::incrementAndGet);
+        Protos.TaskInfo task = storeTask();
+        Assert.assertFalse(failureMonitor.hasFailed(task));
+
+        now = DURATION_UNTIL_FAILED.toMillis() - 1;
+        failureMonitor.tick();
+        Assert.assertEquals(0, expiries.get());
+
+        now = DURATION_UNTIL_FAILED.toMillis();
+        failureMonitor.tick();
+        Assert.assertEquals(1, expiries.get());
+        failureMonitor.tick();
+        Assert.assertEquals(1, expiries.get());
+    }
+
+    @Test
+    public void testDeadlineCheckedWithoutTick() {
+        Protos.TaskInfo task = storeTask();
+        Assert.assertFalse(failureMonitor.hasFailed(task));
+
+        // The wheel isn't advanced in the background, so only hasFailed() can notice the deadline:
+        now = DURATION_UNTIL_FAILED.toMillis();
+        Assert.assertTrue(failureMonitor.hasFailed(task));
+        failureMonitor.markExpiredFailures();
+        Assert.assertEquals(Arrays.asList("test-task-type-0"), failedPods);
+    }
+
+    @Test
+    public void testBackgroundTickStops() {
+        TimedFailureMonitor backgroundMonitor = new TimedFailureMonitor(
+                DURATION_UNTIL_FAILED, stateStore, mockConfigStore, () -> now, true);
+        Assert.assertFalse(backgroundMonitor.isTicking());
+        Assert.assertFalse(backgroundMonitor.hasFailed(storeTask()));
+        Assert.assertTrue(backgroundMonitor.isTicking());
+        backgroundMonitor.stop();
+        Assert.assertFalse(backgroundMonitor.isTicking());
+    }
+
+    @Test
+    public void testReplacedTaskStartsOver() {
+        Protos.TaskInfo task = storeTask();
+        Assert.assertFalse(failureMonitor.hasFailed(task));
+
+        now = DURATION_UNTIL_FAILED.toMillis() / 2;
+        Protos.TaskInfo replacementTask = storeTask();
+        Assert.assertFalse(failureMonitor.hasFailed(replacementTask));
+
+        now = DURATION_UNTIL_FAILED.toMillis();
+        failureMonitor.tick();
+        failureMonitor.markExpiredFailures();
+        Assert.assertTrue(failedPods.isEmpty());
+
+        now = DURATION_UNTIL_FAILED.toMillis() * 3 / 2;
+        failureMonitor.tick();
+        failureMonitor.markExpiredFailures();
+        Assert.assertEquals(Arrays.asList("test-task-type-0"), failedPods);
+    }
+
+    @Test
+    public void testFlappingTasksAreNotRetained() {
+        Protos.TaskInfo task = storeTask();
+        for (int i = 0; i < 1000; ++i) {
+            Assert.assertFalse(failureMonitor.hasFailed(task));
+            failureMonitor.update(getStatus(task, Protos.TaskState.TASK_RUNNING));
+            ++now;
+        }
+        Assert.assertEquals(0, failureMonitor.getTrackedTaskCount());
+
+        // Terminal statuses don't affect tracking, which is started by hasFailed():
+        failureMonitor.update(getStatus(task, Protos.TaskState.TASK_FAILED));
+        Assert.assertEquals(0, failureMonitor.getTrackedTaskCount());
+    }
+
+    private Protos.TaskInfo storeTask() {
+        Protos.TaskInfo task = TaskTestUtils.getTaskInfo(Collections.emptyList()).toBuilder()
+                .setName(TASK_NAME)
+                .setTaskId(CommonIdUtils.toTaskId(TASK_NAME))
+                .build();
+        task = task.toBuilder()
+                .setLabels(new TaskLabelWriter(task)
+                        .setTargetConfiguration(configId)
+                        .setType("test-task-type")
+                        .setIndex(0)
+                        .toProto())
+                .build();
+        stateStore.storeTasks(Collections.singletonList(task));
+        stateStore.storeStatus(TASK_NAME, getStatus(task, Protos.TaskState.TASK_FAILED));
+        return task;
+    }
+
+    private static Protos.TaskStatus getStatus(Protos.TaskInfo task, Protos.TaskState state) {
+        return Protos.TaskStatus.newBuilder()
+                .setTaskId(task.getTaskId())
+                .setState(state)
+                .build();
+    }
+}
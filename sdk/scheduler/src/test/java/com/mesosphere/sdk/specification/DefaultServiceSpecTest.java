@@ -3,6 +3,7 @@ package com.mesosphere.sdk.specification;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.google.common.collect.Iterables;
+import com.mesosphere.sdk.config.validate.ConfigValidator;
 import com.mesosphere.sdk.dcos.Capabilities;
 import com.mesosphere.sdk.dcos.DcosConstants;
 import com.mesosphere.sdk.scheduler.DefaultScheduler;
@@ -32,6 +33,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 
@@ -67,6 +69,55 @@ public class DefaultServiceSpecTest {
         Assert.assertNotNull(serviceSpec);
     }
 
+    @Test
+    public void fingerprintReflectsInputs() throws Exception {
+        ClassLoader classLoader = getClass().getClassLoader();
+
+        when(configTemplateReader.read("config-one.conf.mustache")).thenReturn("hello");
+        when(configTemplateReader.read("config-two.xml.mustache")).thenReturn("hey");
+        when(configTemplateReader.read("config-three.conf.mustache")).thenReturn("hi");
+
+        File file = new File(classLoader.getResource("valid-exhaustive.yml").getFile());
+        RawServiceSpec rawServiceSpec = RawServiceSpec.newBuilder(file).build();
+        String fingerprint = getFingerprint(rawServiceSpec, Collections.emptyMap());
+        Assert.assertEquals(fingerprint,
+                getFingerprint(RawServiceSpec.newBuilder(file).build(), Collections.emptyMap()));
+
+        // Changes to task environment or to config templates result in a different fingerprint:
+        Assert.assertNotEquals(fingerprint,
+                getFingerprint(rawServiceSpec, Collections.singletonMap("TASKCFG_ALL_FOO", "bar")));
+        when(configTemplateReader.read("config-one.conf.mustache")).thenReturn("goodbye");
+        Assert.assertNotEquals(fingerprint, getFingerprint(rawServiceSpec, Collections.emptyMap()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void unchangedInputsSkipConfigValidation() throws Exception {
+        ClassLoader classLoader = getClass().getClassLoader();
+        File file = new File(classLoader.getResource("valid-minimal.yml").getFile());
+        RawServiceSpec rawServiceSpec = RawServiceSpec.newBuilder(file).build();
+
+        capabilities = mock(Capabilities.class);
+        when(capabilities.supportsGpuResource()).thenReturn(DcosConstants.DEFAULT_GPU_POLICY);
+        when(capabilities.supportsCNINetworking()).thenReturn(true);
+        Capabilities.overrideCapabilities(capabilities);
+
+        Persister persister = new MemPersister();
+        DefaultScheduler.newBuilder(DefaultServiceSpec.newGenerator(rawServiceSpec, flags, file.getParentFile()),
+                flags, persister).build();
+        ConfigStore<ServiceSpec> configStore =
+                new ConfigStore<>(DefaultServiceSpec.getConfigurationFactory(), persister);
+        UUID targetId = configStore.getTargetConfig();
+
+        ConfigValidator<ServiceSpec> validator = mock(ConfigValidator.class);
+        DefaultScheduler.newBuilder(DefaultServiceSpec.newGenerator(rawServiceSpec, flags, file.getParentFile()),
+                flags, persister)
+                .setCustomConfigValidators(Collections.singletonList(validator))
+                .build();
+        verifyZeroInteractions(validator);
+        Assert.assertEquals(targetId, configStore.getTargetConfig());
+    }
+
     @Test
     public void validMinimal() throws Exception {
         ClassLoader classLoader = getClass().getClassLoader();
@@ -665,6 +716,13 @@ public class DefaultServiceSpecTest {
     }
 
 
+    private String getFingerprint(RawServiceSpec rawServiceSpec, Map<String, String> env) throws Exception {
+        return DefaultServiceSpec.newGenerator(rawServiceSpec, flags, env, new File("."))
+                .setConfigTemplateReader(configTemplateReader)
+                .getFingerprint()
+                .get();
+    }
+
     private void validateServiceSpec(String fileName, Boolean supportGpu) throws Exception {
         ClassLoader classLoader = getClass().getClassLoader();
         File file = new File(classLoader.getResource(fileName).getFile());
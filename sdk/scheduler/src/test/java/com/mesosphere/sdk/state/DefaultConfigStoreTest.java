@@ -105,4 +105,21 @@ public class DefaultConfigStoreTest {
     public void testGetEmptyTargetConfig() throws Exception {
         store.getTargetConfig();
     }
+
+    @Test
+    public void testStoreFetchFingerprint() throws Exception {
+        assertFalse(store.fetchFingerprint("fp1").isPresent());
+
+        UUID firstId = store.store(testConfig);
+        store.storeFingerprint("fp1", firstId);
+        assertEquals(firstId, store.fetchFingerprint("fp1").get());
+        assertEquals(firstId.toString(),
+                new String(persister.get("ConfigFingerprints/fp1"), StandardCharsets.UTF_8));
+
+        // Only the most recent fingerprint is kept:
+        UUID secondId = store.store(new StringConfiguration("test-config-2"));
+        store.storeFingerprint("fp2", secondId);
+        assertEquals(secondId, store.fetchFingerprint("fp2").get());
+        assertFalse(store.fetchFingerprint("fp1").isPresent());
+    }
 }
@@ -1,21 +1,27 @@
 package com.mesosphere.sdk.state;
 
+import com.mesosphere.sdk.testutils.ResourceTestUtils;
 import com.mesosphere.sdk.testutils.TestConstants;
 import org.apache.mesos.Protos;
 import org.apache.mesos.Protos.SlaveID;
 
 import com.mesosphere.sdk.offer.CommonIdUtils;
+import com.mesosphere.sdk.offer.taskdata.TaskLabelWriter;
 import com.mesosphere.sdk.offer.taskdata.TaskPackingUtils;
 import com.mesosphere.sdk.storage.MemPersister;
 import com.mesosphere.sdk.storage.Persister;
+import com.mesosphere.sdk.storage.PersisterException;
 import com.mesosphere.sdk.storage.PersisterUtils;
+import com.mesosphere.sdk.storage.StorageError.Reason;
 
 import org.junit.*;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Tests to validate the operation of the {@link StateStore}.
@@ -92,6 +98,23 @@ public class StateStoreTest {
         assertEquals(testTask, outTasks.iterator().next());
     }
 
+    @Test
+    public void testFetchTaskReusedUntilChanged() throws Exception {
+        Protos.TaskInfo testTask = createTask(TestConstants.TASK_NAME);
+        store.storeTasks(Arrays.asList(testTask));
+        Protos.TaskInfo fetchedTask = store.fetchTask(TestConstants.TASK_NAME).get();
+        assertSame(fetchedTask, store.fetchTask(TestConstants.TASK_NAME).get());
+        assertSame(fetchedTask, store.fetchTasks().iterator().next());
+
+        // Modified behind the store's back:
+        Protos.TaskInfo modifiedTask = testTask.toBuilder().setSlaveId(SlaveID.newBuilder().setValue("b")).build();
+        persister.set(StateStore.getTaskInfoPath(TestConstants.TASK_NAME), modifiedTask.toByteArray());
+        assertEquals(modifiedTask, store.fetchTask(TestConstants.TASK_NAME).get());
+
+        store.clearTask(TestConstants.TASK_NAME);
+        assertFalse(store.fetchTask(TestConstants.TASK_NAME).isPresent());
+    }
+
     @Test
     public void testFetchMissingTask() throws Exception {
         assertFalse(store.fetchTask(TestConstants.TASK_NAME).isPresent());
@@ -275,6 +298,134 @@ public class StateStoreTest {
         assertEquals(status, statuses.iterator().next());
     }
 
+    @Test
+    public void testChangesOnlySkipsUnchangedStatus() throws Exception {
+        store = new StateStore(persister, StatusPersistencePolicy.changesOnly(
+                StatusPersistencePolicy.ALL_STATES, Duration.ofHours(1), 100));
+        Protos.TaskInfo task = createTask(TestConstants.TASK_NAME);
+        store.storeTasks(Arrays.asList(task));
+
+        // State change: written immediately
+        Protos.TaskStatus running = TASK_STATUS.toBuilder()
+                .setTaskId(task.getTaskId())
+                .setState(Protos.TaskState.TASK_RUNNING)
+                .setTimestamp(1)
+                .build();
+        store.storeStatus(TestConstants.TASK_NAME, running);
+        assertEquals(running, getStoredStatus(TestConstants.TASK_NAME));
+
+        // Nothing meaningful changed: not written
+        store.storeStatus(TestConstants.TASK_NAME, running.toBuilder().setTimestamp(2).build());
+        assertEquals(running, getStoredStatus(TestConstants.TASK_NAME));
+        assertEquals(running, store.fetchStatus(TestConstants.TASK_NAME).get());
+
+        // Health changed: deferred, but visible
+        Protos.TaskStatus healthy = running.toBuilder().setHealthy(true).setTimestamp(3).build();
+        store.storeStatus(TestConstants.TASK_NAME, healthy);
+        assertEquals(running, getStoredStatus(TestConstants.TASK_NAME));
+        assertEquals(healthy, store.fetchStatus(TestConstants.TASK_NAME).get());
+        assertEquals(Arrays.asList(healthy), store.fetchStatuses());
+
+        store.flushStatuses();
+        assertEquals(healthy, getStoredStatus(TestConstants.TASK_NAME));
+
+        // State change: written immediately
+        Protos.TaskStatus failed = healthy.toBuilder().setState(Protos.TaskState.TASK_FAILED).build();
+        store.storeStatus(TestConstants.TASK_NAME, failed);
+        assertEquals(failed, getStoredStatus(TestConstants.TASK_NAME));
+    }
+
+    @Test
+    public void testChangesOnlyCoalescesDeferredStatuses() throws Exception {
+        store = new StateStore(persister, StatusPersistencePolicy.changesOnly(
+                StatusPersistencePolicy.INACTIVE_STATES, Duration.ofHours(1), 2));
+        Protos.TaskInfo taskA = createTask("a");
+        Protos.TaskInfo taskB = createTask("b");
+        Protos.TaskInfo taskC = createTask("c");
+        store.storeTasks(Arrays.asList(taskA, taskB, taskC));
+
+        Protos.TaskStatus startingA = TASK_STATUS.toBuilder()
+                .setTaskId(taskA.getTaskId())
+                .setState(Protos.TaskState.TASK_STARTING)
+                .build();
+        Protos.TaskStatus runningA = startingA.toBuilder().setState(Protos.TaskState.TASK_RUNNING).build();
+        store.storeStatus("a", startingA);
+        store.storeStatus("a", runningA);
+        assertFalse(hasStoredStatus("a"));
+        assertEquals(runningA, store.fetchStatus("a").get());
+
+        // Cleared tasks don't have their deferred status written
+        Protos.TaskStatus runningC = runningA.toBuilder().setTaskId(taskC.getTaskId()).build();
+        store.storeStatus("c", runningC);
+        store.clearTask("c");
+        assertFalse(store.fetchStatus("c").isPresent());
+
+        // Reaching the limit of pending writes flushes all of them
+        Protos.TaskStatus runningB = runningA.toBuilder().setTaskId(taskB.getTaskId()).build();
+        store.storeStatus("b", runningB);
+        assertEquals(runningA, getStoredStatus("a"));
+        assertEquals(runningB, getStoredStatus("b"));
+        assertFalse(hasStoredStatus("c"));
+
+        // Transition to an inactive state: written immediately
+        Protos.TaskStatus lostA = runningA.toBuilder().setState(Protos.TaskState.TASK_LOST).build();
+        store.storeStatus("a", lostA);
+        assertEquals(lostA, getStoredStatus("a"));
+    }
+
+    @Test
+    public void testDeferredStatusKeptWhenWriteFails() throws Exception {
+        persister = spy(persister);
+        store = new StateStore(persister, StatusPersistencePolicy.changesOnly(
+                StatusPersistencePolicy.INACTIVE_STATES, Duration.ofHours(1), 100));
+        Protos.TaskInfo task = createTask(TestConstants.TASK_NAME);
+        store.storeTasks(Arrays.asList(task));
+
+        Protos.TaskStatus running = TASK_STATUS.toBuilder()
+                .setTaskId(task.getTaskId())
+                .setState(Protos.TaskState.TASK_RUNNING)
+                .build();
+        store.storeStatus(TestConstants.TASK_NAME, running);
+        assertFalse(hasStoredStatus(TestConstants.TASK_NAME));
+
+        doThrow(new PersisterException(Reason.STORAGE_ERROR, "test"))
+                .when(persister).set(anyString(), any(byte[].class));
+        Protos.TaskStatus failed = running.toBuilder().setState(Protos.TaskState.TASK_FAILED).build();
+        try {
+            store.storeStatus(TestConstants.TASK_NAME, failed);
+            fail("Expected the write to fail");
+        } catch (StateStoreException e) {
+            assertEquals(Reason.STORAGE_ERROR, e.getReason());
+        }
+        // The deferred status is still returned, and is still written later:
+        assertEquals(running, store.fetchStatus(TestConstants.TASK_NAME).get());
+        store.flushStatuses();
+        assertEquals(running, getStoredStatus(TestConstants.TASK_NAME));
+    }
+
+    @Test
+    public void testCloseFlushesDeferredStatuses() throws Exception {
+        store = new StateStore(persister, StatusPersistencePolicy.changesOnly(
+                StatusPersistencePolicy.INACTIVE_STATES, Duration.ofHours(1), 100));
+        Protos.TaskInfo task = createTask(TestConstants.TASK_NAME);
+        store.storeTasks(Arrays.asList(task));
+
+        Protos.TaskStatus starting = TASK_STATUS.toBuilder()
+                .setTaskId(task.getTaskId())
+                .setState(Protos.TaskState.TASK_STARTING)
+                .build();
+        store.storeStatus(TestConstants.TASK_NAME, starting);
+        assertFalse(hasStoredStatus(TestConstants.TASK_NAME));
+
+        store.close();
+        assertEquals(starting, getStoredStatus(TestConstants.TASK_NAME));
+
+        // Statuses stored after closing are no longer deferred:
+        Protos.TaskStatus running = starting.toBuilder().setState(Protos.TaskState.TASK_RUNNING).build();
+        store.storeStatus(TestConstants.TASK_NAME, running);
+        assertEquals(running, getStoredStatus(TestConstants.TASK_NAME));
+    }
+
     @Test
     public void testMultipleStatuses() throws Exception {
         assertTrue(store.fetchTaskNames().isEmpty());
@@ -484,6 +635,125 @@ public class StateStoreTest {
         assertEquals(taskInfo, store.fetchTasks().stream().findAny().get());
     }
 
+    @Test
+    public void testLaunchTransactionSingleWrite() throws Exception {
+        Persister spyPersister = spy(new MemPersister());
+        StateStore spyStore = new StateStore(spyPersister);
+        reset(spyPersister);
+
+        Protos.TaskInfo task = createTask(TestConstants.TASK_NAME);
+        StateStore.LaunchTransaction transaction = spyStore.beginLaunchTransaction()
+                .storeTasks(Arrays.asList(createTask("other-task"), task))
+                .storeStatus(TestConstants.TASK_NAME, TASK_STATUS);
+
+        // Visible within the transaction, but not yet in the store:
+        assertEquals(task, transaction.fetchTask(TestConstants.TASK_NAME).get());
+        assertFalse(spyStore.fetchTask(TestConstants.TASK_NAME).isPresent());
+        assertFalse(spyStore.fetchStatus(TestConstants.TASK_NAME).isPresent());
+
+        transaction.commit();
+        verify(spyPersister, times(1)).setMany(any());
+        verify(spyPersister, never()).set(any(), any());
+        assertEquals(task, spyStore.fetchTask(TestConstants.TASK_NAME).get());
+        assertTrue(spyStore.fetchTask("other-task").isPresent());
+        assertEquals(TASK_STATUS, spyStore.fetchStatus(TestConstants.TASK_NAME).get());
+    }
+
+    @Test
+    public void testLaunchTransactionIgnoresLostAfterTerminal() throws Exception {
+        Protos.TaskInfo task = createTask(TestConstants.TASK_NAME);
+        store.storeTasks(Arrays.asList(task));
+        Protos.TaskStatus failed = TASK_STATUS.toBuilder()
+                .setTaskId(task.getTaskId())
+                .setState(Protos.TaskState.TASK_FAILED)
+                .build();
+        store.storeStatus(TestConstants.TASK_NAME, failed);
+
+        long modificationCount = store.getModificationCount();
+        StateStore.LaunchTransaction transaction = store.beginLaunchTransaction().storeTasks(Arrays.asList(task));
+        try {
+            transaction.storeStatus(
+                    TestConstants.TASK_NAME, failed.toBuilder().setState(Protos.TaskState.TASK_LOST).build());
+            fail("Expected TASK_LOST to be rejected");
+        } catch (StateStoreException e) {
+            assertEquals(Reason.LOGIC_ERROR, e.getReason());
+        }
+        transaction.commit();
+        assertEquals(failed, store.fetchStatus(TestConstants.TASK_NAME).get());
+        assertEquals(modificationCount + 1, store.getModificationCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLaunchTransactionCommitOnce() throws Exception {
+        StateStore.LaunchTransaction transaction = store.beginLaunchTransaction()
+                .storeTasks(createTasks(TestConstants.TASK_NAME));
+        transaction.commit();
+        transaction.commit();
+    }
+
+    @Test
+    public void testFetchTaskNamesForResourceId() throws Exception {
+        Protos.Resource sharedCpu = ResourceTestUtils.getExpectedScalar("cpus", 1.0, "shared-cpu");
+        Protos.Resource volume = ResourceTestUtils.getExpectedRootVolume(100, "volume", "persistence");
+        Protos.TaskInfo taskA = createTask("a").toBuilder().addResources(sharedCpu).addResources(volume).build();
+        Protos.TaskInfo taskB = createTask("b").toBuilder().addResources(sharedCpu).build();
+        // Written directly so that the index is populated from storage on first use:
+        persister.set(StateStore.getTaskInfoPath("a"), taskA.toByteArray());
+        persister.set(StateStore.getTaskInfoPath("b"), taskB.toByteArray());
+
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")),
+                new HashSet<>(store.fetchTaskNamesForResourceId("shared-cpu")));
+        assertEquals(Collections.singleton("a"), new HashSet<>(store.fetchTaskNamesForResourceId("volume")));
+        assertEquals(Collections.singleton("a"), new HashSet<>(store.fetchTaskNamesForPersistenceId("persistence")));
+        assertTrue(store.fetchTaskNamesForResourceId("other").isEmpty());
+
+        // Updates and removals are reflected in the index:
+        store.storeTasks(Arrays.asList(taskB.toBuilder().clearResources().build()));
+        assertEquals(Collections.singleton("a"), new HashSet<>(store.fetchTaskNamesForResourceId("shared-cpu")));
+        store.clearTask("a");
+        assertTrue(store.fetchTaskNamesForResourceId("shared-cpu").isEmpty());
+        assertTrue(store.fetchTaskNamesForPersistenceId("persistence").isEmpty());
+    }
+
+    @Test
+    public void testFetchTaskNamesForPod() throws Exception {
+        Protos.TaskInfo taskA = withPod(createTask("hello-0-server"), "hello", 0);
+        Protos.TaskInfo taskB = withPod(createTask("hello-0-init"), "hello", 0);
+        Protos.TaskInfo taskC = withPod(createTask("hello-1-server"), "hello", 1);
+        Protos.TaskInfo taskD = createTask("no-pod");
+        // Written directly so that the index is populated from storage on first use:
+        for (Protos.TaskInfo task : Arrays.asList(taskA, taskB, taskC, taskD)) {
+            persister.set(StateStore.getTaskInfoPath(task.getName()), task.toByteArray());
+        }
+
+        // Loading the tasks into the index doesn't count as a modification:
+        long modificationCount = store.getModificationCount();
+        assertEquals(Arrays.asList("hello-0", "hello-1"), store.fetchPodNames());
+        assertEquals(Arrays.asList("hello-0-init", "hello-0-server"), store.fetchTaskNamesForPod("hello-0"));
+        assertEquals(Arrays.asList("hello-1-server"), store.fetchTaskNamesForPod("hello-1"));
+        assertTrue(store.fetchTaskNamesForPod("hello-2").isEmpty());
+        assertEquals(Arrays.asList("no-pod"), store.fetchTaskNamesWithoutPod());
+        assertEquals(modificationCount, store.getModificationCount());
+
+        // Changes are reflected in the index and the modification count:
+        store.storeTasks(Arrays.asList(withPod(taskC, "hello", 2)));
+        assertTrue(store.getModificationCount() > modificationCount);
+        assertEquals(Arrays.asList("hello-0", "hello-2"), store.fetchPodNames());
+
+        modificationCount = store.getModificationCount();
+        store.clearTask("hello-0-init");
+        assertTrue(store.getModificationCount() > modificationCount);
+        assertEquals(Arrays.asList("hello-0-server"), store.fetchTaskNamesForPod("hello-0"));
+    }
+
+    private Protos.TaskStatus getStoredStatus(String taskName) throws Exception {
+        return Protos.TaskStatus.parseFrom(persister.get(StateStore.getTaskStatusPath(taskName)));
+    }
+
+    private boolean hasStoredStatus(String taskName) throws Exception {
+        return PersisterUtils.getAllKeys(persister).contains(StateStore.getTaskStatusPath(taskName));
+    }
+
     private static Collection<Protos.TaskInfo> createTasks(String... taskNames) {
         List<Protos.TaskInfo> taskInfos = new ArrayList<>();
         for (String taskName : taskNames) {
@@ -492,6 +762,11 @@ public class StateStoreTest {
         return taskInfos;
     }
 
+    private static Protos.TaskInfo withPod(Protos.TaskInfo taskInfo, String podType, int podIndex) {
+        Protos.TaskInfo.Builder builder = taskInfo.toBuilder();
+        return builder.setLabels(new TaskLabelWriter(builder).setType(podType).setIndex(podIndex).toProto()).build();
+    }
+
     private static Protos.TaskInfo createTask(String taskName) {
         return Protos.TaskInfo.newBuilder()
                 .setName(taskName)
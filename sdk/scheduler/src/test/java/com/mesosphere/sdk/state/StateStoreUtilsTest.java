@@ -98,6 +98,29 @@ public class StateStoreUtilsTest {
         assertThat(StateStoreUtils.getTaskStatusFromProperty(stateStore, "test-task").get(), is(taskStatus));
     }
 
+    @Test
+    public void testTaskStatusPropertyNetworkInfos() {
+        final Protos.TaskInfo taskInfo = newTaskInfo("test-task");
+        final Protos.TaskStatus taskStatus = newTaskStatus(taskInfo, Protos.TaskState.TASK_RUNNING).toBuilder()
+                .setContainerStatus(Protos.ContainerStatus.newBuilder()
+                        .addNetworkInfos(Protos.NetworkInfo.newBuilder()
+                                .addIpAddresses(Protos.NetworkInfo.IPAddress.newBuilder().setIpAddress("10.0.0.1"))))
+                .build();
+        assertThat(StateStoreUtils.hasTaskStatusPropertyNetworkInfos(stateStore, "test-task", taskStatus), is(false));
+
+        StateStoreUtils.storeTaskStatusAsProperty(stateStore, "test-task", taskStatus);
+        assertThat(StateStoreUtils.hasTaskStatusPropertyNetworkInfos(stateStore, "test-task", taskStatus), is(true));
+
+        final Protos.TaskStatus movedTaskStatus = taskStatus.toBuilder()
+                .setContainerStatus(Protos.ContainerStatus.newBuilder()
+                        .addNetworkInfos(Protos.NetworkInfo.newBuilder()
+                                .addIpAddresses(Protos.NetworkInfo.IPAddress.newBuilder().setIpAddress("10.0.0.2"))))
+                .build();
+        assertThat(
+                StateStoreUtils.hasTaskStatusPropertyNetworkInfos(stateStore, "test-task", movedTaskStatus),
+                is(false));
+    }
+
     @Test
     public void testStateStoreWithSingleStateReturnsTaskInfo() {
         // Create task info
@@ -55,6 +55,19 @@ public class PersisterCacheTest {
         assertEquals(BOTH_KEYS_SET, PersisterUtils.getAllKeys(cache));
     }
 
+    @Test
+    public void testRefreshWithProvidedData() throws PersisterException {
+        Map<String, byte[]> allData = new TreeMap<>();
+        allData.put("/" + KEY2, VAL2);
+
+        // The provided data replaces the cache content, without reading the persister:
+        cache = new PersisterCache(mockPersister);
+        cache.refresh(allData);
+        assertEquals(KEY2_SET, PersisterUtils.getAllKeys(cache));
+        assertArrayEquals(VAL2, cache.get(KEY2));
+        Mockito.verifyZeroInteractions(mockPersister);
+    }
+
     @Test
     public void testInitComplicated() throws PersisterException {
         Map<String, byte[]> dataToAdd = new TreeMap<>();
@@ -52,6 +52,8 @@ public class OfferRequirementTestUtils {
         map.put("EXECUTOR_URI", "test-executor-uri");
         map.put("JAVA_URI", "test-java-uri");
         map.put("LIBMESOS_URI", "test-libmesos-uri");
+        map.put("PACKAGE_VERSION", "test-package-version");
+        map.put("PACKAGE_BUILD_TIME_EPOCH_MS", "1234567890");
         return SchedulerFlags.fromMap(map);
     }
 }
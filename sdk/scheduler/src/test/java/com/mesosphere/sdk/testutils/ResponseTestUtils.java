@@ -0,0 +1,32 @@
+package com.mesosphere.sdk.testutils;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class provides utilities for tests concerned with API {@link Response}s.
+ */
+public class ResponseTestUtils {
+
+    private ResponseTestUtils() {
+        // do not instantiate
+    }
+
+    /**
+     * Returns the content which the provided response would stream to a client.
+     */
+    public static String getStreamedEntity(Response response) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            ((StreamingOutput) response.getEntity()).write(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,394 @@
+package com.mesosphere.sdk.testing;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.mesos.Protos;
+import org.apache.mesos.Scheduler;
+import org.mockito.Mockito;
+
+import javax.ws.rs.core.Response;
+
+import com.mesosphere.sdk.api.PlansResource;
+import com.mesosphere.sdk.dcos.Capabilities;
+import com.mesosphere.sdk.offer.Constants;
+import com.mesosphere.sdk.scheduler.DefaultScheduler;
+import com.mesosphere.sdk.scheduler.SchedulerFlags;
+import com.mesosphere.sdk.specification.DefaultServiceSpec;
+import com.mesosphere.sdk.specification.ServiceSpec;
+import com.mesosphere.sdk.specification.yaml.RawServiceSpec;
+import com.mesosphere.sdk.state.ConfigStore;
+import com.mesosphere.sdk.state.StateStore;
+import com.mesosphere.sdk.storage.MemPersister;
+import com.mesosphere.sdk.storage.Persister;
+
+/**
+ * Runs a rendered Service against a {@link SimulatedMesosMaster} with a configurable number of agents, and measures
+ * how the scheduler behaves as the cluster grows: offer cycle latency, time to complete the deploy plan, and heap
+ * usage. Offer rescinds, repeated status updates, task failures, and agent loss may be injected at configurable rates
+ * to exercise the scheduler's recovery paths under churn.
+ *
+ * <p>Each cycle of the simulation advances the simulated clock by the configured cycle duration, delivers any pending
+ * status updates, injects failures, and then passes a batch of offers to the scheduler. The scheduler runs with
+ * threading disabled, so each batch is fully processed before the next cycle begins. For example:
+ *
+ * <pre>
+ * ServiceSimulationResult result = new ServiceSimulationBuilder(new ServiceTestBuilder().render())
+ *         .setAgentCount(1000)
+ *         .setTaskFailureRate(0.5)
+ *         .run();
+ * </pre>
+ */
+public class ServiceSimulationBuilder {
+
+    private final ServiceSpec serviceSpec;
+    private final RawServiceSpec rawServiceSpec;
+    private final Map<String, String> schedulerEnvironment;
+
+    private int agentCount = 10;
+    private double agentCpus = 8;
+    private double agentMemMb = 32768;
+    private double agentDiskMb = 102400;
+    private long agentPortsBegin = 1025;
+    private long agentPortsEnd = 32000;
+    private int offersPerCycle = 0;
+    private Duration cycleDuration = Duration.ofSeconds(1);
+    private Duration offerTimeout = Duration.ofSeconds(30);
+    private double offerRescindRate = 0;
+    private double statusUpdateRate = 0;
+    private double taskFailureRate = 0;
+    private double agentLossRate = 0;
+    private boolean replaceLostAgents = true;
+    private int steadyStateCycles = 0;
+    private int maxCycles = 1000;
+    private long randomSeed = 0;
+    private boolean supportsDefaultExecutor = true;
+    private boolean quiet = true;
+
+    /**
+     * Creates a new instance against the Service which was rendered by {@link ServiceTestBuilder#render()}.
+     */
+    public ServiceSimulationBuilder(ServiceTestResult serviceTestResult) {
+        this.serviceSpec = serviceTestResult.getServiceSpec();
+        this.rawServiceSpec = serviceTestResult.getRawServiceSpec();
+        this.schedulerEnvironment = serviceTestResult.getSchedulerEnvironment();
+    }
+
+    /**
+     * Configures the number of agents in the simulated cluster. The default is 10.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setAgentCount(int agentCount) {
+        this.agentCount = agentCount;
+        return this;
+    }
+
+    /**
+     * Configures the unreserved resources which each agent starts with. The default is 8 cpus, 32GB of memory, 100GB
+     * of disk, and ports 1025-32000.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setAgentResources(
+            double cpus, double memMb, double diskMb, long portsBegin, long portsEnd) {
+        this.agentCpus = cpus;
+        this.agentMemMb = memMb;
+        this.agentDiskMb = diskMb;
+        this.agentPortsBegin = portsBegin;
+        this.agentPortsEnd = portsEnd;
+        return this;
+    }
+
+    /**
+     * Configures the maximum number of offers which are passed to the scheduler in each cycle, or zero to offer every
+     * available agent in each cycle. The default is zero.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setOffersPerCycle(int offersPerCycle) {
+        this.offersPerCycle = offersPerCycle;
+        return this;
+    }
+
+    /**
+     * Configures the amount of simulated time which passes in each cycle. The default is one second.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setCycleDuration(Duration cycleDuration) {
+        this.cycleDuration = cycleDuration;
+        return this;
+    }
+
+    /**
+     * Configures the simulated time after which an offer which was neither accepted nor declined is taken back by the
+     * master. The default is 30 seconds.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setOfferTimeout(Duration offerTimeout) {
+        this.offerTimeout = offerTimeout;
+        return this;
+    }
+
+    /**
+     * Configures the average number of offers which are rescinded per simulated second, while the scheduler is still
+     * evaluating them. The default is zero.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setOfferRescindRate(double rescindsPerSecond) {
+        this.offerRescindRate = rescindsPerSecond;
+        return this;
+    }
+
+    /**
+     * Configures the average number of duplicate status updates which are sent for running tasks per simulated
+     * second. The default is zero.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setStatusUpdateRate(double updatesPerSecond) {
+        this.statusUpdateRate = updatesPerSecond;
+        return this;
+    }
+
+    /**
+     * Configures the average number of running tasks which fail per simulated second. The default is zero.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setTaskFailureRate(double failuresPerSecond) {
+        this.taskFailureRate = failuresPerSecond;
+        return this;
+    }
+
+    /**
+     * Configures the average number of agents which are lost per simulated second. The default is zero.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setAgentLossRate(double lossesPerSecond) {
+        this.agentLossRate = lossesPerSecond;
+        return this;
+    }
+
+    /**
+     * Configures whether lost agents are replaced with new empty agents, keeping the cluster size constant. The
+     * default is {@code true}.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setReplaceLostAgents(boolean replaceLostAgents) {
+        this.replaceLostAgents = replaceLostAgents;
+        return this;
+    }
+
+    /**
+     * Configures the number of cycles to keep running after the deploy plan has completed, for measuring the
+     * scheduler's steady state behavior under the configured failure rates. The default is zero.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setSteadyStateCycles(int steadyStateCycles) {
+        this.steadyStateCycles = steadyStateCycles;
+        return this;
+    }
+
+    /**
+     * Configures the maximum number of cycles to run, after which the simulation ends regardless of whether the
+     * deploy plan has completed. The default is 1000.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setMaxCycles(int maxCycles) {
+        this.maxCycles = maxCycles;
+        return this;
+    }
+
+    /**
+     * Configures the seed for offer ordering and failure injection. Runs with the same seed and settings inject the
+     * same failures. The default is zero.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setRandomSeed(long randomSeed) {
+        this.randomSeed = randomSeed;
+        return this;
+    }
+
+    /**
+     * Configures whether the simulated cluster advertises support for the default executor. The default is
+     * {@code true}.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setDefaultExecutor(boolean supportsDefaultExecutor) {
+        this.supportsDefaultExecutor = supportsDefaultExecutor;
+        return this;
+    }
+
+    /**
+     * Configures whether logging is limited to warnings and errors while the simulation is running. Scheduler logging
+     * at info level can dominate the measurements for large clusters. The default is {@code true}.
+     *
+     * @return {@code this}
+     */
+    public ServiceSimulationBuilder setQuiet(boolean quiet) {
+        this.quiet = quiet;
+        return this;
+    }
+
+    /**
+     * Runs the simulation.
+     *
+     * @return a {@link ServiceSimulationResult} containing the measurements from the run
+     * @throws Exception if the scheduler could not be built
+     */
+    public ServiceSimulationResult run() throws Exception {
+        Capabilities mockCapabilities = Mockito.mock(Capabilities.class);
+        Mockito.when(mockCapabilities.supportsDefaultExecutor()).thenReturn(supportsDefaultExecutor);
+        Mockito.when(mockCapabilities.supportsGpuResource()).thenReturn(true);
+        Mockito.when(mockCapabilities.supportsCNINetworking()).thenReturn(true);
+        Mockito.when(mockCapabilities.supportsNamedVips()).thenReturn(true);
+        Mockito.when(mockCapabilities.supportsRLimits()).thenReturn(true);
+        Mockito.when(mockCapabilities.supportsPreReservedResources()).thenReturn(true);
+        Mockito.when(mockCapabilities.supportsFileBasedSecrets()).thenReturn(true);
+        Mockito.when(mockCapabilities.supportsEnvBasedSecretsProtobuf()).thenReturn(true);
+        Mockito.when(mockCapabilities.supportsEnvBasedSecretsDirectiveLabel()).thenReturn(true);
+        Capabilities.overrideCapabilities(mockCapabilities);
+
+        Level previousLevel = LogManager.getRootLogger().getLevel();
+        if (quiet) {
+            Configurator.setRootLevel(Level.WARN);
+        }
+        try {
+            return simulate();
+        } finally {
+            if (quiet) {
+                Configurator.setRootLevel(previousLevel);
+            }
+            // Reset Capabilities API to default behavior:
+            Capabilities.overrideCapabilities(null);
+        }
+    }
+
+    private ServiceSimulationResult simulate() throws Exception {
+        Persister persister = new MemPersister();
+        DefaultScheduler scheduler = DefaultScheduler.newBuilder(serviceSpec, getFlags(), persister)
+                .setStateStore(new StateStore(persister))
+                .setConfigStore(new ConfigStore<>(DefaultServiceSpec.getConfigurationFactory(serviceSpec), persister))
+                .setPlansFrom(rawServiceSpec)
+                .build();
+        scheduler.disableApiServer().disableThreading().start();
+        Scheduler mesosScheduler = scheduler.getMesosScheduler().get();
+        PlansResource plansResource = scheduler.getResources().stream()
+                .filter(resource -> resource instanceof PlansResource)
+                .map(resource -> (PlansResource) resource)
+                .findAny()
+                .get();
+
+        Random random = new Random(randomSeed);
+        SimulatedMesosMaster master = new SimulatedMesosMaster(
+                agentCount, agentCpus, agentMemMb, agentDiskMb, agentPortsBegin, agentPortsEnd, random);
+        master.register(mesosScheduler);
+
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        double cycleSeconds = cycleDuration.toMillis() / 1000.0;
+        List<Long> offerCycleNanos = new ArrayList<>();
+        long peakHeapBytes = 0;
+        Optional<Integer> deployCycles = Optional.empty();
+        Optional<Long> deployWallTimeMs = Optional.empty();
+        Optional<Long> deploySimulatedTimeMs = Optional.empty();
+
+        long startNanos = System.nanoTime();
+        int cycle = 0;
+        while (cycle < maxCycles) {
+            ++cycle;
+            master.advanceClock(cycleDuration.toMillis());
+            master.deliverStatusUpdates();
+
+            master.queueRepeatedStatusUpdates(getEventCount(random, statusUpdateRate, cycleSeconds));
+            master.failRandomTasks(getEventCount(random, taskFailureRate, cycleSeconds));
+            master.loseRandomAgents(getEventCount(random, agentLossRate, cycleSeconds), replaceLostAgents);
+            master.expireOffers(offerTimeout.toMillis());
+
+            List<Protos.Offer> offers = master.createOffers(offersPerCycle);
+            master.invalidateOffers(offers, getEventCount(random, offerRescindRate, cycleSeconds));
+            // Invoked even when there are no offers, so that the scheduler gets a chance to revive
+            long offerStartNanos = System.nanoTime();
+            mesosScheduler.resourceOffers(master, offers);
+            if (!offers.isEmpty()) {
+                offerCycleNanos.add(System.nanoTime() - offerStartNanos);
+            }
+            master.notifyRescinded();
+
+            peakHeapBytes = Math.max(peakHeapBytes, memoryBean.getHeapMemoryUsage().getUsed());
+
+            if (!deployCycles.isPresent() && isDeployComplete(plansResource)) {
+                deployCycles = Optional.of(cycle);
+                deployWallTimeMs = Optional.of((System.nanoTime() - startNanos) / 1000000);
+                deploySimulatedTimeMs = Optional.of(cycle * cycleDuration.toMillis());
+            }
+            if (deployCycles.isPresent() && cycle - deployCycles.get() >= steadyStateCycles) {
+                break;
+            }
+        }
+
+        long finalHeapBytes = memoryBean.getHeapMemoryUsage().getUsed();
+
+        return new ServiceSimulationResult(
+                agentCount,
+                cycle,
+                deployCycles,
+                deployWallTimeMs,
+                deploySimulatedTimeMs,
+                offerCycleNanos,
+                peakHeapBytes,
+                finalHeapBytes,
+                master.getActiveTaskCount(),
+                master.getCounters());
+    }
+
+    private SchedulerFlags getFlags() {
+        Map<String, String> flags = new HashMap<>(schedulerEnvironment);
+        flags.put("PORT_API", "8080");
+        flags.put("EXECUTOR_URI", "executor-test-uri");
+        flags.put("LIBMESOS_URI", "libmesos-test-uri");
+        flags.put("JAVA_URI", "java-test-uri");
+        flags.put("JAVA_HOME", "java-test-home");
+        return SchedulerFlags.fromMap(flags);
+    }
+
+    private static boolean isDeployComplete(PlansResource plansResource) {
+        // The plan status is served from a snapshot which is refreshed after each offer cycle and status update:
+        return plansResource.getPlanInfo(Constants.DEPLOY_PLAN_NAME).getStatus() == Response.Status.OK.getStatusCode();
+    }
+
+    /**
+     * Returns the number of events to inject in a cycle, given an average rate per second. The fractional part of the
+     * expected count is treated as the probability of one additional event, so that low rates still produce events.
+     */
+    private static int getEventCount(Random random, double ratePerSecond, double cycleSeconds) {
+        if (ratePerSecond <= 0) {
+            return 0;
+        }
+        double expected = ratePerSecond * cycleSeconds;
+        int count = (int) expected;
+        if (random.nextDouble() < expected - count) {
+            ++count;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,157 @@
+package com.mesosphere.sdk.testing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An object which contains the measurements from running a Service against a simulated cluster via
+ * {@link ServiceSimulationBuilder}.
+ */
+public class ServiceSimulationResult {
+
+    private final int agentCount;
+    private final int cycles;
+    private final Optional<Integer> deployCycles;
+    private final Optional<Long> deployWallTimeMs;
+    private final Optional<Long> deploySimulatedTimeMs;
+    private final List<Long> offerCycleNanos;
+    private final long peakHeapBytes;
+    private final long finalHeapBytes;
+    private final int activeTasks;
+    private final SimulatedMesosMaster.Counters counters;
+
+    ServiceSimulationResult(
+            int agentCount,
+            int cycles,
+            Optional<Integer> deployCycles,
+            Optional<Long> deployWallTimeMs,
+            Optional<Long> deploySimulatedTimeMs,
+            List<Long> offerCycleNanos,
+            long peakHeapBytes,
+            long finalHeapBytes,
+            int activeTasks,
+            SimulatedMesosMaster.Counters counters) {
+        this.agentCount = agentCount;
+        this.cycles = cycles;
+        this.deployCycles = deployCycles;
+        this.deployWallTimeMs = deployWallTimeMs;
+        this.deploySimulatedTimeMs = deploySimulatedTimeMs;
+        this.offerCycleNanos = new ArrayList<>(offerCycleNanos);
+        Collections.sort(this.offerCycleNanos);
+        this.peakHeapBytes = peakHeapBytes;
+        this.finalHeapBytes = finalHeapBytes;
+        this.activeTasks = activeTasks;
+        this.counters = counters;
+    }
+
+    /**
+     * Returns whether the deploy plan reached {@code COMPLETE} within the configured number of cycles.
+     */
+    public boolean isDeployComplete() {
+        return deployCycles.isPresent();
+    }
+
+    /**
+     * Returns the number of offer cycles which were needed to complete the deploy plan, or an empty Optional if it
+     * didn't complete.
+     */
+    public Optional<Integer> getDeployCycles() {
+        return deployCycles;
+    }
+
+    /**
+     * Returns the real time which elapsed from the start of the run until the deploy plan completed, or an empty
+     * Optional if it didn't complete.
+     */
+    public Optional<Long> getDeployWallTimeMs() {
+        return deployWallTimeMs;
+    }
+
+    /**
+     * Returns the simulated cluster time until the deploy plan completed, or an empty Optional if it didn't complete.
+     */
+    public Optional<Long> getDeploySimulatedTimeMs() {
+        return deploySimulatedTimeMs;
+    }
+
+    /**
+     * Returns the total number of offer cycles which were run.
+     */
+    public int getCycles() {
+        return cycles;
+    }
+
+    /**
+     * Returns the requested percentile (0-100) of the time taken by the scheduler to process each batch of offers, in
+     * milliseconds.
+     */
+    public double getOfferCycleLatencyMs(double percentile) {
+        if (offerCycleNanos.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * offerCycleNanos.size()) - 1;
+        index = Math.max(0, Math.min(offerCycleNanos.size() - 1, index));
+        return offerCycleNanos.get(index) / 1000000.0;
+    }
+
+    /**
+     * Returns the largest heap usage observed between offer cycles, in bytes.
+     */
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    /**
+     * Returns the heap usage at the end of the run, in bytes. No GC is forced beforehand, so this may include garbage
+     * which hasn't been collected yet.
+     */
+    public long getFinalHeapBytes() {
+        return finalHeapBytes;
+    }
+
+    /**
+     * Returns the number of tasks which were active in the simulated cluster at the end of the run.
+     */
+    public int getActiveTasks() {
+        return activeTasks;
+    }
+
+    /**
+     * Returns counts of the interactions between the scheduler and the simulated master.
+     */
+    public SimulatedMesosMaster.Counters getCounters() {
+        return counters;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Simulation of %d agents over %d cycles:%n", agentCount, cycles));
+        if (isDeployComplete()) {
+            sb.append(String.format("  Deploy: complete after %d cycles, %dms simulated, %dms wall clock%n",
+                    deployCycles.get(), deploySimulatedTimeMs.get(), deployWallTimeMs.get()));
+        } else {
+            sb.append(String.format("  Deploy: NOT complete%n"));
+        }
+        sb.append(String.format("  Offer cycle latency: p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms (%d samples)%n",
+                getOfferCycleLatencyMs(50),
+                getOfferCycleLatencyMs(90),
+                getOfferCycleLatencyMs(99),
+                getOfferCycleLatencyMs(100),
+                offerCycleNanos.size()));
+        sb.append(String.format("  Heap: peak=%dMB final=%dMB%n",
+                peakHeapBytes / (1024 * 1024), finalHeapBytes / (1024 * 1024)));
+        sb.append(String.format("  Offers: sent=%d accepted=%d declined=%d rescinded=%d expired=%d%n",
+                counters.offersSent, counters.offersAccepted, counters.offersDeclined,
+                counters.offersRescinded, counters.offersExpired));
+        sb.append(String.format("  Tasks: active=%d launched=%d killed=%d failed=%d statusUpdates=%d%n",
+                activeTasks, counters.tasksLaunched, counters.tasksKilled, counters.tasksFailed,
+                counters.statusUpdates));
+        sb.append(String.format("  Master: operations=%d revives=%d suppresses=%d reconciles=%d agentsLost=%d",
+                counters.operations, counters.revives, counters.suppresses, counters.reconciles,
+                counters.agentsLost));
+        return sb.toString();
+    }
+}
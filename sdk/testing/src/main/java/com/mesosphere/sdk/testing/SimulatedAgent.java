@@ -0,0 +1,249 @@
+package com.mesosphere.sdk.testing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.mesos.Protos;
+
+import com.mesosphere.sdk.offer.ResourceUtils;
+import com.mesosphere.sdk.offer.ValueUtils;
+
+/**
+ * Resource bookkeeping for a single agent in a {@link SimulatedMesosMaster}. Tracks the agent's unreserved resources,
+ * the resources which have been reserved against it (keyed by their SDK resource ID), and which of those are currently
+ * consumed by running tasks. Anything which isn't consumed is included in the agent's next offer.
+ *
+ * <p>Not thread-safe: all access is expected to happen on the simulation thread.
+ */
+class SimulatedAgent {
+    private static final double EPSILON = 0.0001;
+    private static final String UNRESERVED_ROLE = "*";
+
+    private final Protos.SlaveID agentId;
+    private final String hostname;
+
+    // Unreserved resource name => remaining amount
+    private final Map<String, Protos.Value> unreserved = new LinkedHashMap<>();
+    // Resource ID => the reserved resource, as it was passed in RESERVE or CREATE
+    private final Map<String, Protos.Resource> reserved = new LinkedHashMap<>();
+    // Resource ID => number of active tasks which are using it (shared executor resources are counted once per task)
+    private final Map<String, Integer> inUse = new HashMap<>();
+    // Task ID => unreserved resources which the task consumed directly, to be returned when it exits
+    private final Map<Protos.TaskID, List<Protos.Resource>> unreservedByTask = new HashMap<>();
+    // Task ID => resource IDs used by the task
+    private final Map<Protos.TaskID, List<String>> resourceIdsByTask = new HashMap<>();
+
+    private Protos.OfferID outstandingOffer;
+    private long filteredUntilMs;
+
+    SimulatedAgent(String agentId, double cpus, double memMb, double diskMb, long portsBegin, long portsEnd) {
+        this.agentId = Protos.SlaveID.newBuilder().setValue(agentId).build();
+        this.hostname = agentId + ".simulated";
+        unreserved.put("cpus", scalar(cpus));
+        unreserved.put("mem", scalar(memMb));
+        unreserved.put("disk", scalar(diskMb));
+        unreserved.put("ports", Protos.Value.newBuilder()
+                .setType(Protos.Value.Type.RANGES)
+                .setRanges(Protos.Value.Ranges.newBuilder()
+                        .addRange(Protos.Value.Range.newBuilder().setBegin(portsBegin).setEnd(portsEnd)))
+                .build());
+    }
+
+    Protos.SlaveID getAgentId() {
+        return agentId;
+    }
+
+    Optional<Protos.OfferID> getOutstandingOffer() {
+        return Optional.ofNullable(outstandingOffer);
+    }
+
+    void clearOutstandingOffer() {
+        outstandingOffer = null;
+    }
+
+    /**
+     * Returns whether this agent may be offered at the provided simulated time: it must not have an outstanding offer,
+     * must not be filtered by a previous decline, and must have something to offer.
+     */
+    boolean isOfferable(long nowMs) {
+        return outstandingOffer == null && nowMs >= filteredUntilMs && hasAvailableResources();
+    }
+
+    void setFilter(long untilMs) {
+        filteredUntilMs = untilMs;
+    }
+
+    /**
+     * Builds an offer containing all of the agent's currently available resources, and marks it outstanding.
+     */
+    Protos.Offer offer(Protos.OfferID offerId, Protos.FrameworkID frameworkId) {
+        Protos.Offer.Builder offerBuilder = Protos.Offer.newBuilder()
+                .setId(offerId)
+                .setFrameworkId(frameworkId)
+                .setSlaveId(agentId)
+                .setHostname(hostname);
+        for (Map.Entry<String, Protos.Value> entry : unreserved.entrySet()) {
+            if (!isEmpty(entry.getValue())) {
+                offerBuilder.addResources(toResource(entry.getKey(), entry.getValue()));
+            }
+        }
+        for (Map.Entry<String, Protos.Resource> entry : reserved.entrySet()) {
+            if (!inUse.containsKey(entry.getKey())) {
+                offerBuilder.addResources(entry.getValue());
+            }
+        }
+        outstandingOffer = offerId;
+        return offerBuilder.build();
+    }
+
+    void reserve(Collection<Protos.Resource> resources) {
+        for (Protos.Resource resource : resources) {
+            Optional<String> resourceId = ResourceUtils.getResourceId(resource);
+            if (!resourceId.isPresent()) {
+                continue;
+            }
+            subtractUnreserved(resource);
+            reserved.put(resourceId.get(), resource);
+        }
+    }
+
+    void unreserve(Collection<Protos.Resource> resources) {
+        for (Protos.Resource resource : resources) {
+            Optional<String> resourceId = ResourceUtils.getResourceId(resource);
+            if (resourceId.isPresent() && reserved.remove(resourceId.get()) != null) {
+                addUnreserved(resource);
+            }
+        }
+    }
+
+    void createVolumes(Collection<Protos.Resource> volumes) {
+        for (Protos.Resource volume : volumes) {
+            Optional<String> resourceId = ResourceUtils.getResourceId(volume);
+            if (resourceId.isPresent()) {
+                reserved.put(resourceId.get(), volume);
+            }
+        }
+    }
+
+    void destroyVolumes(Collection<Protos.Resource> volumes) {
+        for (Protos.Resource volume : volumes) {
+            Optional<String> resourceId = ResourceUtils.getResourceId(volume);
+            if (!resourceId.isPresent() || !reserved.containsKey(resourceId.get())) {
+                continue;
+            }
+            Protos.Resource.Builder builder = volume.toBuilder().clearDisk();
+            if (volume.getDisk().hasSource()) {
+                builder.getDiskBuilder().setSource(volume.getDisk().getSource());
+            }
+            reserved.put(resourceId.get(), builder.build());
+        }
+    }
+
+    /**
+     * Marks the resources used by the provided task (including any executor resources) as consumed.
+     */
+    void launch(Protos.TaskID taskId, Collection<Protos.Resource> resources) {
+        List<String> resourceIds = new ArrayList<>();
+        List<Protos.Resource> unreservedResources = new ArrayList<>();
+        for (Protos.Resource resource : resources) {
+            Optional<String> resourceId = ResourceUtils.getResourceId(resource);
+            if (resourceId.isPresent()) {
+                resourceIds.add(resourceId.get());
+                inUse.merge(resourceId.get(), 1, Integer::sum);
+            } else {
+                subtractUnreserved(resource);
+                unreservedResources.add(resource);
+            }
+        }
+        resourceIdsByTask.put(taskId, resourceIds);
+        unreservedByTask.put(taskId, unreservedResources);
+    }
+
+    /**
+     * Returns the resources consumed by the provided task, following its exit.
+     */
+    void release(Protos.TaskID taskId) {
+        List<String> resourceIds = resourceIdsByTask.remove(taskId);
+        if (resourceIds != null) {
+            for (String resourceId : resourceIds) {
+                inUse.computeIfPresent(resourceId, (id, count) -> count <= 1 ? null : count - 1);
+            }
+        }
+        List<Protos.Resource> unreservedResources = unreservedByTask.remove(taskId);
+        if (unreservedResources != null) {
+            unreservedResources.forEach(this::addUnreserved);
+        }
+    }
+
+    private boolean hasAvailableResources() {
+        if (reserved.size() > inUse.size()) {
+            return true;
+        }
+        for (Protos.Value value : unreserved.values()) {
+            if (!isEmpty(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void subtractUnreserved(Protos.Resource resource) {
+        Protos.Value current = unreserved.get(resource.getName());
+        Protos.Value value = ValueUtils.getValue(resource);
+        if (current == null || value == null) {
+            return;
+        }
+        Protos.Value remaining = ValueUtils.subtract(current, value);
+        if (remaining != null) {
+            unreserved.put(resource.getName(), remaining);
+        }
+    }
+
+    private void addUnreserved(Protos.Resource resource) {
+        Protos.Value value = ValueUtils.getValue(resource);
+        if (value == null) {
+            return;
+        }
+        Protos.Value current = unreserved.get(resource.getName());
+        Protos.Value sum = current == null ? value : ValueUtils.add(current, value);
+        if (sum != null) {
+            unreserved.put(resource.getName(), sum);
+        }
+    }
+
+    private static Protos.Resource toResource(String name, Protos.Value value) {
+        Protos.Resource.Builder builder = Protos.Resource.newBuilder()
+                .setName(name)
+                .setRole(UNRESERVED_ROLE)
+                .setType(value.getType());
+        if (value.getType() == Protos.Value.Type.SCALAR) {
+            builder.setScalar(value.getScalar());
+        } else {
+            builder.setRanges(value.getRanges());
+        }
+        return builder.build();
+    }
+
+    private static boolean isEmpty(Protos.Value value) {
+        switch (value.getType()) {
+        case SCALAR:
+            return value.getScalar().getValue() < EPSILON;
+        case RANGES:
+            return value.getRanges().getRangeCount() == 0;
+        default:
+            return true;
+        }
+    }
+
+    private static Protos.Value scalar(double value) {
+        return Protos.Value.newBuilder()
+                .setType(Protos.Value.Type.SCALAR)
+                .setScalar(Protos.Value.Scalar.newBuilder().setValue(value))
+                .build();
+    }
+}
@@ -0,0 +1,672 @@
+package com.mesosphere.sdk.testing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.mesos.Protos;
+import org.apache.mesos.Scheduler;
+import org.apache.mesos.SchedulerDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A local, in-process stand-in for a Mesos master and its {@link SchedulerDriver}, modeling a configurable number of
+ * agents. The master keeps track of outstanding offers, decline filters, suppression, reservations, volumes, and
+ * running tasks, and reports task status back to the registered {@link Scheduler}.
+ *
+ * <p>The master runs on a simulated clock which is advanced by the caller, and does nothing on its own: offers, status
+ * updates, and failures are only produced when the caller asks for them. This keeps runs deterministic for a given
+ * random seed. See {@link ServiceSimulationBuilder} for the driving loop.
+ */
+public class SimulatedMesosMaster implements SchedulerDriver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimulatedMesosMaster.class);
+
+    // Task label names are internal to the scheduler and executor, so they are repeated here.
+    private static final String GOAL_STATE_LABEL = "goal_state";
+    private static final String READINESS_CHECK_LABEL = "readiness_check";
+    private static final String READINESS_CHECK_PASSED_LABEL = "readiness_check_passed";
+
+    /**
+     * Counts of the interactions between the scheduler and the master over the course of a simulation.
+     */
+    public static class Counters {
+        public long offersSent;
+        public long offersAccepted;
+        public long offersDeclined;
+        public long offersRescinded;
+        public long offersExpired;
+        public long operations;
+        public long tasksLaunched;
+        public long tasksKilled;
+        public long tasksFailed;
+        public long statusUpdates;
+        public long agentsLost;
+        public long revives;
+        public long suppresses;
+        public long reconciles;
+    }
+
+    /**
+     * A task which the master believes to be active on an agent.
+     */
+    private static class SimulatedTask {
+        private final Protos.TaskInfo taskInfo;
+        private final SimulatedAgent agent;
+        private final Optional<Protos.ExecutorID> executorId;
+        private Protos.TaskStatus lastStatus;
+
+        private SimulatedTask(Protos.TaskInfo taskInfo, SimulatedAgent agent, Optional<Protos.ExecutorID> executorId) {
+            this.taskInfo = taskInfo;
+            this.agent = agent;
+            this.executorId = executorId;
+        }
+    }
+
+    private final Random random;
+    private final double agentCpus;
+    private final double agentMemMb;
+    private final double agentDiskMb;
+    private final long agentPortsBegin;
+    private final long agentPortsEnd;
+    private final Protos.FrameworkID frameworkId =
+            Protos.FrameworkID.newBuilder().setValue("simulated-framework").build();
+    private final Counters counters = new Counters();
+
+    // Ordered so that offers are produced in a stable order for a given seed
+    private final List<SimulatedAgent> agents = new ArrayList<>();
+    private final Map<Protos.OfferID, SimulatedAgent> outstandingOffers = new HashMap<>();
+    private final Map<Protos.OfferID, Long> offerTimesMs = new HashMap<>();
+    private final Set<Protos.OfferID> invalidatedOffers = new HashSet<>();
+    private final Map<Protos.TaskID, SimulatedTask> activeTasks = new LinkedHashMap<>();
+    // Parallel to activeTasks, for O(1) random selection
+    private final List<Protos.TaskID> activeTaskIds = new ArrayList<>();
+    private final Map<Protos.TaskID, Integer> activeTaskIndexes = new HashMap<>();
+    private final List<Protos.TaskStatus> pendingStatuses = new ArrayList<>();
+
+    private Scheduler scheduler;
+    private boolean suppressed = false;
+    private long nowMs = 0;
+    private long offerCounter = 0;
+    private long agentCounter = 0;
+    // Index of the agent to start from when producing the next batch of offers
+    private int offerCursor = 0;
+
+    /**
+     * Creates a new master with {@code agentCount} identical agents, each with the provided unreserved resources.
+     */
+    public SimulatedMesosMaster(
+            int agentCount,
+            double agentCpus,
+            double agentMemMb,
+            double agentDiskMb,
+            long agentPortsBegin,
+            long agentPortsEnd,
+            Random random) {
+        this.random = random;
+        this.agentCpus = agentCpus;
+        this.agentMemMb = agentMemMb;
+        this.agentDiskMb = agentDiskMb;
+        this.agentPortsBegin = agentPortsBegin;
+        this.agentPortsEnd = agentPortsEnd;
+        for (int i = 0; i < agentCount; ++i) {
+            addAgent();
+        }
+    }
+
+    /**
+     * Registers the provided scheduler with this master. Must be invoked before any other simulation calls.
+     */
+    public synchronized void register(Scheduler scheduler) {
+        this.scheduler = scheduler;
+        scheduler.registered(this, frameworkId, Protos.MasterInfo.newBuilder()
+                .setId("simulated-master")
+                .setIp(0)
+                .setPort(5050)
+                .setHostname("master.simulated")
+                .build());
+    }
+
+    public Counters getCounters() {
+        return counters;
+    }
+
+    public synchronized int getAgentCount() {
+        return agents.size();
+    }
+
+    public synchronized int getActiveTaskCount() {
+        return activeTasks.size();
+    }
+
+    /**
+     * Advances the simulated clock which is used for offer filters and offer expiry.
+     */
+    public synchronized void advanceClock(long durationMs) {
+        nowMs += durationMs;
+    }
+
+    // Simulation controls, invoked by the driving loop
+
+    /**
+     * Sends any queued task status updates to the scheduler, returning the number which were sent. Updates which are
+     * queued as a side effect of delivery (e.g. a kill issued in response to a status) are left for the next call.
+     */
+    public int deliverStatusUpdates() {
+        List<Protos.TaskStatus> statuses;
+        synchronized (this) {
+            statuses = new ArrayList<>(pendingStatuses);
+            pendingStatuses.clear();
+        }
+        for (Protos.TaskStatus status : statuses) {
+            scheduler.statusUpdate(this, status);
+        }
+        synchronized (this) {
+            counters.statusUpdates += statuses.size();
+        }
+        return statuses.size();
+    }
+
+    /**
+     * Builds offers for up to {@code maxOffers} agents (or all agents if zero) which have available resources and
+     * aren't filtered or already offered. Returns an empty list while the scheduler has suppressed offers.
+     */
+    public synchronized List<Protos.Offer> createOffers(int maxOffers) {
+        List<Protos.Offer> offers = new ArrayList<>();
+        if (suppressed) {
+            return offers;
+        }
+        // Rotate through agents so that a limited batch size doesn't always favor the same agents
+        int agentCount = agents.size();
+        for (int i = 0; i < agentCount; ++i) {
+            if (maxOffers > 0 && offers.size() >= maxOffers) {
+                break;
+            }
+            offerCursor = (offerCursor + 1) % agentCount;
+            SimulatedAgent agent = agents.get(offerCursor);
+            if (!agent.isOfferable(nowMs)) {
+                continue;
+            }
+            Protos.OfferID offerId = Protos.OfferID.newBuilder()
+                    .setValue(String.format("simulated-offer-%d", ++offerCounter))
+                    .build();
+            offers.add(agent.offer(offerId, frameworkId));
+            outstandingOffers.put(offerId, agent);
+            offerTimesMs.put(offerId, nowMs);
+        }
+        counters.offersSent += offers.size();
+        return offers;
+    }
+
+    /**
+     * Marks up to {@code count} of the provided offers as rescinded in flight. Any operations which the scheduler
+     * performs against them are dropped by the master, as would happen when an accept call races a rescind, and the
+     * offers are then reported as rescinded via {@link #notifyRescinded()}.
+     */
+    public synchronized void invalidateOffers(List<Protos.Offer> offers, int count) {
+        for (int i = 0; i < count && !offers.isEmpty(); ++i) {
+            invalidatedOffers.add(offers.get(random.nextInt(offers.size())).getId());
+        }
+    }
+
+    /**
+     * Notifies the scheduler about any offers which were invalidated via {@link #invalidateOffers(List, int)}.
+     */
+    public void notifyRescinded() {
+        List<Protos.OfferID> rescinded;
+        synchronized (this) {
+            rescinded = new ArrayList<>(invalidatedOffers);
+            invalidatedOffers.clear();
+            for (Protos.OfferID offerId : rescinded) {
+                releaseOffer(offerId);
+            }
+            counters.offersRescinded += rescinded.size();
+        }
+        for (Protos.OfferID offerId : rescinded) {
+            scheduler.offerRescinded(this, offerId);
+        }
+    }
+
+    /**
+     * Rescinds any offers which have been outstanding for longer than the provided duration, as the master would do
+     * with its {@code --offer_timeout} setting.
+     */
+    public void expireOffers(long timeoutMs) {
+        List<Protos.OfferID> expired = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<Protos.OfferID, Long> entry : offerTimesMs.entrySet()) {
+                if (nowMs - entry.getValue() > timeoutMs) {
+                    expired.add(entry.getKey());
+                }
+            }
+            for (Protos.OfferID offerId : expired) {
+                releaseOffer(offerId);
+            }
+            counters.offersExpired += expired.size();
+        }
+        for (Protos.OfferID offerId : expired) {
+            scheduler.offerRescinded(this, offerId);
+        }
+    }
+
+    /**
+     * Queues {@code count} redundant status updates against randomly selected active tasks, repeating each task's
+     * last reported state. This models periodic health updates.
+     */
+    public synchronized void queueRepeatedStatusUpdates(int count) {
+        for (int i = 0; i < count && !activeTaskIds.isEmpty(); ++i) {
+            SimulatedTask task = activeTasks.get(activeTaskIds.get(random.nextInt(activeTaskIds.size())));
+            if (task.lastStatus != null) {
+                pendingStatuses.add(task.lastStatus.toBuilder().setTimestamp(nowMs / 1000.0).build());
+            }
+        }
+    }
+
+    /**
+     * Fails {@code count} randomly selected active tasks with {@code TASK_FAILED}.
+     */
+    public synchronized void failRandomTasks(int count) {
+        for (int i = 0; i < count && !activeTaskIds.isEmpty(); ++i) {
+            Protos.TaskID taskId = activeTaskIds.get(random.nextInt(activeTaskIds.size()));
+            terminate(taskId, Protos.TaskState.TASK_FAILED, Protos.TaskStatus.Reason.REASON_COMMAND_EXECUTOR_FAILED);
+            counters.tasksFailed++;
+        }
+    }
+
+    /**
+     * Removes {@code count} randomly selected agents from the cluster. Tasks on those agents are reported as
+     * {@code TASK_LOST}. If {@code replace} is set, a new empty agent is added in place of each lost agent.
+     */
+    public void loseRandomAgents(int count, boolean replace) {
+        List<Protos.SlaveID> lostAgentIds = new ArrayList<>();
+        List<Protos.OfferID> rescinded = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < count && !agents.isEmpty(); ++i) {
+                SimulatedAgent agent = agents.remove(random.nextInt(agents.size()));
+                lostAgentIds.add(agent.getAgentId());
+                if (agent.getOutstandingOffer().isPresent()) {
+                    rescinded.add(agent.getOutstandingOffer().get());
+                    releaseOffer(agent.getOutstandingOffer().get());
+                }
+                for (SimulatedTask task : new ArrayList<>(activeTasks.values())) {
+                    if (task.agent == agent) {
+                        terminate(
+                                task.taskInfo.getTaskId(),
+                                Protos.TaskState.TASK_LOST,
+                                Protos.TaskStatus.Reason.REASON_AGENT_REMOVED);
+                    }
+                }
+                if (replace) {
+                    addAgent();
+                }
+            }
+            counters.agentsLost += lostAgentIds.size();
+            counters.offersRescinded += rescinded.size();
+        }
+        for (Protos.OfferID offerId : rescinded) {
+            scheduler.offerRescinded(this, offerId);
+        }
+        for (Protos.SlaveID agentId : lostAgentIds) {
+            scheduler.slaveLost(this, agentId);
+        }
+    }
+
+    // SchedulerDriver implementation, invoked by the scheduler
+
+    @Override
+    public synchronized Protos.Status acceptOffers(
+            Collection<Protos.OfferID> offerIds,
+            Collection<Protos.Offer.Operation> operations,
+            Protos.Filters filters) {
+        SimulatedAgent agent = null;
+        boolean invalid = false;
+        for (Protos.OfferID offerId : offerIds) {
+            SimulatedAgent offerAgent = outstandingOffers.get(offerId);
+            if (offerAgent == null || invalidatedOffers.contains(offerId)) {
+                invalid = true;
+            } else {
+                agent = offerAgent;
+            }
+        }
+        if (invalid || agent == null) {
+            // Mesos drops the whole call if any offer is invalid, and reports any launched tasks as lost.
+            LOGGER.info("Dropping {} operations against invalid offers {}", operations.size(), offerIds);
+            for (Protos.Offer.Operation operation : operations) {
+                for (Protos.TaskInfo taskInfo : getLaunchedTasks(operation)) {
+                    pendingStatuses.add(buildStatus(
+                            taskInfo, Optional.empty(), Protos.TaskState.TASK_LOST,
+                            Optional.of(Protos.TaskStatus.Reason.REASON_INVALID_OFFERS)));
+                }
+            }
+            offerIds.forEach(this::releaseOffer);
+            return Protos.Status.DRIVER_RUNNING;
+        }
+
+        for (Protos.OfferID offerId : offerIds) {
+            releaseOffer(offerId);
+        }
+        counters.offersAccepted += offerIds.size();
+        agent.setFilter(nowMs + (long) (filters.getRefuseSeconds() * 1000));
+
+        for (Protos.Offer.Operation operation : operations) {
+            counters.operations++;
+            switch (operation.getType()) {
+            case RESERVE:
+                agent.reserve(operation.getReserve().getResourcesList());
+                break;
+            case UNRESERVE:
+                agent.unreserve(operation.getUnreserve().getResourcesList());
+                break;
+            case CREATE:
+                agent.createVolumes(operation.getCreate().getVolumesList());
+                break;
+            case DESTROY:
+                agent.destroyVolumes(operation.getDestroy().getVolumesList());
+                break;
+            case LAUNCH:
+                for (Protos.TaskInfo taskInfo : operation.getLaunch().getTaskInfosList()) {
+                    launch(agent, taskInfo, taskInfo.hasExecutor()
+                            ? Optional.of(taskInfo.getExecutor())
+                            : Optional.empty());
+                }
+                break;
+            case LAUNCH_GROUP:
+                for (Protos.TaskInfo taskInfo : operation.getLaunchGroup().getTaskGroup().getTasksList()) {
+                    launch(agent, taskInfo, Optional.of(operation.getLaunchGroup().getExecutor()));
+                }
+                break;
+            default:
+                LOGGER.warn("Ignoring unsupported operation type: {}", operation.getType());
+                break;
+            }
+        }
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    @Override
+    public synchronized Protos.Status declineOffer(Protos.OfferID offerId, Protos.Filters filters) {
+        SimulatedAgent agent = outstandingOffers.get(offerId);
+        if (agent != null) {
+            agent.setFilter(nowMs + (long) (filters.getRefuseSeconds() * 1000));
+            releaseOffer(offerId);
+            counters.offersDeclined++;
+        }
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    @Override
+    public Protos.Status declineOffer(Protos.OfferID offerId) {
+        // Mesos default refuse_seconds
+        return declineOffer(offerId, Protos.Filters.newBuilder().setRefuseSeconds(5).build());
+    }
+
+    @Override
+    public synchronized Protos.Status killTask(Protos.TaskID taskId) {
+        if (activeTasks.containsKey(taskId)) {
+            terminate(taskId, Protos.TaskState.TASK_KILLED, null);
+            counters.tasksKilled++;
+        }
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    @Override
+    public synchronized Protos.Status reviveOffers() {
+        suppressed = false;
+        for (SimulatedAgent agent : agents) {
+            agent.setFilter(0);
+        }
+        counters.revives++;
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    @Override
+    public Protos.Status reviveOffers(Collection<String> roles) {
+        return reviveOffers();
+    }
+
+    @Override
+    public synchronized Protos.Status suppressOffers() {
+        suppressed = true;
+        counters.suppresses++;
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    @Override
+    public Protos.Status suppressOffers(Collection<String> roles) {
+        return suppressOffers();
+    }
+
+    @Override
+    public synchronized Protos.Status reconcileTasks(Collection<Protos.TaskStatus> statuses) {
+        counters.reconciles++;
+        if (statuses.isEmpty()) {
+            // Implicit reconciliation: report everything which is active
+            for (SimulatedTask task : activeTasks.values()) {
+                if (task.lastStatus != null) {
+                    pendingStatuses.add(task.lastStatus);
+                }
+            }
+            return Protos.Status.DRIVER_RUNNING;
+        }
+        for (Protos.TaskStatus status : statuses) {
+            SimulatedTask task = activeTasks.get(status.getTaskId());
+            if (task != null && task.lastStatus != null) {
+                pendingStatuses.add(task.lastStatus);
+            } else if (task == null) {
+                pendingStatuses.add(Protos.TaskStatus.newBuilder()
+                        .setTaskId(status.getTaskId())
+                        .setState(Protos.TaskState.TASK_LOST)
+                        .setReason(Protos.TaskStatus.Reason.REASON_RECONCILIATION)
+                        .setSource(Protos.TaskStatus.Source.SOURCE_MASTER)
+                        .setTimestamp(nowMs / 1000.0)
+                        .build());
+            }
+        }
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    @Override
+    public Protos.Status acknowledgeStatusUpdate(Protos.TaskStatus status) {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    @Override
+    public Protos.Status launchTasks(
+            Collection<Protos.OfferID> offerIds, Collection<Protos.TaskInfo> tasks, Protos.Filters filters) {
+        return acceptOffers(offerIds, toLaunchOperations(tasks), filters);
+    }
+
+    @Override
+    public Protos.Status launchTasks(Collection<Protos.OfferID> offerIds, Collection<Protos.TaskInfo> tasks) {
+        return launchTasks(offerIds, tasks, Protos.Filters.getDefaultInstance());
+    }
+
+    @Override
+    public Protos.Status launchTasks(
+            Protos.OfferID offerId, Collection<Protos.TaskInfo> tasks, Protos.Filters filters) {
+        return launchTasks(Collections.singletonList(offerId), tasks, filters);
+    }
+
+    @Override
+    public Protos.Status launchTasks(Protos.OfferID offerId, Collection<Protos.TaskInfo> tasks) {
+        return launchTasks(Collections.singletonList(offerId), tasks);
+    }
+
+    @Override
+    public Protos.Status start() {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    @Override
+    public Protos.Status stop(boolean failover) {
+        return Protos.Status.DRIVER_STOPPED;
+    }
+
+    @Override
+    public Protos.Status stop() {
+        return Protos.Status.DRIVER_STOPPED;
+    }
+
+    @Override
+    public Protos.Status abort() {
+        return Protos.Status.DRIVER_ABORTED;
+    }
+
+    @Override
+    public Protos.Status join() {
+        return Protos.Status.DRIVER_STOPPED;
+    }
+
+    @Override
+    public Protos.Status run() {
+        return Protos.Status.DRIVER_STOPPED;
+    }
+
+    @Override
+    public Protos.Status requestResources(Collection<Protos.Request> requests) {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    @Override
+    public Protos.Status sendFrameworkMessage(Protos.ExecutorID executorId, Protos.SlaveID agentId, byte[] data) {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+
+    // Internal bookkeeping
+
+    private void addAgent() {
+        SimulatedAgent agent = new SimulatedAgent(
+                String.format("simulated-agent-%d", agentCounter++),
+                agentCpus, agentMemMb, agentDiskMb, agentPortsBegin, agentPortsEnd);
+        agents.add(agent);
+    }
+
+    private void releaseOffer(Protos.OfferID offerId) {
+        SimulatedAgent agent = outstandingOffers.remove(offerId);
+        offerTimesMs.remove(offerId);
+        if (agent != null) {
+            agent.clearOutstandingOffer();
+        }
+    }
+
+    private void launch(SimulatedAgent agent, Protos.TaskInfo taskInfo, Optional<Protos.ExecutorInfo> executorInfo) {
+        List<Protos.Resource> resources = new ArrayList<>(taskInfo.getResourcesList());
+        if (executorInfo.isPresent()) {
+            resources.addAll(executorInfo.get().getResourcesList());
+        }
+        if (activeTasks.containsKey(taskInfo.getTaskId())) {
+            LOGGER.warn("Ignoring duplicate launch of task {}", taskInfo.getTaskId().getValue());
+            return;
+        }
+        agent.launch(taskInfo.getTaskId(), resources);
+        SimulatedTask task = new SimulatedTask(
+                taskInfo, agent, executorInfo.map(Protos.ExecutorInfo::getExecutorId));
+        activeTasks.put(taskInfo.getTaskId(), task);
+        activeTaskIndexes.put(taskInfo.getTaskId(), activeTaskIds.size());
+        activeTaskIds.add(taskInfo.getTaskId());
+        counters.tasksLaunched++;
+
+        if (isRunOnce(taskInfo)) {
+            terminate(taskInfo.getTaskId(), Protos.TaskState.TASK_FINISHED, null);
+        } else {
+            task.lastStatus = buildStatus(
+                    taskInfo, task.executorId, Protos.TaskState.TASK_RUNNING, Optional.empty());
+            pendingStatuses.add(task.lastStatus);
+        }
+    }
+
+    /**
+     * Removes the task from the active set, releases its resources, and queues a terminal status update.
+     */
+    private void terminate(Protos.TaskID taskId, Protos.TaskState state, Protos.TaskStatus.Reason reason) {
+        SimulatedTask task = activeTasks.remove(taskId);
+        if (task == null) {
+            return;
+        }
+        // Swap-remove from the index list:
+        int index = activeTaskIndexes.remove(taskId);
+        Protos.TaskID lastId = activeTaskIds.remove(activeTaskIds.size() - 1);
+        if (!lastId.equals(taskId)) {
+            activeTaskIds.set(index, lastId);
+            activeTaskIndexes.put(lastId, index);
+        }
+        task.agent.release(taskId);
+        pendingStatuses.add(buildStatus(task.taskInfo, task.executorId, state, Optional.ofNullable(reason)));
+    }
+
+    private Protos.TaskStatus buildStatus(
+            Protos.TaskInfo taskInfo,
+            Optional<Protos.ExecutorID> executorId,
+            Protos.TaskState state,
+            Optional<Protos.TaskStatus.Reason> reason) {
+        Protos.TaskStatus.Builder statusBuilder = Protos.TaskStatus.newBuilder()
+                .setTaskId(taskInfo.getTaskId())
+                .setSlaveId(taskInfo.getSlaveId())
+                .setState(state)
+                .setSource(reason.isPresent()
+                        ? Protos.TaskStatus.Source.SOURCE_MASTER
+                        : Protos.TaskStatus.Source.SOURCE_EXECUTOR)
+                .setTimestamp(nowMs / 1000.0);
+        if (executorId.isPresent()) {
+            statusBuilder.setExecutorId(executorId.get());
+        }
+        if (reason.isPresent()) {
+            statusBuilder.setReason(reason.get());
+        }
+        if (state == Protos.TaskState.TASK_RUNNING) {
+            // Readiness checks always pass immediately. The scheduler only looks at command check exit codes.
+            if (taskInfo.hasCheck()) {
+                statusBuilder.setCheckStatus(Protos.CheckStatusInfo.newBuilder()
+                        .setType(Protos.CheckInfo.Type.COMMAND)
+                        .setCommand(Protos.CheckStatusInfo.Command.newBuilder().setExitCode(0)));
+            }
+            if (hasLabel(taskInfo, READINESS_CHECK_LABEL)) {
+                statusBuilder.getLabelsBuilder().addLabelsBuilder()
+                        .setKey(READINESS_CHECK_PASSED_LABEL)
+                        .setValue("true");
+            }
+        }
+        return statusBuilder.build();
+    }
+
+    private static boolean isRunOnce(Protos.TaskInfo taskInfo) {
+        for (Protos.Label label : taskInfo.getLabels().getLabelsList()) {
+            if (label.getKey().equals(GOAL_STATE_LABEL)) {
+                return label.getValue().equals("FINISHED");
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasLabel(Protos.TaskInfo taskInfo, String key) {
+        return taskInfo.getLabels().getLabelsList().stream().anyMatch(label -> label.getKey().equals(key));
+    }
+
+    private static List<Protos.TaskInfo> getLaunchedTasks(Protos.Offer.Operation operation) {
+        switch (operation.getType()) {
+        case LAUNCH:
+            return operation.getLaunch().getTaskInfosList();
+        case LAUNCH_GROUP:
+            return operation.getLaunchGroup().getTaskGroup().getTasksList();
+        default:
+            return new ArrayList<>();
+        }
+    }
+
+    private static List<Protos.Offer.Operation> toLaunchOperations(Collection<Protos.TaskInfo> tasks) {
+        List<Protos.Offer.Operation> operations = new ArrayList<>();
+        operations.add(Protos.Offer.Operation.newBuilder()
+                .setType(Protos.Offer.Operation.Type.LAUNCH)
+                .setLaunch(Protos.Offer.Operation.Launch.newBuilder().addAllTaskInfos(tasks))
+                .build());
+        return operations;
+    }
+}